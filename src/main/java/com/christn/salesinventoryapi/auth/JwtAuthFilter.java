@@ -1,5 +1,7 @@
 package com.christn.salesinventoryapi.auth;
 
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics.Phase;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +23,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final AppUserDetailService userDetailService;
+    private final HotPathMetrics metrics;
 
     @Override
     protected void doFilterInternal(
@@ -37,11 +40,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
+        HotPathMetrics.Stopwatch stopwatch = metrics.start(HotPathMetrics.Flow.JWT);
 
         if (!jwtService.isValid(token)) {
+            metrics.invalidToken();
             filterChain.doFilter(request, response);
             return;
         }
+        stopwatch.lap(Phase.VALIDATE);
 
         if (SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
@@ -51,6 +57,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         Long userId = jwtService.extractUserId(token);
 
         UserDetails userDetails = userDetailService.loadUserById(userId);
+        stopwatch.lap(Phase.LOAD_USER);
 
         var authentication = new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.bulkhead;
+
+import java.lang.annotation.*;
+
+/**
+ * Compartimento (app.bulkheads.pools.&lt;nombre&gt;) en el que corre el método o todos los del tipo:
+ * limita las llamadas concurrentes y, si el compartimento tiene pool propio, sus conexiones JDBC.
+ * La anotación del método gana a la del tipo; dentro de un compartimento las anidadas no aplican.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    String value();
+}
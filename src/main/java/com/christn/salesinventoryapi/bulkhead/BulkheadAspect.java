@@ -0,0 +1,41 @@
+package com.christn.salesinventoryapi.bulkhead;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+// Por fuera de @Transactional: la conexión se pide con el compartimento ya fijado
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.bulkheads.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadAspect {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Around("@within(com.christn.salesinventoryapi.bulkhead.Bulkhead) "
+            + "|| @annotation(com.christn.salesinventoryapi.bulkhead.Bulkhead)")
+    public Object around(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(method, Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(AopUtils.getTargetClass(pjp.getTarget()), Bulkhead.class);
+        }
+        if (bulkhead == null) return pjp.proceed();
+
+        try (BulkheadRegistry.Permit ignored = bulkheadRegistry.enter(bulkhead.value())) {
+            return pjp.proceed();
+        }
+    }
+}
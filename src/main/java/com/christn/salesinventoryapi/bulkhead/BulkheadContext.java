@@ -0,0 +1,19 @@
+package com.christn.salesinventoryapi.bulkhead;
+
+// Compartimento del hilo actual; lo lee BulkheadRoutingDataSource al pedir conexión
+public final class BulkheadContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private BulkheadContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static void set(String name) {
+        if (name == null) CURRENT.remove();
+        else CURRENT.set(name);
+    }
+}
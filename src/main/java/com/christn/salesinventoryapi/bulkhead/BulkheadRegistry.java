@@ -0,0 +1,121 @@
+package com.christn.salesinventoryapi.bulkhead;
+
+import com.christn.salesinventoryapi.config.BulkheadProperties;
+import com.christn.salesinventoryapi.dto.response.BulkheadStatusResponse;
+import com.christn.salesinventoryapi.exception.BulkheadFullException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compartimentos configurados en app.bulkheads.pools: cada uno con su cupo de llamadas concurrentes y
+ * una espera máxima (queue-timeout-ms) antes de rechazar con {@link BulkheadFullException}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.bulkheads.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadRegistry {
+
+    private final Map<String, Compartment> compartments = new LinkedHashMap<>();
+    private final ObjectProvider<BulkheadRoutingDataSource> routingDataSource;
+
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        Permit NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    private static final class Compartment {
+        private final String name;
+        private final int maxConcurrent;
+        private final long queueTimeoutMs;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Compartment(String name, BulkheadProperties.Pool pool) {
+            this.name = name;
+            this.maxConcurrent = pool.maxConcurrent();
+            this.queueTimeoutMs = pool.queueTimeoutMs();
+            this.permits = new Semaphore(pool.maxConcurrent(), true);
+        }
+    }
+
+    public BulkheadRegistry(BulkheadProperties properties, ObjectProvider<BulkheadRoutingDataSource> routingDataSource) {
+        properties.pools().forEach((name, pool) -> compartments.put(name, new Compartment(name, pool)));
+        this.routingDataSource = routingDataSource;
+    }
+
+    // Entra al compartimento (esperando hasta queue-timeout-ms); dentro de otro compartimento no hace nada
+    public Permit enter(String name) {
+        if (BulkheadContext.current() != null) return Permit.NONE;
+        Compartment compartment = compartments.get(name);
+        if (compartment == null) {
+            throw new IllegalStateException("Bulkhead no configurado: " + name);
+        }
+
+        if (!compartment.permits.tryAcquire()) {
+            long started = System.nanoTime();
+            compartment.waiting.incrementAndGet();
+            boolean acquired;
+            try {
+                acquired = compartment.permits.tryAcquire(compartment.queueTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                compartment.waiting.decrementAndGet();
+            }
+            if (!acquired) {
+                compartment.rejected.increment();
+                long waitedMs = (System.nanoTime() - started) / 1_000_000;
+                log.warn("Bulkhead {} full: rejected after {} ms ({} active)", name, waitedMs,
+                        compartment.maxConcurrent - compartment.permits.availablePermits());
+                throw new BulkheadFullException(name, waitedMs);
+            }
+        }
+
+        compartment.accepted.increment();
+        BulkheadContext.set(name);
+        return () -> {
+            BulkheadContext.set(null);
+            compartment.permits.release();
+        };
+    }
+
+    public List<BulkheadStatusResponse> status() {
+        BulkheadRoutingDataSource routing = routingDataSource.getIfAvailable();
+        Map<String, HikariDataSource> pools = routing != null ? routing.pools() : Map.of();
+        return compartments.values().stream().map(c -> {
+            HikariDataSource pool = pools.get(c.name);
+            HikariPoolMXBean mx = pool != null ? pool.getHikariPoolMXBean() : null;
+            return new BulkheadStatusResponse(
+                    c.name,
+                    c.maxConcurrent,
+                    c.maxConcurrent - c.permits.availablePermits(),
+                    c.waiting.get(),
+                    c.accepted.sum(),
+                    c.rejected.sum(),
+                    pool != null ? pool.getMaximumPoolSize() : null,
+                    mx != null ? mx.getActiveConnections() : null,
+                    mx != null ? mx.getIdleConnections() : null,
+                    mx != null ? mx.getThreadsAwaitingConnection() : null
+            );
+        }).toList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.christn.salesinventoryapi.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entrega la conexión del pool del compartimento actual ({@link BulkheadContext}); sin compartimento, o si el
+ * compartimento no tiene pool propio, la del pool principal. Un back-office saturado agota su pool, no el del POS.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final DataSource shared;
+    private final Map<String, HikariDataSource> pools;
+
+    public BulkheadRoutingDataSource(DataSource shared, Map<String, HikariDataSource> pools) {
+        this.shared = shared;
+        this.pools = new LinkedHashMap<>(pools);
+        setDefaultTargetDataSource(shared);
+        setTargetDataSources(new HashMap<>(pools));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadContext.current();
+    }
+
+    public Map<String, HikariDataSource> pools() {
+        return pools;
+    }
+
+    public DataSource shared() {
+        return shared;
+    }
+
+    // reemplaza al bean original, así que también cierra el pool principal
+    @Override
+    public void close() throws Exception {
+        for (HikariDataSource pool : pools.values()) pool.close();
+        if (shared instanceof AutoCloseable closeable) closeable.close();
+    }
+}
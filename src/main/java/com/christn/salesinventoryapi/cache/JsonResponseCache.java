@@ -0,0 +1,182 @@
+package com.christn.salesinventoryapi.cache;
+
+import com.christn.salesinventoryapi.config.PrimaryReads;
+import com.christn.salesinventoryapi.event.CatalogChangedEvent;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas JSON ya serializadas (bytes UTF-8) de los endpoints de catálogo más leídos, con ETag débil: Tomcat
+ * no comprime respuestas con ETag fuerte, y el mismo validador cubre la versión gzip y la sin comprimir.
+ * Una lectura repetida no toca la base ni Jackson, y un If-None-Match que coincide responde 304 (Spring MVC lo
+ * resuelve con el ETag del ResponseEntity). Los clientes POS que piden application/cbor reciben su propia copia
+ * en CBOR, con otro ETag.
+ * <p>
+ * Se invalida AFTER_COMMIT con los cambios de catálogo y de stock, y las cargas leen del primario
+ * ({@link PrimaryReads}): una réplica atrasada no puede volver a guardar el stock de antes del commit.
+ * La invalidación es local a la instancia: las respuestas con stock (producto y productos por categoría) vencen
+ * a los pocos segundos (stock-ttl), así el stock que cambió en otra instancia se ve con ese retraso como máximo;
+ * las categorías usan el TTL general, que cubre escrituras fuera de la aplicación.
+ */
+@Component
+public class JsonResponseCache {
+
+    private static final String PRODUCT = "product:";
+    private static final String CATEGORY_PRODUCTS = "category-products:";
+    private static final String CATEGORIES = "categories";
+
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+    private final Cache<Key, Entry> entries;
+    // Sube con cada invalidación: una carga que leyó antes del commit no deja guardado un valor viejo
+    private final AtomicLong generation = new AtomicLong();
+
+    enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
+
+    record Key(String name, Format format) {
+
+        private boolean carriesStock() {
+            return !name.equals(CATEGORIES);
+        }
+    }
+
+    record Entry(byte[] body, String etag) {
+    }
+
+    @Autowired
+    public JsonResponseCache(JsonMapper jsonMapper, CBORMapper cborMapper, MeterRegistry meterRegistry,
+            @Value("${app.response-cache.max-entries:10000}") long maxEntries,
+            @Value("${app.response-cache.ttl:PT10M}") Duration ttl,
+            @Value("${app.response-cache.stock-ttl:PT5S}") Duration stockTtl) {
+        this(jsonMapper, cborMapper, meterRegistry, maxEntries, ttl, stockTtl, Ticker.systemTicker());
+    }
+
+    JsonResponseCache(JsonMapper jsonMapper, CBORMapper cborMapper, MeterRegistry meterRegistry, long maxEntries,
+            Duration ttl, Duration stockTtl, Ticker ticker) {
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.<Key, Entry>creating((key, entry) -> key.carriesStock() ? stockTtl : ttl))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "json-responses");
+    }
+
+    public ResponseEntity<byte[]> product(Long id, String accept, Supplier<?> loader) {
+        return respond(new Key(PRODUCT + id, negotiate(accept)), loader);
+    }
+
+    public ResponseEntity<byte[]> productsByCategory(Long categoryId, String accept, Supplier<?> loader) {
+        return respond(new Key(CATEGORY_PRODUCTS + categoryId, negotiate(accept)), loader);
+    }
+
+    public ResponseEntity<byte[]> categories(String accept, Supplier<?> loader) {
+        return respond(new Key(CATEGORIES, negotiate(accept)), loader);
+    }
+
+    // CBOR solo si el cliente lo pide con calidad no menor que la de JSON; un Accept que no admite ninguno de los
+    // dos sigue en JSON y Spring MVC responde 406
+    static Format negotiate(String accept) {
+        if (accept == null || accept.isBlank()) return Format.JSON;
+        double json = 0;
+        double cbor = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.includes(MediaType.APPLICATION_JSON)) json = Math.max(json, type.getQualityValue());
+                if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) cbor = Math.max(cbor, type.getQualityValue());
+            }
+        } catch (InvalidMediaTypeException e) {
+            return Format.JSON;
+        }
+        return cbor > 0 && cbor >= json ? Format.CBOR : Format.JSON;
+    }
+
+    private ResponseEntity<byte[]> respond(Key key, Supplier<?> loader) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null) {
+            long loadedAt = generation.get();
+            entry = serialize(PrimaryReads.call(loader), key.format());
+            entries.put(key, entry);
+            // una invalidación entre la lectura y el put ya no vería esta entrada
+            if (generation.get() != loadedAt) entries.invalidate(key);
+        }
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(key.format().mediaType)
+                .body(entry.body());
+    }
+
+    private Entry serialize(Object value, Format format) {
+        byte[] body = switch (format) {
+            case JSON -> jsonMapper.writeValueAsBytes(value);
+            case CBOR -> cborMapper.writeValueAsBytes(value);
+        };
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new Entry(body, "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.categoriesChanged()) invalidateAll();
+        else evictProducts(event.productIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        evictProducts(event.productIds());
+    }
+
+    // Las listas por categoría son pocas: se descartan todas en vez de seguir la categoría de cada producto
+    private void evictProducts(Collection<Long> productIds) {
+        generation.incrementAndGet();
+        for (Long id : productIds) {
+            for (Format format : Format.values()) entries.invalidate(new Key(PRODUCT + id, format));
+        }
+        entries.asMap().keySet().removeIf(key -> key.name().startsWith(CATEGORY_PRODUCTS));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+    }
+}
@@ -0,0 +1,216 @@
+package com.christn.salesinventoryapi.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tomcat solo aplica server.compression.min-response-size si conoce el Content-Length al confirmar la respuesta,
+ * y Spring MVC hace flush al terminar de escribir el JSON: sin este filtro toda respuesta comprimible salía en gzip,
+ * por pequeña que fuera. Se retienen los primeros min-response-size bytes de las respuestas comprimibles; si la
+ * respuesta termina antes, sale con Content-Length (y sin comprimir), si no, se vacía y sigue en streaming.
+ * Solo actúa si el cliente acepta gzip y el tipo de contenido está en server.compression.mime-types.
+ */
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    private final List<MediaType> mimeTypes;
+    private final int minResponseSize;
+
+    public CompressionThresholdFilter(List<String> mimeTypes, int minResponseSize) {
+        this.mimeTypes = mimeTypes.stream().map(MediaType::parseMediaType).toList();
+        this.minResponseSize = minResponseSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept == null || !accept.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ThresholdResponse wrapper = new ThresholdResponse(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            // En peticiones asíncronas (SSE, StreamingResponseBody) el cuerpo se sigue escribiendo después
+            if (request.isAsyncStarted()) wrapper.stream.release();
+            else wrapper.finish();
+        }
+    }
+
+    private boolean compressible(String contentType) {
+        if (contentType == null) return false;
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(m -> m.includes(type));
+    }
+
+    private final class ThresholdResponse extends HttpServletResponseWrapper {
+
+        private final ThresholdOutputStream stream = new ThresholdOutputStream(this);
+        private PrintWriter writer;
+
+        private ThresholdResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) writer = new PrintWriter(new OutputStreamWriter(stream,
+                    Charset.forName(getCharacterEncoding())), false);
+            return writer;
+        }
+
+        // Con Content-Length conocido Tomcat ya aplica el umbral por su cuenta
+        @Override
+        public void setContentLength(int len) {
+            super.setContentLength(len);
+            stream.passThrough = true;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            super.setContentLengthLong(len);
+            stream.passThrough = true;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) writer.flush();
+            if (stream.buffering()) return;
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            stream.buffer.reset();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            stream.buffer.reset();
+            stream.passThrough = false;
+            stream.decided = false;
+            super.reset();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) writer.flush();
+            if (!stream.buffering() || isCommitted()) {
+                stream.release();
+                return;
+            }
+            super.setContentLength(stream.buffer.size());
+            stream.release();
+        }
+    }
+
+    private final class ThresholdOutputStream extends ServletOutputStream {
+
+        private final ThresholdResponse response;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private boolean decided;
+        private boolean passThrough;
+
+        private ThresholdOutputStream(ThresholdResponse response) {
+            this.response = response;
+        }
+
+        private boolean buffering() {
+            return !passThrough && buffer.size() > 0;
+        }
+
+        private void decide() {
+            if (decided) return;
+            decided = true;
+            if (!compressible(response.getContentType())) passThrough = true;
+        }
+
+        private void release() throws IOException {
+            passThrough = true;
+            if (buffer.size() > 0) {
+                buffer.writeTo(response.getResponse().getOutputStream());
+                buffer.reset();
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte @NonNull [] b, int off, int len) throws IOException {
+            decide();
+            if (passThrough) {
+                response.getResponse().getOutputStream().write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() >= minResponseSize) release();
+        }
+
+        // Un flush por debajo del umbral se difiere: es lo que dejaba la respuesta sin Content-Length
+        @Override
+        public void flush() throws IOException {
+            if (passThrough) response.getResponse().getOutputStream().flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.finish();
+            response.getResponse().getOutputStream().close();
+        }
+
+        // Mientras retiene, escribir va al buffer y nunca bloquea
+        @Override
+        public boolean isReady() {
+            if (!passThrough) return true;
+            try {
+                return response.getResponse().getOutputStream().isReady();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // La escritura no bloqueante es del contenedor: se vacía lo retenido y se deja de retener
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                release();
+                response.getResponse().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
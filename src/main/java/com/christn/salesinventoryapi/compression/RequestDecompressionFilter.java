@@ -0,0 +1,299 @@
+package com.christn.salesinventoryapi.compression;
+
+import com.christn.salesinventoryapi.exception.ApiError;
+import com.christn.salesinventoryapi.exception.RequestBodyTooLargeException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Cuerpos de petición con Content-Encoding gzip o deflate (importaciones y lotes grandes desde tiendas con
+ * enlaces lentos): se descomprimen en streaming antes de llegar al controlador, sin cargar el cuerpo en memoria.
+ * Lo descomprimido se acota (app.compression.request.max-inflated-size → 413) para que un cuerpo pequeño no
+ * se expanda sin límite; un gzip corrupto o truncado responde 400 y otra codificación, 415.
+ */
+@Slf4j
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private static final Set<String> GZIP = Set.of("gzip", "x-gzip");
+    private static final String DEFLATE = "deflate";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxInflatedBytes;
+    private final Map<String, DistributionSummary> compressedBytes = new HashMap<>();
+    private final Map<String, DistributionSummary> inflatedBytes = new HashMap<>();
+
+    public RequestDecompressionFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry, boolean enabled,
+            DataSize maxInflatedSize) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxInflatedBytes = maxInflatedSize.toBytes();
+        for (String encoding : List.of("gzip", DEFLATE)) {
+            compressedBytes.put(encoding, DistributionSummary.builder("http.server.request.body.compressed")
+                    .description("Bytes recibidos de cuerpos comprimidos")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry));
+            inflatedBytes.put(encoding, DistributionSummary.builder("http.server.request.body.inflated")
+                    .description("Bytes de esos cuerpos una vez descomprimidos")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || request.getHeader(HttpHeaders.CONTENT_ENCODING) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING).trim().toLowerCase(Locale.ROOT);
+        if (encoding.isEmpty() || encoding.equals("identity")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!GZIP.contains(encoding) && !encoding.equals(DEFLATE)) {
+            rejectEncoding(request, response, encoding);
+            return;
+        }
+
+        String metric = encoding.equals(DEFLATE) ? DEFLATE : "gzip";
+        DecompressingRequest decompressing = new DecompressingRequest(request, metric);
+        try {
+            filterChain.doFilter(decompressing, response);
+        } finally {
+            if (decompressing.body != null && decompressing.body.compressed.count > 0) {
+                compressedBytes.get(metric).record(decompressing.body.compressed.count);
+                inflatedBytes.get(metric).record(decompressing.body.inflated);
+            }
+        }
+    }
+
+    private void rejectEncoding(HttpServletRequest request, HttpServletResponse response, String encoding)
+            throws IOException {
+        log.warn("Unsupported request Content-Encoding: {}", encoding);
+        HttpStatus status = HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+        response.setStatus(status.value());
+        // RFC 7694: indica qué codificaciones de petición se aceptan
+        response.setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiError(
+                "https://christn.com/errors/" + status.value(),
+                status.getReasonPhrase(),
+                status.value(),
+                "Content-Encoding no soportado: " + encoding + " (use gzip o deflate)",
+                request.getRequestURI(),
+                LocalDateTime.now()));
+    }
+
+    private final class DecompressingRequest extends HttpServletRequestWrapper {
+
+        private final String encoding;
+        private InflatingInputStream body;
+
+        private DecompressingRequest(HttpServletRequest request, String encoding) {
+            super(request);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) body = new InflatingInputStream(super.getInputStream(), encoding);
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String charset = Objects.requireNonNullElse(getCharacterEncoding(), "UTF-8");
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        // El largo y la codificación del cuerpo ya no son los que llegaron por la red
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isHiddenHeader(name)) return null;
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isHiddenHeader(name)) return Collections.emptyEnumeration();
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(this::isHiddenHeader);
+            return Collections.enumeration(names);
+        }
+
+        private boolean isHiddenHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private final class InflatingInputStream extends ServletInputStream {
+
+        private final ServletInputStream raw;
+        private final String encoding;
+        private final byte[] single = new byte[1];
+        private CountingInputStream compressed;
+        private InputStream inflater;
+        private long inflated;
+        private boolean finished;
+        // Modo no bloqueante: cuerpo comprimido recibido hasta ahora; null cuando ya llegó completo
+        private ByteArrayOutputStream pending;
+
+        private InflatingInputStream(ServletInputStream raw, String encoding) {
+            this.raw = raw;
+            this.compressed = new CountingInputStream(raw);
+            this.encoding = encoding;
+        }
+
+        // La cabecera gzip se lee en la primera lectura, no al pedir el stream
+        private InputStream inflater() throws IOException {
+            if (inflater == null) {
+                inflater = encoding.equals(DEFLATE)
+                        ? new InflaterInputStream(compressed)
+                        : new GZIPInputStream(compressed, 8192);
+            }
+            return inflater;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte @NonNull [] b, int off, int len) throws IOException {
+            if (pending != null) throw new IllegalStateException("Lectura antes de que isReady() sea true");
+            int n;
+            try {
+                n = inflater().read(b, off, len);
+            } catch (ZipException | EOFException e) {
+                throw new IllegalArgumentException("Cuerpo " + encoding + " inválido o truncado", e);
+            }
+            if (n == -1) {
+                finished = true;
+                return -1;
+            }
+            inflated += n;
+            if (inflated > maxInflatedBytes) throw new RequestBodyTooLargeException(maxInflatedBytes);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inflater != null) inflater.close();
+            else raw.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        // En modo bloqueante una lectura nunca falla por falta de datos: espera
+        @Override
+        public boolean isReady() {
+            return pending == null;
+        }
+
+        /**
+         * GZIPInputStream bloquea si le faltan bytes, así que no se infla con datos parciales: el cuerpo
+         * comprimido se junta a medida que llega (acotado como lo inflado) y se entrega inflado, desde memoria,
+         * cuando llegó completo.
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (inflater != null) throw new IllegalStateException("El cuerpo ya se empezó a leer en modo bloqueante");
+            pending = new ByteArrayOutputStream();
+            raw.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[8192];
+                    while (raw.isReady()) {
+                        int n = raw.read(chunk);
+                        if (n == -1) return;
+                        pending.write(chunk, 0, n);
+                        if (pending.size() > maxInflatedBytes) throw new RequestBodyTooLargeException(maxInflatedBytes);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    compressed = new CountingInputStream(new ByteArrayInputStream(pending.toByteArray()));
+                    pending = null;
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte @NonNull [] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.christn.salesinventoryapi.config;
+
+import com.christn.salesinventoryapi.bulkhead.BulkheadRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pools JDBC por compartimento: el pool principal (el "dataSource" de Boot o el "primaryDataSource" de las
+ * réplicas) se envuelve en un {@link BulkheadRoutingDataSource} con un pool Hikari propio por cada
+ * compartimento con connections &gt; 0, copiado de la configuración del principal.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.bulkheads.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadDataSourceConfig {
+
+    private static final Set<String> SHARED_POOL_BEANS = Set.of("dataSource", "primaryDataSource");
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<BulkheadProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource shared) || !SHARED_POOL_BEANS.contains(beanName)) return bean;
+                return partition(shared, properties.getObject());
+            }
+        };
+    }
+
+    private static Object partition(HikariDataSource shared, BulkheadProperties properties) {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        String prefix = shared.getPoolName() != null ? shared.getPoolName() : "pool";
+        properties.pools().forEach((name, pool) -> {
+            if (pool.connections() <= 0) return;
+            HikariConfig config = new HikariConfig();
+            shared.copyStateTo(config);
+            config.setPoolName(prefix + "-" + name);
+            config.setMaximumPoolSize(pool.connections());
+            config.setMinimumIdle(pool.connections());
+            // la espera por conexión cuenta dentro del mismo presupuesto que la cola del compartimento
+            config.setConnectionTimeout(Math.max(250, pool.queueTimeoutMs()));
+            config.setInitializationFailTimeout(-1);
+            pools.put(name, new HikariDataSource(config));
+        });
+        return pools.isEmpty() ? shared : new BulkheadRoutingDataSource(shared, pools);
+    }
+}
@@ -0,0 +1,24 @@
+package com.christn.salesinventoryapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+@ConfigurationProperties("app.bulkheads")
+public record BulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Map<String, Pool> pools
+) {
+    /**
+     * @param maxConcurrent  llamadas simultáneas en el compartimento
+     * @param queueTimeoutMs espera máxima por un lugar (y por una conexión de su pool) antes de rechazar con 503
+     * @param connections    tamaño del pool JDBC propio; 0 = usa el pool principal
+     */
+    public record Pool(
+            @DefaultValue("50") int maxConcurrent,
+            @DefaultValue("1000") long queueTimeoutMs,
+            @DefaultValue("0") int connections
+    ) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.christn.salesinventoryapi.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+// application/cbor para clientes POS: mismos DTOs, validaciones y errores que JSON, con el CBORMapper de Boot
+// (spring.jackson.*). Ocupa el lugar de CBOR en los convertidores por defecto, detrás de JSON: sin Accept explícito
+// se sigue respondiendo JSON
+@Configuration
+public class CborConfig {
+
+    @Bean
+    public ServerHttpMessageConvertersCustomizer cborHttpMessageConverter(CBORMapper cborMapper) {
+        return builder -> builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+    }
+}
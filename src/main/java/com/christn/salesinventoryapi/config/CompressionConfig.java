@@ -0,0 +1,44 @@
+package com.christn.salesinventoryapi.config;
+
+import com.christn.salesinventoryapi.compression.CompressionThresholdFilter;
+import com.christn.salesinventoryapi.compression.RequestDecompressionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+// Las respuestas las comprime Tomcat (server.compression); aquí el umbral de tamaño y los cuerpos de petición comprimidos
+@Configuration
+public class CompressionConfig {
+
+    // Antes de cualquier filtro que pueda leer el cuerpo
+    @Bean
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(
+            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.compression.request.enabled:true}") boolean enabled,
+            @Value("${app.compression.request.max-inflated-size:50MB}") DataSize maxInflatedSize) {
+        FilterRegistrationBean<RequestDecompressionFilter> registration = new FilterRegistrationBean<>(
+                new RequestDecompressionFilter(objectMapper, meterRegistry, enabled, maxInflatedSize));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // Lo más afuera posible, para que ningún filtro posterior confirme la respuesta antes de medirla
+    @Bean
+    @ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+    public FilterRegistrationBean<CompressionThresholdFilter> compressionThresholdFilter(
+            @Value("${server.compression.mime-types}") List<String> mimeTypes,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize) {
+        FilterRegistrationBean<CompressionThresholdFilter> registration = new FilterRegistrationBean<>(
+                new CompressionThresholdFilter(mimeTypes, (int) minResponseSize.toBytes()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
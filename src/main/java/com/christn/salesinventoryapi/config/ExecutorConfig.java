@@ -0,0 +1,52 @@
+package com.christn.salesinventoryapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Pool acotado para publicar compras en paralelo (cada tarea usa 1 conexión del pool JDBC)
+    @Bean(name = "purchasePostingExecutor")
+    public ThreadPoolTaskExecutor purchasePostingExecutor(
+            @Value("${app.purchases.post-batch.parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("purchase-post-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // Exportaciones: pocos hilos y cola acotada; sus consultas corren en el compartimento "export"
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor(
+            @Value("${app.export.workers:2}") int workers,
+            @Value("${app.export.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-");
+        return executor;
+    }
+
+    // Fork-join propio para las sugerencias de reposición: las hojas bloquean en JDBC,
+    // así que no se usa el commonPool y el paralelismo se acota a las conexiones que puede tomar
+    @Bean(name = "reorderPool", destroyMethod = "shutdown")
+    public ForkJoinPool reorderPool(@Value("${app.reorder.parallelism:4}") int parallelism) {
+        return new ForkJoinPool(parallelism);
+    }
+
+    // Envíos del stream de stock: un hilo virtual por envío en curso; las conexiones ociosas no ocupan hilo
+    @Bean(name = "stockStreamExecutor", destroyMethod = "close")
+    public ExecutorService stockStreamExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stock-stream-", 0).factory());
+    }
+}
@@ -0,0 +1,26 @@
+package com.christn.salesinventoryapi.config;
+
+import java.util.function.Supplier;
+
+// Lecturas del hilo actual fijadas al primario aunque la transacción sea readOnly; lo lee ReplicaRoutingDataSource
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    static boolean active() {
+        return ACTIVE.get() != null;
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        if (active()) return work.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.christn.salesinventoryapi.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrutado a réplicas de lectura. El DataSource de la app es un LazyConnectionDataSourceProxy: la conexión
+ * real se pide en la primera sentencia, cuando ya se sabe si la transacción es readOnly
+ * (@Transactional(readOnly = true) → setReadOnly(true) → réplicas; el resto → primario).
+ * Desactivado, la autoconfiguración de Boot crea el DataSource de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.read-routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadRoutingProperties.class)
+public class ReadReplicaDataSourceConfig {
+
+    // Mismo pool que crearía Boot: spring.datasource.* y spring.datasource.hikari.*
+    // (con bulkheads activos se inyecta ya envuelto, de ahí los @Qualifier con tipo DataSource)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.readYourWritesMs());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            ReadRoutingProperties properties, ReadYourWritesTracker readYourWritesTracker) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReadRoutingProperties.Replica> configured = properties.replicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReadRoutingProperties.Replica replica = configured.get(i);
+            String name = "replica-" + (i + 1);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName(name);
+            config.setJdbcUrl(replica.url());
+            config.setUsername(replica.username());
+            config.setPassword(replica.password());
+            config.setMaximumPoolSize(replica.maximumPoolSize());
+            config.setReadOnly(true);
+            // réplica caída: se cae al primario rápido en vez de esperar el timeout por defecto
+            config.setConnectionTimeout(2_000);
+            config.setInitializationFailTimeout(-1);
+            replicas.put(name, new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesTracker,
+                properties.maxLagMs(), properties.lagQuery());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            ReadYourWritesTracker readYourWritesTracker) {
+        LazyConnectionDataSourceProxy proxy =
+                new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primaryDataSource, readYourWritesTracker));
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+}
@@ -0,0 +1,31 @@
+package com.christn.salesinventoryapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+@ConfigurationProperties("app.datasource.read-routing")
+public record ReadRoutingProperties(
+        boolean enabled,
+        @DefaultValue("5000") long readYourWritesMs,
+        @DefaultValue("2000") long maxLagMs,
+        @DefaultValue(PG_LAG_QUERY) String lagQuery,
+        @DefaultValue List<Replica> replicas
+) {
+    // Lag en ms; 0 si la réplica ya aplicó todo lo recibido (un primario ocioso no cuenta como lag)
+    public static final String PG_LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+                   END""";
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize
+    ) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.christn.salesinventoryapi.config;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ventana read-your-writes: tras confirmar una escritura, las lecturas del mismo usuario van al primario
+ * durante readYourWritesMs, para que no vea a una réplica atrasada "deshacer" lo que acaba de hacer.
+ * Es por instancia: con varias instancias sin afinidad de sesión la ventana solo cubre la que escribió.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    // Usuario del hilo actual; null en jobs y peticiones anónimas (sin ventana)
+    public String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth instanceof AnonymousAuthenticationToken || !auth.isAuthenticated()) return null;
+        return auth.getName();
+    }
+
+    public void recordWrite(String user) {
+        if (user != null) lastWriteAt.put(user, System.nanoTime());
+    }
+
+    public boolean recentlyWrote() {
+        String user = currentUser();
+        if (user == null) return false;
+        Long at = lastWriteAt.get(user);
+        return at != null && System.nanoTime() - at < windowNanos;
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWriteAt.values().removeIf(at -> now - at >= windowNanos);
+    }
+}
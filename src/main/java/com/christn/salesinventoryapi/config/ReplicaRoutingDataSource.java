@@ -0,0 +1,141 @@
+package com.christn.salesinventoryapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Destino de las transacciones readOnly: reparte en round-robin entre las réplicas sanas (lag medido por
+ * {@link #probeReplicas()} por debajo de maxLagMs) y cae al primario si el usuario está en su ventana
+ * read-your-writes, si el hilo está dentro de {@link PrimaryReads}, si no hay réplica sana o si la réplica elegida
+ * no entrega conexión.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesTracker tracker;
+    private final long maxLagMs;
+    private final String lagQuery;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong routedToReplica = new AtomicLong();
+    private final AtomicLong routedToPrimary = new AtomicLong();
+
+    public record ReplicaStatus(String name, boolean healthy, long lagMs) {
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // sin sondeo todavía: no se usa hasta conocer su lag
+        private volatile boolean healthy;
+        private volatile long lagMs = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            ReadYourWritesTracker tracker, long maxLagMs, String lagQuery) {
+        this.primary = primary;
+        replicas.forEach((name, ds) -> this.replicas.add(new Replica(name, ds)));
+        this.tracker = tracker;
+        this.maxLagMs = maxLagMs;
+        this.lagQuery = lagQuery;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReads.active() || tracker.recentlyWrote()) return primaryConnection();
+
+        Replica replica = pick();
+        if (replica == null) return primaryConnection();
+        try {
+            Connection connection = replica.dataSource.getConnection();
+            routedToReplica.incrementAndGet();
+            return connection;
+        } catch (SQLException e) {
+            markDown(replica, e);
+            return primaryConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Las réplicas usan las credenciales de su pool");
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        routedToPrimary.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    private Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) return replica;
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, Exception e) {
+        if (replica.healthy) log.warn("Replica {} marked down: {}", replica.name, e.getMessage());
+        replica.healthy = false;
+        replica.lagMs = -1;
+    }
+
+    // Mide el lag de cada réplica; una réplica vuelve al reparto solo cuando está por debajo de maxLagMs
+    public void probeReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                long lagMs = rs.next() ? Math.round(rs.getDouble(1)) : Long.MAX_VALUE;
+                boolean healthy = lagMs <= maxLagMs;
+                if (healthy != replica.healthy) {
+                    log.info("Replica {} {} (lag {} ms)", replica.name, healthy ? "in rotation" : "lagging", lagMs);
+                }
+                replica.lagMs = lagMs;
+                replica.healthy = healthy;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        tracker.evictExpired();
+    }
+
+    public List<ReplicaStatus> status() {
+        return replicas.stream().map(r -> new ReplicaStatus(r.name, r.healthy, r.lagMs)).toList();
+    }
+
+    public long routedToReplica() {
+        return routedToReplica.get();
+    }
+
+    public long routedToPrimary() {
+        return routedToPrimary.get();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+}
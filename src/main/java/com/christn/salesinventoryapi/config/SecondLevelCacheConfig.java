@@ -0,0 +1,64 @@
+package com.christn.salesinventoryapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Caché de segundo nivel de Hibernate (JCache sobre Caffeine) para categorías, proveedores y clientes:
+ * se leen en cada venta o compra y casi no cambian. Las regiones se crean aquí, acotadas y con TTL, en un
+ * CacheManager propio de cada EntityManagerFactory (Hibernate lo cierra al cerrarse la fábrica).
+ * La caché es local a cada instancia: con varias, una escritura en otra se ve aquí al vencer el TTL.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String CATEGORIES = "categories";
+    public static final String SUPPLIERS = "suppliers";
+    public static final String CUSTOMERS = "customers";
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+            @Value("${app.cache.statistics:false}") boolean statistics,
+            @Value("${app.cache.entities.max-size:10000}") long entityMaxSize,
+            @Value("${app.cache.entities.ttl:PT5M}") Duration entityTtl,
+            @Value("${app.cache.queries.max-size:10000}") long queryMaxSize,
+            @Value("${app.cache.queries.ttl:PT1M}") Duration queryTtl) {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+            if (!Boolean.parseBoolean(String.valueOf(properties.get(AvailableSettings.USE_SECOND_LEVEL_CACHE)))) {
+                return;
+            }
+            // Proveedor nuevo por fábrica: el de Caching.getCachingProvider() comparte managers entre contextos
+            CachingProvider provider = new CaffeineCachingProvider();
+            CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+            for (String region : List.of(CATEGORIES, SUPPLIERS, CUSTOMERS)) {
+                cacheManager.createCache(region, bounded(entityMaxSize, entityTtl));
+            }
+            cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                    bounded(queryMaxSize, queryTtl));
+            // Sin límite ni expiración: perder un timestamp dejaría pasar resultados de consulta obsoletos
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                    new CaffeineConfiguration<>());
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, Duration ttl) {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+    }
+}
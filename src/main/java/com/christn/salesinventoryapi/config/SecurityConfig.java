@@ -66,6 +66,9 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         // auth libre
                         .requestMatchers("/api/auth/login", "/api/auth/refresh").permitAll()
+                        // health libre para el balanceador; las métricas exponen volúmenes y rutas: solo ADMIN
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                         // lo demás protegido
                         .anyRequest().authenticated()
                 )
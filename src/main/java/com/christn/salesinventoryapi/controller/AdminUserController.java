@@ -1,6 +1,7 @@
 package com.christn.salesinventoryapi.controller;
 
 import com.christn.salesinventoryapi.auth.AuthUserDetails;
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
 import com.christn.salesinventoryapi.dto.request.CreateUserRequest;
 import com.christn.salesinventoryapi.dto.request.UpdateUserRequest;
 import com.christn.salesinventoryapi.dto.response.PageResponse;
@@ -24,6 +25,7 @@ import java.util.Set;
 @RequestMapping("/api/auth/users")
 @RequiredArgsConstructor
 @PreAuthorize("hasRole('ADMIN')")
+@Bulkhead("auth")
 public class AdminUserController {
 
     private final AdminUserService adminUserService;
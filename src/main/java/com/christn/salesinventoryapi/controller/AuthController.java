@@ -1,6 +1,7 @@
 package com.christn.salesinventoryapi.controller;
 
 import com.christn.salesinventoryapi.auth.AuthUserDetails;
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
 import com.christn.salesinventoryapi.dto.request.LoginRequest;
 import com.christn.salesinventoryapi.dto.request.LogoutRequest;
 import com.christn.salesinventoryapi.dto.request.RefreshRequest;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
+@Bulkhead("auth")
 public class AuthController {
 
     private final AuthService authService;
@@ -0,0 +1,32 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.bulkhead.BulkheadRegistry;
+import com.christn.salesinventoryapi.dto.response.BulkheadStatusResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Bulkheads", description = "Aislamiento de carga entre caja, back-office y autenticación")
+@RestController
+@RequestMapping("/api/bulkheads")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.bulkheads.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadController {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Operation(summary = "Estado de los compartimentos", description = "Cupo, en curso, en espera, rechazos y uso de cada pool")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ResponseEntity<List<BulkheadStatusResponse>> status() {
+        return ResponseEntity.ok(bulkheadRegistry.status());
+    }
+}
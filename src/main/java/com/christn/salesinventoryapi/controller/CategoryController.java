@@ -1,10 +1,13 @@
 package com.christn.salesinventoryapi.controller;
 
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.cache.JsonResponseCache;
 import com.christn.salesinventoryapi.dto.request.CategoryRequest;
 import com.christn.salesinventoryapi.dto.response.CategoryResponse;
 import com.christn.salesinventoryapi.exception.ApiError;
 import com.christn.salesinventoryapi.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,19 +15,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/categories")
 @Tag(name = "Categories", description = "CRUD de categorías")
 @RequiredArgsConstructor
+@Bulkhead("backoffice")
 public class CategoryController {
 
     private final CategoryService service;
+    private final JsonResponseCache responseCache;
 
     @Operation(summary = "Crear categoría", description = "Registra una nueva categoría en el sistema")
     @ApiResponses({
@@ -44,9 +48,14 @@ public class CategoryController {
     }
 
     @Operation(summary = "Listar categorías", description = "Obtiene una lista de todas las categorías activas")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Categorías encontradas", content = @Content(array =
+            @ArraySchema(schema = @Schema(implementation = CategoryResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag de If-None-Match")
+    })
     @GetMapping
-    public List<CategoryResponse> findAll() {
-        return service.findAll();
+    public ResponseEntity<byte[]> findAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCache.categories(accept, service::findAll);
     }
 
     @Operation(summary = "Obtener categoría por ID", description = "Busca una categoría por su identificador")
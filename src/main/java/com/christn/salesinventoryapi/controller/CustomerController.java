@@ -1,5 +1,6 @@
 package com.christn.salesinventoryapi.controller;
 
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
 import com.christn.salesinventoryapi.dto.request.CustomerRequest;
 import com.christn.salesinventoryapi.dto.response.CustomerResponse;
 import com.christn.salesinventoryapi.dto.response.PageResponse;
@@ -26,6 +27,7 @@ import java.util.List;
 @RequestMapping("/api/customers")
 @Tag(name = "Customers", description = "Gestión de clientes")
 @RequiredArgsConstructor
+@Bulkhead("backoffice")
 public class CustomerController {
 
     private final CustomerService service;
@@ -0,0 +1,60 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.dto.request.DashboardMetric;
+import com.christn.salesinventoryapi.dto.response.AnalyticsCacheStatusResponse;
+import com.christn.salesinventoryapi.dto.response.DashboardHourlyRevenueResponse;
+import com.christn.salesinventoryapi.dto.response.DashboardTopProductResponse;
+import com.christn.salesinventoryapi.service.SalesAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Tag(name = "Dashboard", description = "Consultas de dashboard servidas desde la caché analítica en memoria")
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Bulkhead("backoffice")
+public class DashboardController {
+
+    private final SalesAnalyticsService analyticsService;
+
+    @Operation(summary = "Productos más vendidos", description = "Sin rango: últimas 24 horas. metric=UNITS|REVENUE")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/top-products")
+    public ResponseEntity<List<DashboardTopProductResponse>> topProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "REVENUE") DashboardMetric metric,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(analyticsService.topProducts(from, to, metric, limit));
+    }
+
+    @Operation(summary = "Ingresos por hora", description = "Sin rango: últimas 24 horas")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/hourly-revenue")
+    public ResponseEntity<List<DashboardHourlyRevenueResponse>> hourlyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return ResponseEntity.ok(analyticsService.hourlyRevenue(from, to));
+    }
+
+    @Operation(summary = "Estado de la caché analítica")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache")
+    public ResponseEntity<AnalyticsCacheStatusResponse> cacheStatus() {
+        return ResponseEntity.ok(analyticsService.status());
+    }
+}
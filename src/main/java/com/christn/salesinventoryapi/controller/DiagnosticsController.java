@@ -0,0 +1,34 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.dto.response.ContendedProductResponse;
+import com.christn.salesinventoryapi.service.LockDiagnosticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Sin bulkhead: tiene que responder justo cuando la caja está saturada por locks
+@Tag(name = "Diagnostics", description = "Diagnóstico de contención de locks en la base de datos")
+@RestController
+@RequestMapping("/api/diagnostics")
+@RequiredArgsConstructor
+public class DiagnosticsController {
+
+    private final LockDiagnosticsService lockDiagnosticsService;
+
+    @Operation(summary = "Productos más contendidos",
+            description = "Productos cuyos locks FOR UPDATE esperaron más de slow-wait-ms o fallaron (timeout/deadlock)")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/lock-contention")
+    public ResponseEntity<List<ContendedProductResponse>> topContendedProducts(
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(lockDiagnosticsService.topContendedProducts(limit));
+    }
+}
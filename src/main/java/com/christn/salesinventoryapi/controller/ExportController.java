@@ -0,0 +1,69 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.dto.request.MovementExportRequest;
+import com.christn.salesinventoryapi.dto.request.SaleExportRequest;
+import com.christn.salesinventoryapi.dto.response.ExportJobResponse;
+import com.christn.salesinventoryapi.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+@Tag(name = "Exports", description = "Exportación asíncrona de ventas y movimientos a CSV (gzip)")
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@Bulkhead("backoffice")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Operation(summary = "Exportar ventas", description = "Encola una exportación con los filtros de /api/sales/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/sales")
+    public ResponseEntity<ExportJobResponse> exportSales(@RequestBody SaleExportRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportService.submitSales(request));
+    }
+
+    @Operation(summary = "Exportar movimientos de inventario")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/movements")
+    public ResponseEntity<ExportJobResponse> exportMovements(@Valid @RequestBody MovementExportRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportService.submitMovements(request));
+    }
+
+    @Operation(summary = "Estado de una exportación")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ExportJobResponse> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(exportService.getJob(jobId));
+    }
+
+    // Resource como body: Spring atiende Range (206) para reanudar descargas
+    @Operation(summary = "Descargar exportación", description = "Soporta cabecera Range")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> download(@PathVariable String jobId) {
+        Path file = exportService.getFile(jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,48 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.dto.response.OutboxStatusResponse;
+import com.christn.salesinventoryapi.service.OutboxRelayService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Outbox", description = "Relay de eventos de dominio hacia sistemas externos")
+@RestController
+@RequestMapping("/api/outbox")
+@RequiredArgsConstructor
+@Bulkhead("backoffice")
+public class OutboxController {
+
+    private final OutboxRelayService outboxRelayService;
+
+    @Operation(summary = "Estado del relay", description = "Pendientes, lag del evento más antiguo y throughput")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/status")
+    public ResponseEntity<OutboxStatusResponse> status() {
+        return ResponseEntity.ok(outboxRelayService.status());
+    }
+
+    @Operation(summary = "Drenar ahora", description = "Corre una vuelta del relay sin esperar al job")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/relay")
+    public ResponseEntity<OutboxStatusResponse> relay() {
+        outboxRelayService.drain();
+        return ResponseEntity.ok(outboxRelayService.status());
+    }
+
+    @Operation(summary = "Reencolar aparcados",
+            description = "Devuelve a la cola los eventos que superaron el máximo de intentos")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/parked/requeue")
+    public ResponseEntity<OutboxStatusResponse> requeueParked() {
+        outboxRelayService.requeueParked();
+        return ResponseEntity.ok(outboxRelayService.status());
+    }
+}
@@ -1,5 +1,6 @@
 package com.christn.salesinventoryapi.controller;
 
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
 import com.christn.salesinventoryapi.dto.request.CreatePaymentRequest;
 import com.christn.salesinventoryapi.dto.response.PaymentResponse;
 import com.christn.salesinventoryapi.service.PaymentService;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/api/sales/{saleId}/payments")
 @RequiredArgsConstructor
+@Bulkhead("checkout")
 public class PaymentController {
 
     private final PaymentService paymentService;
@@ -1,11 +1,15 @@
 package com.christn.salesinventoryapi.controller;
 
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.cache.JsonResponseCache;
 import com.christn.salesinventoryapi.dto.request.ProductRequest;
 import com.christn.salesinventoryapi.dto.response.PageResponse;
 import com.christn.salesinventoryapi.dto.response.ProductResponse;
+import com.christn.salesinventoryapi.dto.response.ProductStockResponse;
 import com.christn.salesinventoryapi.exception.ApiError;
 import com.christn.salesinventoryapi.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,9 +32,11 @@ import java.util.List;
 @RequestMapping("/api/products")
 @Tag(name = "Products", description = "CRUD de productos")
 @RequiredArgsConstructor
+@Bulkhead("backoffice")
 public class ProductController {
 
     private final ProductService service;
+    private final JsonResponseCache responseCache;
 
     @Operation(summary = "Crear producto", description = "Registra un nuevo producto en el sistema")
     @ApiResponses({
@@ -60,24 +67,44 @@ public class ProductController {
     @Operation(summary = "Listar productos por categoría", description = "Obtiene todos los productos activos de una " +
             "categoría")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Productos encontrados"),
+            @ApiResponse(responseCode = "200", description = "Productos encontrados", content = @Content(array =
+            @ArraySchema(schema = @Schema(implementation = ProductResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Categoría no encontrada", content = @Content(schema =
             @Schema(implementation = ApiError.class)))
     })
     @GetMapping("/category/{categoryId}")
-    public List<ProductResponse> findByCategoryId(@PathVariable Long categoryId) {
-        return service.findAllByCategoryId(categoryId);
+    public ResponseEntity<byte[]> findByCategoryId(@PathVariable Long categoryId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCache.productsByCategory(categoryId, accept, () -> service.findAllByCategoryId(categoryId));
     }
 
     @Operation(summary = "Obtener producto por ID", description = "Busca un producto por su identificador")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+            @ApiResponse(responseCode = "200", description = "Producto encontrado", content = @Content(schema =
+            @Schema(implementation = ProductResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios respecto al ETag de If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado", content = @Content(schema =
             @Schema(implementation = ApiError.class)))
     })
+    @Bulkhead("checkout")
     @GetMapping("/{id}")
-    public ProductResponse findById(@PathVariable Long id) {
-        return service.findById(id);
+    public ResponseEntity<byte[]> findById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return responseCache.product(id, accept, () -> service.findById(id));
+    }
+
+    @Operation(summary = "Consultar stock de producto", description = "Stock agregado y disponibilidad FEFO " +
+            "(cantidad en lotes, número de lotes y vencimiento más próximo)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stock encontrado"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado", content = @Content(schema =
+            @Schema(implementation = ApiError.class)))
+    })
+    @Bulkhead("checkout")
+    @GetMapping("/{id}/stock")
+    public ProductStockResponse getStock(@PathVariable Long id) {
+        return service.getStock(id);
     }
 
     @Operation(summary = "Actualizar producto", description = "Actualiza los datos de un producto existente")
@@ -1,23 +1,39 @@
 package com.christn.salesinventoryapi.controller;
 
-import com.christn.salesinventoryapi.dto.request.CreatePurchaseRequest;
-import com.christn.salesinventoryapi.dto.request.PostPurchaseRequest;
-import com.christn.salesinventoryapi.dto.request.VoidPurchaseRequest;
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.dto.request.*;
+import com.christn.salesinventoryapi.dto.response.PurchaseBatchPostResponse;
+import com.christn.salesinventoryapi.dto.response.PurchaseImportProgressResponse;
+import com.christn.salesinventoryapi.dto.response.PurchaseImportResponse;
 import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.model.PurchaseDocumentType;
+import com.christn.salesinventoryapi.service.PurchaseImportService;
+import com.christn.salesinventoryapi.service.PurchasePostingService;
 import com.christn.salesinventoryapi.service.PurchaseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/purchases")
 @RequiredArgsConstructor
+@Bulkhead("backoffice")
 public class PurchaseController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final PurchaseService purchaseService;
+    private final PurchaseImportService purchaseImportService;
+    private final PurchasePostingService purchasePostingService;
 
     @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
     @PostMapping()
@@ -35,6 +51,13 @@ public class PurchaseController {
         return ResponseEntity.ok(response);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
+    @PostMapping("/post-batch")
+    public ResponseEntity<PurchaseBatchPostResponse> postBatch(@Valid @RequestBody PostPurchaseBatchRequest request) {
+        PurchaseBatchPostResponse response = purchasePostingService.postBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE','SELLER')")
     @GetMapping("/{id}")
     public ResponseEntity<PurchaseResponse> getById(@PathVariable Long id) {
@@ -50,4 +73,30 @@ public class PurchaseController {
         PurchaseResponse response = purchaseService.voidPurchase(id, request);
         return ResponseEntity.ok(response);
     }
+
+    @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<PurchaseImportResponse> importReceipt(
+            @RequestParam(required = false) String importId,
+            @RequestParam(required = false) Long supplierId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime purchaseDate,
+            @RequestParam(required = false) PurchaseDocumentType documentType,
+            @RequestParam(required = false) String documentNumber,
+            @RequestParam(required = false) String notes,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        PurchaseImportFormat format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? PurchaseImportFormat.NDJSON
+                : PurchaseImportFormat.CSV;
+        PurchaseImportRequest request = new PurchaseImportRequest(importId, supplierId, purchaseDate, documentType,
+                documentNumber, notes);
+        PurchaseImportResponse response = purchaseImportService.importReceipt(request, format, body);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<PurchaseImportProgressResponse> getImportProgress(@PathVariable String importId) {
+        return ResponseEntity.ok(purchaseImportService.getProgress(importId));
+    }
 }
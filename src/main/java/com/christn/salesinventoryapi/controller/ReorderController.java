@@ -0,0 +1,40 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.dto.response.ReorderSuggestionResponse;
+import com.christn.salesinventoryapi.service.ReorderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "Reorder", description = "Sugerencias de reposición por proveedor")
+@RestController
+@RequestMapping("/api/reorder")
+@RequiredArgsConstructor
+@Bulkhead("backoffice")
+public class ReorderController {
+
+    private final ReorderService reorderService;
+
+    @Operation(summary = "Sugerencias de compra",
+            description = "Velocidad de venta, lead time del proveedor y stock FEFO disponible; no persiste nada")
+    @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
+    @GetMapping("/suggestions")
+    public ResponseEntity<ReorderSuggestionResponse> suggest() {
+        return ResponseEntity.ok(reorderService.suggest());
+    }
+
+    @Operation(summary = "Crear compras DRAFT", description = "Una compra DRAFT por proveedor con las cantidades sugeridas")
+    @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
+    @PostMapping("/drafts")
+    public ResponseEntity<List<PurchaseResponse>> createDrafts(@RequestParam(required = false) Long supplierId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reorderService.createDrafts(supplierId));
+    }
+}
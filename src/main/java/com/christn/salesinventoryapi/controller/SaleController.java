@@ -1,5 +1,6 @@
 package com.christn.salesinventoryapi.controller;
 
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
 import com.christn.salesinventoryapi.dto.request.CreateSaleRequest;
 import com.christn.salesinventoryapi.dto.request.PostSaleRequest;
 import com.christn.salesinventoryapi.dto.request.VoidSaleRequest;
@@ -33,6 +34,7 @@ import java.time.LocalDateTime;
 @RequestMapping("/api/sales")
 @Tag(name = "Sales", description = "Registro y consulta de ventas")
 @RequiredArgsConstructor
+@Bulkhead("checkout")
 public class SaleController {
 
     private final SaleService service;
@@ -103,8 +105,10 @@ public class SaleController {
         return ResponseEntity.ok(service.getById(id));
     }
 
-    @Operation(summary = "Buscar venta con filtros", description = "Buscar ventas por ID del cliente, fecha y total")
+    @Operation(summary = "Buscar venta con filtros", description = "Buscar ventas por ID del cliente, fecha y total. " +
+            "approxCount=true omite el COUNT exacto y devuelve un total estimado")
     @PreAuthorize("hasAnyRole('ADMIN','SELLER')")
+    @Bulkhead("backoffice")
     @GetMapping("/search")
     public PageResponse<SaleSummaryResponse> search(
             @RequestParam(required = false) Long customerId,
@@ -113,8 +117,9 @@ public class SaleController {
             @RequestParam(required = false) BigDecimal minTotal,
             @RequestParam(required = false) BigDecimal maxTotal,
             @RequestParam(required = false) SaleStatus status,
+            @RequestParam(defaultValue = "false") boolean approxCount,
             @PageableDefault(sort = "saleDate", direction = Sort.Direction.DESC) Pageable pageable
     ) {
-        return service.search(customerId, from, to, minTotal, maxTotal, status, pageable);
+        return service.search(customerId, from, to, minTotal, maxTotal, status, pageable, approxCount);
     }
 }
@@ -0,0 +1,78 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.dto.response.SalesReportResponse;
+import com.christn.salesinventoryapi.dto.response.SalesRollupRebuildResponse;
+import com.christn.salesinventoryapi.service.SalesReportService;
+import com.christn.salesinventoryapi.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@Tag(name = "Reports", description = "Reportes de ventas y margen sobre rollups diarios")
+@RestController
+@RequestMapping("/api/reports/sales")
+@RequiredArgsConstructor
+@Bulkhead("backoffice")
+public class SalesReportController {
+
+    private final SalesReportService reportService;
+    private final SalesRollupService rollupService;
+
+    @Operation(summary = "Ventas y margen por día", description = "Sin rango: últimos 30 días")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/daily")
+    public ResponseEntity<SalesReportResponse> byDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(reportService.byDay(from, to));
+    }
+
+    @Operation(summary = "Ventas y margen por producto")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/by-product")
+    public ResponseEntity<SalesReportResponse> byProduct(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(reportService.byProduct(from, to));
+    }
+
+    @Operation(summary = "Ventas y margen por categoría")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/by-category")
+    public ResponseEntity<SalesReportResponse> byCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(reportService.byCategory(from, to));
+    }
+
+    @Operation(summary = "Ventas y margen por vendedor")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/by-seller")
+    public ResponseEntity<SalesReportResponse> bySeller(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(reportService.bySeller(from, to));
+    }
+
+    @Operation(summary = "Reconstruir rollups", description = "Recalcula los rollups del rango desde las ventas " +
+            "(backfill o corrección). Procesa un mes por transacción")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<SalesRollupRebuildResponse> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(rollupService.rebuild(from, to));
+    }
+}
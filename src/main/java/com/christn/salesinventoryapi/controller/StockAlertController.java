@@ -0,0 +1,69 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import com.christn.salesinventoryapi.dto.request.ReorderPointRequest;
+import com.christn.salesinventoryapi.dto.response.PageResponse;
+import com.christn.salesinventoryapi.dto.response.ReorderPointResponse;
+import com.christn.salesinventoryapi.dto.response.StockAlertResponse;
+import com.christn.salesinventoryapi.dto.response.StockAlertScanResponse;
+import com.christn.salesinventoryapi.model.StockAlertStatus;
+import com.christn.salesinventoryapi.model.StockAlertType;
+import com.christn.salesinventoryapi.service.StockAlertService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "Stock alerts", description = "Alertas de stock bajo y lotes por vencer")
+@RestController
+@RequestMapping("/api/stock-alerts")
+@RequiredArgsConstructor
+@Bulkhead("backoffice")
+public class StockAlertController {
+
+    private final StockAlertService stockAlertService;
+
+    @Operation(summary = "Buscar alertas", description = "Filtra por estado, tipo y producto")
+    @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
+    @GetMapping
+    public PageResponse<StockAlertResponse> search(
+            @RequestParam(required = false, defaultValue = "OPEN") StockAlertStatus status,
+            @RequestParam(required = false) StockAlertType type,
+            @RequestParam(required = false) Long productId,
+            @PageableDefault(sort = "detectedAt", direction = Sort.Direction.DESC) Pageable pageable
+    ) {
+        return stockAlertService.search(status, type, productId, pageable);
+    }
+
+    @Operation(summary = "Ejecutar scanner", description = "Corre una pasada incremental sin esperar al job")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/scan")
+    public ResponseEntity<StockAlertScanResponse> scan() {
+        return ResponseEntity.ok(stockAlertService.scan());
+    }
+
+    @Operation(summary = "Últimas corridas del scanner", description = "Duración y filas examinadas por corrida")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/scans")
+    public ResponseEntity<List<StockAlertScanResponse>> recentScans() {
+        return ResponseEntity.ok(stockAlertService.recentScans());
+    }
+
+    @Operation(summary = "Actualizar punto de reorden de un producto")
+    @PreAuthorize("hasAnyRole('ADMIN','WAREHOUSE')")
+    @PutMapping("/products/{productId}/reorder-point")
+    public ResponseEntity<ReorderPointResponse> updateReorderPoint(
+            @PathVariable Long productId,
+            @Valid @RequestBody ReorderPointRequest request
+    ) {
+        return ResponseEntity.ok(stockAlertService.updateReorderPoint(productId, request));
+    }
+}
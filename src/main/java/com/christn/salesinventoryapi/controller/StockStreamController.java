@@ -0,0 +1,32 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.service.StockStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+@Tag(name = "Stock stream", description = "Niveles de stock en vivo para terminales POS")
+@RestController
+@RequestMapping("/api/stock")
+@RequiredArgsConstructor
+public class StockStreamController {
+
+    private final StockStreamService stockStreamService;
+
+    @Operation(summary = "Suscribirse al stock en vivo",
+            description = "Server-Sent Events: 'stock' con los niveles cambiados, 'resync' si el cliente se atrasó")
+    @PreAuthorize("hasAnyRole('ADMIN','SELLER','WAREHOUSE')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Set<Long> categoryId) {
+        return stockStreamService.subscribe(categoryId);
+    }
+}
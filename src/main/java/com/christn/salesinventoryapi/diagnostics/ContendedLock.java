@@ -0,0 +1,33 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import java.lang.annotation.*;
+
+/**
+ * Consulta FOR UPDATE del repositorio: antes de ejecutarla se fijan lock_timeout/statement_timeout de la
+ * transacción y, si espera de más o falla por lock, se registra la contención ({@link LockDiagnosticsAspect}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ContendedLock {
+
+    Resource value();
+
+    enum Resource {
+        // el argumento son ids de producto (los lotes se bloquean por producto)
+        PRODUCT(true),
+        BATCH(true),
+        SALE(false),
+        PURCHASE(false);
+
+        private final boolean keyedByProduct;
+
+        Resource(boolean keyedByProduct) {
+            this.keyedByProduct = keyedByProduct;
+        }
+
+        public boolean keyedByProduct() {
+            return keyedByProduct;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Productos más contendidos en memoria acotada (Space-Saving): como mucho {@code capacity} contadores.
+ * Con la tabla llena, un producto nuevo reemplaza al de menor cuenta y hereda esa cuenta como error,
+ * así que los productos realmente calientes nunca se pierden y su cuenta se sobreestima como mucho en
+ * {@link Entry#overestimate()}. Solo se escribe en el camino lento (espera larga o fallo de lock).
+ */
+@Component
+public class LockContentionSketch {
+
+    private final int capacity;
+    private final Map<Long, Slot> slots = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public record Entry(long productId, long count, long overestimate, long failures, long maxWaitMs,
+                        ContendedLock.Resource lastResource, LocalDateTime lastSeenAt) {
+    }
+
+    private static final class Slot {
+        private long count;
+        private long overestimate;
+        private long failures;
+        private long maxWaitMs;
+        private ContendedLock.Resource lastResource;
+        private LocalDateTime lastSeenAt;
+    }
+
+    public LockContentionSketch(@Value("${app.locks.sketch-capacity:256}") int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("app.locks.sketch-capacity debe ser > 0");
+        this.capacity = capacity;
+    }
+
+    public void record(Collection<Long> productIds, ContendedLock.Resource resource, long waitedMs, boolean failed) {
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            for (Long productId : productIds) {
+                if (productId == null) continue;
+                Slot slot = slots.get(productId);
+                if (slot == null) slot = claimSlot(productId);
+                slot.count++;
+                if (failed) slot.failures++;
+                slot.maxWaitMs = Math.max(slot.maxWaitMs, waitedMs);
+                slot.lastResource = resource;
+                slot.lastSeenAt = now;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Slot claimSlot(Long productId) {
+        Slot slot = new Slot();
+        if (slots.size() >= capacity) {
+            Map.Entry<Long, Slot> min = Collections.min(slots.entrySet(),
+                    Comparator.comparingLong(e -> e.getValue().count));
+            slots.remove(min.getKey());
+            slot.count = min.getValue().count;
+            slot.overestimate = min.getValue().count;
+        }
+        slots.put(productId, slot);
+        return slot;
+    }
+
+    public List<Entry> top(int limit) {
+        lock.lock();
+        try {
+            return slots.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<Long, Slot> e) -> e.getValue().count).reversed())
+                    .limit(limit)
+                    .map(e -> new Entry(e.getKey(), e.getValue().count, e.getValue().overestimate,
+                            e.getValue().failures, e.getValue().maxWaitMs, e.getValue().lastResource,
+                            e.getValue().lastSeenAt))
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
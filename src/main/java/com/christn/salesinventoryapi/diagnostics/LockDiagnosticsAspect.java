@@ -0,0 +1,137 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import com.christn.salesinventoryapi.bulkhead.BulkheadContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alrededor de cada consulta {@link ContendedLock}:
+ * <ul>
+ *   <li>la primera vez en la transacción fija lock_timeout y statement_timeout con alcance de transacción
+ *   (set_config(..., true) en PostgreSQL), salvo en los compartimentos exentos (back-office);</li>
+ *   <li>mide la espera (lock + consulta) y, si pasa de slow-wait-ms o falla por lock, registra los productos
+ *   en {@link LockContentionSketch}.</li>
+ * </ul>
+ */
+@Slf4j
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.locks.enabled", havingValue = "true", matchIfMissing = true)
+public class LockDiagnosticsAspect {
+
+    private static final Object TIMEOUTS_APPLIED = new Object();
+
+    private final EntityManager entityManager;
+    private final LockContentionSketch sketch;
+    private final MeterRegistry meterRegistry;
+    private final long lockTimeoutMs;
+    private final long statementTimeoutMs;
+    private final long slowWaitMs;
+    private final Set<String> exemptBulkheads;
+    private final Map<ContendedLock.Resource, Timer> waitTimers = new EnumMap<>(ContendedLock.Resource.class);
+    // null hasta la primera transacción: los timeouts por transacción solo existen en PostgreSQL
+    private volatile Boolean postgres;
+
+    public LockDiagnosticsAspect(EntityManager entityManager, LockContentionSketch sketch, MeterRegistry meterRegistry,
+            @Value("${app.locks.lock-timeout-ms:2000}") long lockTimeoutMs,
+            @Value("${app.locks.statement-timeout-ms:5000}") long statementTimeoutMs,
+            @Value("${app.locks.slow-wait-ms:200}") long slowWaitMs,
+            @Value("${app.locks.exempt-bulkheads:backoffice}") List<String> exemptBulkheads) {
+        this.entityManager = entityManager;
+        this.sketch = sketch;
+        this.meterRegistry = meterRegistry;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.statementTimeoutMs = statementTimeoutMs;
+        this.slowWaitMs = slowWaitMs;
+        this.exemptBulkheads = Set.copyOf(exemptBulkheads);
+        for (ContendedLock.Resource resource : ContendedLock.Resource.values()) {
+            waitTimers.put(resource, Timer.builder("db.lock.wait")
+                    .description("Duración de las consultas FOR UPDATE (espera de lock incluida)")
+                    .tag("resource", resource.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("@annotation(contendedLock)")
+    public Object around(ProceedingJoinPoint pjp, ContendedLock contendedLock) throws Throwable {
+        applyTimeouts();
+
+        long started = System.nanoTime();
+        try {
+            Object result = pjp.proceed();
+            long waitedNanos = System.nanoTime() - started;
+            waitTimers.get(contendedLock.value()).record(waitedNanos, TimeUnit.NANOSECONDS);
+            long waitedMs = waitedNanos / 1_000_000;
+            if (waitedMs >= slowWaitMs) record(contendedLock.value(), pjp.getArgs(), waitedMs, "slow");
+            return result;
+        } catch (RuntimeException e) {
+            LockFailure failure = LockFailure.classify(e);
+            if (failure != null) {
+                long waitedMs = (System.nanoTime() - started) / 1_000_000;
+                log.warn("{} on {} lock after {} ms: {}", failure, contendedLock.value(), waitedMs, e.getMessage());
+                record(contendedLock.value(), pjp.getArgs(), waitedMs, failure.name().toLowerCase(Locale.ROOT));
+            }
+            throw e;
+        }
+    }
+
+    private void record(ContendedLock.Resource resource, Object[] args, long waitedMs, String outcome) {
+        meterRegistry.counter("db.lock.contended",
+                "resource", resource.name().toLowerCase(Locale.ROOT), "outcome", outcome).increment();
+        if (!resource.keyedByProduct()) return;
+
+        List<Long> productIds = new ArrayList<>();
+        for (Object arg : args) {
+            if (arg instanceof Long id) productIds.add(id);
+            else if (arg instanceof Collection<?> ids) {
+                for (Object id : ids) if (id instanceof Long l) productIds.add(l);
+            }
+        }
+        sketch.record(productIds, resource, waitedMs, !"slow".equals(outcome));
+    }
+
+    private void applyTimeouts() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) return;
+        if (TransactionSynchronizationManager.hasResource(TIMEOUTS_APPLIED)) return;
+        String bulkhead = BulkheadContext.current();
+        if (bulkhead != null && exemptBulkheads.contains(bulkhead)) return;
+
+        TransactionSynchronizationManager.bindResource(TIMEOUTS_APPLIED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TIMEOUTS_APPLIED);
+            }
+        });
+
+        // JDBC directo: una consulta nativa de Hibernate haría auto-flush de la sesión
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            if (postgres == null) {
+                postgres = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT)
+                        .contains("postgres");
+            }
+            if (!postgres) return;
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT set_config('lock_timeout', ?, true), set_config('statement_timeout', ?, true)")) {
+                ps.setString(1, lockTimeoutMs + "ms");
+                ps.setString(2, statementTimeoutMs + "ms");
+                ps.execute();
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLException;
+
+/**
+ * Fallos de concurrencia de la BD. Los conflictos (deadlock, serialización) se resuelven reintentando ya;
+ * las esperas agotadas (lock_timeout, statement_timeout) indican un recurso ocupado: reintentar más tarde.
+ */
+public enum LockFailure {
+    DEADLOCK(true, "Conflicto con otra operación concurrente (deadlock); reintente la operación"),
+    SERIALIZATION(true, "Conflicto con otra operación concurrente; reintente la operación"),
+    LOCK_TIMEOUT(false, "El recurso está ocupado por otra operación; reintente en unos segundos"),
+    STATEMENT_TIMEOUT(false, "La operación excedió el tiempo máximo; reintente en unos segundos");
+
+    private final boolean conflict;
+    private final String message;
+
+    LockFailure(boolean conflict, String message) {
+        this.conflict = conflict;
+        this.message = message;
+    }
+
+    public boolean conflict() {
+        return conflict;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    /**
+     * Clasifica por SQLState de la causa (PostgreSQL y H2) y, si no hay, por el tipo traducido por Spring.
+     * Devuelve null si no es un fallo de concurrencia.
+     */
+    public static LockFailure classify(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                LockFailure bySqlState = switch (sql.getSQLState()) {
+                    case "40P01" -> DEADLOCK;
+                    // PostgreSQL: serialization_failure; H2 lo usa para deadlock
+                    case "40001" -> SERIALIZATION;
+                    // PostgreSQL lock_not_available; H2 lock timeout
+                    case "55P03", "HYT00" -> LOCK_TIMEOUT;
+                    case "57014" -> STATEMENT_TIMEOUT;
+                    default -> null;
+                };
+                if (bySqlState != null) return bySqlState;
+            }
+            if (t.getCause() == t) break;
+        }
+        if (ex instanceof CannotAcquireLockException) return LOCK_TIMEOUT;
+        if (ex instanceof QueryTimeoutException) return STATEMENT_TIMEOUT;
+        if (ex instanceof PessimisticLockingFailureException) return DEADLOCK;
+        return null;
+    }
+}
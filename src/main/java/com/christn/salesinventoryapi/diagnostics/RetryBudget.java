@@ -0,0 +1,44 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presupuesto de reintentos (token bucket): cada llamada deposita {@code ratio} tokens hasta {@code maxTokens}
+ * y cada reintento consume uno. Con muchos conflictos a la vez los reintentos quedan limitados a ~ratio de las
+ * llamadas, en lugar de multiplicar la carga sobre los mismos locks.
+ */
+public class RetryBudget {
+
+    // en milésimas de token para operar con enteros
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long max;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens <= 0) {
+            throw new IllegalArgumentException("Presupuesto de reintentos inválido: ratio=" + ratio + ", max=" + maxTokens);
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.max = maxTokens * SCALE;
+        this.balance = new AtomicLong(max);
+    }
+
+    public void onCall() {
+        balance.accumulateAndGet(deposit, (current, d) -> Math.min(max, current + d));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) return false;
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double tokens() {
+        return (double) balance.get() / SCALE;
+    }
+}
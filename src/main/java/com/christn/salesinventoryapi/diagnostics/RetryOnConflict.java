@@ -0,0 +1,18 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import java.lang.annotation.*;
+
+/**
+ * Transición transaccional que se repite completa si falla por deadlock o serialización
+ * ({@link LockFailure#conflict()}). Cada intento es una transacción nueva: las comprobaciones de estado
+ * (idempotencia) se vuelven a evaluar sobre los datos ya confirmados por la transacción que ganó.
+ * Solo aplica a la llamada más externa; dentro de una transacción existente se propaga el fallo.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+
+    // tag "operation" de las métricas (p. ej. sale.post)
+    String value();
+}
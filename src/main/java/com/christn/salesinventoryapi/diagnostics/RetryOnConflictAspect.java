@@ -0,0 +1,97 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Repite las transiciones {@link RetryOnConflict} que fallan por deadlock o serialización, con backoff
+ * exponencial y jitter completo, hasta max-attempts y mientras quede {@link RetryBudget}.
+ * Va por fuera de @Transactional (cada intento abre su transacción) y por dentro del bulkhead (el permiso
+ * se conserva entre intentos). Los timeouts de lock no se reintentan: el recurso sigue ocupado.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.locks.retry.enabled", havingValue = "true", matchIfMissing = true)
+public class RetryOnConflictAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final RetryBudget budget;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public RetryOnConflictAspect(MeterRegistry meterRegistry,
+            @Value("${app.locks.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.locks.retry.initial-backoff-ms:10}") long initialBackoffMs,
+            @Value("${app.locks.retry.max-backoff-ms:200}") long maxBackoffMs,
+            @Value("${app.locks.retry.budget-ratio:0.1}") double budgetRatio,
+            @Value("${app.locks.retry.budget-max-tokens:20}") int budgetMaxTokens) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("app.locks.retry.max-attempts debe ser >= 1");
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.budget = new RetryBudget(budgetRatio, budgetMaxTokens);
+        meterRegistry.gauge("db.lock.retry.budget", budget, RetryBudget::tokens);
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object around(ProceedingJoinPoint pjp, RetryOnConflict retryOnConflict) throws Throwable {
+        // anidada en otra transacción: la externa ya quedó marcada rollback-only, que reintente ella
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return pjp.proceed();
+
+        String operation = retryOnConflict.value();
+        budget.onCall();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = pjp.proceed();
+                if (attempt > 1) outcome(operation, "recovered");
+                return result;
+            } catch (RuntimeException e) {
+                LockFailure failure = LockFailure.classify(e);
+                if (failure == null || !failure.conflict()) {
+                    if (attempt > 1) outcome(operation, "failed");
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    outcome(operation, "exhausted");
+                    throw e;
+                }
+                if (!budget.tryWithdraw()) {
+                    outcome(operation, "budget_exhausted");
+                    throw e;
+                }
+                meterRegistry.counter("db.lock.retry",
+                        "operation", operation, "failure", failure.name().toLowerCase(Locale.ROOT)).increment();
+                long backoffMs = backoffMs(attempt);
+                log.info("{} en {} (intento {}/{}); reintentando en {} ms",
+                        failure, operation, attempt, maxAttempts, backoffMs);
+                Thread.sleep(backoffMs);
+            }
+        }
+    }
+
+    // jitter completo: uniforme en [0, min(max, initial * 2^(intento-1))]
+    long backoffMs(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void outcome(String operation, String outcome) {
+        meterRegistry.counter("db.lock.retry.outcome", "operation", operation, "outcome", outcome).increment();
+    }
+}
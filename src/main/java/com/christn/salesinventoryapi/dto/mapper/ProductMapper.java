@@ -1,7 +1,9 @@
 package com.christn.salesinventoryapi.dto.mapper;
 
 import com.christn.salesinventoryapi.dto.response.ProductResponse;
+import com.christn.salesinventoryapi.dto.response.ProductStockResponse;
 import com.christn.salesinventoryapi.model.Product;
+import com.christn.salesinventoryapi.model.ProductStockSummary;
 
 public class ProductMapper {
 
@@ -15,4 +17,14 @@ public class ProductMapper {
                 CategoryMapper.toResponse(prod.getCategory())
         );
     }
+
+    public static ProductStockResponse toStockResponse(Product prod, ProductStockSummary summary) {
+        return new ProductStockResponse(
+                prod.getId(),
+                prod.getStock(),
+                summary != null ? summary.getQtyAvailable() : 0,
+                summary != null ? summary.getBatchCount() : 0,
+                summary != null ? summary.getEarliestExpiresAt() : null
+        );
+    }
 }
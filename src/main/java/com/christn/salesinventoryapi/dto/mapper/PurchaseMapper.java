@@ -5,11 +5,15 @@ import com.christn.salesinventoryapi.dto.response.PurchaseItemResponse;
 import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
 import com.christn.salesinventoryapi.dto.response.SupplierResponse;
 import com.christn.salesinventoryapi.model.Product;
-import com.christn.salesinventoryapi.model.ProductBatch;
 import com.christn.salesinventoryapi.model.Purchase;
 import com.christn.salesinventoryapi.model.PurchaseItem;
+import com.christn.salesinventoryapi.repository.projection.PurchaseBatchView;
+import com.christn.salesinventoryapi.repository.projection.PurchaseHeaderView;
+import com.christn.salesinventoryapi.repository.projection.PurchaseItemView;
 import org.jspecify.annotations.NonNull;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,18 +33,61 @@ public class PurchaseMapper {
         return getPurchaseResponse(purchase, supplier, items);
     }
 
-    public static PurchaseResponse toResponseDetail(Purchase purchase, Map<Long, List<ProductBatch>> batchesByItemId) {
+    /**
+     * DETAIL desde proyecciones: los lotes llegan ordenados por ítem y se agrupan en una pasada.
+     */
+    public static PurchaseResponse toResponseDetail(PurchaseHeaderView header, List<PurchaseItemView> items,
+            List<PurchaseBatchView> batches) {
         SupplierResponse supplier = null;
-        if (purchase.getSupplier() != null) {
-            var s = purchase.getSupplier();
-            supplier = new SupplierResponse(s.getId(), s.getName(), s.getDocumentNumber(), s.getPhone(), s.getEmail());
+        if (header.supplierId() != null) {
+            supplier = new SupplierResponse(header.supplierId(), header.supplierName(),
+                    header.supplierDocumentNumber(), header.supplierPhone(), header.supplierEmail());
         }
 
-        List<PurchaseItemResponse> items = purchase.getItems().stream()
-                .map(i -> toItemResponseWithBatches(i, batchesByItemId.getOrDefault(i.getId(), List.of())))
+        Map<Long, List<ProductBatchResponse>> batchesByItemId = new HashMap<>();
+        for (PurchaseBatchView b : batches) {
+            batchesByItemId.computeIfAbsent(b.purchaseItemId(), k -> new ArrayList<>())
+                    .add(new ProductBatchResponse(
+                            b.id(),
+                            b.batchCode(),
+                            b.receivedAt(),
+                            b.expiresAt(),
+                            b.qtyInitial(),
+                            b.qtyAvailable(),
+                            b.unitCost()
+                    ));
+        }
+
+        List<PurchaseItemResponse> itemResponses = items.stream()
+                .map(i -> new PurchaseItemResponse(
+                        i.id(),
+                        i.productId(),
+                        i.productName(),
+                        i.perishable(),
+                        i.quantity(),
+                        i.unitCost(),
+                        i.subTotal(),
+                        batchesByItemId.getOrDefault(i.id(), List.of())
+                ))
                 .toList();
 
-        return getPurchaseResponse(purchase, supplier, items);
+        return new PurchaseResponse(
+                header.id(),
+                header.purchaseDate(),
+                header.status(),
+                header.documentType(),
+                header.documentNumber(),
+                header.notes(),
+                header.createdByUserId(),
+                supplier,
+                header.totalAmount(),
+                header.postedAt(),
+                header.postedByUserId(),
+                header.voidedAt(),
+                header.voidedByUserId(),
+                header.voidReason(),
+                itemResponses
+        );
     }
 
     @NonNull
@@ -78,31 +125,4 @@ public class PurchaseMapper {
                 List.of()
         );
     }
-
-    private static PurchaseItemResponse toItemResponseWithBatches(PurchaseItem item, List<ProductBatch> batches) {
-        Product p = item.getProduct();
-
-        List<ProductBatchResponse> batchResponses = batches.stream()
-                .map(b -> new ProductBatchResponse(
-                        b.getId(),
-                        b.getBatchCode(),
-                        b.getReceivedAt(),
-                        b.getExpiresAt(),
-                        b.getQtyInitial(),
-                        b.getQtyAvailable(),
-                        b.getUnitCost()
-                ))
-                .toList();
-
-        return new PurchaseItemResponse(
-                item.getId(),
-                p.getId(),
-                p.getName(),
-                p.getPerishable(),
-                item.getQuantity(),
-                item.getUnitCost(),
-                item.getSubTotal(),
-                batchResponses
-        );
-    }
-}
\ No newline at end of file
+}
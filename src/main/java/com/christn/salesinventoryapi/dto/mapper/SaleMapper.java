@@ -4,6 +4,10 @@ import com.christn.salesinventoryapi.dto.response.SaleDetailLineResponse;
 import com.christn.salesinventoryapi.dto.response.SaleResponse;
 import com.christn.salesinventoryapi.dto.response.SaleSummaryResponse;
 import com.christn.salesinventoryapi.model.Sale;
+import com.christn.salesinventoryapi.repository.projection.SaleDetailLineView;
+import com.christn.salesinventoryapi.repository.projection.SaleHeaderView;
+
+import java.util.List;
 
 public class SaleMapper {
 
@@ -41,6 +45,38 @@ public class SaleMapper {
         );
     }
 
+    public static SaleResponse toResponse(SaleHeaderView sale, List<SaleDetailLineView> lines) {
+        var details = lines.stream()
+                .map(d -> new SaleDetailLineResponse(
+                        d.id(),
+                        d.productId(),
+                        d.productName(),
+                        d.quantity(),
+                        d.unitPrice(),
+                        d.subTotal()
+                ))
+                .toList();
+
+        return new SaleResponse(
+                sale.id(),
+                sale.saleDate(),
+                sale.status(),
+                sale.customerId(),
+                sale.customerName(),
+                sale.totalAmount(),
+                sale.createdAt(),
+                sale.createdByUserId(),
+                sale.postedAt(),
+                sale.postedByUserId(),
+                sale.completedAt(),
+                sale.completedByUserId(),
+                sale.voidedAt(),
+                sale.voidedByUserId(),
+                sale.voidReason(),
+                details
+        );
+    }
+
     public static SaleSummaryResponse toSummaryResponse(Sale sale) {
         return new SaleSummaryResponse(
                 sale.getId(),
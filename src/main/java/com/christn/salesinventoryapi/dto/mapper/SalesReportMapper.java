@@ -0,0 +1,49 @@
+package com.christn.salesinventoryapi.dto.mapper;
+
+import com.christn.salesinventoryapi.dto.response.SalesReportRowResponse;
+import com.christn.salesinventoryapi.repository.projection.SalesRollupRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+public class SalesReportMapper {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    public static SalesReportRowResponse toResponse(SalesRollupRow r) {
+        BigDecimal revenue = r.revenue() == null ? BigDecimal.ZERO : r.revenue();
+        BigDecimal cost = r.cost() == null ? BigDecimal.ZERO : r.cost();
+        BigDecimal margin = revenue.subtract(cost);
+        BigDecimal marginPct = revenue.signum() == 0
+                ? null
+                : margin.multiply(HUNDRED).divide(revenue, 2, RoundingMode.HALF_UP);
+
+        return new SalesReportRowResponse(
+                r.day(),
+                r.id(),
+                r.label(),
+                r.saleCount(),
+                r.units() == null ? 0L : r.units(),
+                revenue,
+                cost,
+                margin,
+                marginPct
+        );
+    }
+
+    // Total del reporte; el conteo de ventas solo se suma si todas las filas lo traen
+    public static SalesReportRowResponse total(List<SalesRollupRow> rows) {
+        Long saleCount = 0L;
+        long units = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal cost = BigDecimal.ZERO;
+        for (SalesRollupRow r : rows) {
+            saleCount = (saleCount == null || r.saleCount() == null) ? null : saleCount + r.saleCount();
+            units += r.units() == null ? 0 : r.units();
+            if (r.revenue() != null) revenue = revenue.add(r.revenue());
+            if (r.cost() != null) cost = cost.add(r.cost());
+        }
+        return toResponse(new SalesRollupRow(null, null, null, saleCount, units, revenue, cost));
+    }
+}
@@ -0,0 +1,21 @@
+package com.christn.salesinventoryapi.dto.mapper;
+
+import com.christn.salesinventoryapi.dto.response.StockAlertScanResponse;
+import com.christn.salesinventoryapi.model.StockAlertScan;
+
+public class StockAlertMapper {
+
+    public static StockAlertScanResponse toScanResponse(StockAlertScan s) {
+        return new StockAlertScanResponse(
+                s.getId(),
+                s.getStartedAt(),
+                s.getWatermark(),
+                s.getExpiryHorizon(),
+                s.getDurationMs(),
+                s.getProductsExamined(),
+                s.getBatchesExamined(),
+                s.getAlertsOpened(),
+                s.getAlertsResolved()
+        );
+    }
+}
@@ -0,0 +1,6 @@
+package com.christn.salesinventoryapi.dto.request;
+
+public enum DashboardMetric {
+    UNITS,
+    REVENUE
+}
@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+public record MovementExportRequest(
+        @NotNull(message = "from es requerido")
+        LocalDateTime from,
+
+        @NotNull(message = "to es requerido")
+        LocalDateTime to,
+
+        Long productId
+) {
+}
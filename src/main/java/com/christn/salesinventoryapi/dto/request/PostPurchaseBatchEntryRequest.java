@@ -0,0 +1,14 @@
+package com.christn.salesinventoryapi.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record PostPurchaseBatchEntryRequest(
+        @NotNull
+        Long purchaseId,
+
+        List<@Valid PostPurchaseItemRequest> items // Si null: un lote por ítem (solo no perecibles)
+) {
+}
@@ -0,0 +1,14 @@
+package com.christn.salesinventoryapi.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PostPurchaseBatchRequest(
+        @NotEmpty(message = "La lista de compras no puede estar vacía")
+        @Size(max = 500, message = "Máximo 500 compras por lote")
+        List<@Valid PostPurchaseBatchEntryRequest> purchases
+) {
+}
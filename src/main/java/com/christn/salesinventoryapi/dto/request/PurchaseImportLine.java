@@ -0,0 +1,14 @@
+package com.christn.salesinventoryapi.dto.request;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Una línea del archivo de recepción = un lote de un producto
+public record PurchaseImportLine(
+        Long productId,
+        BigDecimal unitCost,
+        Integer quantity,
+        String batchCode,
+        LocalDateTime expiresAt
+) {
+}
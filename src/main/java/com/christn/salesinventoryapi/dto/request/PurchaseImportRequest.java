@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.dto.request;
+
+import com.christn.salesinventoryapi.model.PurchaseDocumentType;
+
+import java.time.LocalDateTime;
+
+// Cabecera de la compra importada (las líneas llegan en el body como CSV/NDJSON)
+public record PurchaseImportRequest(
+        String importId,
+        Long supplierId,
+        LocalDateTime purchaseDate,
+        PurchaseDocumentType documentType,
+        String documentNumber,
+        String notes
+) {
+}
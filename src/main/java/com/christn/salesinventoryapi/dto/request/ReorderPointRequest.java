@@ -0,0 +1,12 @@
+package com.christn.salesinventoryapi.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+
+public record ReorderPointRequest(
+
+        @Schema(description = "Stock mínimo antes de alertar; null usa el valor por defecto", example = "10")
+        @Min(value = 0, message = "El punto de reorden no puede ser negativo")
+        Integer reorderPoint
+) {
+}
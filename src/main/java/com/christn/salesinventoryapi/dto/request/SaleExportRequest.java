@@ -0,0 +1,17 @@
+package com.christn.salesinventoryapi.dto.request;
+
+import com.christn.salesinventoryapi.model.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Mismos filtros que /api/sales/search
+public record SaleExportRequest(
+        Long customerId,
+        LocalDateTime from,
+        LocalDateTime to,
+        BigDecimal minTotal,
+        BigDecimal maxTotal,
+        SaleStatus status
+) {
+}
@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDateTime;
+
+public record AnalyticsCacheStatusResponse(
+        boolean ready,
+        int windowDays,
+        int sales,
+        long lines,
+        int chunks,
+        LocalDateTime loadedAt,
+        int failedLoads,
+        String lastError,
+        LocalDateTime lastFailureAt
+) {
+}
@@ -0,0 +1,15 @@
+package com.christn.salesinventoryapi.dto.response;
+
+public record BulkheadStatusResponse(
+        String name,
+        int maxConcurrent,
+        int active,
+        int waiting,
+        long accepted,
+        long rejected,
+        Integer poolMax,
+        Integer poolActive,
+        Integer poolIdle,
+        Integer poolPending
+) {
+}
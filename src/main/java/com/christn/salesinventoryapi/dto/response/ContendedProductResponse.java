@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDateTime;
+
+// overestimate: cota del error de la cuenta (el producto pudo heredar contadores de otro al llenarse el sketch)
+public record ContendedProductResponse(
+        Long productId,
+        String name,
+        long contentions,
+        long overestimate,
+        long failures,
+        long maxWaitMs,
+        String lastLock,
+        LocalDateTime lastSeenAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record DashboardHourlyRevenueResponse(
+        LocalDateTime hour,
+        long units,
+        BigDecimal revenue,
+        long lines
+) {
+}
@@ -0,0 +1,12 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.math.BigDecimal;
+
+public record DashboardTopProductResponse(
+        Long productId,
+        String productName,
+        long units,
+        BigDecimal revenue,
+        long lines
+) {
+}
@@ -0,0 +1,18 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import com.christn.salesinventoryapi.model.ExportStatus;
+
+import java.time.LocalDateTime;
+
+public record ExportJobResponse(
+        String id,
+        String type, // SALES, MOVEMENTS
+        ExportStatus status,
+        long rows,
+        long sizeBytes,
+        String fileName,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime finishedAt
+) {
+}
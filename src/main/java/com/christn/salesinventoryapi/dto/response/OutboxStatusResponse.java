@@ -0,0 +1,19 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDateTime;
+
+public record OutboxStatusResponse(
+        String sink,
+        long pending,
+        long parked,
+        LocalDateTime oldestPendingAt,
+        long lagMs,
+        long publishedTotal,
+        long failedBatches,
+        LocalDateTime lastRunAt,
+        int lastRunPublished,
+        long lastRunDurationMs,
+        double lastRunEventsPerSec,
+        String lastError
+) {
+}
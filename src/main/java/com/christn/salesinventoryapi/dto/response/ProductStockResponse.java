@@ -0,0 +1,12 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDateTime;
+
+public record ProductStockResponse(
+        Long productId,
+        Integer stock,
+        Integer qtyAvailable,
+        Integer batchCount,
+        LocalDateTime earliestExpiresAt
+) {
+}
@@ -0,0 +1,14 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.util.List;
+
+public record PurchaseBatchPostResponse(
+        int requested,
+        int posted,
+        int failed,
+        int groups,
+        int parallelism,
+        long elapsedMs,
+        List<PurchasePostResult> results
+) {
+}
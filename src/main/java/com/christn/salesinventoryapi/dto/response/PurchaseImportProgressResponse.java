@@ -0,0 +1,15 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDateTime;
+
+public record PurchaseImportProgressResponse(
+        String importId,
+        String phase, // READING, POSTING, DONE, FAILED
+        long linesRead,
+        long batchesCreated,
+        Long purchaseId,
+        String error,
+        LocalDateTime startedAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import com.christn.salesinventoryapi.model.PurchaseStatus;
+
+import java.math.BigDecimal;
+
+public record PurchaseImportResponse(
+        Long purchaseId,
+        PurchaseStatus status,
+        long linesRead,
+        int itemsCreated,
+        long batchesCreated,
+        BigDecimal totalAmount,
+        long elapsedMs
+) {
+}
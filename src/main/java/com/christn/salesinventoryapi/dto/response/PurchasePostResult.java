@@ -0,0 +1,13 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import com.christn.salesinventoryapi.model.PurchaseStatus;
+
+public record PurchasePostResult(
+        Long purchaseId,
+        int group,
+        boolean success,
+        PurchaseStatus status,
+        String error,
+        long elapsedMs
+) {
+}
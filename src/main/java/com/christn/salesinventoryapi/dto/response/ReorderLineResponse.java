@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.math.BigDecimal;
+
+public record ReorderLineResponse(
+        Long productId,
+        String productName,
+        double velocityPerDay,
+        int available,
+        int onOrder,
+        double leadTimeDays,
+        int suggestedQuantity,
+        BigDecimal unitCost,
+        BigDecimal subTotal
+) {
+}
@@ -0,0 +1,8 @@
+package com.christn.salesinventoryapi.dto.response;
+
+public record ReorderPointResponse(
+        Long productId,
+        Integer reorderPoint,
+        int effectiveReorderPoint
+) {
+}
@@ -0,0 +1,13 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReorderSuggestionResponse(
+        LocalDateTime generatedAt,
+        long durationMs,
+        int productsExamined,
+        int productsSuggested,
+        List<ReorderSupplierResponse> suppliers
+) {
+}
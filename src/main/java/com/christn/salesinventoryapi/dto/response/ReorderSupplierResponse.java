@@ -0,0 +1,13 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ReorderSupplierResponse(
+        Long supplierId,
+        String supplierName,
+        double leadTimeDays,
+        BigDecimal totalCost,
+        List<ReorderLineResponse> lines
+) {
+}
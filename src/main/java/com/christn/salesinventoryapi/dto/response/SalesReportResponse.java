@@ -0,0 +1,13 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record SalesReportResponse(
+        String groupBy,
+        LocalDate from,
+        LocalDate to,
+        SalesReportRowResponse total,
+        List<SalesReportRowResponse> rows
+) {
+}
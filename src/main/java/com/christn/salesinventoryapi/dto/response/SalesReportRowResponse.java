@@ -0,0 +1,17 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SalesReportRowResponse(
+        LocalDate day,
+        Long id,
+        String label,
+        Long saleCount,
+        Long units,
+        BigDecimal revenue,
+        BigDecimal cost,
+        BigDecimal margin,
+        BigDecimal marginPct
+) {
+}
@@ -0,0 +1,13 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDate;
+
+public record SalesRollupRebuildResponse(
+        LocalDate from,
+        LocalDate to,
+        int chunks,
+        long sellerRows,
+        long productRows,
+        long elapsedMs
+) {
+}
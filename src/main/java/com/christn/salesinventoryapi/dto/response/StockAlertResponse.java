@@ -0,0 +1,22 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import com.christn.salesinventoryapi.model.StockAlertStatus;
+import com.christn.salesinventoryapi.model.StockAlertType;
+
+import java.time.LocalDateTime;
+
+public record StockAlertResponse(
+        Long id,
+        StockAlertType type,
+        StockAlertStatus status,
+        Long productId,
+        String productName,
+        Long batchId,
+        String batchCode,
+        Integer quantity,
+        Integer threshold,
+        LocalDateTime expiresAt,
+        LocalDateTime detectedAt,
+        LocalDateTime resolvedAt
+) {
+}
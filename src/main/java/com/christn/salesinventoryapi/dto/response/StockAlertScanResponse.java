@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.dto.response;
+
+import java.time.LocalDateTime;
+
+public record StockAlertScanResponse(
+        Long id,
+        LocalDateTime startedAt,
+        LocalDateTime watermark,
+        LocalDateTime expiryHorizon,
+        long durationMs,
+        int productsExamined,
+        int batchesExamined,
+        int alertsOpened,
+        int alertsResolved
+) {
+}
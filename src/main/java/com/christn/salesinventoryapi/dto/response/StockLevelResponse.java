@@ -0,0 +1,8 @@
+package com.christn.salesinventoryapi.dto.response;
+
+public record StockLevelResponse(
+        Long productId,
+        Long categoryId,
+        Integer stock
+) {
+}
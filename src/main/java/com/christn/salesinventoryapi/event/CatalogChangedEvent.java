@@ -0,0 +1,21 @@
+package com.christn.salesinventoryapi.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Alta, edición, borrado lógico o restauración de productos o categorías. Se publica dentro de la transacción
+ * y se consume AFTER_COMMIT; un cambio de categoría afecta a todos los productos que la embeben.
+ */
+public record CatalogChangedEvent(
+        Collection<Long> productIds,
+        boolean categoriesChanged
+) {
+    public static CatalogChangedEvent product(Long productId) {
+        return new CatalogChangedEvent(List.of(productId), false);
+    }
+
+    public static CatalogChangedEvent categories() {
+        return new CatalogChangedEvent(List.of(), true);
+    }
+}
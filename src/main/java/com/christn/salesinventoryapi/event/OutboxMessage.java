@@ -0,0 +1,18 @@
+package com.christn.salesinventoryapi.event;
+
+import com.christn.salesinventoryapi.model.OutboxAggregateType;
+import com.christn.salesinventoryapi.model.OutboxEventType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+// Sobre que reciben los sinks; id es creciente y sirve como clave de idempotencia aguas abajo
+public record OutboxMessage(
+        Long id,
+        OutboxAggregateType aggregateType,
+        Long aggregateId,
+        OutboxEventType eventType,
+        LocalDateTime createdAt,
+        @JsonRawValue String payload
+) {
+}
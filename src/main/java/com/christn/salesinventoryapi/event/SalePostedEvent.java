@@ -0,0 +1,24 @@
+package com.christn.salesinventoryapi.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Venta publicada (DRAFT -> ACTIVE). Se publica dentro de la transacción de postSale;
+ * los listeners que no deben ver ventas revertidas usan AFTER_COMMIT.
+ */
+public record SalePostedEvent(
+        Long saleId,
+        LocalDateTime saleDate,
+        Long sellerUserId,
+        List<Line> lines
+) {
+    public record Line(
+            Long productId,
+            String productName,
+            int quantity,
+            BigDecimal unitPrice
+    ) {
+    }
+}
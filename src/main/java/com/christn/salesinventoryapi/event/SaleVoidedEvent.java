@@ -0,0 +1,10 @@
+package com.christn.salesinventoryapi.event;
+
+import java.time.LocalDateTime;
+
+// Venta publicada que se anula (ACTIVE -> VOIDED); las anulaciones de borradores no lo emiten
+public record SaleVoidedEvent(
+        Long saleId,
+        LocalDateTime voidedAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.christn.salesinventoryapi.event;
+
+import com.christn.salesinventoryapi.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Productos cuyo stock cambió por el post/void de una venta o compra (o una importación).
+ * Se publica dentro de la transacción; quien lo consume AFTER_COMMIT relee el stock confirmado,
+ * así dos commits del mismo producto que lleguen desordenados no dejan un valor viejo.
+ */
+public record StockChangedEvent(
+        Collection<Long> productIds
+) {
+    public static StockChangedEvent of(Collection<Product> products) {
+        List<Long> ids = products.stream().map(Product::getId).toList();
+        return new StockChangedEvent(ids);
+    }
+}
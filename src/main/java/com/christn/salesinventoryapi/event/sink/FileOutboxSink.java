@@ -0,0 +1,64 @@
+package com.christn.salesinventoryapi.event.sink;
+
+import com.christn.salesinventoryapi.event.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Agrega el lote como NDJSON al final del archivo y fuerza a disco antes de confirmar
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final JsonMapper jsonMapper;
+    // un escritor a la vez; ReentrantLock para no fijar hilos virtuales durante el force a disco
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public FileOutboxSink(@Value("${app.outbox.file.path:${java.io.tmpdir}/sales-outbox/events.ndjson}") Path file,
+            JsonMapper jsonMapper) {
+        this.file = file;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file:" + file;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) throws IOException {
+        if (batch.isEmpty()) return;
+        StringBuilder sb = new StringBuilder();
+        for (OutboxMessage message : batch) {
+            sb.append(jsonMapper.writeValueAsString(message)).append('\n');
+        }
+
+        writeLock.lock();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
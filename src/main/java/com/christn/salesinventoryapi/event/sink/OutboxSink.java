@@ -0,0 +1,18 @@
+package com.christn.salesinventoryapi.event.sink;
+
+import com.christn.salesinventoryapi.event.OutboxMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino del relay del outbox. Un lote se entrega completo o falla completo:
+ * si lanza excepción, ningún evento del lote se marca como publicado y se reintenta con backoff (at-least-once)
+ * hasta app.outbox.max-attempts; después el evento queda aparcado.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxMessage> batch) throws IOException;
+}
@@ -0,0 +1,79 @@
+package com.christn.salesinventoryapi.event.sink;
+
+import com.christn.salesinventoryapi.event.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POST del lote como NDJSON al webhook configurado; cualquier respuesta no 2xx es un fallo del lote.
+ * X-Outbox-Last-Id permite al receptor descartar reentregas (los ids son crecientes por agregado).
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "webhook")
+public class WebhookOutboxSink implements OutboxSink {
+
+    static final String LAST_ID_HEADER = "X-Outbox-Last-Id";
+
+    private final URI url;
+    private final Duration timeout;
+    private final JsonMapper jsonMapper;
+    private final HttpClient httpClient;
+
+    public WebhookOutboxSink(@Value("${app.outbox.webhook.url}") URI url,
+            @Value("${app.outbox.webhook.timeout-ms:5000}") long timeoutMs,
+            JsonMapper jsonMapper) {
+        this.url = url;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.jsonMapper = jsonMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook:" + url;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) throws IOException {
+        if (batch.isEmpty()) return;
+        StringBuilder body = new StringBuilder();
+        for (OutboxMessage message : batch) {
+            body.append(jsonMapper.writeValueAsString(message)).append('\n');
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .header(LAST_ID_HEADER, String.valueOf(batch.getLast().id()))
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Envío al webhook interrumpido", e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook respondió " + response.statusCode() + ": " + abbreviate(response.body()));
+        }
+    }
+
+    private static String abbreviate(String body) {
+        if (body == null) return "";
+        return body.length() <= 200 ? body : body.substring(0, 200) + "...";
+    }
+}
@@ -0,0 +1,8 @@
+package com.christn.salesinventoryapi.exception;
+
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String bulkhead, long waitedMs) {
+        super("Servicio saturado (" + bulkhead + "): sin capacidad tras " + waitedMs + " ms, reintente en unos segundos");
+    }
+}
@@ -1,9 +1,14 @@
 package com.christn.salesinventoryapi.exception;
 
+import com.christn.salesinventoryapi.diagnostics.LockFailure;
 import com.christn.salesinventoryapi.model.Role;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -13,6 +18,7 @@ import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -103,6 +109,11 @@ public class GlobalExceptionHandler {
     ) {
         Throwable cause = ex.getCause();
 
+        // Jackson envuelve lo que lanza el stream del cuerpo (p. ej. un gzip que se expande de más)
+        if (ex.getMostSpecificCause() instanceof RequestBodyTooLargeException tooLarge) {
+            return handleRequestBodyTooLarge(tooLarge, request);
+        }
+
         // Jackson enum inválido
         if (cause instanceof InvalidFormatException ife) {
 
@@ -181,6 +192,71 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ApiError> handleBulkheadFull(
+            BulkheadFullException ex,
+            HttpServletRequest request
+    ) {
+        log.warn("Bulkhead full: {}", ex.getMessage());
+        ResponseEntity<ApiError> response = buildError(
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    public ResponseEntity<ApiError> handleRequestBodyTooLarge(
+            RequestBodyTooLargeException ex,
+            HttpServletRequest request
+    ) {
+        log.warn("Request body too large: {}", ex.getMessage());
+        return buildError(
+                ex.getMessage(),
+                HttpStatus.CONTENT_TOO_LARGE,
+                request.getRequestURI()
+        );
+    }
+
+    // Deadlock/serialización → 409 (reintentar ya); lock_timeout/statement_timeout → 503 (recurso ocupado)
+    @ExceptionHandler({PessimisticLockingFailureException.class, QueryTimeoutException.class})
+    public ResponseEntity<ApiError> handleLockFailure(
+            DataAccessException ex,
+            HttpServletRequest request
+    ) {
+        LockFailure failure = LockFailure.classify(ex);
+        if (failure == null) failure = LockFailure.DEADLOCK;
+        log.warn("Lock failure {}: {}", failure, ex.getMessage());
+        ResponseEntity<ApiError> response = buildError(
+                failure.message(),
+                failure.conflict() ? HttpStatus.CONFLICT : HttpStatus.SERVICE_UNAVAILABLE,
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, failure.conflict() ? "1" : "2")
+                .body(response.getBody());
+    }
+
+    // Sin conexión disponible en el pool (connection-timeout de Hikari)
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ApiError> handleCannotCreateTransaction(
+            CannotCreateTransactionException ex,
+            HttpServletRequest request
+    ) {
+        log.warn("No database connection available: {}", ex.getMessage());
+        ResponseEntity<ApiError> response = buildError(
+                "Servicio saturado; reintente en unos segundos",
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiError> handleNotFound(
             EntityNotFoundException ex,
@@ -0,0 +1,8 @@
+package com.christn.salesinventoryapi.exception;
+
+public class RequestBodyTooLargeException extends RuntimeException {
+
+    public RequestBodyTooLargeException(long maxBytes) {
+        super("El cuerpo descomprimido supera el máximo permitido de " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,38 @@
+package com.christn.salesinventoryapi.jobs;
+
+import com.christn.salesinventoryapi.service.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayJob {
+
+    private final OutboxRelayService outboxRelayService;
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:1000}",
+            initialDelayString = "${app.outbox.initial-delay-ms:10000}")
+    public void relay() {
+        try {
+            outboxRelayService.drain();
+        } catch (RuntimeException e) {
+            // los eventos siguen pendientes: la próxima vuelta los reintenta
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${app.outbox.initial-delay-ms:10000}")
+    public void purge() {
+        try {
+            outboxRelayService.purgePublished();
+        } catch (RuntimeException e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.christn.salesinventoryapi.jobs;
+
+import com.christn.salesinventoryapi.config.ReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.datasource.read-routing.enabled", havingValue = "true")
+public class ReplicaLagProbeJob {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${app.datasource.read-routing.probe-interval-ms:1000}")
+    public void probe() {
+        try {
+            replicaRoutingDataSource.probeReplicas();
+        } catch (RuntimeException e) {
+            // las réplicas conservan su último estado; la siguiente vuelta vuelve a medir
+            log.error("Replica lag probe failed", e);
+        }
+    }
+}
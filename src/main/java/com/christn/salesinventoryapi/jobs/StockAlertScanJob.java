@@ -0,0 +1,28 @@
+package com.christn.salesinventoryapi.jobs;
+
+import com.christn.salesinventoryapi.service.StockAlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.alerts.scan-enabled", havingValue = "true", matchIfMissing = true)
+public class StockAlertScanJob {
+
+    private final StockAlertService stockAlertService;
+
+    @Scheduled(fixedDelayString = "${app.alerts.scan-interval-ms:300000}",
+            initialDelayString = "${app.alerts.initial-delay-ms:60000}")
+    public void scan() {
+        try {
+            stockAlertService.scan();
+        } catch (RuntimeException e) {
+            // sin nueva corrida registrada: la siguiente reintenta desde la misma marca de agua
+            log.error("Stock alert scan failed", e);
+        }
+    }
+}
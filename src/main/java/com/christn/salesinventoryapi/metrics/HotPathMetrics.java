@@ -0,0 +1,160 @@
+package com.christn.salesinventoryapi.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de las transiciones de estado del camino caliente (post/void de ventas y compras, pagos, JWT).
+ * Todos los medidores se registran al arrancar; en cada petición solo hay lecturas de EnumMap y
+ * System.nanoTime(). El tiempo total de cada transición lo da @Observed en el servicio.
+ */
+@Component
+public class HotPathMetrics {
+
+    public enum Flow {
+        SALE_POST("sale.post", Phase.LOCK_SALE, Phase.LOCK_PRODUCTS, Phase.VALIDATE, Phase.LOCK_BATCHES,
+                Phase.ALLOCATE, Phase.PERSIST, Phase.MAPPING, Phase.COMMIT),
+        SALE_VOID("sale.void", Phase.LOCK_SALE, Phase.LOCK_BATCHES, Phase.LOCK_PRODUCTS, Phase.PERSIST,
+                Phase.MAPPING, Phase.COMMIT),
+        PURCHASE_POST("purchase.post", Phase.LOCK_PURCHASE, Phase.LOCK_PRODUCTS, Phase.ALLOCATE, Phase.PERSIST,
+                Phase.MAPPING, Phase.COMMIT),
+        PURCHASE_VOID("purchase.void", Phase.LOCK_PURCHASE, Phase.VALIDATE, Phase.LOCK_PRODUCTS, Phase.PERSIST,
+                Phase.MAPPING, Phase.COMMIT),
+        PAYMENT_ADD("payment.add", Phase.LOCK_SALE, Phase.VALIDATE, Phase.PERSIST, Phase.MAPPING, Phase.COMMIT),
+        JWT("auth.jwt", Phase.VALIDATE, Phase.LOAD_USER);
+
+        private final String metric;
+        private final Phase[] phases;
+
+        Flow(String metric, Phase... phases) {
+            this.metric = metric;
+            this.phases = phases;
+        }
+    }
+
+    public enum Phase {
+        LOCK_SALE, LOCK_PURCHASE, LOCK_PRODUCTS, LOCK_BATCHES, VALIDATE, ALLOCATE, PERSIST, MAPPING,
+        // flush de Hibernate + COMMIT, medido con una sincronización de la transacción
+        COMMIT,
+        LOAD_USER
+    }
+
+    public enum SaleRejection {
+        NO_BATCHES, INSUFFICIENT_STOCK, RACE_CONDITION
+    }
+
+    private final Map<Flow, Map<Phase, Timer>> phaseTimers = new EnumMap<>(Flow.class);
+    private final Map<SaleRejection, Counter> saleRejections = new EnumMap<>(SaleRejection.class);
+    private final DistributionSummary saleLines;
+    private final DistributionSummary saleBatchesTouched;
+    private final DistributionSummary purchaseBatchesCreated;
+    private final Counter invalidTokens;
+
+    public HotPathMetrics(MeterRegistry registry) {
+        for (Flow flow : Flow.values()) {
+            Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+            for (Phase phase : flow.phases) {
+                timers.put(phase, Timer.builder(flow.metric + ".phase")
+                        .description("Tiempo por fase de " + flow.metric)
+                        .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                        .register(registry));
+            }
+            phaseTimers.put(flow, timers);
+        }
+        for (SaleRejection reason : SaleRejection.values()) {
+            saleRejections.put(reason, Counter.builder("sale.post.rejected")
+                    .description("Ventas rechazadas al publicar por falta de stock")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        saleLines = DistributionSummary.builder("sale.post.lines")
+                .description("Líneas por venta publicada")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(registry);
+        saleBatchesTouched = DistributionSummary.builder("sale.post.batches.touched")
+                .description("Lotes descontados por venta publicada")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(registry);
+        purchaseBatchesCreated = DistributionSummary.builder("purchase.post.batches.created")
+                .description("Lotes creados por compra publicada")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(registry);
+        invalidTokens = Counter.builder("auth.jwt.rejected")
+                .description("Tokens Bearer inválidos o expirados")
+                .register(registry);
+    }
+
+    /**
+     * Cronómetro de una transición: cada lap() registra el tiempo desde la vuelta anterior en la fase dada.
+     * Si hay transacción activa, la fase COMMIT se mide desde beforeCommit hasta afterCommit.
+     */
+    public Stopwatch start(Flow flow) {
+        return new Stopwatch(phaseTimers.get(flow));
+    }
+
+    public void saleRejected(SaleRejection reason) {
+        saleRejections.get(reason).increment();
+    }
+
+    public void salePosted(int lines, int batchesTouched) {
+        saleLines.record(lines);
+        saleBatchesTouched.record(batchesTouched);
+    }
+
+    public void purchasePosted(int batchesCreated) {
+        purchaseBatchesCreated.record(batchesCreated);
+    }
+
+    public void invalidToken() {
+        invalidTokens.increment();
+    }
+
+    public static final class Stopwatch {
+        private final Map<Phase, Timer> timers;
+        private long last = System.nanoTime();
+
+        private Stopwatch(Map<Phase, Timer> timers) {
+            this.timers = timers;
+            Timer commit = timers.get(Phase.COMMIT);
+            if (commit != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new CommitTimer(commit));
+            }
+        }
+
+        public void lap(Phase phase) {
+            long now = System.nanoTime();
+            timers.get(phase).record(now - last, TimeUnit.NANOSECONDS);
+            last = now;
+        }
+    }
+
+    private static final class CommitTimer implements TransactionSynchronization {
+        private final Timer timer;
+        private long started;
+
+        private CommitTimer(Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            started = System.nanoTime();
+        }
+
+        // registrada antes que los @TransactionalEventListener: no incluye su tiempo
+        @Override
+        public void afterCommit() {
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
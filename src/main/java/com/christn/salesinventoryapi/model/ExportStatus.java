@@ -0,0 +1,8 @@
+package com.christn.salesinventoryapi.model;
+
+public enum ExportStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
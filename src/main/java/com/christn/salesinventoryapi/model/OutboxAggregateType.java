@@ -0,0 +1,6 @@
+package com.christn.salesinventoryapi.model;
+
+public enum OutboxAggregateType {
+    SALE,
+    PURCHASE
+}
@@ -0,0 +1,18 @@
+package com.christn.salesinventoryapi.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Los pagos cuelgan de la venta: comparten agregado para mantener el orden respecto a post/void
+@Getter
+@RequiredArgsConstructor
+public enum OutboxEventType {
+    SALE_POSTED(OutboxAggregateType.SALE),
+    SALE_COMPLETED(OutboxAggregateType.SALE),
+    SALE_VOIDED(OutboxAggregateType.SALE),
+    SALE_PAYMENT_ADDED(OutboxAggregateType.SALE),
+    PURCHASE_POSTED(OutboxAggregateType.PURCHASE),
+    PURCHASE_VOIDED(OutboxAggregateType.PURCHASE);
+
+    private final OutboxAggregateType aggregateType;
+}
@@ -33,6 +33,10 @@ public class Product extends SoftDeletableEntity {
     @Column(nullable = false)
     private Integer stock;
 
+    // NULL = usa app.alerts.default-reorder-point
+    @Column(name = "reorder_point")
+    private Integer reorderPoint;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
@@ -0,0 +1,117 @@
+package com.christn.salesinventoryapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Resumen materializado del stock FEFO disponible por producto.
+ * Lo mantienen postPurchase/voidPurchase/postSale/voidSale bajo el lock del producto,
+ * así las validaciones y consultas de stock no necesitan recorrer product_batches.
+ */
+@Entity
+@Table(name = "product_stock_summaries")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductStockSummary implements Persistable<Long> {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "qty_available", nullable = false)
+    private Integer qtyAvailable = 0;
+
+    @Column(name = "batch_count", nullable = false)
+    private Integer batchCount = 0;
+
+    @Column(name = "earliest_expires_at")
+    private LocalDateTime earliestExpiresAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // id asignado manualmente: evita el SELECT previo de merge() al insertar
+    @Transient
+    private boolean newEntity;
+
+    public ProductStockSummary(Long productId) {
+        this.productId = productId;
+        this.newEntity = true;
+    }
+
+    @Override
+    public Long getId() {
+        return productId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    // Ingreso de un lote nuevo (compra)
+    public void addBatch(int qty, LocalDateTime expiresAt) {
+        addBatches(qty, 1, expiresAt);
+    }
+
+    public void addBatches(int qty, int batches, LocalDateTime earliestExpiresAt) {
+        this.qtyAvailable = qtyAvailable + qty;
+        this.batchCount = batchCount + batches;
+        this.earliestExpiresAt = earlier(this.earliestExpiresAt, earliestExpiresAt);
+    }
+
+    // Devolución de cantidad a un lote existente (anulación de venta)
+    public void restore(int qty, boolean reopened, LocalDateTime expiresAt) {
+        this.qtyAvailable = qtyAvailable + qty;
+        if (reopened) this.batchCount = batchCount + 1;
+        this.earliestExpiresAt = earlier(earliestExpiresAt, expiresAt);
+    }
+
+    // Recalcula desde el conjunto completo de lotes disponibles del producto
+    public void resetFrom(Collection<ProductBatch> availableBatches) {
+        int qty = 0;
+        int count = 0;
+        LocalDateTime earliest = null;
+        for (ProductBatch b : availableBatches) {
+            int avail = b.getQtyAvailable() == null ? 0 : b.getQtyAvailable();
+            if (avail <= 0) continue;
+            qty += avail;
+            count++;
+            earliest = earlier(earliest, b.getExpiresAt());
+        }
+        this.qtyAvailable = qty;
+        this.batchCount = count;
+        this.earliestExpiresAt = earliest;
+    }
+
+    public void reset(int qty, int count, LocalDateTime earliest) {
+        this.qtyAvailable = qty;
+        this.batchCount = count;
+        this.earliestExpiresAt = earliest;
+    }
+
+    private static LocalDateTime earlier(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) return current;
+        if (current == null) return candidate;
+        return candidate.isBefore(current) ? candidate : current;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+}
@@ -0,0 +1,49 @@
+package com.christn.salesinventoryapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totales diarios de ventas publicadas por producto; la categoría se resuelve al consultar.
+ * Se escriben con upserts incrementales desde postSale/voidSale; aquí solo se leen.
+ */
+@Entity
+@Table(name = "sales_daily_product_rollups")
+@IdClass(SalesDailyProductRollupId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class SalesDailyProductRollup {
+
+    @Id
+    @Column(name = "sale_day")
+    private LocalDate saleDay;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal cost = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
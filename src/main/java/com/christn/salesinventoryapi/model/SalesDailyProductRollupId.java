@@ -0,0 +1,19 @@
+package com.christn.salesinventoryapi.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class SalesDailyProductRollupId implements Serializable {
+
+    private LocalDate saleDay;
+    private Long productId;
+}
@@ -0,0 +1,53 @@
+package com.christn.salesinventoryapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totales diarios de ventas publicadas por vendedor (usuario que creó la venta).
+ * Se escriben con upserts incrementales desde postSale/voidSale; aquí solo se leen.
+ */
+@Entity
+@Table(name = "sales_daily_rollups")
+@IdClass(SalesDailyRollupId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class SalesDailyRollup {
+
+    @Id
+    @Column(name = "sale_day")
+    private LocalDate saleDay;
+
+    // 0 = ventas sin usuario (históricas)
+    @Id
+    @Column(name = "seller_user_id")
+    private Long sellerUserId;
+
+    @Column(name = "sale_count", nullable = false)
+    private Integer saleCount = 0;
+
+    @Column(nullable = false)
+    private Long units = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal cost = BigDecimal.ZERO;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,64 @@
+package com.christn.salesinventoryapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alerta de stock bajo (por producto) o de lote por vencer. La abre y la resuelve el scanner;
+ * hay a lo sumo una abierta por producto/lote.
+ */
+@Entity
+@Table(name = "stock_alerts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false, length = 20)
+    private StockAlertType alertType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockAlertStatus status = StockAlertStatus.OPEN;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batch_id")
+    private ProductBatch batch;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column
+    private Integer threshold;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    public void resolve(LocalDateTime now) {
+        this.status = StockAlertStatus.RESOLVED;
+        this.resolvedAt = now;
+        this.updatedAt = now;
+    }
+}
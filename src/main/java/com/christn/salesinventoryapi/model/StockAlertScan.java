@@ -0,0 +1,47 @@
+package com.christn.salesinventoryapi.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Corrida del scanner de alertas: métricas y marca de agua para la siguiente
+@Entity
+@Table(name = "stock_alert_scans")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockAlertScan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    // cambios revisados desde aquí (null = primera corrida, revisión completa)
+    @Column(name = "watermark")
+    private LocalDateTime watermark;
+
+    // lotes que vencen hasta aquí ya fueron evaluados
+    @Column(name = "expiry_horizon", nullable = false)
+    private LocalDateTime expiryHorizon;
+
+    @Column(name = "duration_ms", nullable = false)
+    private Long durationMs;
+
+    @Column(name = "products_examined", nullable = false)
+    private Integer productsExamined;
+
+    @Column(name = "batches_examined", nullable = false)
+    private Integer batchesExamined;
+
+    @Column(name = "alerts_opened", nullable = false)
+    private Integer alertsOpened;
+
+    @Column(name = "alerts_resolved", nullable = false)
+    private Integer alertsResolved;
+}
@@ -0,0 +1,6 @@
+package com.christn.salesinventoryapi.model;
+
+public enum StockAlertStatus {
+    OPEN,
+    RESOLVED
+}
@@ -0,0 +1,6 @@
+package com.christn.salesinventoryapi.model;
+
+public enum StockAlertType {
+    LOW_STOCK,
+    EXPIRING_BATCH
+}
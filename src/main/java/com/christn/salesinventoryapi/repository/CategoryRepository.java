@@ -1,7 +1,10 @@
 package com.christn.salesinventoryapi.repository;
 
 import com.christn.salesinventoryapi.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,6 +13,8 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     List<Category> findAllByDeletedFalse();
 
+    // Caché de consultas: Hibernate la invalida con cualquier escritura sobre la tabla (borrado lógico incluido)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByIdAndDeletedFalse(Long id);
 
     boolean existsByNameAndDeletedFalse(String name);
@@ -1,7 +1,10 @@
 package com.christn.salesinventoryapi.repository;
 
 import com.christn.salesinventoryapi.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
@@ -11,6 +14,8 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSp
 
     List<Customer> findAllByDeletedFalse();
 
+    // Caché de consultas: Hibernate la invalida con cualquier escritura sobre la tabla (borrado lógico incluido)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByIdAndDeletedFalse(Long id);
 
     boolean existsByEmailAndDeletedFalse(String email);
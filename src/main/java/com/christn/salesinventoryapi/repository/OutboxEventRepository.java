@@ -0,0 +1,7 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+}
@@ -1,23 +1,34 @@
 package com.christn.salesinventoryapi.repository;
 
+import com.christn.salesinventoryapi.diagnostics.ContendedLock;
 import com.christn.salesinventoryapi.model.ProductBatch;
+import com.christn.salesinventoryapi.repository.projection.BatchExpiryView;
+import com.christn.salesinventoryapi.repository.projection.BatchStockAggregate;
+import com.christn.salesinventoryapi.repository.projection.PurchaseBatchAggregate;
+import com.christn.salesinventoryapi.repository.projection.PurchaseBatchView;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductBatchRepository extends JpaRepository<ProductBatch, Long> {
 
+    // Lotes de una compra para el DETAIL (proyección plana, ordenada por ítem)
     @Query("""
-            SELECT b FROM ProductBatch b
-            JOIN FETCH b.product
-            JOIN FETCH b.purchaseItem pi
-            WHERE pi.purchase.id = :purchaseId
+                SELECT new com.christn.salesinventoryapi.repository.projection.PurchaseBatchView(
+                    pi.id, b.id, b.batchCode, b.receivedAt, b.expiresAt, b.qtyInitial, b.qtyAvailable, b.unitCost)
+                FROM ProductBatch b
+                JOIN b.purchaseItem pi
+                WHERE pi.purchase.id = :purchaseId
+                ORDER BY pi.id, b.id
             """)
-    List<ProductBatch> findBatchesByPurchaseId(@Param("purchaseId") Long purchaseId);
+    List<PurchaseBatchView> findBatchViewsByPurchaseId(@Param("purchaseId") Long purchaseId);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
@@ -29,6 +40,60 @@ public interface ProductBatchRepository extends JpaRepository<ProductBatch, Long
                   b.receivedAt ASC,
                   b.id ASC
             """)
+    @ContendedLock(ContendedLock.Resource.BATCH)
     List<ProductBatch> findAvailableBatchesForUpdate(@Param("productIds") List<Long> productIds);
 
+    // Recalcula el resumen FEFO (usa idx_batches_product_available)
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.BatchStockAggregate(
+                    b.product.id, SUM(b.qtyAvailable), COUNT(b), MIN(b.expiresAt))
+                FROM ProductBatch b
+                WHERE b.product.id IN :productIds
+                  AND b.qtyAvailable > 0
+                GROUP BY b.product.id
+            """)
+    List<BatchStockAggregate> aggregateAvailableByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // Totales por producto de los lotes de una compra (sin cargar los lotes)
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.PurchaseBatchAggregate(
+                    b.product.id, SUM(b.qtyInitial), SUM(b.qtyAvailable), COUNT(b))
+                FROM ProductBatch b
+                WHERE b.purchaseItem.purchase.id = :purchaseId
+                GROUP BY b.product.id
+            """)
+    List<PurchaseBatchAggregate> aggregateByPurchaseId(@Param("purchaseId") Long purchaseId);
+
+    // Anula solo lotes intactos; el conteo devuelto permite detectar consumos concurrentes
+    @Modifying(flushAutomatically = true)
+    @Query("""
+                UPDATE ProductBatch b
+                SET b.qtyAvailable = 0, b.updatedAt = :now
+                WHERE b.qtyAvailable = b.qtyInitial
+                  AND b.purchaseItem.id IN (
+                      SELECT pi.id FROM PurchaseItem pi WHERE pi.purchase.id = :purchaseId)
+            """)
+    int zeroUnconsumedByPurchaseId(@Param("purchaseId") Long purchaseId, @Param("now") LocalDateTime now);
+
+    // Lotes con saldo que entran a la ventana de vencimiento; product_id primero para usar idx_batches_fefo
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.BatchExpiryView(
+                    b.id, b.product.id, b.qtyAvailable, b.expiresAt)
+                FROM ProductBatch b
+                WHERE b.product.id IN :productIds
+                  AND b.expiresAt > :from AND b.expiresAt <= :to
+                  AND b.qtyAvailable > 0
+            """)
+    List<BatchExpiryView> findExpiringBetween(@Param("productIds") Collection<Long> productIds,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    // Lotes con vencimiento modificados desde la marca de agua (ingresos, consumos, anulaciones)
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.BatchExpiryView(
+                    b.id, b.product.id, b.qtyAvailable, b.expiresAt)
+                FROM ProductBatch b
+                WHERE b.updatedAt > :since AND b.expiresAt IS NOT NULL
+            """)
+    List<BatchExpiryView> findExpiryViewsChangedSince(@Param("since") LocalDateTime since);
 }
@@ -1,6 +1,9 @@
 package com.christn.salesinventoryapi.repository;
 
+import com.christn.salesinventoryapi.diagnostics.ContendedLock;
+import com.christn.salesinventoryapi.dto.response.StockLevelResponse;
 import com.christn.salesinventoryapi.model.Product;
+import com.christn.salesinventoryapi.repository.projection.ProductStockLevel;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +11,8 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +20,9 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     Optional<Product> findByIdAndDeletedFalse(Long id);
 
+    // Catálogo completo (compartimento backoffice): la categoría va en el mismo SELECT; cargarla lazy era un
+    // SELECT por categoría con la conexión del compartimento tomada
+    @EntityGraph(attributePaths = "category")
     List<Product> findAllByDeletedFalse();
 
     List<Product> findAllByCategoryIdAndDeletedFalse(Long categoryId);
@@ -27,5 +35,34 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.deleted = FALSE")
+    @ContendedLock(ContendedLock.Resource.PRODUCT)
     List<Product> findByIdInForUpdate(@Param("ids") List<Long> ids);
+
+    // Scanner de alertas: primera corrida (todos) y luego solo los modificados desde la marca de agua
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.ProductStockLevel(
+                    p.id, p.stock, p.reorderPoint, p.deleted)
+                FROM Product p
+                WHERE p.deleted = FALSE
+            """)
+    List<ProductStockLevel> findAllStockLevels();
+
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.ProductStockLevel(
+                    p.id, p.stock, p.reorderPoint, p.deleted)
+                FROM Product p
+                WHERE p.updatedAt > :since
+            """)
+    List<ProductStockLevel> findStockLevelsChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT p.id FROM Product p WHERE p.perishable = TRUE AND p.deleted = FALSE")
+    List<Long> findPerishableIds();
+
+    // Stream de stock: relee el valor confirmado de los productos marcados desde el último flush
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.dto.response.StockLevelResponse(p.id, p.category.id, p.stock)
+                FROM Product p
+                WHERE p.id IN :ids
+            """)
+    List<StockLevelResponse> findStockLevelsByIds(@Param("ids") Collection<Long> ids);
 }
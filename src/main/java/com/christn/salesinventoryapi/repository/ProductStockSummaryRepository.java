@@ -0,0 +1,7 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.model.ProductStockSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductStockSummaryRepository extends JpaRepository<ProductStockSummary, Long> {
+}
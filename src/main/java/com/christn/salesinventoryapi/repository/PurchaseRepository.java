@@ -1,12 +1,18 @@
 package com.christn.salesinventoryapi.repository;
 
+import com.christn.salesinventoryapi.diagnostics.ContendedLock;
 import com.christn.salesinventoryapi.model.Purchase;
+import com.christn.salesinventoryapi.repository.projection.PurchaseHeaderView;
+import com.christn.salesinventoryapi.repository.projection.PurchaseItemProductRef;
+import com.christn.salesinventoryapi.repository.projection.PurchaseItemView;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
@@ -20,15 +26,38 @@ public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
                 LEFT JOIN FETCH i.product
                 WHERE p.id = :id
             """)
+    @ContendedLock(ContendedLock.Resource.PURCHASE)
     Optional<Purchase> findByIdWithAllForUpdate(@Param("id") Long id);
 
-    // Para DETAIL base (SIN batches)
+    // Ítems + producto de varias compras (sin cargar entidades), para agrupar por conflicto de productos
     @Query("""
-                SELECT DISTINCT p FROM Purchase p
-                LEFT JOIN FETCH p.supplier
-                LEFT JOIN FETCH p.items i
-                LEFT JOIN FETCH i.product
+                SELECT new com.christn.salesinventoryapi.repository.projection.PurchaseItemProductRef(
+                    i.purchase.id, i.id, i.product.id)
+                FROM PurchaseItem i
+                WHERE i.purchase.id IN :ids
+                ORDER BY i.purchase.id, i.id
+            """)
+    List<PurchaseItemProductRef> findItemProductRefs(@Param("ids") Collection<Long> ids);
+
+    // DETAIL por proyecciones (sin entidades administradas): cabecera + ítems en queries planas
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.PurchaseHeaderView(
+                    p.id, p.purchaseDate, p.status, p.documentType, p.documentNumber, p.notes, p.createdByUserId,
+                    s.id, s.name, s.documentNumber, s.phone, s.email,
+                    p.totalAmount, p.postedAt, p.postedByUserId, p.voidedAt, p.voidedByUserId, p.voidReason)
+                FROM Purchase p
+                LEFT JOIN p.supplier s
                 WHERE p.id = :id
             """)
-    Optional<Purchase> findDetailBaseById(@Param("id") Long id);
+    Optional<PurchaseHeaderView> findHeaderViewById(@Param("id") Long id);
+
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.PurchaseItemView(
+                    i.id, pr.id, pr.name, pr.perishable, i.quantity, i.unitCost, i.subTotal)
+                FROM PurchaseItem i
+                JOIN i.product pr
+                WHERE i.purchase.id = :purchaseId
+                ORDER BY i.id
+            """)
+    List<PurchaseItemView> findItemViewsByPurchaseId(@Param("purchaseId") Long purchaseId);
 }
@@ -1,5 +1,6 @@
 package com.christn.salesinventoryapi.repository;
 
+import com.christn.salesinventoryapi.diagnostics.ContendedLock;
 import com.christn.salesinventoryapi.model.SaleBatchAllocation;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,6 +19,14 @@ public interface SaleBatchAllocationRepository extends JpaRepository<SaleBatchAl
                 JOIN FETCH b.product p
                 WHERE a.saleDetail.sale.id = :saleId
             """)
+    @ContendedLock(ContendedLock.Resource.SALE)
     List<SaleBatchAllocation> findAllBySaleIdForUpdate(@Param("saleId") Long saleId);
 
+    // Unidades vendidas (ventas no anuladas) desde los lotes de una compra
+    @Query("""
+                SELECT COALESCE(SUM(a.quantity), 0) FROM SaleBatchAllocation a
+                WHERE a.productBatch.purchaseItem.purchase.id = :purchaseId
+                  AND a.saleDetail.sale.status <> com.christn.salesinventoryapi.model.SaleStatus.VOIDED
+            """)
+    Long sumActiveQuantityByPurchaseId(@Param("purchaseId") Long purchaseId);
 }
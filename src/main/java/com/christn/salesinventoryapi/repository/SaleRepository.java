@@ -1,19 +1,24 @@
 package com.christn.salesinventoryapi.repository;
 
+import com.christn.salesinventoryapi.diagnostics.ContendedLock;
 import com.christn.salesinventoryapi.model.Sale;
+import com.christn.salesinventoryapi.repository.projection.SaleDetailLineView;
+import com.christn.salesinventoryapi.repository.projection.SaleHeaderView;
 import jakarta.persistence.LockModeType;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificationExecutor<Sale> {
+public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificationExecutor<Sale>,
+        SaleSearchRepository {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM Sale s WHERE s.id = :id")
+    @ContendedLock(ContendedLock.Resource.SALE)
     Optional<Sale> findByIdForUpdate(@Param("id") Long id);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
@@ -24,20 +29,30 @@ public interface SaleRepository extends JpaRepository<Sale, Long>, JpaSpecificat
                 LEFT JOIN FETCH s.customer c
                 WHERE s.id = :id
             """)
+    @ContendedLock(ContendedLock.Resource.SALE)
     Optional<Sale> findByIdWithDetailsForUpdate(@Param("id") Long id);
 
+    // DETAIL de solo lectura: proyecciones planas, sin entidades ni snapshots de dirty-checking
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("""
-                SELECT DISTINCT s FROM Sale s
-                LEFT JOIN FETCH s.details d
-                LEFT JOIN FETCH d.product p
-                LEFT JOIN FETCH s.customer c
+                SELECT new com.christn.salesinventoryapi.repository.projection.SaleHeaderView(
+                    s.id, s.saleDate, s.status, c.id, c.fullName, s.totalAmount, s.createdAt, s.createdByUserId,
+                    s.postedAt, s.postedByUserId, s.completedAt, s.completedByUserId,
+                    s.voidedAt, s.voidedByUserId, s.voidReason)
+                FROM Sale s
+                LEFT JOIN s.customer c
                 WHERE s.id = :id
             """)
-    Optional<Sale> findByIdWithDetails(@Param("id") Long id);
-
-
-    @Override
-    @EntityGraph(attributePaths = "customer")
-    Page<Sale> findAll(Specification<Sale> spec, Pageable pageable);
+    Optional<SaleHeaderView> findHeaderViewById(@Param("id") Long id);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.SaleDetailLineView(
+                    d.id, p.id, p.name, d.quantity, d.unitPrice, d.subTotal)
+                FROM SaleDetail d
+                JOIN d.product p
+                WHERE d.sale.id = :saleId
+                ORDER BY d.id
+            """)
+    List<SaleDetailLineView> findDetailViewsBySaleId(@Param("saleId") Long saleId);
 }
@@ -0,0 +1,19 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.dto.response.SaleSummaryResponse;
+import com.christn.salesinventoryapi.repository.spec.SaleSearchFilter;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+public interface SaleSearchRepository {
+
+    // Resumen por proyección (sin hidratar Sale/Customer)
+    List<SaleSummaryResponse> searchSummaries(SaleSearchFilter filter, Sort sort, long offset, int limit);
+
+    long countSales(SaleSearchFilter filter);
+
+    // Estimación del planner de PostgreSQL; vacío si la base no la soporta
+    OptionalLong estimateCount(SaleSearchFilter filter);
+}
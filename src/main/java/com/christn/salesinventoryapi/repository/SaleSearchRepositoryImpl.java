@@ -0,0 +1,87 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.dto.response.SaleSummaryResponse;
+import com.christn.salesinventoryapi.model.Customer;
+import com.christn.salesinventoryapi.model.Sale;
+import com.christn.salesinventoryapi.repository.spec.SaleSearchFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.*;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class SaleSearchRepositoryImpl implements SaleSearchRepository {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SaleSummaryResponse> searchSummaries(SaleSearchFilter filter, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SaleSummaryResponse> query = cb.createQuery(SaleSummaryResponse.class);
+        Root<Sale> sale = query.from(Sale.class);
+        Join<Sale, Customer> customer = sale.join("customer", JoinType.LEFT);
+
+        query.select(cb.construct(SaleSummaryResponse.class,
+                sale.get("id"),
+                sale.get("saleDate"),
+                sale.get("status"),
+                sale.get("totalAmount"),
+                customer.get("id"),
+                customer.get("fullName")
+        ));
+
+        Predicate where = filter.toSpecification().toPredicate(sale, query, cb);
+        if (where != null) query.where(where);
+        query.orderBy(QueryUtils.toOrders(sort, sale, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public long countSales(SaleSearchFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Sale> sale = query.from(Sale.class);
+
+        query.select(cb.count(sale));
+        Predicate where = filter.toSpecification().toPredicate(sale, query, cb);
+        if (where != null) query.where(where);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public OptionalLong estimateCount(SaleSearchFilter filter) {
+        var dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        if (!(dialect instanceof PostgreSQLDialect)) return OptionalLong.empty();
+
+        // EXPLAIN no ejecuta la consulta: devuelve las filas estimadas con las estadísticas de la tabla
+        List<Object> params = new ArrayList<>();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM sales s WHERE 1 = 1" +
+                filter.toSqlWhere("s", params, i -> "?" + i);
+
+        Query query = entityManager.createNativeQuery(sql);
+        for (int i = 0; i < params.size(); i++) query.setParameter(i + 1, params.get(i));
+
+        Matcher m = PLAN_ROWS.matcher(String.valueOf(query.getSingleResult()));
+        return m.find() ? OptionalLong.of(Long.parseLong(m.group(1))) : OptionalLong.empty();
+    }
+}
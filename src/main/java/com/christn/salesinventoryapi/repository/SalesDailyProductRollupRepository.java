@@ -0,0 +1,45 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.model.SalesDailyProductRollup;
+import com.christn.salesinventoryapi.model.SalesDailyProductRollupId;
+import com.christn.salesinventoryapi.repository.projection.SalesRollupRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesDailyProductRollupRepository
+        extends JpaRepository<SalesDailyProductRollup, SalesDailyProductRollupId> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.SalesRollupRow(
+                    r.productId, p.name, SUM(r.units), SUM(r.revenue), SUM(r.cost)
+                )
+                FROM SalesDailyProductRollup r
+                LEFT JOIN Product p ON p.id = r.productId
+                WHERE r.saleDay BETWEEN :from AND :to
+                GROUP BY r.productId, p.name
+                ORDER BY SUM(r.revenue) DESC, r.productId
+            """)
+    List<SalesRollupRow> sumByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.SalesRollupRow(
+                    c.id, c.name, SUM(r.units), SUM(r.revenue), SUM(r.cost)
+                )
+                FROM SalesDailyProductRollup r
+                JOIN Product p ON p.id = r.productId
+                JOIN p.category c
+                WHERE r.saleDay BETWEEN :from AND :to
+                GROUP BY c.id, c.name
+                ORDER BY SUM(r.revenue) DESC, c.id
+            """)
+    List<SalesRollupRow> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,42 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.model.SalesDailyRollup;
+import com.christn.salesinventoryapi.model.SalesDailyRollupId;
+import com.christn.salesinventoryapi.repository.projection.SalesRollupRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, SalesDailyRollupId> {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.SalesRollupRow(
+                    r.saleDay, SUM(r.saleCount), SUM(r.units), SUM(r.revenue), SUM(r.cost)
+                )
+                FROM SalesDailyRollup r
+                WHERE r.saleDay BETWEEN :from AND :to
+                GROUP BY r.saleDay
+                ORDER BY r.saleDay
+            """)
+    List<SalesRollupRow> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+                SELECT new com.christn.salesinventoryapi.repository.projection.SalesRollupRow(
+                    r.sellerUserId, u.email, SUM(r.saleCount), SUM(r.units), SUM(r.revenue), SUM(r.cost)
+                )
+                FROM SalesDailyRollup r
+                LEFT JOIN User u ON u.id = r.sellerUserId
+                WHERE r.saleDay BETWEEN :from AND :to
+                GROUP BY r.sellerUserId, u.email
+                ORDER BY SUM(r.revenue) DESC, r.sellerUserId
+            """)
+    List<SalesRollupRow> sumBySeller(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,55 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.dto.response.StockAlertResponse;
+import com.christn.salesinventoryapi.model.StockAlert;
+import com.christn.salesinventoryapi.model.StockAlertStatus;
+import com.christn.salesinventoryapi.model.StockAlertType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+
+    @Query("""
+                SELECT a FROM StockAlert a
+                WHERE a.alertType = com.christn.salesinventoryapi.model.StockAlertType.LOW_STOCK
+                  AND a.status = com.christn.salesinventoryapi.model.StockAlertStatus.OPEN
+                  AND a.product.id IN :productIds
+            """)
+    List<StockAlert> findOpenLowStockByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("""
+                SELECT a FROM StockAlert a
+                WHERE a.alertType = com.christn.salesinventoryapi.model.StockAlertType.EXPIRING_BATCH
+                  AND a.status = com.christn.salesinventoryapi.model.StockAlertStatus.OPEN
+                  AND a.batch.id IN :batchIds
+            """)
+    List<StockAlert> findOpenExpiringByBatchIds(@Param("batchIds") Collection<Long> batchIds);
+
+    @Query(value = """
+                SELECT new com.christn.salesinventoryapi.dto.response.StockAlertResponse(
+                    a.id, a.alertType, a.status, p.id, p.name, b.id, b.batchCode, a.quantity, a.threshold,
+                    a.expiresAt, a.detectedAt, a.resolvedAt)
+                FROM StockAlert a
+                JOIN a.product p
+                LEFT JOIN a.batch b
+                WHERE (:status IS NULL OR a.status = :status)
+                  AND (:type IS NULL OR a.alertType = :type)
+                  AND (:productId IS NULL OR p.id = :productId)
+            """,
+            countQuery = """
+                SELECT COUNT(a) FROM StockAlert a
+                WHERE (:status IS NULL OR a.status = :status)
+                  AND (:type IS NULL OR a.alertType = :type)
+                  AND (:productId IS NULL OR a.product.id = :productId)
+            """)
+    Page<StockAlertResponse> search(@Param("status") StockAlertStatus status,
+                                    @Param("type") StockAlertType type,
+                                    @Param("productId") Long productId,
+                                    Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.model.StockAlertScan;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StockAlertScanRepository extends JpaRepository<StockAlertScan, Long> {
+
+    Optional<StockAlertScan> findFirstByOrderByStartedAtDesc();
+
+    List<StockAlertScan> findTop20ByOrderByStartedAtDesc();
+}
@@ -0,0 +1,11 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record BatchExpiryView(
+        Long batchId,
+        Long productId,
+        Integer qtyAvailable,
+        LocalDateTime expiresAt
+) {
+}
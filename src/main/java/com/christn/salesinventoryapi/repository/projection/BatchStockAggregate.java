@@ -0,0 +1,11 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record BatchStockAggregate(
+        Long productId,
+        Long qtyAvailable,
+        Long batchCount,
+        LocalDateTime earliestExpiresAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+public record ProductStockLevel(
+        Long productId,
+        Integer stock,
+        Integer reorderPoint,
+        Boolean deleted
+) {
+}
@@ -0,0 +1,9 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+public record PurchaseBatchAggregate(
+        Long productId,
+        Long qtyInitial,
+        Long qtyAvailable,
+        Long batchCount
+) {
+}
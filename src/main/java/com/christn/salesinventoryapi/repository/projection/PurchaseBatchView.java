@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PurchaseBatchView(
+        Long purchaseItemId,
+        Long id,
+        String batchCode,
+        LocalDateTime receivedAt,
+        LocalDateTime expiresAt,
+        Integer qtyInitial,
+        Integer qtyAvailable,
+        BigDecimal unitCost
+) {
+}
@@ -0,0 +1,29 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import com.christn.salesinventoryapi.model.PurchaseDocumentType;
+import com.christn.salesinventoryapi.model.PurchaseStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PurchaseHeaderView(
+        Long id,
+        LocalDateTime purchaseDate,
+        PurchaseStatus status,
+        PurchaseDocumentType documentType,
+        String documentNumber,
+        String notes,
+        Long createdByUserId,
+        Long supplierId,
+        String supplierName,
+        String supplierDocumentNumber,
+        String supplierPhone,
+        String supplierEmail,
+        BigDecimal totalAmount,
+        LocalDateTime postedAt,
+        Long postedByUserId,
+        LocalDateTime voidedAt,
+        Long voidedByUserId,
+        String voidReason
+) {
+}
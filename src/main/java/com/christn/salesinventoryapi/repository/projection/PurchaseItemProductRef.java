@@ -0,0 +1,8 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+public record PurchaseItemProductRef(
+        Long purchaseId,
+        Long purchaseItemId,
+        Long productId
+) {
+}
@@ -0,0 +1,14 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import java.math.BigDecimal;
+
+public record PurchaseItemView(
+        Long id,
+        Long productId,
+        String productName,
+        Boolean perishable,
+        Integer quantity,
+        BigDecimal unitCost,
+        BigDecimal subTotal
+) {
+}
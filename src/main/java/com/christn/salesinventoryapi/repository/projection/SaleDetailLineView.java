@@ -0,0 +1,13 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import java.math.BigDecimal;
+
+public record SaleDetailLineView(
+        Long id,
+        Long productId,
+        String productName,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal subTotal
+) {
+}
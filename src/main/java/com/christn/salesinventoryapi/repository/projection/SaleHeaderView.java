@@ -0,0 +1,25 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import com.christn.salesinventoryapi.model.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SaleHeaderView(
+        Long id,
+        LocalDateTime saleDate,
+        SaleStatus status,
+        Long customerId,
+        String customerName,
+        BigDecimal totalAmount,
+        LocalDateTime createdAt,
+        Long createdByUserId,
+        LocalDateTime postedAt,
+        Long postedByUserId,
+        LocalDateTime completedAt,
+        Long completedByUserId,
+        LocalDateTime voidedAt,
+        Long voidedByUserId,
+        String voidReason
+) {
+}
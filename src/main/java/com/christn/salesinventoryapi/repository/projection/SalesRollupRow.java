@@ -0,0 +1,29 @@
+package com.christn.salesinventoryapi.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SalesRollupRow(
+        LocalDate day,
+        Long id,
+        String label,
+        Long saleCount,
+        Long units,
+        BigDecimal revenue,
+        BigDecimal cost
+) {
+    // por día
+    public SalesRollupRow(LocalDate day, Long saleCount, Long units, BigDecimal revenue, BigDecimal cost) {
+        this(day, null, null, saleCount, units, revenue, cost);
+    }
+
+    // por vendedor
+    public SalesRollupRow(Long id, String label, Long saleCount, Long units, BigDecimal revenue, BigDecimal cost) {
+        this(null, id, label, saleCount, units, revenue, cost);
+    }
+
+    // por producto/categoría: el conteo de ventas no es sumable entre productos
+    public SalesRollupRow(Long id, String label, Long units, BigDecimal revenue, BigDecimal cost) {
+        this(null, id, label, null, units, revenue, cost);
+    }
+}
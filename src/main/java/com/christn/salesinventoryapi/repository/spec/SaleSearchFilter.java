@@ -0,0 +1,59 @@
+package com.christn.salesinventoryapi.repository.spec;
+
+import com.christn.salesinventoryapi.model.Sale;
+import com.christn.salesinventoryapi.model.SaleStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public record SaleSearchFilter(
+        Long customerId,
+        LocalDateTime from,
+        LocalDateTime to,
+        BigDecimal minTotal,
+        BigDecimal maxTotal,
+        SaleStatus status
+) {
+
+    public boolean hasDateOrAmountRange() {
+        return from != null || to != null || minTotal != null || maxTotal != null;
+    }
+
+    /**
+     * Mismos predicados que {@link #toSpecification()} en SQL nativo sobre la tabla sales.
+     * Agrega los valores a {@code params}; {@code placeholder} recibe la posición (1-based) del parámetro.
+     */
+    public String toSqlWhere(String alias, List<Object> params, IntFunction<String> placeholder) {
+        StringBuilder sql = new StringBuilder();
+        appendSql(sql, params, placeholder, alias + ".customer_id = ", customerId);
+        appendSql(sql, params, placeholder, alias + ".sale_date >= ", from);
+        appendSql(sql, params, placeholder, alias + ".sale_date <= ", to);
+        appendSql(sql, params, placeholder, alias + ".total_amount >= ", minTotal);
+        appendSql(sql, params, placeholder, alias + ".total_amount <= ", maxTotal);
+        appendSql(sql, params, placeholder, alias + ".status = ", status != null ? status.name() : null);
+        return sql.toString();
+    }
+
+    private static void appendSql(StringBuilder sql, List<Object> params, IntFunction<String> placeholder,
+            String condition, Object value) {
+        if (value == null) return;
+        params.add(value);
+        sql.append(" AND ").append(condition).append(placeholder.apply(params.size()));
+    }
+
+    public Specification<Sale> toSpecification() {
+        Specification<Sale> spec = (root, query, cb) -> cb.conjunction();
+
+        if (customerId != null) spec = spec.and(SaleSpecifications.customerId(customerId));
+        if (from != null) spec = spec.and(SaleSpecifications.from(from));
+        if (to != null) spec = spec.and(SaleSpecifications.to(to));
+        if (minTotal != null) spec = spec.and(SaleSpecifications.minTotal(minTotal));
+        if (maxTotal != null) spec = spec.and(SaleSpecifications.maxTotal(maxTotal));
+        if (status != null) spec = spec.and(SaleSpecifications.status(status));
+
+        return spec;
+    }
+}
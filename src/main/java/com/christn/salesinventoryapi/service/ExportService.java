@@ -0,0 +1,19 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.MovementExportRequest;
+import com.christn.salesinventoryapi.dto.request.SaleExportRequest;
+import com.christn.salesinventoryapi.dto.response.ExportJobResponse;
+
+import java.nio.file.Path;
+
+public interface ExportService {
+
+    ExportJobResponse submitSales(SaleExportRequest request);
+
+    ExportJobResponse submitMovements(MovementExportRequest request);
+
+    ExportJobResponse getJob(String jobId);
+
+    // Archivo .csv.gz terminado (solo jobs DONE)
+    Path getFile(String jobId);
+}
@@ -0,0 +1,11 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.ContendedProductResponse;
+
+import java.util.List;
+
+public interface LockDiagnosticsService {
+
+    // Productos con más esperas largas o fallos de lock desde el arranque (aproximado, memoria acotada)
+    List<ContendedProductResponse> topContendedProducts(int limit);
+}
@@ -0,0 +1,17 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.OutboxStatusResponse;
+
+public interface OutboxRelayService {
+
+    // Drena lotes hasta vaciar la cola (o hasta el máximo por corrida); devuelve eventos publicados
+    int drain();
+
+    // Borra los eventos publicados hace más de la retención configurada
+    int purgePublished();
+
+    // Devuelve los eventos aparcados a la cola con los intentos en cero; devuelve cuántos
+    int requeueParked();
+
+    OutboxStatusResponse status();
+}
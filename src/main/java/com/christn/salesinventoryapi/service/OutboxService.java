@@ -0,0 +1,9 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.model.OutboxEventType;
+
+public interface OutboxService {
+
+    // Registra el evento en la transacción en curso (falla si no hay una)
+    void append(OutboxEventType type, Long aggregateId, Object payload);
+}
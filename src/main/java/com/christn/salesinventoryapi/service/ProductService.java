@@ -3,6 +3,7 @@ package com.christn.salesinventoryapi.service;
 import com.christn.salesinventoryapi.dto.request.ProductRequest;
 import com.christn.salesinventoryapi.dto.response.PageResponse;
 import com.christn.salesinventoryapi.dto.response.ProductResponse;
+import com.christn.salesinventoryapi.dto.response.ProductStockResponse;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
@@ -18,6 +19,8 @@ public interface ProductService {
 
     ProductResponse findById(Long id);
 
+    ProductStockResponse getStock(Long id);
+
     ProductResponse update(Long id, ProductRequest request);
 
     void delete(Long id);
@@ -0,0 +1,19 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.PurchaseImportFormat;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportRequest;
+import com.christn.salesinventoryapi.dto.response.PurchaseImportProgressResponse;
+import com.christn.salesinventoryapi.dto.response.PurchaseImportResponse;
+
+import java.io.InputStream;
+
+public interface PurchaseImportService {
+
+    // Crea y postea una compra leyendo las líneas (lotes) en streaming
+    // - valida productos por chunks
+    // - inserta lotes con batch JDBC
+    // - todo o nada: una sola transacción
+    PurchaseImportResponse importReceipt(PurchaseImportRequest request, PurchaseImportFormat format, InputStream body);
+
+    PurchaseImportProgressResponse getProgress(String importId);
+}
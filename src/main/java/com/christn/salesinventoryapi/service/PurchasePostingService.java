@@ -0,0 +1,9 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.PostPurchaseBatchRequest;
+import com.christn.salesinventoryapi.dto.response.PurchaseBatchPostResponse;
+
+public interface PurchasePostingService {
+
+    PurchaseBatchPostResponse postBatch(PostPurchaseBatchRequest request);
+}
@@ -0,0 +1,15 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.dto.response.ReorderSuggestionResponse;
+
+import java.util.List;
+
+public interface ReorderService {
+
+    // Sugerencias de compra por proveedor para todo el catálogo (no persiste nada)
+    ReorderSuggestionResponse suggest();
+
+    // Crea una compra DRAFT por proveedor a partir de las sugerencias (opcionalmente solo uno)
+    List<PurchaseResponse> createDrafts(Long supplierId);
+}
@@ -38,7 +38,7 @@ public interface SaleService {
     // Lectura
     SaleResponse getById(Long saleId);
 
-    // Búsqueda paginada (summary)
+    // Búsqueda paginada (summary); approximateCount evita el COUNT exacto
     PageResponse<SaleSummaryResponse> search(
             Long customerId,
             LocalDateTime from,
@@ -46,6 +46,7 @@ public interface SaleService {
             BigDecimal minTotal,
             BigDecimal maxTotal,
             SaleStatus status,
-            Pageable pageable
+            Pageable pageable,
+            boolean approximateCount
     );
 }
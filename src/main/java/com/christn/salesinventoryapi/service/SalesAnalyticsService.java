@@ -0,0 +1,18 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.DashboardMetric;
+import com.christn.salesinventoryapi.dto.response.AnalyticsCacheStatusResponse;
+import com.christn.salesinventoryapi.dto.response.DashboardHourlyRevenueResponse;
+import com.christn.salesinventoryapi.dto.response.DashboardTopProductResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesAnalyticsService {
+
+    List<DashboardTopProductResponse> topProducts(LocalDateTime from, LocalDateTime to, DashboardMetric metric, int limit);
+
+    List<DashboardHourlyRevenueResponse> hourlyRevenue(LocalDateTime from, LocalDateTime to);
+
+    AnalyticsCacheStatusResponse status();
+}
@@ -0,0 +1,16 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.SalesReportResponse;
+
+import java.time.LocalDate;
+
+public interface SalesReportService {
+
+    SalesReportResponse byDay(LocalDate from, LocalDate to);
+
+    SalesReportResponse byProduct(LocalDate from, LocalDate to);
+
+    SalesReportResponse byCategory(LocalDate from, LocalDate to);
+
+    SalesReportResponse bySeller(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,20 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.SalesRollupRebuildResponse;
+import com.christn.salesinventoryapi.model.Sale;
+import com.christn.salesinventoryapi.model.SaleBatchAllocation;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesRollupService {
+
+    // Suma la venta recién publicada; el costo sale de las allocations que se acaban de crear
+    void recordPosted(Sale sale, List<SaleBatchAllocation> allocations);
+
+    // Resta una venta publicada que se anula; el costo sale de sus allocations
+    void recordVoided(Sale sale, List<SaleBatchAllocation> allocations);
+
+    // Recalcula los rollups del rango desde sales/sale_details/sale_batch_allocations
+    SalesRollupRebuildResponse rebuild(LocalDate from, LocalDate to);
+}
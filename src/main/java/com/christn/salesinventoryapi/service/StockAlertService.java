@@ -0,0 +1,25 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.ReorderPointRequest;
+import com.christn.salesinventoryapi.dto.response.PageResponse;
+import com.christn.salesinventoryapi.dto.response.ReorderPointResponse;
+import com.christn.salesinventoryapi.dto.response.StockAlertResponse;
+import com.christn.salesinventoryapi.dto.response.StockAlertScanResponse;
+import com.christn.salesinventoryapi.model.StockAlertStatus;
+import com.christn.salesinventoryapi.model.StockAlertType;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface StockAlertService {
+
+    // Una corrida incremental del scanner (también la usa el job programado)
+    StockAlertScanResponse scan();
+
+    PageResponse<StockAlertResponse> search(StockAlertStatus status, StockAlertType type, Long productId,
+            Pageable pageable);
+
+    List<StockAlertScanResponse> recentScans();
+
+    ReorderPointResponse updateReorderPoint(Long productId, ReorderPointRequest request);
+}
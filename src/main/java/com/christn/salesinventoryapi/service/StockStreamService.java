@@ -0,0 +1,13 @@
+package com.christn.salesinventoryapi.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+public interface StockStreamService {
+
+    // Suscripción SSE a cambios de stock; categoryIds vacío = todas las categorías
+    SseEmitter subscribe(Set<Long> categoryIds);
+
+    int subscribers();
+}
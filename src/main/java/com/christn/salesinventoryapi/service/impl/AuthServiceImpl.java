@@ -121,7 +121,9 @@ public class AuthServiceImpl implements AuthService {
         refreshTokenRepository.revokeByTokenHashAndUserId(hash, principal.getId(), LocalDateTime.now());
     }
 
+    // UPDATE masivo (@Modifying): sin transacción fallaba con 500 en el compartimento auth
     @Override
+    @Transactional
     public void logoutAll(AuthUserDetails principal) {
         refreshTokenRepository.revokeAllByUserId(principal.getId(), LocalDateTime.now());
     }
@@ -3,11 +3,13 @@ package com.christn.salesinventoryapi.service.impl;
 import com.christn.salesinventoryapi.dto.mapper.CategoryMapper;
 import com.christn.salesinventoryapi.dto.request.CategoryRequest;
 import com.christn.salesinventoryapi.dto.response.CategoryResponse;
+import com.christn.salesinventoryapi.event.CatalogChangedEvent;
 import com.christn.salesinventoryapi.model.Category;
 import com.christn.salesinventoryapi.repository.CategoryRepository;
 import com.christn.salesinventoryapi.service.CategoryService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,7 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -30,7 +33,9 @@ public class CategoryServiceImpl implements CategoryService {
         category.setName(request.name());
         category.setDescription(request.description());
 
-        return CategoryMapper.toResponse(repository.save(category));
+        category = repository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.categories());
+        return CategoryMapper.toResponse(category);
     }
 
     @Override
@@ -63,6 +68,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setName(request.name());
         category.setDescription(request.description());
 
+        eventPublisher.publishEvent(CatalogChangedEvent.categories());
         return CategoryMapper.toResponse(category);
     }
 
@@ -73,6 +79,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = repository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada"));
         category.setDeleted(true);
+        eventPublisher.publishEvent(CatalogChangedEvent.categories());
     }
 
     @Override
@@ -81,5 +88,6 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = repository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Categoría no encontrada"));
         if (category.getDeleted()) category.setDeleted(false);
+        eventPublisher.publishEvent(CatalogChangedEvent.categories());
     }
 }
@@ -0,0 +1,37 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.bulkhead.Bulkhead;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Consultas con cursor de las exportaciones, en el compartimento "export": las conexiones salen de su pool
+ * (app.bulkheads.pools.export) y no del POS, y con réplicas la transacción readOnly se enruta a ellas.
+ * La transacción también es la que necesita PostgreSQL para usar cursor con fetchSize.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportCursorReader {
+
+    static final int FETCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Bulkhead("export")
+    @Transactional(readOnly = true)
+    public void query(String sql, List<Object> params, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) ps.setObject(i + 1, params.get(i));
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,249 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.request.MovementExportRequest;
+import com.christn.salesinventoryapi.dto.request.SaleExportRequest;
+import com.christn.salesinventoryapi.dto.response.ExportJobResponse;
+import com.christn.salesinventoryapi.model.ExportStatus;
+import com.christn.salesinventoryapi.repository.spec.SaleSearchFilter;
+import com.christn.salesinventoryapi.service.ExportService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportaciones CSV comprimidas (gzip) en segundo plano. Las filas se leen con cursor del servidor
+ * ({@link ExportCursorReader}) y se escriben directo al archivo, con memoria constante sin importar el rango
+ * exportado.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SALES_HEADER = "id,sale_date,status,total_amount,customer_id,customer_name";
+    private static final String SALES_SQL = """
+            SELECT s.id, s.sale_date, s.status, s.total_amount, s.customer_id, c.full_name
+            FROM sales s
+            LEFT JOIN customers c ON c.id = s.customer_id
+            WHERE 1 = 1""";
+
+    private static final String MOVEMENTS_HEADER = "movement_id,created_at,movement_type,event_type,source_type," +
+            "source_id,product_id,product_name,quantity,previous_stock,new_stock";
+    private static final String MOVEMENTS_SQL = """
+            SELECT m.id, m.created_at, m.movement_type, m.event_type, m.source_type, m.source_id,
+                   mi.product_id, p.name, mi.quantity, mi.previous_stock, mi.new_stock
+            FROM inventory_movements m
+            JOIN inventory_movement_items mi ON mi.movement_id = m.id
+            JOIN products p ON p.id = mi.product_id
+            WHERE m.created_at >= ? AND m.created_at <= ?""";
+
+    private final ExportCursorReader exportCursorReader;
+
+    @Qualifier("exportExecutor")
+    private final ThreadPoolTaskExecutor exportExecutor;
+
+    @Value("${app.export.dir:${java.io.tmpdir}/sales-exports}")
+    private final String exportDir;
+
+    @Value("${app.export.retention-hours:24}")
+    private final long retentionHours;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private static final class ExportJob {
+        private final String id;
+        private final String type;
+        private final Path file;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile ExportStatus status = ExportStatus.QUEUED;
+        private volatile long rows;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private ExportJob(String id, String type, Path file) {
+            this.id = id;
+            this.type = type;
+            this.file = file;
+        }
+    }
+
+    // Helpers
+    private static ExportJobResponse toResponse(ExportJob job) {
+        long size = 0;
+        if (job.status == ExportStatus.DONE) {
+            try {
+                size = Files.size(job.file);
+            } catch (IOException ignored) {
+                // el archivo pudo ser purgado
+            }
+        }
+        return new ExportJobResponse(job.id, job.type, job.status, job.rows, size, job.file.getFileName().toString(),
+                job.error, job.createdAt, job.finishedAt);
+    }
+
+    // Evita que Excel interprete texto como fórmula (=, +, -, @) y escapa separadores/comillas
+    static String csv(Object value) {
+        if (value == null) return "";
+        if (value instanceof Timestamp ts) return ts.toLocalDateTime().toString();
+        if (value instanceof BigDecimal bd) return bd.toPlainString();
+        if (value instanceof Number || value instanceof Boolean) return value.toString();
+
+        String s = value.toString();
+        if (!s.isEmpty() && "=+-@".indexOf(s.charAt(0)) >= 0) s = "'" + s;
+        if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            s = "\"" + s.replace("\"", "\"\"") + "\"";
+        }
+        return s;
+    }
+
+    private void purgeExpired() {
+        LocalDateTime limit = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(limit)) return false;
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException e) {
+                log.warn("No se pudo borrar la exportación {}", job.file, e);
+            }
+            return true;
+        });
+    }
+
+    private ExportJobResponse submit(String type, String sql, List<Object> params, String header) {
+        purgeExpired();
+
+        String id = UUID.randomUUID().toString();
+        Path file = Path.of(exportDir).resolve(type.toLowerCase() + "-" + id + ".csv.gz");
+        ExportJob job = new ExportJob(id, type, file);
+        jobs.put(id, job);
+
+        try {
+            exportExecutor.execute(() -> run(job, sql, params, header));
+        } catch (TaskRejectedException e) {
+            jobs.remove(id);
+            throw new IllegalStateException("Hay demasiadas exportaciones en cola, intente más tarde");
+        }
+        return toResponse(job);
+    }
+
+    @Override
+    public ExportJobResponse submitSales(SaleExportRequest request) {
+        if (request == null) throw new IllegalArgumentException("Request es requerida");
+
+        SaleSearchFilter filter = new SaleSearchFilter(request.customerId(), request.from(), request.to(),
+                request.minTotal(), request.maxTotal(), request.status());
+        List<Object> params = new ArrayList<>();
+        String sql = SALES_SQL + filter.toSqlWhere("s", params, i -> "?") + " ORDER BY s.sale_date, s.id";
+
+        return submit("SALES", sql, params, SALES_HEADER);
+    }
+
+    @Override
+    public ExportJobResponse submitMovements(MovementExportRequest request) {
+        if (request == null || request.from() == null || request.to() == null) {
+            throw new IllegalArgumentException("from y to son requeridos");
+        }
+        if (request.from().isAfter(request.to())) {
+            throw new IllegalArgumentException("from debe ser anterior a to");
+        }
+
+        List<Object> params = new ArrayList<>(List.of(request.from(), request.to()));
+        String sql = MOVEMENTS_SQL;
+        if (request.productId() != null) {
+            sql += " AND mi.product_id = ?";
+            params.add(request.productId());
+        }
+        sql += " ORDER BY m.id, mi.id";
+
+        return submit("MOVEMENTS", sql, params, MOVEMENTS_HEADER);
+    }
+
+    @Override
+    public ExportJobResponse getJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) throw new EntityNotFoundException("Exportación no encontrada: " + jobId);
+        return toResponse(job);
+    }
+
+    @Override
+    public Path getFile(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) throw new EntityNotFoundException("Exportación no encontrada: " + jobId);
+        if (job.status != ExportStatus.DONE) {
+            throw new IllegalStateException("La exportación aún no está lista. Estado: " + job.status);
+        }
+        if (!Files.exists(job.file)) throw new EntityNotFoundException("Archivo de exportación expirado: " + jobId);
+        return job.file;
+    }
+
+    private void run(ExportJob job, String sql, List<Object> params, String header) {
+        job.status = ExportStatus.RUNNING;
+        long started = System.nanoTime();
+        Path part = job.file.resolveSibling(job.file.getFileName() + ".part");
+
+        try {
+            Files.createDirectories(job.file.getParent());
+
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(part), BUFFER_SIZE),
+                    StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                out.write(header);
+                out.write('\n');
+
+                long[] rows = {0};
+                exportCursorReader.query(sql, params, rs -> {
+                    int columns = rs.getMetaData().getColumnCount();
+                    try {
+                        for (int c = 1; c <= columns; c++) {
+                            if (c > 1) out.write(',');
+                            out.write(csv(rs.getObject(c)));
+                        }
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++rows[0] % ExportCursorReader.FETCH_SIZE == 0) job.rows = rows[0];
+                });
+                job.rows = rows[0];
+            }
+
+            Files.move(part, job.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.status = ExportStatus.DONE;
+            log.info("Export {} {}: {} rows in {} ms", job.type, job.id, job.rows,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Export {} {} failed", job.type, job.id, e);
+            job.error = "Error generando la exportación";
+            job.status = ExportStatus.FAILED;
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+                // se purga con el job
+            }
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+}
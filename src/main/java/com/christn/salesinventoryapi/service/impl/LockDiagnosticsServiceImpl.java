@@ -0,0 +1,49 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.diagnostics.LockContentionSketch;
+import com.christn.salesinventoryapi.dto.response.ContendedProductResponse;
+import com.christn.salesinventoryapi.model.Product;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.service.LockDiagnosticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class LockDiagnosticsServiceImpl implements LockDiagnosticsService {
+
+    private final LockContentionSketch sketch;
+    private final ProductRepository productRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ContendedProductResponse> topContendedProducts(int limit) {
+        if (limit <= 0 || limit > sketch.capacity()) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + sketch.capacity());
+        }
+
+        List<LockContentionSketch.Entry> top = sketch.top(limit);
+        Map<Long, String> names = productRepository.findAllById(top.stream().map(LockContentionSketch.Entry::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+
+        return top.stream()
+                .map(e -> new ContendedProductResponse(
+                        e.productId(),
+                        names.get(e.productId()),
+                        e.count(),
+                        e.overestimate(),
+                        e.failures(),
+                        e.maxWaitMs(),
+                        e.lastResource().name().toLowerCase(Locale.ROOT),
+                        e.lastSeenAt()))
+                .toList();
+    }
+}
@@ -0,0 +1,287 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.response.OutboxStatusResponse;
+import com.christn.salesinventoryapi.event.OutboxMessage;
+import com.christn.salesinventoryapi.event.sink.OutboxSink;
+import com.christn.salesinventoryapi.model.OutboxAggregateType;
+import com.christn.salesinventoryapi.model.OutboxEventType;
+import com.christn.salesinventoryapi.service.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relay del outbox: toma lotes pendientes con FOR UPDATE SKIP LOCKED (varias instancias pueden drenar
+ * en paralelo sin pisarse) y los entrega al {@link OutboxSink} dentro de la misma transacción.
+ * Orden por agregado: un agregado solo se entrega si su evento pendiente más antiguo está en el lote;
+ * si la cabeza la tiene otra instancia (o falló), el resto de sus eventos espera a la siguiente vuelta.
+ * Un lote fallido se reintenta con backoff por evento; un evento que ya falló se entrega solo, así un evento
+ * envenenado no arrastra al resto, y tras app.outbox.max-attempts fallos queda aparcado (con su agregado detrás).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // sin los agregados con un evento anterior aparcado o en espera: nunca podrían entregarse y llenarían el lote
+    private static final String SELECT_BATCH_SQL = """
+            SELECT o.id, o.aggregate_type, o.aggregate_id, o.event_type, o.created_at, o.payload, o.attempts
+            FROM outbox_events o
+            WHERE o.published_at IS NULL AND o.parked_at IS NULL
+              AND (o.next_attempt_at IS NULL OR o.next_attempt_at <= ?)
+              AND NOT EXISTS (SELECT 1 FROM outbox_events h
+                              WHERE h.aggregate_type = o.aggregate_type AND h.aggregate_id = o.aggregate_id
+                                AND h.id < o.id AND h.published_at IS NULL
+                                AND (h.parked_at IS NOT NULL OR h.next_attempt_at > ?))
+            ORDER BY o.id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    // sin lock: ve también las filas que otra instancia tiene tomadas
+    private static final String PENDING_HEADS_SQL = """
+            SELECT aggregate_type, aggregate_id, MIN(id)
+            FROM outbox_events
+            WHERE published_at IS NULL AND aggregate_id IN (%s)
+            GROUP BY aggregate_type, aggregate_id
+            """;
+
+    private static final String MARK_PUBLISHED_SQL =
+            "UPDATE outbox_events SET published_at = ?, last_error = NULL WHERE id IN (%s)";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE outbox_events SET attempts = ?, last_error = ?, next_attempt_at = ?, parked_at = ? WHERE id = ?";
+
+    private static final String REQUEUE_PARKED_SQL = """
+            UPDATE outbox_events SET parked_at = NULL, next_attempt_at = NULL, attempts = 0
+            WHERE parked_at IS NOT NULL AND published_at IS NULL
+            """;
+
+    // el lag se mide sobre la cola viva: los aparcados se cuentan aparte
+    private static final String PENDING_STATS_SQL = """
+            SELECT COALESCE(SUM(CASE WHEN parked_at IS NULL THEN 1 ELSE 0 END), 0) AS pending,
+                   COALESCE(SUM(CASE WHEN parked_at IS NOT NULL THEN 1 ELSE 0 END), 0) AS parked,
+                   MIN(CASE WHEN parked_at IS NULL THEN created_at END) AS oldest
+            FROM outbox_events
+            WHERE published_at IS NULL
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM outbox_events WHERE published_at < ?";
+
+    private static final RowMapper<Locked> LOCKED_MAPPER = (rs, i) -> new Locked(new OutboxMessage(
+            rs.getLong(1),
+            OutboxAggregateType.valueOf(rs.getString(2)),
+            rs.getLong(3),
+            OutboxEventType.valueOf(rs.getString(4)),
+            rs.getTimestamp(5).toLocalDateTime(),
+            rs.getString(6)
+    ), rs.getInt(7));
+
+    private static final RowMapper<PendingStats> STATS_MAPPER = (rs, i) -> {
+        Timestamp oldest = rs.getTimestamp("oldest");
+        return new PendingStats(rs.getLong("pending"), rs.getLong("parked"),
+                oldest == null ? null : oldest.toLocalDateTime());
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink outboxSink;
+
+    @Value("${app.outbox.batch-size:200}")
+    private final int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run:50}")
+    private final int maxBatchesPerRun;
+
+    @Value("${app.outbox.retention-hours:72}")
+    private final int retentionHours;
+
+    @Value("${app.outbox.max-attempts:15}")
+    private final int maxAttempts;
+
+    @Value("${app.outbox.retry.initial-backoff-ms:1000}")
+    private final long initialBackoffMs;
+
+    @Value("${app.outbox.retry.max-backoff-ms:300000}")
+    private final long maxBackoffMs;
+
+    // métricas en memoria (por instancia)
+    private final AtomicLong publishedTotal = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastRunPublished;
+    private volatile long lastRunDurationMs;
+    private volatile String lastError;
+
+    private record BatchResult(int published, boolean failed) {
+    }
+
+    private record AggregateKey(String type, long id) {
+    }
+
+    // Fila tomada por el relay: el mensaje para el sink y los intentos fallidos previos
+    private record Locked(OutboxMessage message, int attempts) {
+    }
+
+    private record PendingStats(long pending, long parked, LocalDateTime oldestPendingAt) {
+    }
+
+    // Helpers
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    private static String abbreviate(Exception e) {
+        String msg = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return msg.length() <= MAX_ERROR_LENGTH ? msg : msg.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static AggregateKey key(Locked l) {
+        return new AggregateKey(l.message().aggregateType().name(), l.message().aggregateId());
+    }
+
+    // exponencial desde initialBackoffMs, con tope en maxBackoffMs
+    private long backoffMs(int attempt) {
+        return Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+    }
+
+    // Descarta los agregados cuya cabeza pendiente no está en este lote
+    private List<Locked> headsOnly(List<Locked> batch) {
+        Map<AggregateKey, Long> firstInBatch = new HashMap<>();
+        for (Locked l : batch) {
+            firstInBatch.putIfAbsent(key(l), l.message().id());
+        }
+        List<Long> aggregateIds = firstInBatch.keySet().stream().map(AggregateKey::id).distinct().toList();
+
+        Set<AggregateKey> blocked = new HashSet<>();
+        jdbcTemplate.query(PENDING_HEADS_SQL.formatted(placeholders(aggregateIds.size())), rs -> {
+            AggregateKey k = new AggregateKey(rs.getString(1), rs.getLong(2));
+            Long first = firstInBatch.get(k);
+            if (first != null && rs.getLong(3) < first) blocked.add(k);
+        }, aggregateIds.toArray());
+
+        if (blocked.isEmpty()) return batch;
+        return batch.stream().filter(l -> !blocked.contains(key(l))).toList();
+    }
+
+    // Suma un intento a cada evento del lote; los que llegan a maxAttempts quedan aparcados
+    private int markFailed(List<Locked> batch, String error, LocalDateTime now) {
+        Timestamp parkedAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        int parked = 0;
+        for (Locked l : batch) {
+            int attempts = l.attempts() + 1;
+            boolean park = attempts >= maxAttempts;
+            if (park) parked++;
+            rows.add(new Object[]{attempts, error, Timestamp.valueOf(now.plusNanos(backoffMs(attempts) * 1_000_000)),
+                    park ? parkedAt : null, l.message().id()});
+        }
+        jdbcTemplate.batchUpdate(MARK_FAILED_SQL, rows,
+                new int[]{Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT});
+        return parked;
+    }
+
+    private BatchResult relayBatch() {
+        BatchResult result = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp nowTs = Timestamp.valueOf(now);
+            List<Locked> locked = jdbcTemplate.query(SELECT_BATCH_SQL, LOCKED_MAPPER, nowTs, nowTs, batchSize);
+            if (locked.isEmpty()) return new BatchResult(0, false);
+
+            List<Locked> batch = headsOnly(locked);
+            if (batch.isEmpty()) return new BatchResult(0, false);
+            // ya falló antes: va solo, si es el evento envenenado no suma intentos al resto
+            if (batch.getFirst().attempts() > 0) batch = List.of(batch.getFirst());
+
+            Object[] ids = batch.stream().map(l -> l.message().id()).toArray();
+            try {
+                outboxSink.publish(batch.stream().map(Locked::message).toList());
+            } catch (IOException | RuntimeException e) {
+                lastError = abbreviate(e);
+                int parked = markFailed(batch, lastError, now);
+                log.warn("Outbox relay to {} failed for {} events (ids {}..{}, {} parked): {}", outboxSink.name(),
+                        ids.length, ids[0], ids[ids.length - 1], parked, lastError);
+                return new BatchResult(0, true);
+            }
+
+            String in = placeholders(ids.length);
+            Object[] args = new Object[ids.length + 1];
+            args[0] = nowTs;
+            System.arraycopy(ids, 0, args, 1, ids.length);
+            jdbcTemplate.update(MARK_PUBLISHED_SQL.formatted(in), args);
+            // si hubo agregados bloqueados no se corta el drenado: el resto del lote puede seguir
+            return new BatchResult(ids.length, false);
+        });
+        return result != null ? result : new BatchResult(0, false);
+    }
+
+    @Override
+    public int drain() {
+        long started = System.nanoTime();
+        int published = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            BatchResult result = relayBatch();
+            published += result.published();
+            if (result.failed()) {
+                failedBatches.incrementAndGet();
+                break;
+            }
+            if (result.published() == 0) break;
+        }
+
+        publishedTotal.addAndGet(published);
+        lastRunAt = LocalDateTime.now();
+        lastRunPublished = published;
+        lastRunDurationMs = (System.nanoTime() - started) / 1_000_000;
+        if (published > 0) {
+            log.debug("Outbox relay: {} events to {} in {} ms", published, outboxSink.name(), lastRunDurationMs);
+        }
+        return published;
+    }
+
+    @Override
+    public int purgePublished() {
+        int deleted = jdbcTemplate.update(PURGE_SQL,
+                Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted > 0) log.info("Outbox purge: {} published events removed", deleted);
+        return deleted;
+    }
+
+    @Override
+    public int requeueParked() {
+        int requeued = jdbcTemplate.update(REQUEUE_PARKED_SQL);
+        if (requeued > 0) log.info("Outbox requeue: {} parked events back in the queue", requeued);
+        return requeued;
+    }
+
+    @Override
+    public OutboxStatusResponse status() {
+        LocalDateTime now = LocalDateTime.now();
+        PendingStats stats = jdbcTemplate.queryForObject(PENDING_STATS_SQL, STATS_MAPPER);
+        long pending = stats == null ? 0 : stats.pending();
+        long parked = stats == null ? 0 : stats.parked();
+        LocalDateTime oldestPendingAt = stats == null ? null : stats.oldestPendingAt();
+        long lagMs = oldestPendingAt == null ? 0 : Math.max(0, Duration.between(oldestPendingAt, now).toMillis());
+
+        long durationMs = lastRunDurationMs;
+        double eventsPerSec = durationMs > 0 ? lastRunPublished * 1000.0 / durationMs : 0;
+
+        return new OutboxStatusResponse(outboxSink.name(), pending, parked, oldestPendingAt, lagMs, publishedTotal.get(),
+                failedBatches.get(), lastRunAt, lastRunPublished, durationMs,
+                Math.round(eventsPerSec * 10) / 10.0, lastError);
+    }
+}
@@ -0,0 +1,33 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.model.OutboxEvent;
+import com.christn.salesinventoryapi.model.OutboxEventType;
+import com.christn.salesinventoryapi.repository.OutboxEventRepository;
+import com.christn.salesinventoryapi.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JsonMapper jsonMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Long aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(type.getAggregateType());
+        event.setAggregateId(aggregateId);
+        event.setEventType(type);
+        event.setPayload(jsonMapper.writeValueAsString(payload));
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+}
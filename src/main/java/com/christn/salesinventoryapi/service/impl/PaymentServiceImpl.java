@@ -4,10 +4,14 @@ import com.christn.salesinventoryapi.auth.AuthUserDetails;
 import com.christn.salesinventoryapi.dto.mapper.PaymentMapper;
 import com.christn.salesinventoryapi.dto.request.CreatePaymentRequest;
 import com.christn.salesinventoryapi.dto.response.PaymentResponse;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics.Phase;
 import com.christn.salesinventoryapi.model.*;
 import com.christn.salesinventoryapi.repository.PaymentRepository;
 import com.christn.salesinventoryapi.repository.SaleRepository;
+import com.christn.salesinventoryapi.service.OutboxService;
 import com.christn.salesinventoryapi.service.PaymentService;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
@@ -26,14 +30,19 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final SaleRepository saleRepository;
     private final PaymentRepository paymentRepository;
+    private final OutboxService outboxService;
+    private final HotPathMetrics metrics;
 
     @Override
     @Transactional
+    @Observed(name = "payment.add", contextualName = "payment-add")
     public PaymentResponse addPayment(Long saleId, CreatePaymentRequest req) {
+        HotPathMetrics.Stopwatch stopwatch = metrics.start(HotPathMetrics.Flow.PAYMENT_ADD);
         // 1. Traer venta con lock para evitar pagos concurrentes que pasen la
         // validación
         Sale sale = saleRepository.findByIdForUpdate(saleId)
                 .orElseThrow(() -> new EntityNotFoundException("Venta no encontrada: " + saleId));
+        stopwatch.lap(Phase.LOCK_SALE);
 
         // 2. Validar estado
         if (sale.getStatus() != SaleStatus.ACTIVE) {
@@ -58,6 +67,7 @@ public class PaymentServiceImpl implements PaymentService {
         BigDecimal remaining = saleTotal.subtract(alreadyPaid).setScale(2, RoundingMode.UNNECESSARY);
 
         BigDecimal change = getChange(req, paymentAmount, remaining);
+        stopwatch.lap(Phase.VALIDATE);
 
         // 7. Crear y guardar pago
         AuthUserDetails user = currentUser();
@@ -72,8 +82,13 @@ public class PaymentServiceImpl implements PaymentService {
         payment.setCreatedByUserId(user.getId());
 
         paymentRepository.save(payment);
+        stopwatch.lap(Phase.PERSIST);
 
-        return PaymentMapper.toResponse(payment);
+        // agregado SALE: el pago queda ordenado respecto al post/void de su venta
+        PaymentResponse response = PaymentMapper.toResponse(payment);
+        outboxService.append(OutboxEventType.SALE_PAYMENT_ADDED, saleId, response);
+        stopwatch.lap(Phase.MAPPING);
+        return response;
     }
 
     private static @NonNull BigDecimal getChange(CreatePaymentRequest req, BigDecimal paymentAmount,
@@ -4,14 +4,18 @@ import com.christn.salesinventoryapi.dto.mapper.ProductMapper;
 import com.christn.salesinventoryapi.dto.request.ProductRequest;
 import com.christn.salesinventoryapi.dto.response.PageResponse;
 import com.christn.salesinventoryapi.dto.response.ProductResponse;
+import com.christn.salesinventoryapi.dto.response.ProductStockResponse;
+import com.christn.salesinventoryapi.event.CatalogChangedEvent;
 import com.christn.salesinventoryapi.model.Category;
 import com.christn.salesinventoryapi.model.Product;
 import com.christn.salesinventoryapi.repository.CategoryRepository;
 import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.repository.ProductStockSummaryRepository;
 import com.christn.salesinventoryapi.repository.spec.ProductSpecifications;
 import com.christn.salesinventoryapi.service.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -27,6 +31,8 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductStockSummaryRepository productStockSummaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,7 +50,9 @@ public class ProductServiceImpl implements ProductService {
         product.setStock(request.stock());
         product.setCategory(category);
 
-        return ProductMapper.toResponse(productRepository.save(product));
+        product = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(product.getId()));
+        return ProductMapper.toResponse(product);
     }
 
     @Override
@@ -75,6 +83,14 @@ public class ProductServiceImpl implements ProductService {
         return ProductMapper.toResponse(product);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ProductStockResponse getStock(Long id) {
+        Product product = productRepository.findByIdAndDeletedFalse(id)
+                .orElseThrow(() -> new EntityNotFoundException("Producto no encontrado"));
+        return ProductMapper.toStockResponse(product, productStockSummaryRepository.findById(id).orElse(null));
+    }
+
     @Override
     @Transactional
     public ProductResponse update(Long id, ProductRequest request) {
@@ -97,6 +113,7 @@ public class ProductServiceImpl implements ProductService {
         product.setPrice(request.price());
         product.setStock(request.stock());
 
+        eventPublisher.publishEvent(CatalogChangedEvent.product(id));
         return ProductMapper.toResponse(product);
     }
 
@@ -107,6 +124,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new EntityNotFoundException("Producto no encontrado"));
         product.setDeleted(true);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(id));
     }
 
     @Override
@@ -115,6 +133,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Producto no encontrado"));
         if (product.getDeleted()) product.setDeleted(true);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(id));
     }
 
     @Override
@@ -0,0 +1,515 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.auth.AuthUserDetails;
+import com.christn.salesinventoryapi.dto.mapper.PurchaseMapper;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportFormat;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportLine;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportRequest;
+import com.christn.salesinventoryapi.dto.response.PurchaseImportProgressResponse;
+import com.christn.salesinventoryapi.dto.response.PurchaseImportResponse;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.*;
+import com.christn.salesinventoryapi.service.OutboxService;
+import com.christn.salesinventoryapi.service.PurchaseImportService;
+import com.christn.salesinventoryapi.util.PurchaseImportLineReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchaseImportServiceImpl implements PurchaseImportService {
+
+    static final int CHUNK_SIZE = 500;
+    private static final long PROGRESS_TTL_HOURS = 1;
+
+    private static final String INSERT_BATCH_SQL = """
+            INSERT INTO product_batches
+                (product_id, purchase_item_id, batch_code, received_at, expires_at,
+                 qty_initial, qty_available, unit_cost, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final int[] INSERT_BATCH_TYPES = {
+            Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP,
+            Types.INTEGER, Types.INTEGER, Types.NUMERIC, Types.TIMESTAMP, Types.TIMESTAMP
+    };
+
+    private final PurchaseRepository purchaseRepository;
+    private final SupplierRepository supplierRepository;
+    private final ProductRepository productRepository;
+    private final ProductStockSummaryRepository productStockSummaryRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final HotPathMetrics metrics;
+
+    private final Map<String, PurchaseImportProgressResponse> progress = new ConcurrentHashMap<>();
+
+    private record NumberedLine(int lineNumber, PurchaseImportLine line) {
+    }
+
+    // Acumulado por producto: la memoria crece con los productos distintos, no con las líneas
+    private static final class ImportedProduct {
+        private final BigDecimal unitCost;
+        private final boolean perishable;
+        private Long itemId;
+        private int quantity;
+        private int batches;
+        private LocalDateTime earliestExpiresAt;
+
+        private ImportedProduct(BigDecimal unitCost, boolean perishable) {
+            this.unitCost = unitCost;
+            this.perishable = perishable;
+        }
+
+        private void add(int qty, LocalDateTime expiresAt) {
+            quantity += qty;
+            batches++;
+            if (expiresAt != null && (earliestExpiresAt == null || expiresAt.isBefore(earliestExpiresAt))) {
+                earliestExpiresAt = expiresAt;
+            }
+        }
+    }
+
+    // Líneas ya validadas, en un archivo temporal: el posteo las relee sin volver a parsear ni retener el archivo
+    // original en memoria. Se borra al cerrar, haya terminado bien o no.
+    private static final class StagedLines implements Closeable {
+        private final Path file;
+        private final DataOutputStream out;
+        private int count;
+
+        private StagedLines() throws IOException {
+            this.file = Files.createTempFile("purchase-import-", ".bin");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        }
+
+        private void write(PurchaseImportLine l) throws IOException {
+            out.writeLong(l.productId());
+            out.writeInt(l.quantity());
+            out.writeBoolean(l.batchCode() != null);
+            if (l.batchCode() != null) out.writeUTF(l.batchCode());
+            out.writeBoolean(l.expiresAt() != null);
+            if (l.expiresAt() != null) out.writeUTF(l.expiresAt().toString());
+            count++;
+        }
+
+        private void finish() throws IOException {
+            out.close();
+        }
+
+        private DataInputStream read() throws IOException {
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        }
+
+        // unitCost no se guarda por línea: es el mismo para todas las del producto
+        private static PurchaseImportLine readLine(DataInputStream in) throws IOException {
+            long productId = in.readLong();
+            int quantity = in.readInt();
+            String batchCode = in.readBoolean() ? in.readUTF() : null;
+            LocalDateTime expiresAt = in.readBoolean() ? LocalDateTime.parse(in.readUTF()) : null;
+            return new PurchaseImportLine(productId, null, quantity, batchCode, expiresAt);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static final class ImportState {
+        private final String importId;
+        private final LocalDateTime startedAt;
+        private String phase = "READING";
+        private long lines;
+        private long batches;
+        private Long purchaseId;
+
+        private ImportState(String importId, LocalDateTime startedAt) {
+            this.importId = importId;
+            this.startedAt = startedAt;
+        }
+    }
+
+    // Helpers
+    private AuthUserDetails currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthUserDetails user)) {
+            throw new IllegalStateException("El usuario no está autenticado");
+        }
+        return user;
+    }
+
+    private static BigDecimal subtotal(BigDecimal unitCost, int qty) {
+        return unitCost.multiply(BigDecimal.valueOf(qty)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Timestamp ts(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+
+    private void publish(ImportState state, String error) {
+        if (state.importId == null || state.importId.isBlank()) return;
+        progress.put(state.importId, new PurchaseImportProgressResponse(
+                state.importId,
+                state.phase,
+                state.lines,
+                state.batches,
+                state.purchaseId,
+                error,
+                state.startedAt,
+                LocalDateTime.now()
+        ));
+    }
+
+    private static void validateLine(NumberedLine nl, LocalDateTime now) {
+        PurchaseImportLine l = nl.line();
+        int n = nl.lineNumber();
+
+        if (l == null) throw new IllegalArgumentException("Línea " + n + ": línea inválida (null)");
+        if (l.productId() == null) throw new IllegalArgumentException("Línea " + n + ": productId es requerido");
+        if (l.unitCost() == null || l.unitCost().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Línea " + n + ": unitCost es requerido y debe ser >= 0");
+        }
+        if (l.quantity() == null || l.quantity() <= 0) {
+            throw new IllegalArgumentException("Línea " + n + ": quantity debe ser > 0");
+        }
+        if (l.batchCode() != null && l.batchCode().length() > 80) {
+            throw new IllegalArgumentException("Línea " + n + ": batchCode debe tener como máximo 80 caracteres");
+        }
+        if (l.expiresAt() != null && !l.expiresAt().isAfter(now)) {
+            throw new IllegalArgumentException("Línea " + n + ": expiresAt debe ser futura");
+        }
+    }
+
+    @Override
+    public PurchaseImportResponse importReceipt(PurchaseImportRequest request, PurchaseImportFormat format,
+            InputStream body) {
+        if (request == null || format == null || body == null) {
+            throw new IllegalArgumentException("Request es requerida");
+        }
+
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        ImportState state = new ImportState(request.importId(), now);
+
+        progress.values().removeIf(p -> p.updatedAt().isBefore(now.minusHours(PROGRESS_TTL_HOURS)));
+        publish(state, null);
+
+        try (StagedLines staged = new StagedLines()) {
+            Supplier supplier = null;
+            if (request.supplierId() != null) {
+                supplier = supplierRepository.findById(request.supplierId())
+                        .orElseThrow(() -> new IllegalArgumentException("Proveedor no encontrado: " + request.supplierId()));
+            }
+            Long userId = currentUser().getId();
+
+            // 1) leer, validar y dejar las líneas en un archivo temporal, sin transacción: una subida lenta no
+            // retiene conexión ni locks
+            Map<Long, ImportedProduct> byProduct = stage(format, body, staged, now, state);
+            if (byProduct.isEmpty()) {
+                throw new IllegalArgumentException("La compra debe tener al menos un ítem");
+            }
+
+            // 2) una sola transacción corta para compra, ítems, lotes, stock y resumen FEFO
+            state.phase = "POSTING";
+            publish(state, null);
+
+            Supplier purchaseSupplier = supplier;
+            PurchaseImportResponse response = transactionTemplate.execute(status -> {
+                PurchaseImportResponse posted = post(request, purchaseSupplier, userId, byProduct, staged, now,
+                        state, started);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        state.phase = "DONE";
+                        publish(state, null);
+                    }
+                });
+                return posted;
+            });
+
+            log.info("Purchase import {}: purchase={} lines={} items={} batches={} in {} ms",
+                    state.importId, state.purchaseId, state.lines, byProduct.size(), state.batches,
+                    response.elapsedMs());
+            return response;
+        } catch (IOException e) {
+            state.phase = "FAILED";
+            publish(state, e.getMessage());
+            throw new UncheckedIOException("No se pudo leer el archivo de importación", e);
+        } catch (RuntimeException e) {
+            state.phase = "FAILED";
+            publish(state, e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public PurchaseImportProgressResponse getProgress(String importId) {
+        PurchaseImportProgressResponse p = progress.get(importId);
+        if (p == null) throw new EntityNotFoundException("Importación no encontrada: " + importId);
+        return p;
+    }
+
+    private Map<Long, ImportedProduct> stage(PurchaseImportFormat format, InputStream body, StagedLines staged,
+            LocalDateTime now, ImportState state) throws IOException {
+        Map<Long, ImportedProduct> byProduct = new HashMap<>();
+        List<NumberedLine> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (PurchaseImportLineReader reader = new PurchaseImportLineReader(body, format, jsonMapper)) {
+            PurchaseImportLine line;
+            while ((line = reader.next()) != null) {
+                chunk.add(new NumberedLine(reader.lineNumber(), line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    stageChunk(chunk, byProduct, staged, now, state);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) stageChunk(chunk, byProduct, staged, now, state);
+        }
+        staged.finish();
+        return byProduct;
+    }
+
+    private void stageChunk(List<NumberedLine> chunk, Map<Long, ImportedProduct> byProduct, StagedLines staged,
+            LocalDateTime now, ImportState state) throws IOException {
+        for (NumberedLine nl : chunk) validateLine(nl, now);
+
+        // productos vistos por primera vez en este chunk (1 query)
+        List<Long> newIds = chunk.stream()
+                .map(nl -> nl.line().productId())
+                .filter(id -> !byProduct.containsKey(id))
+                .distinct()
+                .toList();
+
+        Map<Long, Boolean> perishable = newIds.isEmpty() ? Map.of() : productRepository.findAllById(newIds).stream()
+                .filter(p -> !Boolean.TRUE.equals(p.getDeleted()))
+                .collect(Collectors.toMap(Product::getId, p -> Boolean.TRUE.equals(p.getPerishable())));
+        // con open-in-view el EntityManager de la petición sigue abierto: no acumular productos entre chunks
+        entityManager.clear();
+
+        if (perishable.size() != newIds.size()) {
+            var missing = newIds.stream().filter(id -> !perishable.containsKey(id)).toList();
+            throw new IllegalArgumentException("Productos no encontrados: " + missing);
+        }
+
+        for (NumberedLine nl : chunk) {
+            PurchaseImportLine l = nl.line();
+            ImportedProduct acc = byProduct.get(l.productId());
+
+            if (acc == null) {
+                acc = new ImportedProduct(l.unitCost(), perishable.get(l.productId()));
+                byProduct.put(l.productId(), acc);
+            } else if (acc.unitCost.compareTo(l.unitCost()) != 0) {
+                throw new IllegalArgumentException("Línea " + nl.lineNumber() + ": unitCost distinto para el " +
+                        "producto " + l.productId() + " (" + acc.unitCost + " vs " + l.unitCost() + ")");
+            }
+
+            if (acc.perishable && l.expiresAt() == null) {
+                throw new IllegalArgumentException("Línea " + nl.lineNumber() + ": expiresAt es requerido para " +
+                        "perecibles. productId: " + l.productId());
+            }
+
+            acc.add(l.quantity(), l.expiresAt());
+            staged.write(l);
+        }
+
+        state.lines += chunk.size();
+        publish(state, null);
+        log.debug("Purchase import {}: {} lines staged", state.importId, state.lines);
+    }
+
+    private PurchaseImportResponse post(PurchaseImportRequest request, Supplier supplier, Long userId,
+            Map<Long, ImportedProduct> byProduct, StagedLines staged, LocalDateTime now, ImportState state,
+            long started) {
+        Purchase purchase = new Purchase();
+        purchase.setStatus(PurchaseStatus.DRAFT);
+        purchase.setPurchaseDate(request.purchaseDate() != null ? request.purchaseDate() : now);
+        purchase.setDocumentType(request.documentType() != null ? request.documentType() :
+                PurchaseDocumentType.INVOICE);
+        purchase.setDocumentNumber(request.documentNumber());
+        purchase.setNotes(request.notes());
+        purchase.setCreatedByUserId(userId);
+        purchase.setSupplier(supplier);
+
+        Long purchaseId = purchaseRepository.save(purchase).getId();
+        state.purchaseId = purchaseId;
+
+        // orden fijo de locks para no cruzarse con otros posteos
+        List<Long> productIds = new ArrayList<>(byProduct.keySet());
+        Collections.sort(productIds);
+
+        BigDecimal total = writeItems(purchaseId, productIds, byProduct);
+        writeBatches(byProduct, staged, now, state);
+        applyStock(purchaseId, productIds, byProduct, userId);
+
+        Purchase posted = purchaseRepository.findById(purchaseId)
+                .orElseThrow(() -> new IllegalStateException("Compra no encontrada: " + purchaseId));
+        posted.setTotalAmount(total.setScale(2, RoundingMode.HALF_UP));
+        posted.setStatus(PurchaseStatus.POSTED);
+        posted.setPostedAt(now);
+        posted.setPostedByUserId(userId);
+        purchaseRepository.save(posted);
+
+        // mismo evento que postPurchase; sin lotes: una importación puede traer miles y el consumidor los lee por
+        // GET /api/purchases/{id}
+        outboxService.append(OutboxEventType.PURCHASE_POSTED, purchaseId, PurchaseMapper.toResponseDetail(
+                purchaseRepository.findHeaderViewById(purchaseId).orElseThrow(),
+                purchaseRepository.findItemViewsByPurchaseId(purchaseId),
+                List.of()));
+        metrics.purchasePosted(Math.toIntExact(state.batches));
+
+        return new PurchaseImportResponse(
+                purchaseId,
+                PurchaseStatus.POSTED,
+                state.lines,
+                byProduct.size(),
+                state.batches,
+                posted.getTotalAmount(),
+                (System.nanoTime() - started) / 1_000_000
+        );
+    }
+
+    // Un ítem por producto, ya con la cantidad y el subtotal finales
+    private BigDecimal writeItems(Long purchaseId, List<Long> productIds, Map<Long, ImportedProduct> byProduct) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int from = 0; from < productIds.size(); from += CHUNK_SIZE) {
+            Purchase purchaseRef = entityManager.getReference(Purchase.class, purchaseId);
+            List<PurchaseItem> items = new ArrayList<>(CHUNK_SIZE);
+
+            for (Long productId : productIds.subList(from, Math.min(from + CHUNK_SIZE, productIds.size()))) {
+                ImportedProduct acc = byProduct.get(productId);
+                BigDecimal subtotal = subtotal(acc.unitCost, acc.quantity);
+
+                PurchaseItem item = new PurchaseItem();
+                item.setPurchase(purchaseRef);
+                item.setProduct(entityManager.getReference(Product.class, productId));
+                item.setQuantity(acc.quantity);
+                item.setUnitCost(acc.unitCost);
+                item.setSubTotal(subtotal);
+                entityManager.persist(item);
+                items.add(item);
+
+                total = total.add(subtotal);
+            }
+
+            entityManager.flush();
+            for (PurchaseItem item : items) byProduct.get(item.getProduct().getId()).itemId = item.getId();
+            entityManager.clear();
+        }
+        return total;
+    }
+
+    private void writeBatches(Map<Long, ImportedProduct> byProduct, StagedLines staged, LocalDateTime now,
+            ImportState state) {
+        try (DataInputStream in = staged.read()) {
+            List<Object[]> rows = new ArrayList<>(CHUNK_SIZE);
+            for (int i = 0; i < staged.count; i++) {
+                PurchaseImportLine l = StagedLines.readLine(in);
+                ImportedProduct acc = byProduct.get(l.productId());
+                rows.add(new Object[]{
+                        l.productId(), acc.itemId, l.batchCode(), ts(now), ts(l.expiresAt()),
+                        l.quantity(), l.quantity(), acc.unitCost, ts(now), ts(now)
+                });
+                if (rows.size() == CHUNK_SIZE || i == staged.count - 1) {
+                    jdbcTemplate.batchUpdate(INSERT_BATCH_SQL, rows, INSERT_BATCH_TYPES);
+                    state.batches += rows.size();
+                    publish(state, null);
+                    rows.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el archivo temporal de importación", e);
+        }
+    }
+
+    private void applyStock(Long purchaseId, List<Long> productIds, Map<Long, ImportedProduct> byProduct,
+            Long userId) {
+        InventoryMovement movement = new InventoryMovement();
+        movement.setMovementType(MovementType.IN);
+        movement.setSourceType(SourceType.PURCHASE);
+        movement.setSourceId(purchaseId);
+        movement.setEventType(InventoryEventType.PURCHASE_IN);
+        movement.setReason("Ingreso por importación de compra");
+        movement.setCreatedByUserId(userId);
+        Long movementId = inventoryMovementRepository.save(movement).getId();
+
+        for (int from = 0; from < productIds.size(); from += CHUNK_SIZE) {
+            List<Long> ids = productIds.subList(from, Math.min(from + CHUNK_SIZE, productIds.size()));
+
+            // el staging validó fuera de la transacción: un producto borrado desde entonces se rechaza aquí
+            Map<Long, Product> locked = productRepository.findByIdInForUpdate(ids).stream()
+                    .filter(p -> !Boolean.TRUE.equals(p.getDeleted()))
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            if (locked.size() != ids.size()) {
+                var missing = ids.stream().filter(id -> !locked.containsKey(id)).toList();
+                throw new EntityNotFoundException("Productos no encontrados: " + missing);
+            }
+
+            Map<Long, ProductStockSummary> summaries = productStockSummaryRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(ProductStockSummary::getProductId, Function.identity()));
+
+            InventoryMovement movementRef = entityManager.getReference(InventoryMovement.class, movementId);
+
+            for (Long productId : ids) {
+                ImportedProduct acc = byProduct.get(productId);
+                Product product = locked.get(productId);
+
+                int previousStock = product.getStock() == null ? 0 : product.getStock();
+                int newStock = previousStock + acc.quantity;
+                product.setStock(newStock);
+
+                InventoryMovementItem mi = new InventoryMovementItem();
+                mi.setMovement(movementRef);
+                mi.setProduct(product);
+                mi.setQuantity(acc.quantity);
+                mi.setPreviousStock(previousStock);
+                mi.setNewStock(newStock);
+                entityManager.persist(mi);
+
+                summaries.computeIfAbsent(productId, ProductStockSummary::new)
+                        .addBatches(acc.quantity, acc.batches, acc.earliestExpiresAt);
+            }
+
+            productStockSummaryRepository.saveAll(new ArrayList<>(summaries.values()));
+
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        eventPublisher.publishEvent(new StockChangedEvent(productIds));
+    }
+}
@@ -0,0 +1,192 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.request.PostPurchaseBatchEntryRequest;
+import com.christn.salesinventoryapi.dto.request.PostPurchaseBatchRequest;
+import com.christn.salesinventoryapi.dto.request.PostPurchaseItemRequest;
+import com.christn.salesinventoryapi.dto.request.PostPurchaseRequest;
+import com.christn.salesinventoryapi.dto.response.PurchaseBatchPostResponse;
+import com.christn.salesinventoryapi.dto.response.PurchasePostResult;
+import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.repository.PurchaseRepository;
+import com.christn.salesinventoryapi.repository.projection.PurchaseItemProductRef;
+import com.christn.salesinventoryapi.service.PurchasePostingService;
+import com.christn.salesinventoryapi.service.PurchaseService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publica muchas compras a la vez: las que no comparten productos corren en paralelo (pool acotado),
+ * las que sí comparten se publican en serie por id ascendente. Cada compra usa su propia transacción.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchasePostingServiceImpl implements PurchasePostingService {
+
+    private final PurchaseService purchaseService;
+    private final PurchaseRepository purchaseRepository;
+
+    @Qualifier("purchasePostingExecutor")
+    private final ThreadPoolTaskExecutor purchasePostingExecutor;
+
+    // Helpers
+    private static long elapsedMs(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private static Long find(Map<Long, Long> parent, Long x) {
+        while (!parent.get(x).equals(x)) {
+            parent.put(x, parent.get(parent.get(x)));
+            x = parent.get(x);
+        }
+        return x;
+    }
+
+    private static void union(Map<Long, Long> parent, Long a, Long b) {
+        Long ra = find(parent, a);
+        Long rb = find(parent, b);
+        if (ra.equals(rb)) return;
+        if (ra < rb) parent.put(rb, ra);
+        else parent.put(ra, rb);
+    }
+
+    // Componentes conexos del grafo "comparten al menos un producto" (union-find)
+    static List<List<Long>> conflictGroups(Collection<Long> purchaseIds,
+            Map<Long, List<PurchaseItemProductRef>> itemsByPurchase) {
+        Map<Long, Long> parent = new HashMap<>();
+        for (Long id : purchaseIds) parent.put(id, id);
+
+        Map<Long, Long> ownerByProduct = new HashMap<>();
+        for (Long id : purchaseIds) {
+            for (PurchaseItemProductRef ref : itemsByPurchase.getOrDefault(id, List.of())) {
+                Long owner = ownerByProduct.putIfAbsent(ref.productId(), id);
+                if (owner != null) union(parent, owner, id);
+            }
+        }
+
+        Map<Long, List<Long>> byRoot = new HashMap<>();
+        for (Long id : purchaseIds) {
+            byRoot.computeIfAbsent(find(parent, id), k -> new ArrayList<>()).add(id);
+        }
+
+        List<List<Long>> groups = new ArrayList<>(byRoot.values());
+        groups.forEach(Collections::sort);
+        // grupos grandes primero (acorta el tiempo total); empate por menor id para un orden determinista
+        groups.sort(Comparator.<List<Long>>comparingInt(List::size).reversed().thenComparing(g -> g.getFirst()));
+        return groups;
+    }
+
+    @Override
+    public PurchaseBatchPostResponse postBatch(PostPurchaseBatchRequest request) {
+        if (request == null || request.purchases() == null || request.purchases().isEmpty()) {
+            throw new IllegalArgumentException("La lista de compras no puede estar vacía");
+        }
+
+        long started = System.nanoTime();
+
+        // 1) entradas por compra + detectar duplicados
+        Map<Long, PostPurchaseBatchEntryRequest> byPurchaseId = request.purchases().stream()
+                .collect(Collectors.toMap(
+                        PostPurchaseBatchEntryRequest::purchaseId,
+                        Function.identity(),
+                        (a, b) -> {
+                            throw new IllegalArgumentException("PurchaseId duplicado en el request: " + a.purchaseId());
+                        },
+                        LinkedHashMap::new
+                ));
+
+        // 2) productos de todas las compras (1 query)
+        Map<Long, List<PurchaseItemProductRef>> itemsByPurchase =
+                purchaseRepository.findItemProductRefs(byPurchaseId.keySet()).stream()
+                        .collect(Collectors.groupingBy(PurchaseItemProductRef::purchaseId));
+
+        // 3) grafo de conflictos por producto
+        List<List<Long>> groups = conflictGroups(byPurchaseId.keySet(), itemsByPurchase);
+
+        // 4) un task por grupo; dentro del grupo, en serie
+        SecurityContext context = SecurityContextHolder.getContext();
+        List<Future<List<PurchasePostResult>>> futures = new ArrayList<>(groups.size());
+        for (int g = 0; g < groups.size(); g++) {
+            int group = g;
+            List<Long> ids = groups.get(g);
+            Callable<List<PurchasePostResult>> task = () -> ids.stream()
+                    .map(id -> postOne(group, id, byPurchaseId.get(id), itemsByPurchase.getOrDefault(id, List.of())))
+                    .toList();
+            futures.add(purchasePostingExecutor.submitCompletable(new DelegatingSecurityContextCallable<>(task, context)));
+        }
+
+        List<PurchasePostResult> results = new ArrayList<>(byPurchaseId.size());
+        for (Future<List<PurchasePostResult>> future : futures) {
+            results.addAll(await(future));
+        }
+        results.sort(Comparator.comparing(PurchasePostResult::purchaseId));
+
+        int posted = (int) results.stream().filter(PurchasePostResult::success).count();
+        int parallelism = Math.min(purchasePostingExecutor.getMaxPoolSize(), groups.size());
+        long elapsed = elapsedMs(started);
+
+        log.info("Purchase post-batch: requested={} posted={} groups={} parallelism={} in {} ms",
+                results.size(), posted, groups.size(), parallelism, elapsed);
+
+        return new PurchaseBatchPostResponse(
+                results.size(),
+                posted,
+                results.size() - posted,
+                groups.size(),
+                parallelism,
+                elapsed,
+                results
+        );
+    }
+
+    private PurchasePostResult postOne(int group, Long purchaseId, PostPurchaseBatchEntryRequest entry,
+            List<PurchaseItemProductRef> items) {
+        long started = System.nanoTime();
+
+        if (entry.items() == null && items.isEmpty()) {
+            return new PurchasePostResult(purchaseId, group, false, null,
+                    "Compra no encontrada o sin ítems: " + purchaseId, elapsedMs(started));
+        }
+
+        // sin items en el request: un lote por ítem (postPurchase lo rechaza si es perecible)
+        List<PostPurchaseItemRequest> itemsReq = entry.items() != null
+                ? entry.items()
+                : items.stream().map(ref -> new PostPurchaseItemRequest(ref.purchaseItemId(), null)).toList();
+
+        try {
+            PurchaseResponse response = purchaseService.postPurchase(purchaseId, new PostPurchaseRequest(itemsReq));
+            return new PurchasePostResult(purchaseId, group, true, response.status(), null, elapsedMs(started));
+        } catch (IllegalArgumentException | IllegalStateException | EntityNotFoundException e) {
+            return new PurchasePostResult(purchaseId, group, false, null, e.getMessage(), elapsedMs(started));
+        } catch (RuntimeException e) {
+            log.error("Error publicando compra {}", purchaseId, e);
+            return new PurchasePostResult(purchaseId, group, false, null,
+                    "Error interno al publicar la compra", elapsedMs(started));
+        }
+    }
+
+    private static List<PurchasePostResult> await(Future<List<PurchasePostResult>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Publicación de compras interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en la publicación de compras", e.getCause());
+        }
+    }
+}
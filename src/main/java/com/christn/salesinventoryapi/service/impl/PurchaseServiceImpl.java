@@ -1,14 +1,26 @@
 package com.christn.salesinventoryapi.service.impl;
 
 import com.christn.salesinventoryapi.auth.AuthUserDetails;
+import com.christn.salesinventoryapi.diagnostics.RetryOnConflict;
 import com.christn.salesinventoryapi.dto.mapper.PurchaseMapper;
 import com.christn.salesinventoryapi.dto.request.*;
 import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics.Phase;
 import com.christn.salesinventoryapi.model.*;
 import com.christn.salesinventoryapi.repository.*;
+import com.christn.salesinventoryapi.repository.projection.BatchStockAggregate;
+import com.christn.salesinventoryapi.repository.projection.PurchaseBatchAggregate;
+import com.christn.salesinventoryapi.repository.projection.PurchaseBatchView;
+import com.christn.salesinventoryapi.repository.projection.PurchaseHeaderView;
+import com.christn.salesinventoryapi.repository.projection.PurchaseItemView;
+import com.christn.salesinventoryapi.service.OutboxService;
 import com.christn.salesinventoryapi.service.PurchaseService;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -30,6 +42,11 @@ public class PurchaseServiceImpl implements PurchaseService {
     private final ProductRepository productRepository;
     private final ProductBatchRepository productBatchRepository;
     private final InventoryMovementRepository inventoryMovementRepository;
+    private final ProductStockSummaryRepository productStockSummaryRepository;
+    private final SaleBatchAllocationRepository saleBatchAllocationRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotPathMetrics metrics;
 
     private static int sumAndValidateBatches(
             Long purchaseItemId,
@@ -71,20 +88,43 @@ public class PurchaseServiceImpl implements PurchaseService {
     }
 
     /**
-     * Carga "detail" en 2 queries para evitar MultipleBagFetchException:
-     * 1) Purchase + supplier + items + product
-     * 2) batches por purchaseId
+     * Carga "detail" con 3 proyecciones planas (cabecera, ítems, lotes): sin fetch-joins que multipliquen filas
+     * y sin hidratar entidades.
      */
     private PurchaseResponse loadDetail(Long purchaseId) {
-        Purchase purchase = purchaseRepository.findDetailBaseById(purchaseId)
+        PurchaseHeaderView header = purchaseRepository.findHeaderViewById(purchaseId)
                 .orElseThrow(() -> new IllegalArgumentException("Compra no encontrada: " + purchaseId));
 
-        List<ProductBatch> batches = productBatchRepository.findBatchesByPurchaseId(purchaseId);
+        List<PurchaseItemView> items = purchaseRepository.findItemViewsByPurchaseId(purchaseId);
+        List<PurchaseBatchView> batches = productBatchRepository.findBatchViewsByPurchaseId(purchaseId);
 
-        Map<Long, List<ProductBatch>> batchesByItemId = batches.stream()
-                .collect(Collectors.groupingBy(b -> b.getPurchaseItem().getId()));
+        return PurchaseMapper.toResponseDetail(header, items, batches);
+    }
+
+    /**
+     * Recalcula el resumen FEFO de los productos indicados desde product_batches.
+     * Debe llamarse con los productos ya lockeados.
+     */
+    private void refreshStockSummaries(List<Long> productIds) {
+        productBatchRepository.flush();
+
+        Map<Long, BatchStockAggregate> aggregates = productBatchRepository.aggregateAvailableByProductIds(productIds)
+                .stream()
+                .collect(Collectors.toMap(BatchStockAggregate::productId, Function.identity()));
+        Map<Long, ProductStockSummary> summaries = productStockSummaryRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductStockSummary::getProductId, Function.identity()));
+
+        for (Long productId : productIds) {
+            ProductStockSummary summary = summaries.computeIfAbsent(productId, ProductStockSummary::new);
+            BatchStockAggregate agg = aggregates.get(productId);
+            if (agg == null) {
+                summary.reset(0, 0, null);
+            } else {
+                summary.reset(agg.qtyAvailable().intValue(), agg.batchCount().intValue(), agg.earliestExpiresAt());
+            }
+        }
 
-        return PurchaseMapper.toResponseDetail(purchase, batchesByItemId);
+        productStockSummaryRepository.saveAll(new ArrayList<>(summaries.values()));
     }
 
     @Override
@@ -183,14 +223,18 @@ public class PurchaseServiceImpl implements PurchaseService {
 
     @Override
     @Transactional
+    @Observed(name = "purchase.post", contextualName = "purchase-post")
+    @RetryOnConflict("purchase.post")
     public PurchaseResponse postPurchase(Long purchaseId, PostPurchaseRequest request) {
         if (request == null || request.items() == null || request.items().isEmpty()) {
             throw new IllegalArgumentException("La compra debe tener al menos un ítem");
         }
+        HotPathMetrics.Stopwatch stopwatch = metrics.start(HotPathMetrics.Flow.PURCHASE_POST);
 
         // lock compra (evita doble post concurrente)
         Purchase purchase = purchaseRepository.findByIdWithAllForUpdate(purchaseId)
                 .orElseThrow(() -> new IllegalArgumentException("Compra no encontrada: " + purchaseId));
+        stopwatch.lap(Phase.LOCK_PURCHASE);
 
         if (purchase.getStatus() == PurchaseStatus.POSTED) {
             return loadDetail(purchaseId);
@@ -234,6 +278,7 @@ public class PurchaseServiceImpl implements PurchaseService {
             var missing = productIds.stream().filter(id -> !productsById.containsKey(id)).toList();
             throw new EntityNotFoundException("Productos no encontrados: " + missing);
         }
+        stopwatch.lap(Phase.LOCK_PRODUCTS);
 
         InventoryMovement movement = new InventoryMovement();
         movement.setMovementType(MovementType.IN);
@@ -245,6 +290,10 @@ public class PurchaseServiceImpl implements PurchaseService {
 
         List<ProductBatch> allBatches = new ArrayList<>();
 
+        // resumen FEFO por producto (bajo el lock de productos)
+        Map<Long, ProductStockSummary> summaries = productStockSummaryRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductStockSummary::getProductId, Function.identity()));
+
         for (PurchaseItem item : purchase.getItems()) {
             PostPurchaseItemRequest postItemReq = byItemId.get(item.getId());
             Product product = productsById.get(item.getProduct().getId());
@@ -279,6 +328,9 @@ public class PurchaseServiceImpl implements PurchaseService {
                 batch.setQtyAvailable(b.quantity());
                 batch.setUnitCost(item.getUnitCost());
                 allBatches.add(batch);
+
+                summaries.computeIfAbsent(product.getId(), ProductStockSummary::new)
+                        .addBatch(b.quantity(), b.expiresAt());
             }
 
             // stock
@@ -294,7 +346,10 @@ public class PurchaseServiceImpl implements PurchaseService {
             movement.addItem(mi);
         }
 
+        stopwatch.lap(Phase.ALLOCATE);
+
         productBatchRepository.saveAll(allBatches);
+        productStockSummaryRepository.saveAll(new ArrayList<>(summaries.values()));
         inventoryMovementRepository.save(movement);
         // product (dirty checking)
 
@@ -302,8 +357,14 @@ public class PurchaseServiceImpl implements PurchaseService {
         purchase.setPostedAt(now);
         purchase.setPostedByUserId(userId);
         purchaseRepository.save(purchase);
-
-        return loadDetail(purchaseId);
+        eventPublisher.publishEvent(StockChangedEvent.of(productsById.values()));
+        stopwatch.lap(Phase.PERSIST);
+
+        PurchaseResponse response = loadDetail(purchaseId);
+        outboxService.append(OutboxEventType.PURCHASE_POSTED, purchaseId, response);
+        stopwatch.lap(Phase.MAPPING);
+        metrics.purchasePosted(allBatches.size());
+        return response;
     }
 
     @Override
@@ -314,9 +375,13 @@ public class PurchaseServiceImpl implements PurchaseService {
 
     @Override
     @Transactional
+    @Observed(name = "purchase.void", contextualName = "purchase-void")
+    @RetryOnConflict("purchase.void")
     public PurchaseResponse voidPurchase(Long purchaseId, VoidPurchaseRequest request) {
+        HotPathMetrics.Stopwatch stopwatch = metrics.start(HotPathMetrics.Flow.PURCHASE_VOID);
         Purchase purchase = purchaseRepository.findByIdWithAllForUpdate(purchaseId)
                 .orElseThrow(() -> new IllegalArgumentException("Compra no encontrada: " + purchaseId));
+        stopwatch.lap(Phase.LOCK_PURCHASE);
 
         Long userId = currentUser().getId();
         LocalDateTime now = LocalDateTime.now();
@@ -344,28 +409,25 @@ public class PurchaseServiceImpl implements PurchaseService {
             throw new IllegalStateException("Solo se puede anular compras DRAFT o POSTED. Estado: " + purchase.getStatus());
         }
 
-        List<ProductBatch> batches = productBatchRepository.findBatchesByPurchaseId(purchaseId);
-        if (batches.isEmpty()) {
+        // totales por producto de los lotes de la compra (1 query agregada, sin cargar lotes)
+        List<PurchaseBatchAggregate> aggregates = productBatchRepository.aggregateByPurchaseId(purchaseId);
+        if (aggregates.isEmpty()) {
             throw new IllegalStateException("No se puede anular: la compra no tiene lotes asociados.");
         }
 
-        // validar no consumidos
-        for (ProductBatch b : batches) {
-            if (b.getQtyAvailable() == null || b.getQtyInitial() == null) {
-                throw new IllegalStateException("Lote corrupto: " + b.getId());
-            }
-            if (b.getQtyAvailable() < b.getQtyInitial()) {
-                throw new IllegalStateException("No se puede anular: ya se consumió parte del lote " + b.getId());
-            }
-        }
-
-        // agrupar qty por producto (regresar qty_initial)
         Map<Long, Integer> qtyByProduct = new HashMap<>();
-        for (ProductBatch b : batches) {
-            qtyByProduct.merge(b.getProduct().getId(), b.getQtyInitial(), Integer::sum);
+        long batchCount = 0;
+        for (PurchaseBatchAggregate agg : aggregates) {
+            if (agg.qtyAvailable() < agg.qtyInitial()) {
+                throw new IllegalStateException("No se puede anular: ya se consumió parte de los lotes del producto "
+                        + agg.productId());
+            }
+            qtyByProduct.put(agg.productId(), agg.qtyInitial().intValue());
+            batchCount += agg.batchCount();
         }
+        stopwatch.lap(Phase.VALIDATE);
 
-        // lock productos en batch (1 query)
+        // lock productos en batch (1 query); las ventas bloquean productos antes de tomar lotes
         List<Long> productIds = new ArrayList<>(qtyByProduct.keySet());
         Map<Long, Product> productsById = productRepository.findByIdInForUpdate(productIds).stream()
                 .collect(Collectors.toMap(Product::getId, Function.identity()));
@@ -374,6 +436,20 @@ public class PurchaseServiceImpl implements PurchaseService {
             var missing = productIds.stream().filter(id -> !productsById.containsKey(id)).toList();
             throw new EntityNotFoundException("Productos no encontrados: " + missing);
         }
+        stopwatch.lap(Phase.LOCK_PRODUCTS);
+
+        // validar no consumidos: ventas vigentes con allocations sobre estos lotes
+        long sold = saleBatchAllocationRepository.sumActiveQuantityByPurchaseId(purchaseId);
+        if (sold > 0) {
+            throw new IllegalStateException("No se puede anular: ya se vendieron " + sold + " unidades de los lotes " +
+                    "de la compra");
+        }
+
+        // “Anular lotes”: qtyAvailable=0 solo en lotes intactos (1 UPDATE)
+        int zeroed = productBatchRepository.zeroUnconsumedByPurchaseId(purchaseId, now);
+        if (zeroed != batchCount) {
+            throw new IllegalStateException("No se puede anular: lotes de la compra consumidos durante la anulación");
+        }
 
         InventoryMovement movement = new InventoryMovement();
         movement.setMovementType(MovementType.OUT);
@@ -406,9 +482,8 @@ public class PurchaseServiceImpl implements PurchaseService {
             movement.addItem(mi);
         }
 
-        // “Anular lotes”: marcar qtyAvailable=0
-        for (ProductBatch b : batches) b.setQtyAvailable(0);
-        productBatchRepository.saveAll(batches);
+        // el lote anulado puede ser el de vencimiento más próximo: recalcular resumen de esos productos
+        refreshStockSummaries(productIds);
 
         inventoryMovementRepository.save(movement);
 
@@ -417,7 +492,12 @@ public class PurchaseServiceImpl implements PurchaseService {
         purchase.setVoidReason(reason);
         purchase.setVoidedByUserId(userId);
         purchaseRepository.save(purchase);
+        eventPublisher.publishEvent(StockChangedEvent.of(productsById.values()));
+        stopwatch.lap(Phase.PERSIST);
 
-        return loadDetail(purchaseId);
+        PurchaseResponse response = loadDetail(purchaseId);
+        outboxService.append(OutboxEventType.PURCHASE_VOIDED, purchaseId, response);
+        stopwatch.lap(Phase.MAPPING);
+        return response;
     }
 }
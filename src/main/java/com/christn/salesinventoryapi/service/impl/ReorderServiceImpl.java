@@ -0,0 +1,346 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.request.CreatePurchaseItemRequest;
+import com.christn.salesinventoryapi.dto.request.CreatePurchaseRequest;
+import com.christn.salesinventoryapi.dto.response.*;
+import com.christn.salesinventoryapi.model.PurchaseDocumentType;
+import com.christn.salesinventoryapi.model.Supplier;
+import com.christn.salesinventoryapi.repository.SupplierRepository;
+import com.christn.salesinventoryapi.service.PurchaseService;
+import com.christn.salesinventoryapi.service.ReorderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de sugerencias de reposición. Para cada producto combina:
+ * velocidad de venta (media exponencial diaria de SALE_OUT neto de SALE_VOID_IN),
+ * lead time del proveedor (purchase_date -> posted_at de sus compras recientes),
+ * disponibilidad FEFO (product_stock_summaries) y lo ya pedido en compras DRAFT.
+ * El catálogo se recorre en rangos de id con fork-join; cada hoja hace 4 consultas acotadas al rango.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReorderServiceImpl implements ReorderService {
+
+    static final int LEAD_TIME_WINDOW_DAYS = 180;
+
+    private static final String ID_RANGE_SQL = "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM products WHERE deleted = FALSE";
+
+    private static final String LEAD_TIME_SQL = """
+            SELECT supplier_id, purchase_date, posted_at
+            FROM purchases
+            WHERE status = 'POSTED' AND supplier_id IS NOT NULL AND posted_at >= ?
+            """;
+
+    private static final String PRODUCTS_SQL = """
+            SELECT p.id, p.name, COALESCE(s.qty_available, 0)
+            FROM products p
+            LEFT JOIN product_stock_summaries s ON s.product_id = p.id
+            WHERE p.deleted = FALSE AND p.id >= ? AND p.id < ?
+            """;
+
+    // product_id primero: usa idx_inv_item_product_movement
+    private static final String DEMAND_SQL = """
+            SELECT i.product_id, CAST(m.created_at AS DATE),
+                   SUM(CASE WHEN m.event_type = 'SALE_OUT' THEN i.quantity ELSE -i.quantity END)
+            FROM inventory_movement_items i
+            JOIN inventory_movements m ON m.id = i.movement_id
+            WHERE i.product_id >= ? AND i.product_id < ?
+              AND m.event_type IN ('SALE_OUT', 'SALE_VOID_IN')
+              AND m.created_at >= ?
+            GROUP BY i.product_id, CAST(m.created_at AS DATE)
+            """;
+
+    // Último proveedor y costo de cada producto (compra publicada más reciente)
+    private static final String SOURCE_SQL = """
+            SELECT product_id, supplier_id, unit_cost
+            FROM (SELECT pi.product_id, pu.supplier_id, pi.unit_cost,
+                         ROW_NUMBER() OVER (PARTITION BY pi.product_id ORDER BY pu.posted_at DESC, pu.id DESC) AS rn
+                  FROM purchase_items pi
+                  JOIN purchases pu ON pu.id = pi.purchase_id
+                  WHERE pu.status = 'POSTED' AND pi.product_id >= ? AND pi.product_id < ?) x
+            WHERE rn = 1
+            """;
+
+    private static final String ON_ORDER_SQL = """
+            SELECT pi.product_id, SUM(pi.quantity)
+            FROM purchase_items pi
+            JOIN purchases pu ON pu.id = pi.purchase_id
+            WHERE pu.status = 'DRAFT' AND pi.product_id >= ? AND pi.product_id < ?
+            GROUP BY pi.product_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PurchaseService purchaseService;
+    private final SupplierRepository supplierRepository;
+
+    @Qualifier("reorderPool")
+    private final ForkJoinPool reorderPool;
+
+    @Value("${app.reorder.lookback-days:90}")
+    private final int lookbackDays;
+
+    // vida media de la media exponencial: una venta de hace N días pesa la mitad que una de hoy
+    @Value("${app.reorder.half-life-days:14}")
+    private final int halfLifeDays;
+
+    @Value("${app.reorder.coverage-days:14}")
+    private final int coverageDays;
+
+    @Value("${app.reorder.safety-days:3}")
+    private final int safetyDays;
+
+    @Value("${app.reorder.default-lead-time-days:7}")
+    private final int defaultLeadTimeDays;
+
+    @Value("${app.reorder.range-size:5000}")
+    private final int rangeSize;
+
+    private record ProductRow(Long id, String name, int available) {
+    }
+
+    private record DemandRow(Long productId, LocalDate day, long quantity) {
+    }
+
+    private record SourceRow(Long productId, Long supplierId, BigDecimal unitCost) {
+    }
+
+    private record Line(Long supplierId, ReorderLineResponse response) {
+    }
+
+    private record Partial(int examined, List<Line> lines) {
+        Partial merge(Partial other) {
+            List<Line> merged = new ArrayList<>(lines.size() + other.lines.size());
+            merged.addAll(lines);
+            merged.addAll(other.lines);
+            return new Partial(examined + other.examined, merged);
+        }
+    }
+
+    // Parámetros comunes a todas las hojas de una corrida
+    private record Context(LocalDate today, LocalDateTime demandSince, Map<Long, Double> leadTimes) {
+    }
+
+    // MIN/MAX leídos por alias: sin él, H2 etiqueta ambas columnas igual
+    private record IdRange(Long minId, Long maxId) {
+    }
+
+    // Helpers
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static Long nullableLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private double leadTime(Map<Long, Double> leadTimes, Long supplierId) {
+        Double days = supplierId == null ? null : leadTimes.get(supplierId);
+        return days != null ? days : defaultLeadTimeDays;
+    }
+
+    /**
+     * Media exponencial de la demanda diaria (unidades/día) sobre la ventana de lookback.
+     * Los días sin ventas cuentan como 0; se normaliza por el peso total de la ventana.
+     */
+    private double velocity(List<DemandRow> rows, LocalDate today) {
+        double decay = Math.pow(0.5, 1.0 / halfLifeDays);
+        double norm = 1 - Math.pow(decay, lookbackDays);
+        double sum = 0;
+        for (DemandRow row : rows) {
+            long age = ChronoUnit.DAYS.between(row.day(), today);
+            if (age < 0 || age >= lookbackDays) continue;
+            sum += row.quantity() * (1 - decay) * Math.pow(decay, age);
+        }
+        return norm <= 0 ? 0 : Math.max(0, sum / norm);
+    }
+
+    private Map<Long, Double> loadLeadTimes(LocalDateTime since) {
+        Map<Long, double[]> acc = new HashMap<>();
+        jdbcTemplate.query(LEAD_TIME_SQL, rs -> {
+            Timestamp ordered = rs.getTimestamp(2);
+            Timestamp posted = rs.getTimestamp(3);
+            if (ordered == null || posted == null) return;
+            double days = Math.max(0, Duration.between(ordered.toLocalDateTime(), posted.toLocalDateTime())
+                    .toMinutes() / 1440.0);
+            double[] a = acc.computeIfAbsent(rs.getLong(1), k -> new double[2]);
+            a[0] += days;
+            a[1]++;
+        }, Timestamp.valueOf(since));
+
+        Map<Long, Double> leadTimes = new HashMap<>();
+        acc.forEach((supplierId, a) -> leadTimes.put(supplierId, a[0] / a[1]));
+        return leadTimes;
+    }
+
+    // Hoja del fork-join: evalúa los productos con id en [from, to)
+    private Partial evaluateRange(long from, long to, Context ctx) {
+        List<ProductRow> products = jdbcTemplate.query(PRODUCTS_SQL,
+                (rs, i) -> new ProductRow(rs.getLong(1), rs.getString(2), rs.getInt(3)), from, to);
+        if (products.isEmpty()) return new Partial(0, List.of());
+
+        Map<Long, List<DemandRow>> demand = jdbcTemplate.query(DEMAND_SQL,
+                        (rs, i) -> new DemandRow(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getLong(3)),
+                        from, to, Timestamp.valueOf(ctx.demandSince()))
+                .stream()
+                .collect(Collectors.groupingBy(DemandRow::productId));
+        if (demand.isEmpty()) return new Partial(products.size(), List.of());
+
+        Map<Long, SourceRow> sources = jdbcTemplate.query(SOURCE_SQL,
+                        (rs, i) -> new SourceRow(rs.getLong(1), nullableLong(rs.getObject(2)), rs.getBigDecimal(3)),
+                        from, to)
+                .stream()
+                .collect(Collectors.toMap(SourceRow::productId, Function.identity()));
+
+        Map<Long, Integer> onOrder = new HashMap<>();
+        jdbcTemplate.query(ON_ORDER_SQL, rs -> {
+            onOrder.put(rs.getLong(1), rs.getInt(2));
+        }, from, to);
+
+        List<Line> lines = new ArrayList<>();
+        for (ProductRow product : products) {
+            List<DemandRow> rows = demand.get(product.id());
+            if (rows == null) continue;
+            double velocity = velocity(rows, ctx.today());
+            if (velocity <= 0) continue;
+
+            SourceRow source = sources.get(product.id());
+            Long supplierId = source != null ? source.supplierId() : null;
+            double leadTime = leadTime(ctx.leadTimes(), supplierId);
+            int pending = onOrder.getOrDefault(product.id(), 0);
+            int position = product.available() + pending;
+
+            // se pide cuando la posición no cubre el lead time + colchón; se repone hasta cubrir también la revisión
+            if (position > velocity * (leadTime + safetyDays)) continue;
+            // round2 antes del ceil: evita pedir una unidad extra por ruido de punto flotante
+            int quantity = (int) Math.ceil(round2(velocity * (leadTime + safetyDays + coverageDays) - position));
+            if (quantity <= 0) continue;
+
+            BigDecimal unitCost = source != null && source.unitCost() != null ? source.unitCost() : BigDecimal.ZERO;
+            lines.add(new Line(supplierId, new ReorderLineResponse(
+                    product.id(),
+                    product.name(),
+                    round2(velocity),
+                    product.available(),
+                    pending,
+                    round2(leadTime),
+                    quantity,
+                    unitCost,
+                    unitCost.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP)
+            )));
+        }
+        return new Partial(products.size(), lines);
+    }
+
+    private final class RangeTask extends RecursiveTask<Partial> {
+        private final long from;
+        private final long to;
+        private final Context ctx;
+
+        private RangeTask(long from, long to, Context ctx) {
+            this.from = from;
+            this.to = to;
+            this.ctx = ctx;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= rangeSize) return evaluateRange(from, to, ctx);
+            long mid = from + (to - from) / 2;
+            RangeTask left = new RangeTask(from, mid, ctx);
+            left.fork();
+            Partial right = new RangeTask(mid, to, ctx).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    @Override
+    public ReorderSuggestionResponse suggest() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        IdRange range = jdbcTemplate.queryForObject(ID_RANGE_SQL, (rs, i) ->
+                new IdRange(rs.getObject("min_id", Long.class), rs.getObject("max_id", Long.class)));
+
+        Partial result = new Partial(0, List.of());
+        if (range != null && range.minId() != null) {
+            Context ctx = new Context(today, today.minusDays(lookbackDays - 1L).atStartOfDay(),
+                    loadLeadTimes(now.minusDays(LEAD_TIME_WINDOW_DAYS)));
+            result = reorderPool.invoke(new RangeTask(range.minId(), range.maxId() + 1, ctx));
+        }
+
+        List<ReorderSupplierResponse> suppliers = groupBySupplier(result.lines());
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Reorder suggestions: products={} suggested={} suppliers={} in {} ms",
+                result.examined(), result.lines().size(), suppliers.size(), durationMs);
+
+        return new ReorderSuggestionResponse(now, durationMs, result.examined(), result.lines().size(), suppliers);
+    }
+
+    private List<ReorderSupplierResponse> groupBySupplier(List<Line> lines) {
+        // HashMap: admite la clave null (productos sin compras previas)
+        Map<Long, List<ReorderLineResponse>> bySupplier = new HashMap<>();
+        for (Line line : lines) {
+            bySupplier.computeIfAbsent(line.supplierId(), k -> new ArrayList<>()).add(line.response());
+        }
+
+        Set<Long> supplierIds = bySupplier.keySet().stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, String> names = supplierRepository.findAllById(supplierIds).stream()
+                .collect(Collectors.toMap(Supplier::getId, Supplier::getName));
+
+        List<ReorderSupplierResponse> suppliers = new ArrayList<>();
+        bySupplier.forEach((supplierId, supplierLines) -> {
+            supplierLines.sort(Comparator.comparing(ReorderLineResponse::subTotal).reversed()
+                    .thenComparing(ReorderLineResponse::productId));
+            BigDecimal total = supplierLines.stream()
+                    .map(ReorderLineResponse::subTotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            suppliers.add(new ReorderSupplierResponse(
+                    supplierId,
+                    supplierId == null ? null : names.get(supplierId),
+                    supplierLines.getFirst().leadTimeDays(),
+                    total,
+                    supplierLines
+            ));
+        });
+        suppliers.sort(Comparator.comparing(ReorderSupplierResponse::totalCost).reversed());
+        return suppliers;
+    }
+
+    @Override
+    @Transactional
+    public List<PurchaseResponse> createDrafts(Long supplierId) {
+        String notes = "Sugerencia de reposición " + LocalDate.now();
+        List<PurchaseResponse> drafts = new ArrayList<>();
+        for (ReorderSupplierResponse suggestion : suggest().suppliers()) {
+            if (supplierId != null && !supplierId.equals(suggestion.supplierId())) continue;
+
+            List<CreatePurchaseItemRequest> items = suggestion.lines().stream()
+                    .map(l -> new CreatePurchaseItemRequest(l.productId(), l.unitCost(), l.suggestedQuantity()))
+                    .toList();
+            drafts.add(purchaseService.createDraft(new CreatePurchaseRequest(
+                    suggestion.supplierId(), null, PurchaseDocumentType.INVOICE, null, notes, items)));
+        }
+        return drafts;
+    }
+}
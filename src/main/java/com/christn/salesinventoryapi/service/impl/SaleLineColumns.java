@@ -0,0 +1,138 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Líneas de venta en columnas primitivas (producto, cantidad, precio en centavos, segundo epoch),
+ * agrupadas en chunks de capacidad fija. Un solo escritor a la vez (lock); los lectores no bloquean:
+ * toman la lista de chunks vigente y leen cada chunk hasta su {@code size} volátil.
+ * Las líneas de una venta quedan contiguas en un mismo chunk, así anularla es marcar un rango.
+ */
+final class SaleLineColumns {
+
+    static final int CHUNK_CAPACITY = 16_384;
+
+    static final class Chunk {
+        final long[] productId;
+        final int[] quantity;
+        final long[] unitPriceCents;
+        final long[] epochSecond;
+        final boolean[] voided;
+        volatile int size;
+        long maxEpochSecond = Long.MIN_VALUE;
+
+        Chunk(int capacity) {
+            productId = new long[capacity];
+            quantity = new int[capacity];
+            unitPriceCents = new long[capacity];
+            epochSecond = new long[capacity];
+            voided = new boolean[capacity];
+        }
+
+        int capacity() {
+            return productId.length;
+        }
+    }
+
+    private record SaleRows(Chunk chunk, int from, int count) {
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, SaleRows> rowsBySale = new HashMap<>();
+    private volatile List<Chunk> chunks = List.of();
+
+    // Vista consistente para un escaneo; los chunks nuevos no alteran la lista ya tomada
+    List<Chunk> chunks() {
+        return chunks;
+    }
+
+    int sales() {
+        writeLock.lock();
+        try {
+            return rowsBySale.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    long rows() {
+        long rows = 0;
+        for (Chunk c : chunks) rows += c.size;
+        return rows;
+    }
+
+    /**
+     * Agrega las líneas de una venta. Devuelve false si la venta ya estaba (evento repetido
+     * o venta cargada desde la base y luego recibida como evento).
+     */
+    boolean append(long saleId, long epochSecond, long[] productIds, int[] quantities, long[] unitPriceCents) {
+        int n = productIds.length;
+        if (n == 0) return false;
+
+        writeLock.lock();
+        try {
+            if (rowsBySale.containsKey(saleId)) return false;
+
+            List<Chunk> current = chunks;
+            Chunk tail = current.isEmpty() ? null : current.getLast();
+            if (tail == null || tail.capacity() - tail.size < n) {
+                tail = new Chunk(Math.max(CHUNK_CAPACITY, n));
+                List<Chunk> next = new ArrayList<>(current.size() + 1);
+                next.addAll(current);
+                next.add(tail);
+                chunks = List.copyOf(next);
+            }
+
+            int from = tail.size;
+            System.arraycopy(productIds, 0, tail.productId, from, n);
+            System.arraycopy(quantities, 0, tail.quantity, from, n);
+            System.arraycopy(unitPriceCents, 0, tail.unitPriceCents, from, n);
+            for (int i = from; i < from + n; i++) tail.epochSecond[i] = epochSecond;
+            tail.maxEpochSecond = Math.max(tail.maxEpochSecond, epochSecond);
+            // escritura volátil al final: publica las columnas a los lectores
+            tail.size = from + n;
+
+            rowsBySale.put(saleId, new SaleRows(tail, from, n));
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Marca como anuladas las líneas de la venta; false si la venta no está en memoria
+    boolean markVoided(long saleId) {
+        writeLock.lock();
+        try {
+            SaleRows rows = rowsBySale.get(saleId);
+            if (rows == null) return false;
+            for (int i = rows.from(); i < rows.from() + rows.count(); i++) rows.chunk().voided[i] = true;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Descarta chunks completos cuya línea más reciente es anterior al corte; devuelve filas liberadas
+    long evictBefore(long cutoffEpochSecond) {
+        writeLock.lock();
+        try {
+            List<Chunk> current = chunks;
+            List<Chunk> kept = new ArrayList<>(current.size());
+            long evicted = 0;
+            for (Chunk c : current) {
+                // el chunk en escritura se conserva aunque sea viejo
+                if (c != current.getLast() && c.maxEpochSecond < cutoffEpochSecond) evicted += c.size;
+                else kept.add(c);
+            }
+            if (evicted == 0) return 0;
+
+            chunks = List.copyOf(kept);
+            Set<Chunk> keptSet = new HashSet<>(kept);
+            rowsBySale.values().removeIf(r -> !keptSet.contains(r.chunk()));
+            return evicted;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.repository.spec.SaleSearchFilter;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Elige el índice que guía la búsqueda de ventas y un orden alineado con él.
+ * Todos los índices de búsqueda terminan en sale_date (o empiezan por ella), así que ordenar por
+ * saleDate + id evita el sort en memoria y mantiene la paginación estable.
+ */
+final class SaleSearchPlanner {
+
+    static final String IDX_CUSTOMER_DATE = "idx_sales_customer_date";
+    static final String IDX_DATE_TOTAL = "idx_sales_date_total";
+    static final String IDX_STATUS_DATE = "idx_sales_status_date";
+
+    private static final Set<String> SORTABLE = Set.of("saleDate", "totalAmount", "status", "id");
+
+    record Plan(String index, Sort sort, boolean indexAligned) {
+    }
+
+    private SaleSearchPlanner() {
+    }
+
+    static Plan plan(SaleSearchFilter filter, Sort requested) {
+        String index;
+        if (filter.customerId() != null) index = IDX_CUSTOMER_DATE;
+        else if (filter.hasDateOrAmountRange()) index = IDX_DATE_TOTAL;
+        else if (filter.status() != null) index = IDX_STATUS_DATE;
+        else index = IDX_DATE_TOTAL;
+
+        // solo la primera propiedad ordenable; el resto se ignora (no hay índice que lo cubra)
+        Sort.Order primary = requested.stream()
+                .filter(o -> SORTABLE.contains(o.getProperty()))
+                .findFirst()
+                .orElse(Sort.Order.desc("saleDate"));
+        Sort.Direction dir = primary.getDirection();
+
+        return switch (primary.getProperty()) {
+            case "saleDate" -> new Plan(index, Sort.by(new Sort.Order(dir, "saleDate"), new Sort.Order(dir, "id")),
+                    true);
+            case "id" -> new Plan(index, Sort.by(new Sort.Order(dir, "id")), false);
+            default -> new Plan(index, Sort.by(
+                    new Sort.Order(dir, primary.getProperty()),
+                    new Sort.Order(dir, "saleDate"),
+                    new Sort.Order(dir, "id")), false);
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.christn.salesinventoryapi.service.impl;
 
 import com.christn.salesinventoryapi.auth.AuthUserDetails;
+import com.christn.salesinventoryapi.diagnostics.RetryOnConflict;
 import com.christn.salesinventoryapi.dto.mapper.SaleMapper;
 import com.christn.salesinventoryapi.dto.request.CreateSaleDetailRequest;
 import com.christn.salesinventoryapi.dto.request.CreateSaleRequest;
@@ -9,16 +10,29 @@ import com.christn.salesinventoryapi.dto.request.VoidSaleRequest;
 import com.christn.salesinventoryapi.dto.response.PageResponse;
 import com.christn.salesinventoryapi.dto.response.SaleResponse;
 import com.christn.salesinventoryapi.dto.response.SaleSummaryResponse;
+import com.christn.salesinventoryapi.event.SalePostedEvent;
+import com.christn.salesinventoryapi.event.SaleVoidedEvent;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
 import com.christn.salesinventoryapi.exception.ForbiddenException;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics.Phase;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics.SaleRejection;
 import com.christn.salesinventoryapi.model.*;
 import com.christn.salesinventoryapi.repository.*;
-import com.christn.salesinventoryapi.repository.spec.SaleSpecifications;
+import com.christn.salesinventoryapi.repository.projection.SaleHeaderView;
+import com.christn.salesinventoryapi.repository.spec.SaleSearchFilter;
+import com.christn.salesinventoryapi.service.OutboxService;
 import com.christn.salesinventoryapi.service.SaleService;
+import com.christn.salesinventoryapi.service.SalesRollupService;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -29,6 +43,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SaleServiceImpl implements SaleService {
@@ -40,6 +55,11 @@ public class SaleServiceImpl implements SaleService {
     private final InventoryMovementRepository inventoryMovementRepository;
     private final SaleBatchAllocationRepository saleBatchAllocationRepository;
     private final PaymentRepository paymentRepository;
+    private final ProductStockSummaryRepository productStockSummaryRepository;
+    private final SalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final HotPathMetrics metrics;
 
     // Helpers
     private boolean hasRole(AuthUserDetails user, String role) {
@@ -166,10 +186,14 @@ public class SaleServiceImpl implements SaleService {
     }
 
     @Transactional
+    @Observed(name = "sale.post", contextualName = "sale-post")
+    @RetryOnConflict("sale.post")
     public SaleResponse postSale(Long saleId, PostSaleRequest request) {
+        HotPathMetrics.Stopwatch stopwatch = metrics.start(HotPathMetrics.Flow.SALE_POST);
 
         Sale sale = saleRepository.findByIdWithDetailsForUpdate(saleId)
                 .orElseThrow(() -> new EntityNotFoundException("Venta no encontrada: " + saleId));
+        stopwatch.lap(Phase.LOCK_SALE);
 
         if (sale.getStatus() == SaleStatus.ACTIVE || sale.getStatus() == SaleStatus.COMPLETED) {
             return SaleMapper.toResponse(sale);
@@ -199,9 +223,33 @@ public class SaleServiceImpl implements SaleService {
             List<Long> missing = productIds.stream().filter(id -> !productMap.containsKey(id)).toList();
             throw new EntityNotFoundException("Productos no encontrados: " + missing);
         }
+        stopwatch.lap(Phase.LOCK_PRODUCTS);
 
-        // 3) lock batches FEFO
+        // 3) pre-validación con el resumen FEFO (sin lockear lotes)
+        // el resumen se mantiene bajo el lock del producto, así que aquí es consistente
+        Map<Long, ProductStockSummary> summaries = productStockSummaryRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductStockSummary::getProductId, s -> s));
+        for (var e : qtyByProduct.entrySet()) {
+            Long pid = e.getKey();
+            int need = e.getValue();
+
+            ProductStockSummary summary = summaries.get(pid);
+            int available = summary == null ? 0 : summary.getQtyAvailable();
+            if (available <= 0) {
+                metrics.saleRejected(SaleRejection.NO_BATCHES);
+                throw new IllegalStateException("El producto " + pid + " no tiene lotes disponibles");
+            }
+            if (available < need) {
+                metrics.saleRejected(SaleRejection.INSUFFICIENT_STOCK);
+                throw new IllegalStateException("Stock insuficiente FEFO para producto " + pid +
+                        ". disponible=" + available + ", requerido=" + need);
+            }
+        }
+        stopwatch.lap(Phase.VALIDATE);
+
+        // 4) lock batches FEFO
         List<ProductBatch> batches = productBatchRepository.findAvailableBatchesForUpdate(productIds);
+        stopwatch.lap(Phase.LOCK_BATCHES);
 
         Map<Long, List<ProductBatch>> batchesByProduct = new HashMap<>();
         Set<ProductBatch> touched = new HashSet<>();
@@ -216,6 +264,7 @@ public class SaleServiceImpl implements SaleService {
 
             var list = batchesByProduct.get(pid);
             if (list == null || list.isEmpty()) {
+                metrics.saleRejected(SaleRejection.NO_BATCHES);
                 throw new IllegalStateException("El producto " + pid + " no tiene lotes disponibles");
             }
 
@@ -223,6 +272,7 @@ public class SaleServiceImpl implements SaleService {
                     .mapToInt(b -> b.getQtyAvailable() == null ? 0 : b.getQtyAvailable())
                     .sum();
             if (available < need) {
+                metrics.saleRejected(SaleRejection.INSUFFICIENT_STOCK);
                 throw new IllegalStateException("Stock insuficiente FEFO para producto " + pid +
                         ". disponible=" + available + ", requerido=" + need);
             }
@@ -231,7 +281,7 @@ public class SaleServiceImpl implements SaleService {
         AuthUserDetails user = currentUser();
         LocalDateTime now = LocalDateTime.now();
 
-        // 4) movement OUT
+        // 5) movement OUT
         InventoryMovement movement = new InventoryMovement();
         movement.setMovementType(MovementType.OUT);
         movement.setSourceType(SourceType.SALE);
@@ -241,7 +291,8 @@ public class SaleServiceImpl implements SaleService {
         movement.setCreatedAt(now);
         movement.setCreatedByUserId(user.getId());
 
-        // 5) allocations + bajar qtyAvailable + bajar stock agregado
+        // 6) allocations + bajar qtyAvailable + bajar stock agregado
+        List<SaleBatchAllocation> allocations = new ArrayList<>();
         for (SaleDetail detail : sale.getDetails()) {
             Long pid = detail.getProduct().getId();
             int needed = detail.getQuantity();
@@ -263,10 +314,12 @@ public class SaleServiceImpl implements SaleService {
                 alloc.setProductBatch(batch);
                 alloc.setQuantity(take);
                 detail.addAllocation(alloc); // setea saleDetail
+                allocations.add(alloc);
                 remaining -= take;
             }
 
             if (remaining > 0) {
+                metrics.saleRejected(SaleRejection.RACE_CONDITION);
                 throw new IllegalStateException("Stock insuficiente (race condition) para producto " + pid);
             }
 
@@ -283,15 +336,40 @@ public class SaleServiceImpl implements SaleService {
             movement.addItem(mi);
         }
 
+        // 7) resumen FEFO: tenemos todos los lotes disponibles lockeados, se recalcula en memoria
+        List<ProductStockSummary> updatedSummaries = new ArrayList<>(productIds.size());
+        for (Long pid : productIds) {
+            ProductStockSummary summary = summaries.computeIfAbsent(pid, ProductStockSummary::new);
+            summary.resetFrom(batchesByProduct.getOrDefault(pid, List.of()));
+            updatedSummaries.add(summary);
+        }
+        stopwatch.lap(Phase.ALLOCATE);
+
         productBatchRepository.saveAll(new ArrayList<>(touched));
+        productStockSummaryRepository.saveAll(updatedSummaries);
         inventoryMovementRepository.save(movement);
 
+        // 8) rollups diarios (misma transacción)
+        salesRollupService.recordPosted(sale, allocations);
+
         sale.setStatus(SaleStatus.ACTIVE);
         sale.setPostedAt(now);
         sale.setPostedByUserId(user.getId());
         saleRepository.save(sale);
 
-        return SaleMapper.toResponse(sale);
+        List<SalePostedEvent.Line> lines = sale.getDetails().stream()
+                .map(d -> new SalePostedEvent.Line(d.getProduct().getId(), d.getProduct().getName(),
+                        d.getQuantity(), d.getUnitPrice()))
+                .toList();
+        eventPublisher.publishEvent(new SalePostedEvent(sale.getId(), sale.getSaleDate(), sale.getCreatedByUserId(), lines));
+        eventPublisher.publishEvent(StockChangedEvent.of(productMap.values()));
+        stopwatch.lap(Phase.PERSIST);
+
+        SaleResponse response = SaleMapper.toResponse(sale);
+        outboxService.append(OutboxEventType.SALE_POSTED, sale.getId(), response);
+        stopwatch.lap(Phase.MAPPING);
+        metrics.salePosted(sale.getDetails().size(), touched.size());
+        return response;
     }
 
     @Override
@@ -333,14 +411,20 @@ public class SaleServiceImpl implements SaleService {
 
         saleRepository.save(sale);
 
-        return SaleMapper.toResponse(sale);
+        SaleResponse response = SaleMapper.toResponse(sale);
+        outboxService.append(OutboxEventType.SALE_COMPLETED, sale.getId(), response);
+        return response;
     }
 
     @Override
     @Transactional
+    @Observed(name = "sale.void", contextualName = "sale-void")
+    @RetryOnConflict("sale.void")
     public SaleResponse voidSale(Long saleId, VoidSaleRequest request) {
+        HotPathMetrics.Stopwatch stopwatch = metrics.start(HotPathMetrics.Flow.SALE_VOID);
         Sale sale = saleRepository.findByIdWithDetailsForUpdate(saleId)
                 .orElseThrow(() -> new EntityNotFoundException("Venta no encontrada: " + saleId));
+        stopwatch.lap(Phase.LOCK_SALE);
 
         // Idempotencia
         if (sale.getStatus() == SaleStatus.VOIDED) {
@@ -377,10 +461,13 @@ public class SaleServiceImpl implements SaleService {
         if (allocs.isEmpty()) {
             throw new IllegalStateException("La venta no tiene allocations para revertir (datos inconsistentes)");
         }
+        stopwatch.lap(Phase.LOCK_BATCHES);
 
         // 2. agrupar cantidades a devolver por producto + restaurar qtyAvailable en batches
         Map<Long, Integer> qtyByProduct = new HashMap<>();
         Set<ProductBatch> touched = new HashSet<>();
+        List<ProductBatch> reopened = new ArrayList<>();
+        Map<Long, Integer> restoredByBatch = new HashMap<>();
 
         for (SaleBatchAllocation a : allocs) {
             if (a == null || a.getQuantity() == null || a.getQuantity() <= 0) {
@@ -397,6 +484,9 @@ public class SaleServiceImpl implements SaleService {
             batch.setQtyAvailable(Math.min(nextAvail, max));
             touched.add(batch);
 
+            if (prevAvail <= 0 && batch.getQtyAvailable() > 0) reopened.add(batch);
+            restoredByBatch.merge(batch.getId(), batch.getQtyAvailable() - prevAvail, Integer::sum);
+
             Long productId = batch.getProduct().getId();
             qtyByProduct.merge(productId, a.getQuantity(), Integer::sum);
         }
@@ -410,6 +500,7 @@ public class SaleServiceImpl implements SaleService {
             List<Long> missing = productIds.stream().filter(id -> !lockedProducts.containsKey(id)).toList();
             throw new EntityNotFoundException("Productos no encontrados para revertir stock: " + missing);
         }
+        stopwatch.lap(Phase.LOCK_PRODUCTS);
 
         // 4. Movement IN (reversión)
         InventoryMovement movement = new InventoryMovement();
@@ -439,44 +530,76 @@ public class SaleServiceImpl implements SaleService {
             movement.addItem(mi);
         }
 
-        // 5. Persistencia batches restaurados + movement + estado de sale
+        // 5. Resumen FEFO (incremental: cantidad devuelta + lotes que vuelven a estar disponibles)
+        Map<Long, ProductStockSummary> summaries = productStockSummaryRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductStockSummary::getProductId, s -> s));
+        for (ProductBatch batch : touched) {
+            Long pid = batch.getProduct().getId();
+            int restored = restoredByBatch.getOrDefault(batch.getId(), 0);
+            summaries.computeIfAbsent(pid, ProductStockSummary::new)
+                    .restore(restored, reopened.contains(batch), batch.getExpiresAt());
+        }
+
+        // 6. Persistencia batches restaurados + movement + estado de sale
         productBatchRepository.saveAll(new ArrayList<>(touched));
+        productStockSummaryRepository.saveAll(new ArrayList<>(summaries.values()));
         inventoryMovementRepository.save(movement);
+        salesRollupService.recordVoided(sale, allocs);
 
         sale.setStatus(SaleStatus.VOIDED);
         sale.setVoidedAt(now);
         sale.setVoidReason(reason);
         sale.setVoidedByUserId(user.getId());
         saleRepository.save(sale);
-
-        return SaleMapper.toResponse(sale);
+        eventPublisher.publishEvent(new SaleVoidedEvent(saleId, now));
+        eventPublisher.publishEvent(StockChangedEvent.of(lockedProducts.values()));
+        stopwatch.lap(Phase.PERSIST);
+
+        SaleResponse response = SaleMapper.toResponse(sale);
+        outboxService.append(OutboxEventType.SALE_VOIDED, saleId, response);
+        stopwatch.lap(Phase.MAPPING);
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
     public SaleResponse getById(Long id) {
-        Sale sale = saleRepository.findByIdWithDetails(id)
+        SaleHeaderView sale = saleRepository.findHeaderViewById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Venta no encontrada: " + id));
-        return SaleMapper.toResponse(sale);
+        return SaleMapper.toResponse(sale, saleRepository.findDetailViewsBySaleId(id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<SaleSummaryResponse> search(Long customerId, LocalDateTime from, LocalDateTime to,
-            BigDecimal minTotal, BigDecimal maxTotal, SaleStatus status, Pageable pageable) {
-        Specification<Sale> spec = (root, query, cb) -> cb.conjunction();
+            BigDecimal minTotal, BigDecimal maxTotal, SaleStatus status, Pageable pageable, boolean approximateCount) {
+        SaleSearchFilter filter = new SaleSearchFilter(customerId, from, to, minTotal, maxTotal, status);
+        SaleSearchPlanner.Plan plan = SaleSearchPlanner.plan(filter, pageable.getSort());
+        log.debug("Sale search plan: index={} sort={} aligned={}", plan.index(), plan.sort(), plan.indexAligned());
+
+        int size = pageable.getPageSize();
+        long offset = pageable.getOffset();
+        Pageable planned = PageRequest.of(pageable.getPageNumber(), size, plan.sort());
+
+        if (!approximateCount) {
+            List<SaleSummaryResponse> content = saleRepository.searchSummaries(filter, plan.sort(), offset, size);
+            // COUNT solo si la página no alcanza para deducir el total
+            Page<SaleSummaryResponse> page = PageableExecutionUtils.getPage(content, planned,
+                    () -> saleRepository.countSales(filter));
+            return PageResponse.from(page);
+        }
 
-        if (customerId != null) spec = spec.and(SaleSpecifications.customerId(customerId));
-        if (from != null) spec = spec.and(SaleSpecifications.from(from));
-        if (to != null) spec = spec.and(SaleSpecifications.to(to));
-        if (minTotal != null) spec = spec.and(SaleSpecifications.minTotal(minTotal));
-        if (maxTotal != null) spec = spec.and(SaleSpecifications.maxTotal(maxTotal));
-        if (status != null) spec = spec.and(SaleSpecifications.status(status));
+        // sin COUNT exacto: size+1 filas para saber si hay página siguiente, total estimado por el planner
+        List<SaleSummaryResponse> rows = saleRepository.searchSummaries(filter, plan.sort(), offset, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<SaleSummaryResponse> content = hasNext ? rows.subList(0, size) : rows;
 
-        Page<SaleSummaryResponse> page = saleRepository
-                .findAll(spec, pageable)
-                .map(SaleMapper::toSummaryResponse);
+        long seen = offset + content.size();
+        long total = hasNext
+                ? Math.max(seen + 1, saleRepository.estimateCount(filter).orElse(seen + 1))
+                : seen;
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) total / size);
 
-        return PageResponse.from(page);
+        return new PageResponse<>(content, pageable.getPageNumber(), size, total, totalPages, !hasNext);
     }
 }
@@ -0,0 +1,330 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.request.DashboardMetric;
+import com.christn.salesinventoryapi.dto.response.AnalyticsCacheStatusResponse;
+import com.christn.salesinventoryapi.dto.response.DashboardHourlyRevenueResponse;
+import com.christn.salesinventoryapi.dto.response.DashboardTopProductResponse;
+import com.christn.salesinventoryapi.event.SalePostedEvent;
+import com.christn.salesinventoryapi.event.SaleVoidedEvent;
+import com.christn.salesinventoryapi.service.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché analítica en memoria para los dashboards: las líneas de venta de la ventana reciente
+ * viven en columnas primitivas ({@link SaleLineColumns}) y las consultas son escaneos paralelos
+ * por chunk, sin pasar por Postgres. Se carga una vez al arrancar y luego se mantiene con los
+ * eventos de postSale/voidSale (después del commit). Si la carga falla se reintenta con backoff
+ * exponencial; el último error queda visible en {@link #status()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+    static final int MAX_TOP_LIMIT = 100;
+    private static final int FETCH_SIZE = 5_000;
+
+    private static final String LOAD_SQL = """
+            SELECT s.id, s.sale_date, d.product_id, p.name, d.quantity, d.unit_price
+            FROM sales s
+            JOIN sale_details d ON d.sale_id = s.id
+            JOIN products p ON p.id = d.product_id
+            WHERE s.status IN ('ACTIVE', 'COMPLETED') AND s.sale_date >= ?
+            ORDER BY s.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.analytics.window-days:90}")
+    private final int windowDays;
+
+    @Value("${app.analytics.load-retry.initial-backoff-ms:1000}")
+    private final long initialBackoffMs;
+
+    @Value("${app.analytics.load-retry.max-backoff-ms:60000}")
+    private final long maxBackoffMs;
+
+    private final SaleLineColumns columns = new SaleLineColumns();
+    private final Map<Long, String> productNames = new ConcurrentHashMap<>();
+    // anulaciones recibidas mientras la carga inicial aún no llegó a esa venta
+    private final Set<Long> voidedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+    private volatile LocalDateTime loadedAt;
+    private volatile int failedLoads;
+    private volatile String lastError;
+    private volatile LocalDateTime lastFailureAt;
+
+    // Líneas de una venta mientras se leen del cursor
+    private static final class SaleBuffer {
+        private long saleId = -1;
+        private long epochSecond;
+        private long[] productIds = new long[16];
+        private int[] quantities = new int[16];
+        private long[] prices = new long[16];
+        private int size;
+
+        private void add(long productId, int quantity, long priceCents) {
+            if (size == productIds.length) {
+                productIds = Arrays.copyOf(productIds, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+            productIds[size] = productId;
+            quantities[size] = quantity;
+            prices[size] = priceCents;
+            size++;
+        }
+    }
+
+    // Helpers
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        // LocalDateTime como UTC: las horas de los buckets coinciden con las horas locales guardadas
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private long cutoffEpochSecond() {
+        return toEpochSecond(LocalDateTime.now().minusDays(windowDays));
+    }
+
+    private void ensureReady() {
+        if (ready) return;
+        if (lastError == null) throw new IllegalStateException("La caché analítica aún se está cargando");
+        throw new IllegalStateException("La caché analítica no pudo cargarse (" + failedLoads
+                + " intentos, reintentando): " + lastError);
+    }
+
+    // exponencial desde initialBackoffMs, con tope en maxBackoffMs
+    private long backoffMs(int attempt) {
+        return Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+    }
+
+    private LocalDateTime[] range(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        if (!start.isBefore(end)) throw new IllegalArgumentException("from debe ser anterior a to");
+        if (Duration.between(start, end).toDays() > windowDays) {
+            throw new IllegalArgumentException("El rango no puede superar " + windowDays + " días");
+        }
+        return new LocalDateTime[]{start, end};
+    }
+
+    private void appendSale(SaleBuffer b) {
+        if (b.size == 0 || voidedWhileLoading.contains(b.saleId)) return;
+        columns.append(b.saleId, b.epochSecond, Arrays.copyOf(b.productIds, b.size),
+                Arrays.copyOf(b.quantities, b.size), Arrays.copyOf(b.prices, b.size));
+    }
+
+    // Un intento fallido deja en memoria las ventas completas que alcanzó a leer: el reintento las vuelve a leer
+    // y append las ignora por id; las anulaciones que lleguen entretanto quedan en voidedWhileLoading
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (ready) return;
+        try {
+            loadWindow();
+        } catch (RuntimeException e) {
+            int attempt = ++failedLoads;
+            lastError = e.getMessage();
+            lastFailureAt = LocalDateTime.now();
+            long delayMs = backoffMs(attempt);
+            log.error("Analytics cache load failed (attempt {}); retrying in {} ms", attempt, delayMs, e);
+            taskScheduler.schedule(this::load, Instant.now().plusMillis(delayMs));
+        }
+    }
+
+    private void loadWindow() {
+        long started = System.nanoTime();
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(windowDays));
+        SaleBuffer buffer = new SaleBuffer();
+
+        // dentro de una transacción para que Postgres use cursor con fetchSize
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOAD_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, since);
+            return ps;
+        }, rs -> {
+            long saleId = rs.getLong(1);
+            if (saleId != buffer.saleId) {
+                appendSale(buffer);
+                buffer.saleId = saleId;
+                buffer.epochSecond = toEpochSecond(rs.getTimestamp(2).toLocalDateTime());
+                buffer.size = 0;
+            }
+            long productId = rs.getLong(3);
+            productNames.putIfAbsent(productId, rs.getString(4));
+            buffer.add(productId, rs.getInt(5), toCents(rs.getBigDecimal(6)));
+        }));
+        appendSale(buffer);
+
+        ready = true;
+        voidedWhileLoading.forEach(columns::markVoided);
+        voidedWhileLoading.clear();
+        loadedAt = LocalDateTime.now();
+        lastError = null;
+
+        log.info("Analytics cache loaded: {} sales, {} lines ({} days) in {} ms", columns.sales(), columns.rows(),
+                windowDays, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSalePosted(SalePostedEvent event) {
+        if (event.saleDate() == null || event.lines().isEmpty()) return;
+        long epochSecond = toEpochSecond(event.saleDate());
+        if (epochSecond < cutoffEpochSecond()) return;
+
+        int n = event.lines().size();
+        long[] productIds = new long[n];
+        int[] quantities = new int[n];
+        long[] prices = new long[n];
+        for (int i = 0; i < n; i++) {
+            SalePostedEvent.Line line = event.lines().get(i);
+            productIds[i] = line.productId();
+            quantities[i] = line.quantity();
+            prices[i] = toCents(line.unitPrice());
+            if (line.productName() != null) productNames.put(line.productId(), line.productName());
+        }
+        columns.append(event.saleId(), epochSecond, productIds, quantities, prices);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSaleVoided(SaleVoidedEvent event) {
+        if (columns.markVoided(event.saleId())) return;
+        if (!ready) voidedWhileLoading.add(event.saleId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.evict-interval-ms:3600000}")
+    public void evictExpired() {
+        if (!ready) return;
+        long evicted = columns.evictBefore(cutoffEpochSecond());
+        if (evicted > 0) log.info("Analytics cache evicted {} lines older than {} days", evicted, windowDays);
+    }
+
+    @Override
+    public List<DashboardTopProductResponse> topProducts(LocalDateTime from, LocalDateTime to,
+            DashboardMetric metric, int limit) {
+        ensureReady();
+        if (limit < 1 || limit > MAX_TOP_LIMIT) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + MAX_TOP_LIMIT);
+        }
+        LocalDateTime[] r = range(from, to);
+        long fromSec = toEpochSecond(r[0]);
+        long toSec = toEpochSecond(r[1]);
+
+        // [unidades, centavos, líneas] por producto; un mapa por chunk y merge al final
+        Map<Long, long[]> totals = columns.chunks().parallelStream()
+                .map(c -> totalsByProduct(c, fromSec, toSec))
+                .reduce(SalesAnalyticsServiceImpl::mergeTotals)
+                .orElseGet(HashMap::new);
+
+        int key = metric == DashboardMetric.UNITS ? 0 : 1;
+        return totals.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Long, long[]>>comparingLong(e -> e.getValue()[key]).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(e -> new DashboardTopProductResponse(e.getKey(), productNames.get(e.getKey()),
+                        e.getValue()[0], fromCents(e.getValue()[1]), e.getValue()[2]))
+                .toList();
+    }
+
+    private static Map<Long, long[]> totalsByProduct(SaleLineColumns.Chunk c, long fromSec, long toSec) {
+        Map<Long, long[]> totals = new HashMap<>();
+        int size = c.size;
+        for (int i = 0; i < size; i++) {
+            long t = c.epochSecond[i];
+            if (t < fromSec || t >= toSec || c.voided[i]) continue;
+            long[] acc = totals.computeIfAbsent(c.productId[i], k -> new long[3]);
+            acc[0] += c.quantity[i];
+            acc[1] += c.quantity[i] * c.unitPriceCents[i];
+            acc[2]++;
+        }
+        return totals;
+    }
+
+    private static Map<Long, long[]> mergeTotals(Map<Long, long[]> a, Map<Long, long[]> b) {
+        b.forEach((productId, acc) -> a.merge(productId, acc, (x, y) -> {
+            for (int i = 0; i < x.length; i++) x[i] += y[i];
+            return x;
+        }));
+        return a;
+    }
+
+    @Override
+    public List<DashboardHourlyRevenueResponse> hourlyRevenue(LocalDateTime from, LocalDateTime to) {
+        ensureReady();
+        LocalDateTime[] r = range(from, to);
+        LocalDateTime firstHour = r[0].truncatedTo(ChronoUnit.HOURS);
+        long fromSec = toEpochSecond(firstHour);
+        long toSec = toEpochSecond(r[1]);
+        int hours = (int) ((toSec - fromSec + 3599) / 3600);
+
+        // [unidades, centavos, líneas] x hora, planos en un long[]
+        long[] buckets = columns.chunks().parallelStream()
+                .map(c -> hourlyBuckets(c, fromSec, toSec, hours))
+                .reduce((a, b) -> {
+                    for (int i = 0; i < a.length; i++) a[i] += b[i];
+                    return a;
+                })
+                .orElseGet(() -> new long[hours * 3]);
+
+        List<DashboardHourlyRevenueResponse> result = new ArrayList<>(hours);
+        for (int h = 0; h < hours; h++) {
+            result.add(new DashboardHourlyRevenueResponse(firstHour.plusHours(h), buckets[h * 3],
+                    fromCents(buckets[h * 3 + 1]), buckets[h * 3 + 2]));
+        }
+        return result;
+    }
+
+    private static long[] hourlyBuckets(SaleLineColumns.Chunk c, long fromSec, long toSec, int hours) {
+        long[] buckets = new long[hours * 3];
+        int size = c.size;
+        for (int i = 0; i < size; i++) {
+            long t = c.epochSecond[i];
+            if (t < fromSec || t >= toSec || c.voided[i]) continue;
+            int h = (int) ((t - fromSec) / 3600) * 3;
+            buckets[h] += c.quantity[i];
+            buckets[h + 1] += c.quantity[i] * c.unitPriceCents[i];
+            buckets[h + 2]++;
+        }
+        return buckets;
+    }
+
+    @Override
+    public AnalyticsCacheStatusResponse status() {
+        return new AnalyticsCacheStatusResponse(ready, windowDays, columns.sales(), columns.rows(),
+                columns.chunks().size(), loadedAt, failedLoads, lastError, lastFailureAt);
+    }
+}
@@ -0,0 +1,69 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.mapper.SalesReportMapper;
+import com.christn.salesinventoryapi.dto.response.SalesReportResponse;
+import com.christn.salesinventoryapi.repository.SalesDailyProductRollupRepository;
+import com.christn.salesinventoryapi.repository.SalesDailyRollupRepository;
+import com.christn.salesinventoryapi.repository.projection.SalesRollupRow;
+import com.christn.salesinventoryapi.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Reportes de ventas y margen leídos solo de los rollups diarios: el costo de la consulta depende
+ * de los días x (vendedores | productos) del rango, no de la cantidad de ventas.
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesReportServiceImpl implements SalesReportService {
+
+    static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+    private final SalesDailyProductRollupRepository salesDailyProductRollupRepository;
+
+    private static SalesReportResponse report(String groupBy, LocalDate from, LocalDate to,
+            BiFunction<LocalDate, LocalDate, List<SalesRollupRow>> query) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) throw new IllegalArgumentException("from debe ser anterior a to");
+
+        List<SalesRollupRow> rows = query.apply(start, end);
+        return new SalesReportResponse(
+                groupBy,
+                start,
+                end,
+                SalesReportMapper.total(rows),
+                rows.stream().map(SalesReportMapper::toResponse).toList()
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesReportResponse byDay(LocalDate from, LocalDate to) {
+        return report("DAY", from, to, salesDailyRollupRepository::sumByDay);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesReportResponse byProduct(LocalDate from, LocalDate to) {
+        return report("PRODUCT", from, to, salesDailyProductRollupRepository::sumByProduct);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesReportResponse byCategory(LocalDate from, LocalDate to) {
+        return report("CATEGORY", from, to, salesDailyProductRollupRepository::sumByCategory);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesReportResponse bySeller(LocalDate from, LocalDate to) {
+        return report("SELLER", from, to, salesDailyRollupRepository::sumBySeller);
+    }
+}
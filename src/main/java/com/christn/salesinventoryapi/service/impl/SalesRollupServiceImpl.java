@@ -0,0 +1,248 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.response.SalesRollupRebuildResponse;
+import com.christn.salesinventoryapi.model.Sale;
+import com.christn.salesinventoryapi.model.SaleBatchAllocation;
+import com.christn.salesinventoryapi.model.SaleDetail;
+import com.christn.salesinventoryapi.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Mantiene sales_daily_rollups (día x vendedor) y sales_daily_product_rollups (día x producto).
+ * Los upserts corren dentro de la transacción de postSale/voidSale, así los reportes
+ * nunca ven una venta a medias. completeSale no cambia montos y no los toca.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    static final long NO_SELLER = 0L;
+
+    // Upsert portable (PostgreSQL y H2): UPDATE con el delta; las claves que no existían se crean en cero con
+    // ON CONFLICT DO NOTHING (si otra transacción la crea antes, no falla) y reciben el mismo UPDATE
+    private static final String UPDATE_PRODUCT_SQL = """
+            UPDATE sales_daily_product_rollups
+            SET units = units + ?, revenue = revenue + ?, cost = cost + ?, updated_at = ?
+            WHERE sale_day = ? AND product_id = ?
+            """;
+    private static final int[] UPDATE_PRODUCT_TYPES = {
+            Types.BIGINT, Types.NUMERIC, Types.NUMERIC, Types.TIMESTAMP, Types.DATE, Types.BIGINT
+    };
+    private static final String INSERT_PRODUCT_SQL = """
+            INSERT INTO sales_daily_product_rollups (sale_day, product_id, units, revenue, cost, updated_at)
+            VALUES (?, ?, 0, 0, 0, ?)
+            ON CONFLICT DO NOTHING
+            """;
+    private static final int[] INSERT_PRODUCT_TYPES = {Types.DATE, Types.BIGINT, Types.TIMESTAMP};
+
+    private static final String UPDATE_SELLER_SQL = """
+            UPDATE sales_daily_rollups
+            SET sale_count = sale_count + ?, units = units + ?, revenue = revenue + ?, cost = cost + ?, updated_at = ?
+            WHERE sale_day = ? AND seller_user_id = ?
+            """;
+    private static final String INSERT_SELLER_SQL = """
+            INSERT INTO sales_daily_rollups (sale_day, seller_user_id, sale_count, units, revenue, cost, updated_at)
+            VALUES (?, ?, 0, 0, 0, 0, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    // Costo por detalle (allocations x unit_cost del lote), reutilizado por ambos rebuilds
+    private static final String DETAIL_COST_JOIN = """
+            LEFT JOIN (SELECT a.sale_detail_id, SUM(a.quantity * COALESCE(b.unit_cost, 0)) AS cost
+                       FROM sale_batch_allocations a
+                       JOIN product_batches b ON b.id = a.product_batch_id
+                       GROUP BY a.sale_detail_id) c ON c.sale_detail_id = d.id
+            """;
+
+    private static final String REBUILD_PRODUCT_SQL = """
+            INSERT INTO sales_daily_product_rollups (sale_day, product_id, units, revenue, cost, updated_at)
+            SELECT CAST(s.sale_date AS DATE), d.product_id, SUM(d.quantity), SUM(d.sub_total),
+                   COALESCE(SUM(c.cost), 0), CURRENT_TIMESTAMP
+            FROM sales s
+            JOIN sale_details d ON d.sale_id = s.id
+            """ + DETAIL_COST_JOIN + """
+            WHERE s.status IN ('ACTIVE', 'COMPLETED') AND s.sale_date >= ? AND s.sale_date < ?
+            GROUP BY CAST(s.sale_date AS DATE), d.product_id
+            """;
+
+    private static final String REBUILD_SELLER_SQL = """
+            INSERT INTO sales_daily_rollups (sale_day, seller_user_id, sale_count, units, revenue, cost, updated_at)
+            SELECT CAST(s.sale_date AS DATE), COALESCE(s.created_by_user_id, 0), COUNT(DISTINCT s.id),
+                   SUM(d.quantity), SUM(d.sub_total), COALESCE(SUM(c.cost), 0), CURRENT_TIMESTAMP
+            FROM sales s
+            JOIN sale_details d ON d.sale_id = s.id
+            """ + DETAIL_COST_JOIN + """
+            WHERE s.status IN ('ACTIVE', 'COMPLETED') AND s.sale_date >= ? AND s.sale_date < ?
+            GROUP BY CAST(s.sale_date AS DATE), COALESCE(s.created_by_user_id, 0)
+            """;
+
+    // Bloquea los upserts incrementales mientras se reemplaza el tramo (solo Postgres)
+    private static final String LOCK_SQL =
+            "LOCK TABLE sales_daily_rollups, sales_daily_product_rollups IN SHARE ROW EXCLUSIVE MODE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Boolean postgres;
+
+    private static final class Totals {
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private BigDecimal cost = BigDecimal.ZERO;
+
+        private void add(Totals other) {
+            units += other.units;
+            revenue = revenue.add(other.revenue);
+            cost = cost.add(other.cost);
+        }
+    }
+
+    // Helpers
+    private static BigDecimal allocationCost(SaleBatchAllocation a) {
+        BigDecimal unitCost = a.getProductBatch() == null ? null : a.getProductBatch().getUnitCost();
+        if (unitCost == null || a.getQuantity() == null) return BigDecimal.ZERO;
+        return unitCost.multiply(BigDecimal.valueOf(a.getQuantity()));
+    }
+
+    // Unidades e ingreso por producto (TreeMap: upserts en orden de producto, igual que los locks)
+    private static SortedMap<Long, Totals> revenueByProduct(Sale sale) {
+        SortedMap<Long, Totals> byProduct = new TreeMap<>();
+        for (SaleDetail d : sale.getDetails()) {
+            Totals t = byProduct.computeIfAbsent(d.getProduct().getId(), k -> new Totals());
+            t.units += d.getQuantity() == null ? 0 : d.getQuantity();
+            if (d.getSubTotal() != null) t.revenue = t.revenue.add(d.getSubTotal());
+        }
+        return byProduct;
+    }
+
+    // Las allocations llegan explícitas: recorrer detail.getAllocations() inicializaría la colección con un SELECT
+    // por detalle
+    @Override
+    public void recordPosted(Sale sale, List<SaleBatchAllocation> allocations) {
+        apply(sale, withCost(sale, allocations), 1);
+    }
+
+    @Override
+    public void recordVoided(Sale sale, List<SaleBatchAllocation> allocations) {
+        apply(sale, withCost(sale, allocations), -1);
+    }
+
+    private static SortedMap<Long, Totals> withCost(Sale sale, List<SaleBatchAllocation> allocations) {
+        SortedMap<Long, Totals> byProduct = revenueByProduct(sale);
+        for (SaleBatchAllocation a : allocations) {
+            Totals t = byProduct.get(a.getProductBatch().getProduct().getId());
+            if (t != null) t.cost = t.cost.add(allocationCost(a));
+        }
+        return byProduct;
+    }
+
+    private void apply(Sale sale, SortedMap<Long, Totals> byProduct, int sign) {
+        if (byProduct.isEmpty()) return;
+
+        Date day = Date.valueOf(sale.getSaleDate().toLocalDate());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        BigDecimal factor = BigDecimal.valueOf(sign);
+
+        Totals total = new Totals();
+        List<Object[]> rows = new ArrayList<>(byProduct.size());
+        for (var e : byProduct.entrySet()) {
+            Totals t = e.getValue();
+            total.add(t);
+            rows.add(new Object[]{sign * t.units, t.revenue.multiply(factor), t.cost.multiply(factor), now,
+                    day, e.getKey()});
+        }
+
+        // productos primero (ya están lockeados por la venta); la fila del vendedor es la más disputada
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_PRODUCT_SQL, rows, UPDATE_PRODUCT_TYPES);
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) missing.add(rows.get(i));
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL,
+                    missing.stream().map(r -> new Object[]{r[4], r[5], now}).toList(), INSERT_PRODUCT_TYPES);
+            jdbcTemplate.batchUpdate(UPDATE_PRODUCT_SQL, missing, UPDATE_PRODUCT_TYPES);
+        }
+
+        Long seller = sale.getCreatedByUserId() == null ? NO_SELLER : sale.getCreatedByUserId();
+        Object[] sellerRow = {sign, sign * total.units, total.revenue.multiply(factor), total.cost.multiply(factor),
+                now, day, seller};
+        if (jdbcTemplate.update(UPDATE_SELLER_SQL, sellerRow) == 0) {
+            jdbcTemplate.update(INSERT_SELLER_SQL, day, seller, now);
+            jdbcTemplate.update(UPDATE_SELLER_SQL, sellerRow);
+        }
+    }
+
+    @Override
+    public SalesRollupRebuildResponse rebuild(LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new IllegalArgumentException("from y to son requeridos");
+        if (from.isAfter(to)) throw new IllegalArgumentException("from debe ser anterior a to");
+
+        long started = System.nanoTime();
+        long sellerRows = 0;
+        long productRows = 0;
+        int chunks = 0;
+
+        // un mes por transacción: los locks de los rollups se mantienen poco tiempo
+        LocalDate start = from;
+        while (!start.isAfter(to)) {
+            LocalDate end = start.plusMonths(1).isAfter(to) ? to.plusDays(1) : start.plusMonths(1);
+            int[] counts = rebuildChunk(start, end);
+            sellerRows += counts[0];
+            productRows += counts[1];
+            chunks++;
+            start = end;
+        }
+
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        log.info("Sales rollups rebuilt {}..{}: chunks={} sellerRows={} productRows={} in {} ms",
+                from, to, chunks, sellerRows, productRows, elapsed);
+
+        return new SalesRollupRebuildResponse(from, to, chunks, sellerRows, productRows, elapsed);
+    }
+
+    // [filas vendedor, filas producto] de [start, end)
+    private int[] rebuildChunk(LocalDate start, LocalDate end) {
+        return transactionTemplate.execute(status -> {
+            if (isPostgres()) jdbcTemplate.execute(LOCK_SQL);
+
+            Date startDay = Date.valueOf(start);
+            Date endDay = Date.valueOf(end);
+            jdbcTemplate.update("DELETE FROM sales_daily_rollups WHERE sale_day >= ? AND sale_day < ?",
+                    startDay, endDay);
+            jdbcTemplate.update("DELETE FROM sales_daily_product_rollups WHERE sale_day >= ? AND sale_day < ?",
+                    startDay, endDay);
+
+            Timestamp startTs = Timestamp.valueOf(start.atStartOfDay());
+            Timestamp endTs = Timestamp.valueOf(end.atStartOfDay());
+            int sellers = jdbcTemplate.update(REBUILD_SELLER_SQL, startTs, endTs);
+            int products = jdbcTemplate.update(REBUILD_PRODUCT_SQL, startTs, endTs);
+            return new int[]{sellers, products};
+        });
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con ->
+                    con.getMetaData().getDatabaseProductName());
+            pg = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = pg;
+        }
+        return pg;
+    }
+}
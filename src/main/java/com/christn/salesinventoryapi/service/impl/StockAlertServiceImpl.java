@@ -0,0 +1,235 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.mapper.StockAlertMapper;
+import com.christn.salesinventoryapi.dto.request.ReorderPointRequest;
+import com.christn.salesinventoryapi.dto.response.PageResponse;
+import com.christn.salesinventoryapi.dto.response.ReorderPointResponse;
+import com.christn.salesinventoryapi.dto.response.StockAlertResponse;
+import com.christn.salesinventoryapi.dto.response.StockAlertScanResponse;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.ProductBatchRepository;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.repository.StockAlertRepository;
+import com.christn.salesinventoryapi.repository.StockAlertScanRepository;
+import com.christn.salesinventoryapi.repository.projection.BatchExpiryView;
+import com.christn.salesinventoryapi.repository.projection.ProductStockLevel;
+import com.christn.salesinventoryapi.service.StockAlertService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scanner incremental de alertas de stock. Cada corrida revisa solo:
+ * productos modificados desde la marca de agua (stock vs. punto de reorden), lotes modificados
+ * desde la marca de agua, y lotes que entraron a la ventana de vencimiento desde el horizonte anterior.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockAlertServiceImpl implements StockAlertService {
+
+    static final int IN_CHUNK = 1_000;
+    // el primer horizonte cubre todo lo ya vencido con saldo
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ProductRepository productRepository;
+    private final ProductBatchRepository productBatchRepository;
+    private final StockAlertRepository stockAlertRepository;
+    private final StockAlertScanRepository stockAlertScanRepository;
+
+    @Value("${app.alerts.expiring-days:30}")
+    private final int expiringDays;
+
+    @Value("${app.alerts.default-reorder-point:5}")
+    private final int defaultReorderPoint;
+
+    // solape con la corrida anterior: cubre transacciones que confirmaron después de leer la marca
+    @Value("${app.alerts.watermark-overlap-seconds:60}")
+    private final long watermarkOverlapSeconds;
+
+    // Helpers
+    private static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += IN_CHUNK) {
+            chunks.add(list.subList(i, Math.min(i + IN_CHUNK, list.size())));
+        }
+        return chunks;
+    }
+
+    private int effectiveReorderPoint(Integer reorderPoint) {
+        return reorderPoint != null ? reorderPoint : defaultReorderPoint;
+    }
+
+    private static final class Counters {
+        private int opened;
+        private int resolved;
+    }
+
+    @Override
+    @Transactional
+    public StockAlertScanResponse scan() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        Optional<StockAlertScan> previous = stockAlertScanRepository.findFirstByOrderByStartedAtDesc();
+        LocalDateTime watermark = previous
+                .map(s -> s.getStartedAt().minusSeconds(watermarkOverlapSeconds))
+                .orElse(null);
+        LocalDateTime previousHorizon = previous.map(StockAlertScan::getExpiryHorizon).orElse(BEGINNING);
+        LocalDateTime horizon = now.plusDays(expiringDays);
+
+        Counters counters = new Counters();
+
+        // 1) stock bajo
+        List<ProductStockLevel> products = watermark == null
+                ? productRepository.findAllStockLevels()
+                : productRepository.findStockLevelsChangedSince(watermark);
+        for (List<ProductStockLevel> chunk : chunks(products)) {
+            evaluateLowStock(chunk, now, counters);
+        }
+
+        // 2) lotes por vencer: los que entraron a la ventana + los modificados
+        Map<Long, BatchExpiryView> batches = new LinkedHashMap<>();
+        if (horizon.isAfter(previousHorizon)) {
+            for (List<Long> ids : chunks(productRepository.findPerishableIds())) {
+                productBatchRepository.findExpiringBetween(ids, previousHorizon, horizon)
+                        .forEach(b -> batches.put(b.batchId(), b));
+            }
+        }
+        if (watermark != null) {
+            productBatchRepository.findExpiryViewsChangedSince(watermark)
+                    .forEach(b -> batches.put(b.batchId(), b));
+        }
+        for (List<BatchExpiryView> chunk : chunks(new ArrayList<>(batches.values()))) {
+            evaluateExpiring(chunk, horizon, now, counters);
+        }
+
+        StockAlertScan scan = new StockAlertScan();
+        scan.setStartedAt(now);
+        scan.setWatermark(watermark);
+        scan.setExpiryHorizon(horizon);
+        scan.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        scan.setProductsExamined(products.size());
+        scan.setBatchesExamined(batches.size());
+        scan.setAlertsOpened(counters.opened);
+        scan.setAlertsResolved(counters.resolved);
+        stockAlertScanRepository.save(scan);
+
+        log.info("Stock alert scan: products={} batches={} opened={} resolved={} in {} ms (watermark={})",
+                products.size(), batches.size(), counters.opened, counters.resolved, scan.getDurationMs(), watermark);
+
+        return StockAlertMapper.toScanResponse(scan);
+    }
+
+    private void evaluateLowStock(List<ProductStockLevel> levels, LocalDateTime now, Counters counters) {
+        Map<Long, StockAlert> open = stockAlertRepository
+                .findOpenLowStockByProductIds(levels.stream().map(ProductStockLevel::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(a -> a.getProduct().getId(), Function.identity()));
+
+        List<StockAlert> changed = new ArrayList<>();
+        for (ProductStockLevel level : levels) {
+            int threshold = effectiveReorderPoint(level.reorderPoint());
+            int stock = level.stock() == null ? 0 : level.stock();
+            boolean low = !Boolean.TRUE.equals(level.deleted()) && stock <= threshold;
+            StockAlert alert = open.get(level.productId());
+
+            if (low && alert == null) {
+                alert = new StockAlert();
+                alert.setAlertType(StockAlertType.LOW_STOCK);
+                alert.setProduct(productRepository.getReferenceById(level.productId()));
+                alert.setDetectedAt(now);
+                counters.opened++;
+            } else if (!low && alert != null) {
+                alert.resolve(now);
+                counters.resolved++;
+                changed.add(alert);
+                continue;
+            } else if (alert == null || (Objects.equals(alert.getQuantity(), stock)
+                    && Objects.equals(alert.getThreshold(), threshold))) {
+                continue;
+            }
+            alert.setQuantity(stock);
+            alert.setThreshold(threshold);
+            alert.setUpdatedAt(now);
+            changed.add(alert);
+        }
+        stockAlertRepository.saveAll(changed);
+    }
+
+    private void evaluateExpiring(List<BatchExpiryView> views, LocalDateTime horizon, LocalDateTime now,
+            Counters counters) {
+        Map<Long, StockAlert> open = stockAlertRepository
+                .findOpenExpiringByBatchIds(views.stream().map(BatchExpiryView::batchId).toList())
+                .stream()
+                .collect(Collectors.toMap(a -> a.getBatch().getId(), Function.identity()));
+
+        List<StockAlert> changed = new ArrayList<>();
+        for (BatchExpiryView view : views) {
+            int qty = view.qtyAvailable() == null ? 0 : view.qtyAvailable();
+            boolean expiring = qty > 0 && view.expiresAt() != null && !view.expiresAt().isAfter(horizon);
+            StockAlert alert = open.get(view.batchId());
+
+            if (expiring && alert == null) {
+                alert = new StockAlert();
+                alert.setAlertType(StockAlertType.EXPIRING_BATCH);
+                alert.setProduct(productRepository.getReferenceById(view.productId()));
+                alert.setBatch(productBatchRepository.getReferenceById(view.batchId()));
+                alert.setDetectedAt(now);
+                counters.opened++;
+            } else if (!expiring && alert != null) {
+                alert.resolve(now);
+                counters.resolved++;
+                changed.add(alert);
+                continue;
+            } else if (alert == null || (Objects.equals(alert.getQuantity(), qty)
+                    && Objects.equals(alert.getExpiresAt(), view.expiresAt()))) {
+                continue;
+            }
+            alert.setQuantity(qty);
+            alert.setExpiresAt(view.expiresAt());
+            alert.setUpdatedAt(now);
+            changed.add(alert);
+        }
+        stockAlertRepository.saveAll(changed);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<StockAlertResponse> search(StockAlertStatus status, StockAlertType type, Long productId,
+            Pageable pageable) {
+        return PageResponse.from(stockAlertRepository.search(status, type, productId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockAlertScanResponse> recentScans() {
+        return stockAlertScanRepository.findTop20ByOrderByStartedAtDesc().stream()
+                .map(StockAlertMapper::toScanResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public ReorderPointResponse updateReorderPoint(Long productId, ReorderPointRequest request) {
+        if (request == null) throw new IllegalArgumentException("Request es requerida");
+
+        Product product = productRepository.findByIdAndDeletedFalse(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Producto no encontrado: " + productId));
+        // cambia updated_at: el próximo scan reevalúa el producto
+        product.setReorderPoint(request.reorderPoint());
+        productRepository.save(product);
+
+        return new ReorderPointResponse(productId, product.getReorderPoint(),
+                effectiveReorderPoint(product.getReorderPoint()));
+    }
+}
@@ -0,0 +1,220 @@
+package com.christn.salesinventoryapi.service.impl;
+
+import com.christn.salesinventoryapi.dto.response.StockLevelResponse;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.service.StockStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream SSE de stock para terminales POS.
+ * - Los commits solo marcan productos; cada flush relee su stock confirmado y lo reparte (ráfagas colapsadas).
+ * - Cada suscriptor guarda el último valor por producto pendiente de envío y tiene a lo sumo un envío en curso:
+ * un cliente lento acumula como máximo un valor por producto; si supera max-pending recibe "resync".
+ * - Las conexiones ociosas son async servlet (sin hilo); los envíos corren en hilos virtuales.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockStreamServiceImpl implements StockStreamService {
+
+    static final String EVENT_READY = "ready";
+    static final String EVENT_STOCK = "stock";
+    static final String EVENT_RESYNC = "resync";
+    private static final int IN_CHUNK = 1_000;
+
+    private final ProductRepository productRepository;
+
+    @Qualifier("stockStreamExecutor")
+    private final ExecutorService stockStreamExecutor;
+
+    @Value("${app.stock-stream.max-subscribers:5000}")
+    private final int maxSubscribers;
+
+    @Value("${app.stock-stream.max-pending:2000}")
+    private final int maxPending;
+
+    @Value("${app.stock-stream.timeout-ms:1800000}")
+    private final long timeoutMs;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final Set<Long> categoryIds;
+        private final Map<Long, StockLevelResponse> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean resync;
+        private volatile boolean ping;
+
+        private Subscriber(long id, SseEmitter emitter, Set<Long> categoryIds) {
+            this.id = id;
+            this.emitter = emitter;
+            this.categoryIds = categoryIds;
+        }
+
+        private void offer(List<StockLevelResponse> updates) {
+            for (StockLevelResponse update : updates) {
+                pending.put(update.productId(), update);
+            }
+            if (pending.size() > maxPending) {
+                pending.clear();
+                resync = true;
+            }
+            schedule();
+        }
+
+        private void heartbeat() {
+            ping = true;
+            schedule();
+        }
+
+        private boolean hasWork() {
+            return resync || ping || !pending.isEmpty();
+        }
+
+        // a lo sumo un envío en curso por suscriptor
+        private void schedule() {
+            if (!sending.compareAndSet(false, true)) return;
+            try {
+                stockStreamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    sendPending();
+                    sending.set(false);
+                } while (hasWork() && sending.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // cliente desconectado o emitter ya completado
+                drop(this);
+            }
+        }
+
+        private void sendPending() throws IOException {
+            if (resync) {
+                resync = false;
+                emitter.send(SseEmitter.event().name(EVENT_RESYNC).data("{}", MediaType.APPLICATION_JSON));
+            }
+            List<StockLevelResponse> batch = new ArrayList<>(pending.size());
+            for (Long productId : pending.keySet()) {
+                StockLevelResponse update = pending.remove(productId);
+                if (update != null) batch.add(update);
+            }
+            if (!batch.isEmpty()) {
+                emitter.send(SseEmitter.event().name(EVENT_STOCK).data(batch, MediaType.APPLICATION_JSON));
+            } else if (ping) {
+                emitter.send(SseEmitter.event().comment("ping"));
+            }
+            ping = false;
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.id) == null) return;
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException ignored) {
+            // ya cerrado
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Set<Long> categoryIds) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Límite de suscripciones al stream de stock alcanzado: " + maxSubscribers);
+        }
+        long id = sequence.incrementAndGet();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(id, emitter, categoryIds == null ? Set.of() : Set.copyOf(categoryIds));
+
+        emitter.onCompletion(() -> subscribers.remove(id));
+        emitter.onTimeout(() -> subscribers.remove(id));
+        emitter.onError(e -> subscribers.remove(id));
+
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_READY)
+                    .data(Map.of("subscriberId", id, "categoryIds", subscriber.categoryIds), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        // se registra después del "ready": el primer envío del flusher no compite con el de este hilo
+        subscribers.put(id, subscriber);
+        return emitter;
+    }
+
+    @Override
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    // Solo marca: el commit no paga lecturas ni envíos
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (subscribers.isEmpty()) return;
+        dirty.addAll(event.productIds());
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-stream.flush-interval-ms:250}")
+    public void flush() {
+        if (dirty.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(dirty.size());
+        for (Long id : dirty) {
+            if (dirty.remove(id)) ids.add(id);
+        }
+        if (ids.isEmpty() || subscribers.isEmpty()) return;
+
+        List<StockLevelResponse> levels = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            levels.addAll(productRepository.findStockLevelsByIds(ids.subList(from, Math.min(from + IN_CHUNK, ids.size()))));
+        }
+
+        Map<Long, List<StockLevelResponse>> byCategory = new HashMap<>();
+        for (StockLevelResponse level : levels) {
+            byCategory.computeIfAbsent(level.categoryId(), k -> new ArrayList<>()).add(level);
+        }
+
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.categoryIds.isEmpty()) {
+                subscriber.offer(levels);
+                continue;
+            }
+            List<StockLevelResponse> matching = new ArrayList<>();
+            for (Long categoryId : subscriber.categoryIds) {
+                matching.addAll(byCategory.getOrDefault(categoryId, List.of()));
+            }
+            if (!matching.isEmpty()) subscriber.offer(matching);
+        }
+    }
+
+    // Mantiene abiertas las conexiones a través de proxies y detecta clientes caídos
+    @Scheduled(fixedDelayString = "${app.stock-stream.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        subscribers.values().forEach(Subscriber::heartbeat);
+    }
+}
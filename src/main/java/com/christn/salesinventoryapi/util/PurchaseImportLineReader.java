@@ -0,0 +1,156 @@
+package com.christn.salesinventoryapi.util;
+
+import com.christn.salesinventoryapi.dto.request.PurchaseImportFormat;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportLine;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lee líneas de recepción de compra una a una (CSV con cabecera o NDJSON), sin cargar el archivo en memoria.
+ * CSV: columnas productId, unitCost, quantity, batchCode, expiresAt (en cualquier orden).
+ */
+public class PurchaseImportLineReader implements Closeable {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("productid", "unitcost", "quantity");
+
+    private final BufferedReader reader;
+    private final PurchaseImportFormat format;
+    private final JsonMapper jsonMapper;
+
+    private Map<String, Integer> columns;
+    private int lineNumber;
+
+    public PurchaseImportLineReader(InputStream in, PurchaseImportFormat format, JsonMapper jsonMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // Número de la última línea leída (1-based, incluye cabecera y líneas vacías)
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    // Devuelve null al terminar el archivo
+    public PurchaseImportLine next() throws IOException {
+        String raw;
+        while ((raw = reader.readLine()) != null) {
+            lineNumber++;
+            if (raw.isBlank()) continue;
+
+            if (format == PurchaseImportFormat.NDJSON) {
+                return parseJson(raw);
+            }
+            if (columns == null) {
+                columns = parseHeader(raw);
+                continue;
+            }
+            return parseCsv(raw);
+        }
+        return null;
+    }
+
+    private PurchaseImportLine parseJson(String raw) {
+        try {
+            return jsonMapper.readValue(stripBom(raw), PurchaseImportLine.class);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": JSON inválido");
+        }
+    }
+
+    private Map<String, Integer> parseHeader(String raw) {
+        List<String> names = splitCsv(stripBom(raw));
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            map.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!map.containsKey(required)) {
+                throw new IllegalArgumentException("Cabecera CSV inválida: falta la columna " + required);
+            }
+        }
+        return map;
+    }
+
+    private PurchaseImportLine parseCsv(String raw) {
+        List<String> values = splitCsv(raw);
+        try {
+            String productId = column(values, "productid");
+            String unitCost = column(values, "unitcost");
+            String quantity = column(values, "quantity");
+            String expiresAt = column(values, "expiresat");
+
+            return new PurchaseImportLine(
+                    productId == null ? null : Long.valueOf(productId),
+                    unitCost == null ? null : new BigDecimal(unitCost),
+                    quantity == null ? null : Integer.valueOf(quantity),
+                    column(values, "batchcode"),
+                    expiresAt == null ? null : parseDateTime(expiresAt)
+            );
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": valor con formato incorrecto");
+        }
+    }
+
+    private String column(List<String> values, String name) {
+        Integer idx = columns.get(name);
+        if (idx == null || idx >= values.size()) return null;
+        String v = values.get(idx).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value.length() == 10) return LocalDate.parse(value).atStartOfDay();
+        return LocalDateTime.parse(value);
+    }
+
+    private static String stripBom(String raw) {
+        return raw.startsWith("\uFEFF") ? raw.substring(1) : raw;
+    }
+
+    // Split CSV simple con soporte de comillas dobles ("a,b" y "" como escape)
+    static List<String> splitCsv(String raw) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < raw.length() && raw.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        out.add(cur.toString());
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,11 @@
+-- El seed de V100 inserta lotes directamente (sin pasar por los servicios): reconstruir resumen FEFO
+INSERT INTO public.product_stock_summaries (product_id, qty_available, batch_count, earliest_expires_at, updated_at)
+SELECT product_id, SUM(qty_available), COUNT(*), MIN(expires_at), now()
+FROM public.product_batches
+WHERE qty_available > 0
+GROUP BY product_id
+ON CONFLICT (product_id) DO UPDATE
+    SET qty_available       = EXCLUDED.qty_available,
+        batch_count         = EXCLUDED.batch_count,
+        earliest_expires_at = EXCLUDED.earliest_expires_at,
+        updated_at          = EXCLUDED.updated_at;
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS product_stock_summaries
+(
+    product_id          BIGINT PRIMARY KEY REFERENCES products (id) ON DELETE CASCADE,
+    qty_available       INTEGER                        NOT NULL DEFAULT 0 CHECK ( qty_available >= 0 ),
+    batch_count         INTEGER                        NOT NULL DEFAULT 0 CHECK ( batch_count >= 0 ),
+    earliest_expires_at TIMESTAMP(6) WITHOUT TIME ZONE NULL,
+    updated_at          TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL
+);
+
+-- Backfill desde los lotes con saldo
+INSERT INTO product_stock_summaries (product_id, qty_available, batch_count, earliest_expires_at, updated_at)
+SELECT product_id, SUM(qty_available), COUNT(*), MIN(expires_at), now()
+FROM product_batches
+WHERE qty_available > 0
+GROUP BY product_id
+ON CONFLICT (product_id) DO NOTHING;
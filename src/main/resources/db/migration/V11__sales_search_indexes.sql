@@ -0,0 +1,10 @@
+-- Búsqueda de ventas: índices compuestos alineados con filtros + orden por fecha.
+-- INCLUDE agrega las columnas del resumen para permitir index-only scans sobre sales.
+CREATE INDEX IF NOT EXISTS idx_sales_customer_date
+    ON sales (customer_id, sale_date) INCLUDE (id, status, total_amount);
+
+CREATE INDEX IF NOT EXISTS idx_sales_date_total
+    ON sales (sale_date, total_amount) INCLUDE (id, customer_id, status);
+
+-- customer_id ya es prefijo de idx_sales_customer_date
+DROP INDEX IF EXISTS idx_sale_customer;
@@ -0,0 +1,54 @@
+-- Rollups diarios de ventas publicadas (ACTIVE/COMPLETED). Los mantienen postSale/voidSale;
+-- el costo sale de las allocations (cantidad x unit_cost del lote).
+CREATE TABLE IF NOT EXISTS sales_daily_rollups
+(
+    sale_day       DATE                           NOT NULL,
+    seller_user_id BIGINT                         NOT NULL, -- 0 = venta sin usuario (históricas)
+    sale_count     INTEGER                        NOT NULL DEFAULT 0,
+    units          BIGINT                         NOT NULL DEFAULT 0,
+    revenue        NUMERIC(14, 2)                 NOT NULL DEFAULT 0,
+    cost           NUMERIC(14, 2)                 NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (sale_day, seller_user_id)
+);
+
+CREATE TABLE IF NOT EXISTS sales_daily_product_rollups
+(
+    sale_day   DATE                           NOT NULL,
+    product_id BIGINT                         NOT NULL REFERENCES products (id),
+    units      BIGINT                         NOT NULL DEFAULT 0,
+    revenue    NUMERIC(14, 2)                 NOT NULL DEFAULT 0,
+    cost       NUMERIC(14, 2)                 NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (sale_day, product_id)
+);
+
+-- Reportes por producto/categoría sobre rangos largos
+CREATE INDEX IF NOT EXISTS idx_sales_daily_product_rollups_product
+    ON sales_daily_product_rollups (product_id, sale_day) INCLUDE (units, revenue, cost);
+
+-- Backfill desde las ventas existentes
+INSERT INTO sales_daily_product_rollups (sale_day, product_id, units, revenue, cost, updated_at)
+SELECT CAST(s.sale_date AS DATE), d.product_id, SUM(d.quantity), SUM(d.sub_total), COALESCE(SUM(c.cost), 0), now()
+FROM sales s
+         JOIN sale_details d ON d.sale_id = s.id
+         LEFT JOIN (SELECT a.sale_detail_id, SUM(a.quantity * COALESCE(b.unit_cost, 0)) AS cost
+                    FROM sale_batch_allocations a
+                             JOIN product_batches b ON b.id = a.product_batch_id
+                    GROUP BY a.sale_detail_id) c ON c.sale_detail_id = d.id
+WHERE s.status IN ('ACTIVE', 'COMPLETED')
+GROUP BY CAST(s.sale_date AS DATE), d.product_id
+ON CONFLICT (sale_day, product_id) DO NOTHING;
+
+INSERT INTO sales_daily_rollups (sale_day, seller_user_id, sale_count, units, revenue, cost, updated_at)
+SELECT CAST(s.sale_date AS DATE), COALESCE(s.created_by_user_id, 0), COUNT(DISTINCT s.id), SUM(d.quantity),
+       SUM(d.sub_total), COALESCE(SUM(c.cost), 0), now()
+FROM sales s
+         JOIN sale_details d ON d.sale_id = s.id
+         LEFT JOIN (SELECT a.sale_detail_id, SUM(a.quantity * COALESCE(b.unit_cost, 0)) AS cost
+                    FROM sale_batch_allocations a
+                             JOIN product_batches b ON b.id = a.product_batch_id
+                    GROUP BY a.sale_detail_id) c ON c.sale_detail_id = d.id
+WHERE s.status IN ('ACTIVE', 'COMPLETED')
+GROUP BY CAST(s.sale_date AS DATE), COALESCE(s.created_by_user_id, 0)
+ON CONFLICT (sale_day, seller_user_id) DO NOTHING;
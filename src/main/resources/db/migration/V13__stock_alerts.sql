@@ -0,0 +1,43 @@
+-- Punto de reorden por producto (NULL = usa app.alerts.default-reorder-point)
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS reorder_point INTEGER NULL CHECK ( reorder_point >= 0 );
+
+-- El scanner solo revisa lo modificado desde la última corrida
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products (updated_at);
+CREATE INDEX IF NOT EXISTS idx_batches_updated_at ON product_batches (updated_at);
+
+CREATE TABLE IF NOT EXISTS stock_alerts
+(
+    id          BIGSERIAL PRIMARY KEY,
+    alert_type  VARCHAR(20)                    NOT NULL, -- LOW_STOCK | EXPIRING_BATCH
+    status      VARCHAR(20)                    NOT NULL DEFAULT 'OPEN',
+    product_id  BIGINT                         NOT NULL REFERENCES products (id),
+    batch_id    BIGINT                         NULL REFERENCES product_batches (id),
+    quantity    INTEGER                        NOT NULL,
+    threshold   INTEGER                        NULL,
+    expires_at  TIMESTAMP(6) WITHOUT TIME ZONE NULL,
+    detected_at TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    updated_at  TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    resolved_at TIMESTAMP(6) WITHOUT TIME ZONE NULL
+);
+
+-- A lo sumo una alerta abierta por producto (LOW_STOCK) o por lote (EXPIRING_BATCH)
+CREATE UNIQUE INDEX IF NOT EXISTS uk_stock_alerts_open
+    ON stock_alerts (alert_type, product_id, COALESCE(batch_id, 0)) WHERE status = 'OPEN';
+CREATE INDEX IF NOT EXISTS idx_stock_alerts_status_detected ON stock_alerts (status, detected_at DESC);
+
+-- Historial de corridas; la última exitosa es la marca de agua de la siguiente
+CREATE TABLE IF NOT EXISTS stock_alert_scans
+(
+    id                BIGSERIAL PRIMARY KEY,
+    started_at        TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    watermark         TIMESTAMP(6) WITHOUT TIME ZONE NULL,
+    expiry_horizon    TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    duration_ms       BIGINT                         NOT NULL,
+    products_examined INTEGER                        NOT NULL,
+    batches_examined  INTEGER                        NOT NULL,
+    alerts_opened     INTEGER                        NOT NULL,
+    alerts_resolved   INTEGER                        NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_alert_scans_started ON stock_alert_scans (started_at DESC);
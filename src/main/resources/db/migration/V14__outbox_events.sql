@@ -0,0 +1,22 @@
+-- Outbox transaccional: se escribe en la misma transacción que el cambio de estado
+-- y un relay lo drena hacia el sink configurado (archivo NDJSON o webhook)
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id             BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(30)                    NOT NULL, -- SALE | PURCHASE
+    aggregate_id   BIGINT                         NOT NULL,
+    event_type     VARCHAR(40)                    NOT NULL,
+    payload        TEXT                           NOT NULL, -- JSON
+    created_at     TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    published_at   TIMESTAMP(6) WITHOUT TIME ZONE NULL,
+    attempts       INTEGER                        NOT NULL DEFAULT 0,
+    last_error     VARCHAR(500)                   NULL
+);
+
+-- Cola pendiente en orden de id (el relay lee con FOR UPDATE SKIP LOCKED)
+CREATE INDEX IF NOT EXISTS idx_outbox_pending ON outbox_events (id) WHERE published_at IS NULL;
+-- Cabeza pendiente por agregado: garantiza el orden por agregado entre relays concurrentes
+CREATE INDEX IF NOT EXISTS idx_outbox_pending_aggregate
+    ON outbox_events (aggregate_type, aggregate_id, id) WHERE published_at IS NULL;
+-- Purga de publicados
+CREATE INDEX IF NOT EXISTS idx_outbox_published_at ON outbox_events (published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Reintentos del relay: backoff por evento y aparcado tras app.outbox.max-attempts fallos
+ALTER TABLE outbox_events
+    ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP(6) WITHOUT TIME ZONE NULL;
+ALTER TABLE outbox_events
+    ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP(6) WITHOUT TIME ZONE NULL;
+
+-- Aparcados sin publicar (stats y reencolado)
+CREATE INDEX IF NOT EXISTS idx_outbox_parked ON outbox_events (id) WHERE parked_at IS NOT NULL AND published_at IS NULL;
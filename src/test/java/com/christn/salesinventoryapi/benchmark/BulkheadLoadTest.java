@@ -0,0 +1,155 @@
+package com.christn.salesinventoryapi.benchmark;
+
+import com.christn.salesinventoryapi.bulkhead.BulkheadRegistry;
+import com.christn.salesinventoryapi.bulkhead.BulkheadRoutingDataSource;
+import com.christn.salesinventoryapi.config.BulkheadProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latencia de caja con back-office saturando la BD: un solo pool compartido vs compartimentos.
+ * Back-office = búsquedas lentas (SLEEP en H2 reteniendo la conexión); caja = transacción corta.
+ * Solo corre a pedido: mvn test -Dtest=BulkheadLoadTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Bulkhead load test")
+public class BulkheadLoadTest {
+
+    private static final int DURATION_MS = Integer.getInteger("benchmark.duration-ms", 3_000);
+    private static final int BACKOFFICE_CLIENTS = Integer.getInteger("benchmark.backoffice-clients", 40);
+    private static final int CHECKOUT_CLIENTS = Integer.getInteger("benchmark.checkout-clients", 10);
+    private static final int SEARCH_MS = Integer.getInteger("benchmark.search-ms", 200);
+    private static final int THINK_MS = 5;
+    private static final int TOTAL_CONNECTIONS = 15;
+
+    private record Result(String mode, long checkoutOps, long checkoutP50, long checkoutP99, long checkoutFailed,
+                          long searches, long searchesRejected) {
+    }
+
+    // Helpers
+    private static HikariDataSource pool(String name, int size, long timeoutMs) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl("jdbc:h2:mem:bulkhead_load;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(size);
+        config.setConnectionTimeout(timeoutMs);
+        return new HikariDataSource(config);
+    }
+
+    private static BulkheadRegistry.Permit enter(BulkheadRegistry registry, String name) {
+        return registry != null ? registry.enter(name) : BulkheadRegistry.Permit.NONE;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Result run(String mode, DataSource dataSource, BulkheadRegistry registry) throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong checkoutFailed = new AtomicLong();
+        AtomicLong searches = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        long deadline = System.currentTimeMillis() + DURATION_MS;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < BACKOFFICE_CLIENTS; i++) {
+                executor.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        try (BulkheadRegistry.Permit ignored = enter(registry, "backoffice")) {
+                            jdbc.execute("CALL SLEEP(" + SEARCH_MS + ")");
+                            searches.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            // BulkheadFullException o timeout del pool compartido
+                            rejected.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            Thread.sleep(100); // back-office ya saturando
+            for (int i = 0; i < CHECKOUT_CLIENTS; i++) {
+                executor.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        long started = System.nanoTime();
+                        try (BulkheadRegistry.Permit ignored = enter(registry, "checkout")) {
+                            jdbc.update("UPDATE stock SET qty = qty - 1 WHERE id = 1");
+                            latencies.add((System.nanoTime() - started) / 1_000_000);
+                        } catch (RuntimeException e) {
+                            checkoutFailed.incrementAndGet();
+                        }
+                        sleep(THINK_MS);
+                    }
+                });
+            }
+        }
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.isEmpty() ? -1 : sorted.get(sorted.size() / 2);
+        long p99 = sorted.isEmpty() ? -1 : sorted.get(Math.max(0, (int) (sorted.size() * 0.99) - 1));
+        return new Result(mode, sorted.size(), p50, p99, checkoutFailed.get(), searches.get(), rejected.get());
+    }
+
+    @Test
+    @DisplayName("Checkout latency should stay flat under back-office load with bulkheads")
+    void checkoutProtectedUnderBackofficeLoad() throws Exception {
+        try (HikariDataSource setup = pool("setup", 1, 1_000)) {
+            JdbcTemplate jdbc = new JdbcTemplate(setup);
+            jdbc.execute("CREATE ALIAS IF NOT EXISTS SLEEP FOR 'java.lang.Thread.sleep(long)'");
+            jdbc.execute("CREATE TABLE IF NOT EXISTS stock (id BIGINT PRIMARY KEY, qty INT)");
+            jdbc.execute("MERGE INTO stock KEY (id) VALUES (1, 1000000000)");
+        }
+
+        List<Result> results = new ArrayList<>();
+        try (HikariDataSource shared = pool("shared", TOTAL_CONNECTIONS, 2_000)) {
+            results.add(run("shared", shared, null));
+        }
+
+        // mismo total de conexiones, repartido
+        Map<String, BulkheadProperties.Pool> config = new LinkedHashMap<>();
+        config.put("checkout", new BulkheadProperties.Pool(100, 2_000, 8));
+        config.put("backoffice", new BulkheadProperties.Pool(10, 2_000, 5));
+        try (HikariDataSource main = pool("main", TOTAL_CONNECTIONS - 13, 2_000);
+             HikariDataSource checkout = pool("checkout", 8, 2_000);
+             HikariDataSource backoffice = pool("backoffice", 5, 2_000)) {
+            BulkheadRoutingDataSource routing =
+                    new BulkheadRoutingDataSource(main, Map.of("checkout", checkout, "backoffice", backoffice));
+            StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+            beanFactory.addBean("dataSource", routing);
+            BulkheadRegistry registry = new BulkheadRegistry(new BulkheadProperties(true, config),
+                    beanFactory.getBeanProvider(BulkheadRoutingDataSource.class));
+            results.add(run("bulkheads", routing, registry));
+        }
+
+        System.out.printf("%n%d ms, %d back-office clients (%d ms searches), %d checkout clients, %d connections%n",
+                DURATION_MS, BACKOFFICE_CLIENTS, SEARCH_MS, CHECKOUT_CLIENTS, TOTAL_CONNECTIONS);
+        System.out.printf("%-10s %12s %8s %8s %10s %10s %10s%n",
+                "mode", "checkout ops", "p50 ms", "p99 ms", "ck failed", "searches", "rejected");
+        for (Result r : results) {
+            System.out.printf("%-10s %12d %8d %8d %10d %10d %10d%n", r.mode(), r.checkoutOps(), r.checkoutP50(),
+                    r.checkoutP99(), r.checkoutFailed(), r.searches(), r.searchesRejected());
+        }
+
+        Result shared = results.get(0);
+        Result bulkheads = results.get(1);
+        assertThat(bulkheads.checkoutOps()).isGreaterThan(shared.checkoutOps());
+        assertThat(bulkheads.checkoutP99()).isLessThan(shared.checkoutP99());
+    }
+}
@@ -0,0 +1,205 @@
+package com.christn.salesinventoryapi.benchmark;
+
+import com.christn.salesinventoryapi.model.Category;
+import com.christn.salesinventoryapi.model.Product;
+import com.christn.salesinventoryapi.model.Role;
+import com.christn.salesinventoryapi.model.User;
+import com.christn.salesinventoryapi.repository.CategoryRepository;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes y latencia de GET /api/products (catálogo completo) con y sin gzip contra Tomcat real, y tiempo estimado
+ * de transferencia sobre un enlace lento de tienda (benchmark.bandwidth-kbps), y el costo de servidor de recibir
+ * un cuerpo en gzip frente a JSON plano. En localhost la latencia mide sobre todo el costo de CPU de gzip;
+ * la ganancia está en los bytes que no cruzan el enlace.
+ * Solo corre a pedido: mvn test -Dtest=CompressionBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compression_benchmark_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.alerts.scan-enabled=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Compression benchmark")
+public class CompressionBenchmarkTest {
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 2_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+    private static final int BANDWIDTH_KBPS = Integer.getInteger("benchmark.bandwidth-kbps", 2_000);
+    private static final String PASSWORD = "secret-password";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeAll
+    void seed() throws Exception {
+        User admin = userRepository.save(User.builder()
+                .email("compression-benchmark@example.com")
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .roles(Set.of(Role.ADMIN))
+                .build());
+
+        Category category = new Category();
+        category.setName("Abarrotes");
+        categoryRepository.save(category);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setDescription("Presentación de " + (i % 12 + 1) + " unidades, marca " + (i % 40));
+            product.setPrice(BigDecimal.valueOf(100 + i % 900, 2));
+            product.setStock(i % 500);
+            product.setCategory(category);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+
+        HttpResponse<byte[]> login = http.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + admin.getEmail()
+                        + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        token = jsonMapper.readTree(login.body()).get("accessToken").asString();
+    }
+
+    // Helpers
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Sample(long bytes, double p50Ms, double p95Ms) {
+    }
+
+    private Sample measure(HttpRequest request) throws Exception {
+        for (int i = 0; i < ITERATIONS / 4; i++) http.send(request, HttpResponse.BodyHandlers.ofByteArray()); // warm-up
+        long[] nanos = new long[ITERATIONS];
+        long bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            nanos[i] = System.nanoTime() - started;
+            assertThat(response.statusCode()).isLessThan(300);
+            bytes = response.body().length;
+        }
+        Arrays.sort(nanos);
+        return new Sample(bytes, nanos[ITERATIONS / 2] / 1e6, nanos[ITERATIONS * 95 / 100] / 1e6);
+    }
+
+    private static double transferMs(long bytes) {
+        return bytes * 8.0 / BANDWIDTH_KBPS;
+    }
+
+    private static byte[] gzip(byte[] body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static void print(String label, Sample sample) {
+        System.out.printf("%-18s %10d %10.2f %10.2f %14.1f%n", label, sample.bytes(), sample.p50Ms(),
+                sample.p95Ms(), transferMs(sample.bytes()));
+    }
+
+    @Test
+    @DisplayName("Gzip should shrink the catalog payload several times over on a slow link")
+    void catalogResponse() throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/products"))
+                .header("Authorization", "Bearer " + token)
+                .GET();
+        Sample plain = measure(request.copy().build());
+        Sample gzipped = measure(request.copy().header("Accept-Encoding", "gzip").build());
+
+        System.out.printf("%nGET /api/products (%d productos), enlace de %d kbps%n", PRODUCTS, BANDWIDTH_KBPS);
+        System.out.printf("%-18s %10s %10s %10s %14s%n", "", "bytes", "p50 ms", "p95 ms", "transfer ms");
+        print("identity", plain);
+        print("gzip", gzipped);
+
+        assertThat(gzipped.bytes()).isLessThan(plain.bytes() / 4);
+        assertThat(gzipped.p50Ms() + transferMs(gzipped.bytes())).isLessThan(plain.p50Ms() + transferMs(plain.bytes()));
+    }
+
+    @Test
+    @DisplayName("A gzip request body should cost little server time for the bytes it saves")
+    void compressedUpload() throws Exception {
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < 20; i++) names.append("Categoría de carga ").append(i).append(' ');
+        String description = names.substring(0, 255);
+        byte[] plainBody = ("{\"name\":\"Importada\",\"description\":\"" + description + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] gzipBody = gzip(plainBody);
+
+        // Nombre repetido → 409: se mide el camino completo hasta la validación sin crear miles de filas
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/categories"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json");
+        http.send(request.copy().POST(HttpRequest.BodyPublishers.ofByteArray(plainBody)).build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        long[] plain = uploads(request.copy().POST(HttpRequest.BodyPublishers.ofByteArray(plainBody)).build());
+        long[] gzipped = uploads(request.copy().header("Content-Encoding", "gzip")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(gzipBody)).build());
+
+        System.out.printf("%nPOST /api/categories: %d bytes planos, %d en gzip%n", plainBody.length, gzipBody.length);
+        System.out.printf("%-18s %10s %10s%n", "", "p50 ms", "p95 ms");
+        System.out.printf("%-18s %10.2f %10.2f%n", "identity", plain[0] / 1e6, plain[1] / 1e6);
+        System.out.printf("%-18s %10.2f %10.2f%n", "gzip", gzipped[0] / 1e6, gzipped[1] / 1e6);
+
+        assertThat(gzipBody.length).isLessThan(plainBody.length);
+    }
+
+    private long[] uploads(HttpRequest request) throws Exception {
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            nanos[i] = System.nanoTime() - started;
+            assertThat(response.statusCode()).isEqualTo(409);
+        }
+        Arrays.sort(nanos);
+        return new long[]{nanos[ITERATIONS / 2], nanos[ITERATIONS * 95 / 100]};
+    }
+}
@@ -0,0 +1,98 @@
+package com.christn.salesinventoryapi.benchmark;
+
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics.Flow;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics.Phase;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Costo de instrumentar postSale: 7 fases + histogramas de líneas/lotes por transición, contra el registro
+ * Prometheus con los mismos histogramas que application.yml. Una transición real tarda milisegundos
+ * (locks + flush); el presupuesto es < 1% de 1 ms por transición.
+ * Solo corre a pedido: mvn test -Dtest=HotPathMetricsBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Hot path metrics benchmark")
+public class HotPathMetricsBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 1_000_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final long BUDGET_NS = 10_000;
+
+    private static final Phase[] SALE_POST_PHASES = {Phase.LOCK_SALE, Phase.LOCK_PRODUCTS, Phase.VALIDATE,
+            Phase.LOCK_BATCHES, Phase.ALLOCATE, Phase.PERSIST, Phase.MAPPING};
+
+    // Helpers
+    private static PrometheusMeterRegistry registry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !id.getName().startsWith("sale.")) return config;
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        return registry;
+    }
+
+    private static long transitions(HotPathMetrics metrics, int iterations) {
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            HotPathMetrics.Stopwatch stopwatch = metrics.start(Flow.SALE_POST);
+            for (Phase phase : SALE_POST_PHASES) stopwatch.lap(phase);
+            metrics.salePosted(1 + (i & 7), 1 + (i & 3));
+            sink += i;
+        }
+        return sink;
+    }
+
+    private static double nsPerTransition(HotPathMetrics metrics, int threads) throws Exception {
+        int perThread = ITERATIONS / threads;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            long started = System.nanoTime();
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) futures.add(executor.submit(() -> transitions(metrics, perThread)));
+            for (Future<Long> f : futures) f.get();
+            // tiempo de pared / transiciones totales: con contención entre hilos sube por encima del de 1 hilo
+            return (double) (System.nanoTime() - started) / ((long) perThread * threads);
+        }
+    }
+
+    @Test
+    @DisplayName("Instrumenting a sale post should cost well under 1% of a millisecond")
+    void overheadPerTransition() throws Exception {
+        PrometheusMeterRegistry registry = registry();
+        HotPathMetrics metrics = new HotPathMetrics(registry);
+        transitions(metrics, ITERATIONS / 4); // warm-up
+
+        double single = nsPerTransition(metrics, 1);
+        double contended = nsPerTransition(metrics, THREADS);
+        long scrapeStarted = System.nanoTime();
+        int scrapeBytes = registry.scrape().length();
+        long scrapeMs = (System.nanoTime() - scrapeStarted) / 1_000_000;
+
+        System.out.printf("%n%d transitions (7 phases + 2 summaries each)%n", ITERATIONS);
+        System.out.printf("%-22s %12s%n", "threads", "ns/transition");
+        System.out.printf("%-22d %12.0f%n", 1, single);
+        System.out.printf("%-22d %12.0f%n", THREADS, contended);
+        System.out.printf("scrape: %d bytes in %d ms%n", scrapeBytes, scrapeMs);
+
+        assertThat(single).isLessThan(BUDGET_NS);
+        assertThat(contended).isLessThan(BUDGET_NS);
+    }
+}
@@ -0,0 +1,137 @@
+package com.christn.salesinventoryapi.benchmark;
+
+import com.christn.salesinventoryapi.dto.mapper.SaleMapper;
+import com.christn.salesinventoryapi.dto.response.SaleResponse;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.SaleRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes asignados y tiempo por lectura del detalle de una venta de 100 líneas: proyecciones planas frente al
+ * fetch-join sobre entidades administradas que se usaba antes. Los bytes salen de com.sun.management.ThreadMXBean
+ * (HotSpot). Solo corre a pedido: mvn test -Dtest=SaleDetailReadBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Sale detail read benchmark")
+public class SaleDetailReadBenchmarkTest {
+
+    private static final int LINES = Integer.getInteger("benchmark.lines", 100);
+    private static final int RUNS = Integer.getInteger("benchmark.iterations", 50);
+
+    private static final String ENTITY_DETAIL_QUERY = """
+                SELECT DISTINCT s FROM Sale s
+                LEFT JOIN FETCH s.details d
+                LEFT JOIN FETCH d.product p
+                LEFT JOIN FETCH s.customer c
+                WHERE s.id = :id
+            """;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Helpers
+    private Long seedSale() {
+        Category category = new Category();
+        category.setName("Bebidas");
+        entityManager.persist(category);
+
+        Customer customer = new Customer();
+        customer.setFullName("Cliente Frecuente");
+        customer.setEmail("frecuente@test.com");
+        entityManager.persist(customer);
+
+        Sale sale = new Sale();
+        sale.setSaleDate(LocalDateTime.now());
+        sale.setCustomer(customer);
+        sale.setTotalAmount(new BigDecimal("1000.00"));
+        entityManager.persist(sale);
+
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(100);
+            product.setCategory(category);
+            entityManager.persist(product);
+
+            SaleDetail detail = new SaleDetail();
+            detail.setSale(sale);
+            detail.setProduct(product);
+            detail.setQuantity(1);
+            detail.setUnitPrice(new BigDecimal("10.00"));
+            detail.setSubTotal(new BigDecimal("10.00"));
+            entityManager.persist(detail);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return sale.getId();
+    }
+
+    private SaleResponse readWithProjections(Long saleId) {
+        var header = saleRepository.findHeaderViewById(saleId).orElseThrow();
+        return SaleMapper.toResponse(header, saleRepository.findDetailViewsBySaleId(saleId));
+    }
+
+    private SaleResponse readWithEntities(Long saleId) {
+        Sale sale = entityManager.createQuery(ENTITY_DETAIL_QUERY, Sale.class)
+                .setParameter("id", saleId)
+                .getSingleResult();
+        return SaleMapper.toResponse(sale);
+    }
+
+    // [bytes asignados por lectura, ns por lectura]; limpia el contexto entre lecturas como haría cada request
+    private long[] measure(Supplier<SaleResponse> read) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < 5; i++) {
+            read.get();
+            entityManager.clear();
+        }
+
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            read.get();
+            entityManager.clear();
+        }
+        long elapsed = System.nanoTime() - started;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new long[]{bytes / RUNS, elapsed / RUNS};
+    }
+
+    @Test
+    @DisplayName("Detail projections should allocate less than the fetch-join entity read")
+    void saleDetailRead() {
+        Long saleId = seedSale();
+
+        long[] entities = measure(() -> readWithEntities(saleId));
+        long[] projections = measure(() -> readWithProjections(saleId));
+
+        System.out.printf("%nDetalle de venta de %d líneas, %d lecturas%n", LINES, RUNS);
+        System.out.printf("%-12s %10s %10s%n", "", "KB", "us");
+        System.out.printf("%-12s %10d %10d%n", "entities", entities[0] / 1024, entities[1] / 1000);
+        System.out.printf("%-12s %10d %10d%n", "projections", projections[0] / 1024, projections[1] / 1000);
+
+        assertThat(projections[0]).isLessThan(entities[0]);
+    }
+}
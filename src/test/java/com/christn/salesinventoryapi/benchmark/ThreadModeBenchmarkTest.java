@@ -0,0 +1,127 @@
+package com.christn.salesinventoryapi.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Platform vs virtual threads con N peticiones concurrentes que bloquean en un lock de fila "caliente"
+ * (como el FOR UPDATE de post/void de ventas) mientras retienen una conexión del pool.
+ * Solo corre a pedido:
+ * mvn test -Dtest=ThreadModeBenchmarkTest -Dbenchmark=true [-Dbenchmark.requests=2000 -Dbenchmark.pool=40]
+ * Platform = 200 hilos (maxThreads por defecto de Tomcat); virtual = un hilo virtual por petición.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Thread mode benchmark")
+public class ThreadModeBenchmarkTest {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2_000);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool", 40);
+    private static final int HOT_ROWS = Integer.getInteger("benchmark.hot-rows", 50);
+    private static final int LOCK_HOLD_MS = Integer.getInteger("benchmark.lock-hold-ms", 5);
+    private static final int IO_MS = Integer.getInteger("benchmark.io-ms", 40);
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    private record Result(String mode, long wallMs, double throughput, long p50Ms, long p99Ms,
+                          int peakThreads, long heapDeltaMb) {
+    }
+
+    // Helpers
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static Result run(String mode, ExecutorService executor) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Semaphore connections = new Semaphore(POOL_SIZE, true);
+        ReentrantLock[] rows = new ReentrantLock[HOT_ROWS];
+        for (int i = 0; i < HOT_ROWS; i++) rows[i] = new ReentrantLock(true);
+
+        long heapBefore = usedHeap(memory);
+        threads.resetPeakThreadCount();
+        long[] latencies = new long[REQUESTS];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                start.await();
+                // I/O fuera de la BD (auth, serialización, red)
+                sleep(IO_MS / 2);
+                connections.acquire();
+                try {
+                    ReentrantLock row = rows[request % HOT_ROWS];
+                    row.lock();
+                    try {
+                        sleep(LOCK_HOLD_MS);
+                    } finally {
+                        row.unlock();
+                    }
+                } finally {
+                    connections.release();
+                }
+                sleep(IO_MS / 2);
+                latencies[request] = (System.nanoTime() - submitted) / 1_000_000;
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(5, TimeUnit.MINUTES);
+        long wallMs = (System.nanoTime() - started) / 1_000_000;
+        // solo cuenta hilos de plataforma: en modo virtual son los carriers
+        int peakThreads = threads.getPeakThreadCount();
+        long heapDeltaMb = Math.max(0, memory.getHeapMemoryUsage().getUsed() - heapBefore) / (1024 * 1024);
+
+        Arrays.sort(latencies);
+        return new Result(mode, wallMs, REQUESTS * 1000.0 / Math.max(1, wallMs),
+                latencies[REQUESTS / 2], latencies[(int) (REQUESTS * 0.99) - 1], peakThreads, heapDeltaMb);
+    }
+
+    @Test
+    @DisplayName("Platform vs virtual threads under concurrent slow-lock requests")
+    void compareThreadModes() throws Exception {
+        List<Result> results = new ArrayList<>();
+        try (ExecutorService platform = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)) {
+            results.add(run("platform", platform));
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(run("virtual", virtual));
+        }
+
+        System.out.printf("%n%d requests, pool %d, %d hot rows, lock %d ms, I/O %d ms%n",
+                REQUESTS, POOL_SIZE, HOT_ROWS, LOCK_HOLD_MS, IO_MS);
+        System.out.printf("%-9s %8s %10s %7s %7s %12s %10s%n",
+                "mode", "wall ms", "req/s", "p50 ms", "p99 ms", "peak threads", "heap +MB");
+        for (Result r : results) {
+            System.out.printf("%-9s %8d %10.1f %7d %7d %12d %10d%n",
+                    r.mode(), r.wallMs(), r.throughput(), r.p50Ms(), r.p99Ms(), r.peakThreads(), r.heapDeltaMb());
+        }
+        // los hilos de plataforma reservan además ~1 MB de stack nativo cada uno (fuera del heap)
+
+        assertThat(results).allMatch(r -> r.wallMs() > 0);
+    }
+}
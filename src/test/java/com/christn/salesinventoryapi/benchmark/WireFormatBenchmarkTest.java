@@ -0,0 +1,116 @@
+package com.christn.salesinventoryapi.benchmark;
+
+import com.christn.salesinventoryapi.dto.request.CreateSaleDetailRequest;
+import com.christn.salesinventoryapi.dto.request.CreateSaleRequest;
+import com.christn.salesinventoryapi.dto.response.SaleDetailLineResponse;
+import com.christn.salesinventoryapi.dto.response.SaleResponse;
+import com.christn.salesinventoryapi.model.SaleStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tamaño y costo de (de)serializar una venta de 50 líneas (CreateSaleRequest y SaleResponse) en JSON y CBOR, con
+ * los mismos DTOs que recibe y devuelve la API. Tamaños también en gzip, como viajan con server.compression: la
+ * ventaja en bytes de CBOR casi desaparece comprimida, así que la comparación que importa es la de CPU por venta.
+ * Solo corre a pedido: mvn test -Dtest=WireFormatBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Wire format benchmark")
+public class WireFormatBenchmarkTest {
+
+    private static final int LINES = Integer.getInteger("benchmark.lines", 50);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+
+    private record Result(int bytes, int gzipBytes, double writeNs, double readNs) {
+    }
+
+    // Helpers
+    private static CreateSaleRequest request() {
+        List<CreateSaleDetailRequest> details = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) details.add(new CreateSaleDetailRequest(1_000L + i, 1 + i % 6));
+        return new CreateSaleRequest(42L, details);
+    }
+
+    private static SaleResponse response() {
+        List<SaleDetailLineResponse> details = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            BigDecimal price = BigDecimal.valueOf(250 + i * 37L, 2);
+            BigDecimal subtotal = price.multiply(BigDecimal.valueOf(1 + i % 6));
+            total = total.add(subtotal);
+            details.add(new SaleDetailLineResponse(5_000L + i, 1_000L + i, "Producto de abarrotes " + i, 1 + i % 6,
+                    price, subtotal));
+        }
+        LocalDateTime now = LocalDateTime.of(2026, 3, 14, 10, 30);
+        return new SaleResponse(9_001L, now, SaleStatus.ACTIVE, 42L, "Bodega Los Andes", total, now, 7L, now, 7L,
+                null, null, null, null, null, details);
+    }
+
+    private static int gzipSize(byte[] body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+
+    private static <T> Result measure(ObjectMapper mapper, T value, Class<T> type) throws Exception {
+        byte[] body = mapper.writeValueAsBytes(value);
+        for (int i = 0; i < ITERATIONS / 4; i++) mapper.readValue(mapper.writeValueAsBytes(value), type); // warm-up
+
+        long sink = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) sink += mapper.writeValueAsBytes(value).length;
+        double writeNs = (double) (System.nanoTime() - started) / ITERATIONS;
+
+        started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) sink += mapper.readValue(body, type).hashCode();
+        double readNs = (double) (System.nanoTime() - started) / ITERATIONS;
+
+        assertThat(mapper.readValue(body, type)).isEqualTo(value);
+        assertThat(sink).isNotZero();
+        return new Result(body.length, gzipSize(body), writeNs, readNs);
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-22s %8d %10d %12.0f %12.0f%n", label, result.bytes(), result.gzipBytes(),
+                result.writeNs(), result.readNs());
+    }
+
+    @Test
+    @DisplayName("CBOR and JSON should round-trip a 50-line sale; CBOR should be the smaller payload")
+    void saleRoundTrip() throws Exception {
+        JsonMapper json = JsonMapper.builder().build();
+        CBORMapper cbor = CBORMapper.builder().build();
+        CreateSaleRequest request = request();
+        SaleResponse response = response();
+
+        Result jsonRequest = measure(json, request, CreateSaleRequest.class);
+        Result cborRequest = measure(cbor, request, CreateSaleRequest.class);
+        Result jsonResponse = measure(json, response, SaleResponse.class);
+        Result cborResponse = measure(cbor, response, SaleResponse.class);
+
+        System.out.printf("%nVenta de %d líneas, %d iteraciones%n", LINES, ITERATIONS);
+        System.out.printf("%-22s %8s %10s %12s %12s%n", "", "bytes", "gzip", "write ns", "read ns");
+        print("CreateSaleRequest json", jsonRequest);
+        print("CreateSaleRequest cbor", cborRequest);
+        print("SaleResponse json", jsonResponse);
+        print("SaleResponse cbor", cborResponse);
+
+        assertThat(cborRequest.bytes()).isLessThan(jsonRequest.bytes());
+        assertThat(cborResponse.bytes()).isLessThan(jsonResponse.bytes());
+    }
+}
@@ -0,0 +1,131 @@
+package com.christn.salesinventoryapi.bulkhead;
+
+import com.christn.salesinventoryapi.config.BulkheadProperties;
+import com.christn.salesinventoryapi.dto.response.BulkheadStatusResponse;
+import com.christn.salesinventoryapi.exception.BulkheadFullException;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BulkheadRegistry Tests")
+@ActiveProfiles("test")
+public class BulkheadRegistryTest {
+
+    private HikariDataSource checkoutPool;
+    private BulkheadRoutingDataSource routing;
+    private BulkheadRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource shared = new DriverManagerDataSource("jdbc:h2:mem:bh_shared;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(shared).execute("CREATE TABLE node AS SELECT 'shared' AS name");
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:bh_checkout;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(2);
+        checkoutPool = new HikariDataSource(config);
+        new JdbcTemplate(checkoutPool).execute("CREATE TABLE node AS SELECT 'checkout' AS name");
+
+        routing = new BulkheadRoutingDataSource(shared, Map.of("checkout", checkoutPool));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("dataSource", routing);
+
+        Map<String, BulkheadProperties.Pool> pools = new LinkedHashMap<>();
+        pools.put("checkout", new BulkheadProperties.Pool(5, 500, 2));
+        pools.put("backoffice", new BulkheadProperties.Pool(1, 100, 0));
+        registry = new BulkheadRegistry(new BulkheadProperties(true, pools),
+                beanFactory.getBeanProvider(BulkheadRoutingDataSource.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(routing).execute("DROP TABLE node");
+        new JdbcTemplate(checkoutPool).execute("DROP TABLE node");
+        checkoutPool.close();
+    }
+
+    // Helpers
+    private String node() {
+        return new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class);
+    }
+
+    @Test
+    @DisplayName("Connections should come from the pool of the current bulkhead")
+    void routing_usesCompartmentPool() {
+        assertThat(node()).isEqualTo("shared");
+        try (BulkheadRegistry.Permit ignored = registry.enter("checkout")) {
+            assertThat(node()).isEqualTo("checkout");
+        }
+        // sin pool propio: pool principal
+        try (BulkheadRegistry.Permit ignored = registry.enter("backoffice")) {
+            assertThat(node()).isEqualTo("shared");
+        }
+        assertThat(BulkheadContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject after the queue timeout when the bulkhead is full")
+    void enter_full_rejectsAfterQueueTimeout() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> holder = executor.submit(() -> {
+                try (BulkheadRegistry.Permit ignored = registry.enter("backoffice")) {
+                    inside.countDown();
+                    release.await();
+                }
+                return null;
+            });
+            inside.await();
+
+            long started = System.nanoTime();
+            assertThatThrownBy(() -> registry.enter("backoffice")).isInstanceOf(BulkheadFullException.class);
+            assertThat((System.nanoTime() - started) / 1_000_000).isGreaterThanOrEqualTo(90);
+
+            // otro compartimento no se ve afectado
+            try (BulkheadRegistry.Permit ignored = registry.enter("checkout")) {
+                assertThat(BulkheadContext.current()).isEqualTo("checkout");
+            }
+
+            release.countDown();
+            holder.get();
+        }
+
+        BulkheadStatusResponse backoffice = registry.status().get(1);
+        assertThat(backoffice.accepted()).isEqualTo(1);
+        assertThat(backoffice.rejected()).isEqualTo(1);
+        assertThat(backoffice.active()).isZero();
+        assertThat(registry.status().getFirst().poolMax()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Nested bulkheads should keep the outer one and not take a second permit")
+    void enter_nested_keepsOuterCompartment() {
+        try (BulkheadRegistry.Permit outer = registry.enter("checkout")) {
+            try (BulkheadRegistry.Permit inner = registry.enter("backoffice")) {
+                assertThat(inner).isSameAs(BulkheadRegistry.Permit.NONE);
+                assertThat(BulkheadContext.current()).isEqualTo("checkout");
+            }
+            assertThat(registry.status().get(1).accepted()).isZero();
+        }
+        assertThat(BulkheadContext.current()).isNull();
+    }
+}
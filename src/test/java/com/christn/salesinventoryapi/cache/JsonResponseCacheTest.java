@@ -0,0 +1,141 @@
+package com.christn.salesinventoryapi.cache;
+
+import com.christn.salesinventoryapi.event.CatalogChangedEvent;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.christn.salesinventoryapi.cache.JsonResponseCache.Format.CBOR;
+import static com.christn.salesinventoryapi.cache.JsonResponseCache.Format.JSON;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JsonResponseCache Tests")
+public class JsonResponseCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final JsonResponseCache cache = new JsonResponseCache(JsonMapper.builder().build(),
+            CBORMapper.builder().build(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(10),
+            Duration.ofSeconds(5), nanos::get);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    record Item(long id, int version) {
+    }
+
+    private Item load(long id) {
+        return new Item(id, loads.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("Repeated reads should reuse the same bytes and weak ETag")
+    void product_cachesBytesAndETag() {
+        ResponseEntity<byte[]> first = cache.product(1L, null, () -> load(1L));
+        ResponseEntity<byte[]> second = cache.product(1L, null, () -> load(1L));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThat(new String(first.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1,\"version\":1}");
+        assertThat(first.getHeaders().getETag()).startsWith("W/\"");
+    }
+
+    @Test
+    @DisplayName("A stock change should evict the product and the per-category lists, but not the categories")
+    void onStockChanged_evictsProductsAndCategoryLists() {
+        cache.product(1L, null, () -> load(1L));
+        cache.product(2L, null, () -> load(2L));
+        cache.productsByCategory(7L, null, () -> List.of(load(1L)));
+        cache.categories(null, () -> List.of(load(7L)));
+        loads.set(0);
+
+        cache.onStockChanged(new StockChangedEvent(List.of(1L)));
+        String etag = cache.product(1L, null, () -> load(1L)).getHeaders().getETag();
+        cache.product(2L, null, () -> load(2L));
+        cache.productsByCategory(7L, null, () -> List.of(load(1L)));
+        cache.categories(null, () -> List.of(load(7L)));
+
+        assertThat(loads).hasValue(2);
+        assertThat(etag).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Responses carrying stock should expire after stock-ttl; categories should keep the general TTL")
+    void stockBearingKeys_expireAfterStockTtl() {
+        cache.product(1L, null, () -> load(1L));
+        cache.productsByCategory(7L, null, () -> List.of(load(1L)));
+        cache.categories(null, () -> List.of(load(7L)));
+        loads.set(0);
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        cache.product(1L, null, () -> load(1L));
+        cache.productsByCategory(7L, null, () -> List.of(load(1L)));
+        cache.categories(null, () -> List.of(load(7L)));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A category change should drop every cached response")
+    void onCatalogChanged_categories_invalidatesAll() {
+        cache.product(1L, null, () -> load(1L));
+        cache.categories(null, () -> List.of(load(7L)));
+        loads.set(0);
+
+        cache.onCatalogChanged(CatalogChangedEvent.categories());
+        cache.product(1L, null, () -> load(1L));
+        cache.categories(null, () -> List.of(load(7L)));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("A response loaded across an invalidation should not stay cached")
+    void invalidationDuringLoad_isNotCached() {
+        cache.product(1L, null, () -> {
+            // el commit llega mientras la lectura aún serializa datos previos
+            cache.onCatalogChanged(CatalogChangedEvent.product(1L));
+            return load(1L);
+        });
+        cache.product(1L, null, () -> load(1L));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("CBOR clients should get their own cached copy with a different ETag")
+    void product_cachesCborSeparately() {
+        ResponseEntity<byte[]> json = cache.product(1L, "application/json", () -> load(1L));
+        ResponseEntity<byte[]> cbor = cache.product(1L, "application/cbor", () -> load(1L));
+        cache.product(1L, "application/cbor", () -> load(1L));
+
+        assertThat(loads).hasValue(2);
+        assertThat(cbor.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(cbor.getHeaders().getVary()).contains("Accept");
+        assertThat(cbor.getHeaders().getETag()).isNotEqualTo(json.getHeaders().getETag());
+        assertThat(CBORMapper.builder().build().readValue(cbor.getBody(), Item.class)).isEqualTo(new Item(1L, 2));
+
+        cache.onStockChanged(new StockChangedEvent(List.of(1L)));
+        cache.product(1L, "application/cbor", () -> load(1L));
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("CBOR should be chosen only when the client prefers it over JSON")
+    void negotiate_prefersJsonUnlessCborIsAsked() {
+        assertThat(JsonResponseCache.negotiate(null)).isEqualTo(JSON);
+        assertThat(JsonResponseCache.negotiate("*/*")).isEqualTo(JSON);
+        assertThat(JsonResponseCache.negotiate("application/cbor")).isEqualTo(CBOR);
+        assertThat(JsonResponseCache.negotiate("application/cbor, */*;q=0.1")).isEqualTo(CBOR);
+        assertThat(JsonResponseCache.negotiate("application/json, application/cbor;q=0.5")).isEqualTo(JSON);
+        assertThat(JsonResponseCache.negotiate("no es un tipo")).isEqualTo(JSON);
+    }
+}
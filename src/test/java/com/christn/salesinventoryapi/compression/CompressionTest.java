@@ -0,0 +1,207 @@
+package com.christn.salesinventoryapi.compression;
+
+import com.christn.salesinventoryapi.model.Category;
+import com.christn.salesinventoryapi.model.Product;
+import com.christn.salesinventoryapi.model.Role;
+import com.christn.salesinventoryapi.model.User;
+import com.christn.salesinventoryapi.repository.CategoryRepository;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tomcat real (puerto aleatorio): la compresión de respuestas vive en el conector, fuera del alcance de MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compression_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.alerts.scan-enabled=false",
+        "app.compression.request.max-inflated-size=64KB"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("HTTP compression")
+public class CompressionTest {
+
+    private static final String PASSWORD = "secret-password";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private String token;
+    private Long categoryId;
+    private Long productId;
+
+    @BeforeAll
+    void seed() throws Exception {
+        User admin = userRepository.save(User.builder()
+                .email("compression-admin@example.com")
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .roles(Set.of(Role.ADMIN))
+                .build());
+
+        Category category = new Category();
+        category.setName("Abarrotes");
+        categoryId = categoryRepository.save(category).getId();
+        for (int i = 0; i < 60; i++) {
+            Product product = new Product();
+            product.setName("Producto comprimible " + i);
+            product.setDescription("Descripción larga y repetitiva del producto número " + i);
+            product.setPrice(new BigDecimal("12.50"));
+            product.setStock(100);
+            product.setCategory(category);
+            productId = productRepository.save(product).getId();
+        }
+
+        HttpResponse<byte[]> login = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + admin.getEmail()
+                        + "\",\"password\":\"" + PASSWORD + "\"}")));
+        token = jsonMapper.readTree(login.body()).get("accessToken").asString();
+    }
+
+    // Helpers
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws Exception {
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<byte[]> get(String path, String... headers) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).GET();
+        if (headers.length > 0) request.headers(headers);
+        return send(request);
+    }
+
+    private HttpResponse<byte[]> postGzip(String path, byte[] body, String encoding) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .header("Content-Encoding", encoding)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("Large JSON responses should be gzipped only when the client accepts it")
+    void largeResponse_isGzipped() throws Exception {
+        HttpResponse<byte[]> plain = get("/api/products");
+        HttpResponse<byte[]> gzipped = get("/api/products", "Accept-Encoding", "gzip");
+
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(gzipped.statusCode()).isEqualTo(200);
+        assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(gzipped.headers().allValues("Vary")).anyMatch(v -> v.toLowerCase().contains("accept-encoding"));
+        assertThat(gunzip(gzipped.body())).isEqualTo(plain.body());
+        assertThat(gzipped.body().length).isLessThan(plain.body().length / 4);
+    }
+
+    @Test
+    @DisplayName("Responses below the size threshold should go out uncompressed")
+    void smallResponse_isNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("/api/categories/" + categoryId, "Accept-Encoding", "gzip");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Conditional GET should still answer 304 when the cached response is compressed")
+    void compressedCachedResponse_supportsConditionalGet() throws Exception {
+        String path = "/api/products/category/" + categoryId;
+        HttpResponse<byte[]> first = get(path, "Accept-Encoding", "gzip");
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> second = get(path, "Accept-Encoding", "gzip", "If-None-Match", etag);
+
+        assertThat(first.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(second.statusCode()).isEqualTo(304);
+    }
+
+    @Test
+    @DisplayName("A gzip request body should be inflated before reaching the controller")
+    void gzipRequest_isInflated() throws Exception {
+        double before = meterRegistry.get("http.server.request.body.inflated").tag("encoding", "gzip")
+                .summary().totalAmount();
+
+        HttpResponse<byte[]> response = postGzip("/api/categories",
+                gzip("{\"name\":\"Congelados\",\"description\":\"" + "x".repeat(200) + "\"}"), "gzip");
+
+        assertThat(response.statusCode()).isEqualTo(201);
+        JsonNode created = jsonMapper.readTree(response.body());
+        assertThat(created.get("name").asString()).isEqualTo("Congelados");
+        assertThat(meterRegistry.get("http.server.request.body.inflated").tag("encoding", "gzip")
+                .summary().totalAmount() - before).isGreaterThan(200);
+    }
+
+    @Test
+    @DisplayName("Unsupported, corrupt or oversized compressed bodies should be rejected")
+    void badCompressedRequests_areRejected() throws Exception {
+        HttpResponse<byte[]> brotli = postGzip("/api/categories", "{}".getBytes(StandardCharsets.UTF_8), "br");
+        assertThat(brotli.statusCode()).isEqualTo(415);
+        assertThat(brotli.headers().firstValue("Accept-Encoding")).hasValue("gzip, deflate");
+
+        byte[] truncated = gzip("{\"name\":\"Truncada\"}");
+        HttpResponse<byte[]> corrupt = postGzip("/api/categories",
+                Arrays.copyOf(truncated, truncated.length - 10), "gzip");
+        assertThat(corrupt.statusCode()).isEqualTo(400);
+
+        // 1 KB comprimido que se expande a más de los 64 KB permitidos en esta prueba
+        HttpResponse<byte[]> bomb = postGzip("/api/categories",
+                gzip("{\"name\":\"Bomba\",\"description\":\"" + " ".repeat(200_000) + "\"}"), "gzip");
+        assertThat(bomb.statusCode()).isEqualTo(413);
+    }
+}
@@ -0,0 +1,202 @@
+package com.christn.salesinventoryapi.compression;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lectura y escritura no bloqueantes a través de los filtros de compresión, con los streams del contenedor simulados:
+ * MockMvc y el Tomcat de CompressionTest no ejercitan ReadListener/WriteListener.
+ */
+@DisplayName("Compression filters with non-blocking I/O")
+public class NonBlockingBodyTest {
+
+    // Cuerpo del contenedor que llega por partes y avisa al listener como Tomcat
+    private static final class ArrivingInput extends ServletInputStream {
+        private final ByteArrayOutputStream arrived = new ByteArrayOutputStream();
+        private int position;
+        private boolean done;
+        private ReadListener listener;
+
+        private void arrive(byte[] chunk) throws IOException {
+            arrived.write(chunk);
+            listener.onDataAvailable();
+        }
+
+        private void complete() throws IOException {
+            done = true;
+            listener.onAllDataRead();
+        }
+
+        @Override
+        public int read() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte @NonNull [] b, int off, int len) {
+            if (!isReady()) throw new IllegalStateException("Lectura sin datos disponibles");
+            byte[] bytes = arrived.toByteArray();
+            int n = Math.min(len, bytes.length - position);
+            System.arraycopy(bytes, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return done && position == arrived.size();
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < arrived.size();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            listener = readListener;
+        }
+    }
+
+    private static final class ContainerOutput extends ServletOutputStream {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private boolean ready;
+        private WriteListener listener;
+
+        @Override
+        public void write(int b) {
+            written.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+        }
+    }
+
+    // Helpers
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("A WriteListener should get the held bytes flushed and reach the container stream")
+    void setWriteListener_releasesAndDelegates() throws Exception {
+        ContainerOutput container = new ContainerOutput();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stock-alerts/stream");
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public @NonNull ServletOutputStream getOutputStream() {
+                return container;
+            }
+        };
+        WriteListener listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+        AtomicBoolean readyWhileHeld = new AtomicBoolean();
+        AtomicBoolean readyAfter = new AtomicBoolean(true);
+
+        new CompressionThresholdFilter(List.of("application/json"), 2048).doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            ServletOutputStream out = res.getOutputStream();
+            out.write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+            readyWhileHeld.set(out.isReady());
+            out.setWriteListener(listener);
+            readyAfter.set(out.isReady());
+        });
+
+        assertThat(readyWhileHeld).isTrue();
+        assertThat(container.written.toString(StandardCharsets.UTF_8)).isEqualTo("{\"ok\":true}");
+        assertThat(container.listener).isSameAs(listener);
+        assertThat(readyAfter).isFalse();
+    }
+
+    @Test
+    @DisplayName("A ReadListener should see the body inflated only once the compressed body has fully arrived")
+    void setReadListener_inflatesWhenComplete() throws Exception {
+        byte[] body = "{\"name\":\"Abarrotes\",\"description\":\"%s\"}".formatted("x".repeat(5_000))
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = gzip(body);
+        ArrivingInput container = new ArrivingInput();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/categories") {
+            @Override
+            public @NonNull ServletInputStream getInputStream() {
+                return container;
+            }
+        };
+        request.addHeader("Content-Encoding", "gzip");
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean readyBeforeComplete = new AtomicBoolean(true);
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        new RequestDecompressionFilter(JsonMapper.builder().build(), new SimpleMeterRegistry(), true,
+                DataSize.ofKilobytes(64)).doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[512];
+                    int n;
+                    while (in.isReady() && (n = in.read(chunk)) != -1) received.write(chunk, 0, n);
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(in.isFinished());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+            });
+            readyBeforeComplete.set(in.isReady());
+        });
+
+        int half = compressed.length / 2;
+        container.arrive(Arrays.copyOfRange(compressed, 0, half));
+        assertThat(received.size()).isZero();
+        container.arrive(Arrays.copyOfRange(compressed, half, compressed.length));
+        container.complete();
+
+        assertThat(readyBeforeComplete).isFalse();
+        assertThat(received.toByteArray()).isEqualTo(body);
+        assertThat(allRead).isTrue();
+    }
+}
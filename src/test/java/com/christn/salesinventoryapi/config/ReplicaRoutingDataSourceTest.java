@@ -0,0 +1,128 @@
+package com.christn.salesinventoryapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dos H2 en memoria como primario y réplica; cada una responde su propio nombre en la tabla "node"
+@DisplayName("ReplicaRoutingDataSource Tests")
+@ActiveProfiles("test")
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag_ms FROM replica_lag";
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:rr_primary;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:rr_replica;DB_CLOSE_DELAY=-1", "sa", "");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        primaryJdbc.update("INSERT INTO node VALUES ('primary')");
+        replicaJdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        replicaJdbc.update("INSERT INTO node VALUES ('replica')");
+        replicaJdbc.execute("CREATE TABLE replica_lag (lag_ms BIGINT)");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), tracker, 2_000, LAG_QUERY);
+        LazyConnectionDataSourceProxy proxy =
+                new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primary, tracker));
+        proxy.setReadOnlyDataSource(routing);
+
+        jdbcTemplate = new JdbcTemplate(proxy);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(proxy);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(txManager);
+
+        routing.probeReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+    }
+
+    // Helpers
+    private static void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_SELLER")));
+    }
+
+    private String readNode() {
+        return readOnlyTx.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private String writeNode() {
+        return writeTx.execute(status -> {
+            jdbcTemplate.update("UPDATE node SET name = name");
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should go to the replica and writes to the primary")
+    void routesByTransactionReadOnlyFlag() {
+        assertThat(readNode()).isEqualTo("replica");
+        assertThat(writeNode()).isEqualTo("primary");
+        assertThat(routing.routedToReplica()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A user's reads should stay on the primary inside the read-your-writes window")
+    void readYourWrites_pinsWriterToPrimary() {
+        authenticateAs("ana");
+        assertThat(readNode()).isEqualTo("replica");
+        writeNode();
+        assertThat(readNode()).isEqualTo("primary");
+
+        authenticateAs("luis");
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("A replica lagging beyond max-lag should leave rotation until it catches up")
+    void laggingReplica_fallsBackToPrimary() {
+        replicaJdbc.update("UPDATE replica_lag SET lag_ms = 5000");
+        routing.probeReplicas();
+        assertThat(routing.status().getFirst().healthy()).isFalse();
+        assertThat(readNode()).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replica_lag SET lag_ms = 100");
+        routing.probeReplicas();
+        assertThat(routing.status().getFirst().lagMs()).isEqualTo(100);
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Reads inside PrimaryReads should go to the primary even with a healthy replica")
+    void primaryReads_pinsToPrimary() {
+        assertThat(PrimaryReads.call(this::readNode)).isEqualTo("primary");
+        assertThat(readNode()).isEqualTo("replica");
+    }
+}
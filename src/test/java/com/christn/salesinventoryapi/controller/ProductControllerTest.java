@@ -1,11 +1,16 @@
 package com.christn.salesinventoryapi.controller;
 
+import com.christn.salesinventoryapi.cache.JsonResponseCache;
 import com.christn.salesinventoryapi.dto.request.ProductRequest;
 import com.christn.salesinventoryapi.dto.response.CategoryResponse;
 import com.christn.salesinventoryapi.dto.response.ProductResponse;
+import com.christn.salesinventoryapi.dto.response.ProductStockResponse;
 import com.christn.salesinventoryapi.auth.JwtAuthFilter;
 import com.christn.salesinventoryapi.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,18 +18,24 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,17 +49,35 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         )
 )
 @AutoConfigureMockMvc(addFilters = false)
+@Import(ProductControllerTest.Config.class)
 public class ProductControllerTest {
 
+    @TestConfiguration
+    @Import(JsonResponseCache.class)
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private JsonMapper jsonMapper;
 
+    @Autowired
+    private JsonResponseCache responseCache;
+
     @MockitoBean
     private ProductService productService;
 
+    @BeforeEach
+    void clearResponseCache() {
+        responseCache.invalidateAll();
+    }
+
     @Nested
     @DisplayName("POST /api/products")
     class CreateTests {
@@ -260,6 +289,50 @@ public class ProductControllerTest {
             ;
         }
 
+        @Test
+        @DisplayName("Should serve repeated reads from the response cache and answer 304 to a matching ETag")
+        void getById_ShouldReturn304_WhenETagMatches() throws Exception {
+            CategoryResponse categoryResponse = new CategoryResponse(1L, "Electrónica", "Productos electrónicos");
+            when(productService.findById(1L)).thenReturn(new ProductResponse(1L, "Laptop", "Desc",
+                    new BigDecimal("1500.00"), 10, categoryResponse));
+
+            String etag = mockMvc.perform(get("/api/products/{id}", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/api/products/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+            mockMvc.perform(get("/api/products/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"otro\""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Laptop"));
+
+            verify(productService, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("Should answer cached reads in CBOR when the client asks for it")
+        void getById_ShouldReturnCbor_WhenAccepted() throws Exception {
+            CategoryResponse categoryResponse = new CategoryResponse(1L, "Electrónica", "Productos electrónicos");
+            when(productService.findById(1L)).thenReturn(new ProductResponse(1L, "Laptop", "Desc",
+                    new BigDecimal("1500.00"), 10, categoryResponse));
+
+            byte[] body = mockMvc.perform(get("/api/products/{id}", 1L).accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                    .andReturn().getResponse().getContentAsByteArray();
+            mockMvc.perform(get("/api/products/{id}", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.name").value("Laptop"));
+
+            ProductResponse decoded = CBORMapper.builder().build().readValue(body, ProductResponse.class);
+            assertEquals("Laptop", decoded.name());
+        }
+
         @Test
         @DisplayName("Should return 404 when product not found")
         void getById_ShouldReturn404() throws Exception {
@@ -280,6 +353,39 @@ public class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/products/{id}/stock")
+    class GetStock {
+        @Test
+        @DisplayName("Should return stock summary when product exists")
+        void getStock_ShouldReturnProductStockResponse() throws Exception {
+            //Given
+            ProductStockResponse response = new ProductStockResponse(1L, 12, 12, 2, null);
+
+            //When
+            when(productService.getStock(1L)).thenReturn(response);
+
+            //Then
+            mockMvc.perform(get("/api/products/{id}/stock", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.productId").value(1L))
+                    .andExpect(jsonPath("$.qtyAvailable").value(12))
+                    .andExpect(jsonPath("$.batchCount").value(2));
+        }
+
+        @Test
+        @DisplayName("Should return 404 when product not found")
+        void getStock_ShouldReturn404() throws Exception {
+            //When
+            when(productService.getStock(99L)).thenThrow(new EntityNotFoundException("Producto no encontrado"));
+
+            //Then
+            mockMvc.perform(get("/api/products/{id}/stock", 99L))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.detail").value("Producto no encontrado"));
+        }
+    }
+
     @Nested
     @DisplayName("PUT /api/products/{id}")
     class UpdateTests {
@@ -0,0 +1,669 @@
+package com.christn.salesinventoryapi.controller;
+
+import com.christn.salesinventoryapi.config.SecondLevelCacheConfig;
+import com.christn.salesinventoryapi.config.SecurityTestConfig;
+import com.christn.salesinventoryapi.model.Role;
+import com.christn.salesinventoryapi.model.Supplier;
+import com.christn.salesinventoryapi.model.User;
+import com.christn.salesinventoryapi.repository.SupplierRepository;
+import com.christn.salesinventoryapi.repository.UserRepository;
+import com.christn.salesinventoryapi.support.QueryCount;
+import com.christn.salesinventoryapi.support.QueryCountDriver;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint, de punta a punta (controlador, servicio, repositorios, H2).
+ * Cada prueba falla si el endpoint ejecuta más sentencias que su presupuesto o repite la misma SELECT
+ * por elemento (N+1). Solo se cuenta el hilo de la petición: el trabajo en segundo plano (exportaciones,
+ * post-batch en paralelo) queda fuera. Las colecciones del fixture tienen al menos 3 elementos para que un
+ * N+1 se note.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + QueryCountDriver.PREFIX + "h2:mem:query_budget_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=com.christn.salesinventoryapi.support.QueryCountDriver",
+        "app.alerts.scan-enabled=false"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Query budget per endpoint")
+public class QueryBudgetTest {
+
+    private static final String PASSWORD = "secret-password";
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JsonMapper jsonMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SupplierRepository supplierRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User admin;
+    private Long supplierId;
+    private Long categoryId;
+    private List<Long> products;
+    private Long customerId;
+    private Long postedSaleId;
+
+    @BeforeAll
+    void seed() throws Exception {
+        admin = userRepository.save(User.builder()
+                .email("budget-admin@example.com")
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .roles(Set.of(Role.ADMIN))
+                .build());
+        SecurityTestConfig.authenticateAs(admin.getId(), admin.getEmail(), "ADMIN");
+
+        Supplier supplier = new Supplier();
+        supplier.setName("Proveedor presupuesto");
+        supplierId = supplierRepository.save(supplier).getId();
+
+        // 3 categorías intercaladas: un lazy-load de categoría por producto aparece como N+1
+        List<Long> categories = List.of(createCategory(), createCategory(), createCategory());
+        categoryId = categories.getFirst();
+        products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) products.add(createProduct(categories.get(i % 3)));
+        postPurchase(createPurchase(products, 100));
+
+        for (int i = 0; i < 3; i++) customerId = createCustomer();
+        for (int i = 0; i < 3; i++) postedSaleId = postSale(createSale(products.subList(0, 3)));
+    }
+
+    @BeforeEach
+    void authenticate() {
+        SecurityTestConfig.authenticateAs(admin.getId(), admin.getEmail(), "ADMIN");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Helpers
+
+    private JsonNode budget(int maxStatements, MockHttpServletRequestBuilder request) throws Exception {
+        try (QueryCount.Recording sql = QueryCount.start()) {
+            String body = mockMvc.perform(request)
+                    .andExpect(status().is2xxSuccessful())
+                    .andReturn().getResponse().getContentAsString();
+            sql.assertAtMost(maxStatements).assertNoNPlusOne();
+            return body.isBlank() || !body.startsWith("{") && !body.startsWith("[") ? null : jsonMapper.readTree(body);
+        }
+    }
+
+    private JsonNode call(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return body.isBlank() ? null : jsonMapper.readTree(body);
+    }
+
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) {
+        return request.contentType(MediaType.APPLICATION_JSON).content(jsonMapper.writeValueAsString(body));
+    }
+
+    private Long createCategory() throws Exception {
+        return call(json(post("/api/categories"), Map.of("name", "Categoría " + SEQ.incrementAndGet())))
+                .get("id").asLong();
+    }
+
+    private Long createProduct(Long categoryId) throws Exception {
+        return call(json(post("/api/products"), Map.of(
+                "name", "Producto " + SEQ.incrementAndGet(),
+                "price", "10.00",
+                "stock", 0,
+                "categoryId", categoryId))).get("id").asLong();
+    }
+
+    private Long createCustomer() throws Exception {
+        int n = SEQ.incrementAndGet();
+        return call(json(post("/api/customers"), Map.of(
+                "fullName", "Cliente " + n,
+                "email", "cliente" + n + "@example.com"))).get("id").asLong();
+    }
+
+    private Map<String, Object> purchaseRequest(List<Long> productIds, int quantity) {
+        return Map.of(
+                "supplierId", supplierId,
+                "documentType", "INVOICE",
+                "documentNumber", "F-" + SEQ.incrementAndGet(),
+                "items", productIds.stream()
+                        .map(id -> Map.of("productId", id, "unitCost", "4.00", "quantity", quantity))
+                        .toList());
+    }
+
+    private JsonNode createPurchase(List<Long> productIds, int quantity) throws Exception {
+        return call(json(post("/api/purchases"), purchaseRequest(productIds, quantity)));
+    }
+
+    private Map<String, Object> postPurchaseRequest(JsonNode purchase) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        purchase.get("items").forEach(item -> items.add(Map.of("purchaseItemId", item.get("id").asLong())));
+        return Map.of("items", items);
+    }
+
+    private Long postPurchase(JsonNode purchase) throws Exception {
+        Long id = purchase.get("id").asLong();
+        call(json(post("/api/purchases/{id}/post", id), postPurchaseRequest(purchase)));
+        return id;
+    }
+
+    private Map<String, Object> saleRequest(List<Long> productIds) {
+        return Map.of(
+                "customerId", customerId,
+                "details", productIds.stream().map(id -> Map.of("productId", id, "quantity", 1)).toList());
+    }
+
+    private Long createSale(List<Long> productIds) throws Exception {
+        return call(json(post("/api/sales"), saleRequest(productIds))).get("id").asLong();
+    }
+
+    private Long postSale(Long saleId) throws Exception {
+        call(post("/api/sales/{id}/post", saleId));
+        return saleId;
+    }
+
+    private JsonNode login() throws Exception {
+        return call(json(post("/api/auth/login"), Map.of("email", admin.getEmail(), "password", PASSWORD)));
+    }
+
+    private static String ndjson(List<Long> productIds) {
+        return productIds.stream()
+                .map(id -> "{\"productId\":" + id + ",\"unitCost\":3.50,\"quantity\":10}")
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Nested
+    @DisplayName("/api/categories")
+    class Categories {
+
+        @Test
+        void create() throws Exception {
+            budget(2, json(post("/api/categories"), Map.of("name", "Categoría " + SEQ.incrementAndGet())));
+        }
+
+        @Test
+        void findAll() throws Exception {
+            budget(1, get("/api/categories"));
+        }
+
+        @Test
+        void findById() throws Exception {
+            budget(1, get("/api/categories/{id}", categoryId));
+        }
+
+        @Test
+        void update() throws Exception {
+            Long id = createCategory();
+            budget(3, json(put("/api/categories/{id}", id), Map.of("name", "Renombrada " + SEQ.incrementAndGet())));
+        }
+
+        @Test
+        void deleteAndRestore() throws Exception {
+            Long id = createCategory();
+            budget(2, delete("/api/categories/{id}", id));
+            budget(2, put("/api/categories/{id}/restore", id));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/customers")
+    class Customers {
+
+        @Test
+        void create() throws Exception {
+            int n = SEQ.incrementAndGet();
+            budget(2, json(post("/api/customers"), Map.of("fullName", "Cliente " + n, "email", "c" + n + "@example.com")));
+        }
+
+        @Test
+        void findAll() throws Exception {
+            budget(1, get("/api/customers"));
+        }
+
+        @Test
+        void findById() throws Exception {
+            budget(1, get("/api/customers/{id}", customerId));
+        }
+
+        @Test
+        void update() throws Exception {
+            Long id = createCustomer();
+            int n = SEQ.incrementAndGet();
+            budget(3, json(put("/api/customers/{id}", id), Map.of("fullName", "Cliente " + n, "email", "u" + n + "@example.com")));
+        }
+
+        @Test
+        void deleteAndRestore() throws Exception {
+            Long id = createCustomer();
+            budget(2, delete("/api/customers/{id}", id));
+            budget(2, put("/api/customers/{id}/restore", id));
+        }
+
+        @Test
+        void search() throws Exception {
+            budget(1, get("/api/customers/search").param("name", "Cliente"));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/products")
+    class Products {
+
+        @Test
+        void create() throws Exception {
+            budget(3, json(post("/api/products"), Map.of(
+                    "name", "Producto " + SEQ.incrementAndGet(), "price", "5.00", "stock", 0, "categoryId", categoryId)));
+        }
+
+        @Test
+        void findAll() throws Exception {
+            budget(1, get("/api/products"));
+        }
+
+        @Test
+        void findByCategoryId() throws Exception {
+            budget(2, get("/api/products/category/{categoryId}", categoryId));
+        }
+
+        @Test
+        void findById() throws Exception {
+            budget(2, get("/api/products/{id}", products.getFirst()));
+        }
+
+        @Test
+        void getStock() throws Exception {
+            budget(2, get("/api/products/{id}/stock", products.getFirst()));
+        }
+
+        @Test
+        void update() throws Exception {
+            Long id = createProduct(categoryId);
+            budget(4, json(put("/api/products/{id}", id), Map.of(
+                    "name", "Renombrado " + SEQ.incrementAndGet(), "price", "6.00", "stock", 0, "categoryId", categoryId)));
+        }
+
+        @Test
+        void deleteAndRestore() throws Exception {
+            Long id = createProduct(categoryId);
+            budget(2, delete("/api/products/{id}", id));
+            budget(1, put("/api/products/{id}/restore", id));
+        }
+
+        @Test
+        void search() throws Exception {
+            budget(1, get("/api/products/search").param("categoryId", categoryId.toString()));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/sales")
+    class Sales {
+
+        @Test
+        void createDraft() throws Exception {
+            budget(6, json(post("/api/sales"), saleRequest(products.subList(0, 3))));
+        }
+
+        @Test
+        void post3Lines() throws Exception {
+            Long id = createSale(products.subList(0, 3));
+            // incluye los 2 UPDATE de rollups (producto en batch y vendedor); las filas del día ya las creó el seed
+            budget(21, post("/api/sales/{id}/post", id));
+        }
+
+        @Test
+        @DisplayName("postSale with 20 lines stays within its budget and without N+1")
+        void post20Lines() throws Exception {
+            Long id = createSale(products);
+            try (QueryCount.Recording sql = QueryCount.start()) {
+                mockMvc.perform(post("/api/sales/{id}/post", id)).andExpect(status().isOk());
+                // las lecturas no crecen con las líneas; las escrituras son una por fila (IDENTITY, dynamic update),
+                // más hasta 4 de rollups si los productos aún no tienen fila del día (UPDATE, INSERT, UPDATE y vendedor)
+                sql.assertSelectsAtMost(5).assertAtMost(74).assertNoNPlusOne();
+            }
+        }
+
+        @Test
+        void complete() throws Exception {
+            Long id = postSale(createSale(products.subList(0, 3)));
+            call(json(post("/api/sales/{saleId}/payments", id), Map.of("amount", "30.00", "method", "CASH", "reference", "R-1")));
+            budget(5, post("/api/sales/{id}/complete", id));
+        }
+
+        @Test
+        void voidSale() throws Exception {
+            Long id = postSale(createSale(products.subList(0, 3)));
+            budget(18, json(post("/api/sales/{id}/void", id), Map.of("reason", "Error de caja")));
+        }
+
+        @Test
+        void getById() throws Exception {
+            budget(2, get("/api/sales/{id}", postedSaleId));
+        }
+
+        @Test
+        void search() throws Exception {
+            budget(1, get("/api/sales/search").param("customerId", customerId.toString()));
+        }
+
+        @Test
+        void addPayment() throws Exception {
+            Long id = postSale(createSale(products.subList(0, 3)));
+            budget(4, json(post("/api/sales/{saleId}/payments", id), Map.of("amount", "10.00", "method", "CASH", "reference", "R-2")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Second-level cache")
+    class SecondLevelCache {
+
+        private Map<String, Object> saleFor(Long customer) {
+            return Map.of(
+                    "customerId", customer,
+                    "details", List.of(Map.of("productId", products.getFirst(), "quantity", 1)));
+        }
+
+        private long customerSelects(QueryCount.Recording sql) {
+            return sql.statements().stream()
+                    .filter(s -> s.startsWith("select") && s.contains(" from customers "))
+                    .count();
+        }
+
+        @Test
+        @DisplayName("A second sale for the same customer should not select the customer again")
+        void secondSale_hitsCache() throws Exception {
+            Long customer = createCustomer();
+            call(json(post("/api/sales"), saleFor(customer)));
+
+            try (QueryCount.Recording sql = QueryCount.start()) {
+                call(json(post("/api/sales"), saleFor(customer)));
+                assertThat(customerSelects(sql)).isZero();
+            }
+            assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                    .tag("region", SecondLevelCacheConfig.CUSTOMERS).tag("result", "hit")
+                    .functionCounter().count()).isPositive();
+        }
+
+        @Test
+        @DisplayName("Soft delete and restore should invalidate the cached customer lookup")
+        void softDeleteAndRestore_invalidateCache() throws Exception {
+            Long customer = createCustomer();
+            call(json(post("/api/sales"), saleFor(customer)));
+
+            call(delete("/api/customers/{id}", customer));
+            mockMvc.perform(json(post("/api/sales"), saleFor(customer))).andExpect(status().isNotFound());
+
+            call(put("/api/customers/{id}/restore", customer));
+            call(json(post("/api/sales"), saleFor(customer)));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/purchases")
+    class Purchases {
+
+        @Test
+        void createDraft() throws Exception {
+            budget(6, json(post("/api/purchases"), purchaseRequest(products.subList(0, 3), 5)));
+        }
+
+        @Test
+        void postDraft() throws Exception {
+            JsonNode purchase = createPurchase(products.subList(0, 3), 5);
+            budget(20, json(post("/api/purchases/{id}/post", purchase.get("id").asLong()), postPurchaseRequest(purchase)));
+        }
+
+        @Test
+        void postBatch() throws Exception {
+            List<Map<String, Object>> entries = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                entries.add(Map.of("purchaseId", createPurchase(products.subList(i, i + 3), 5).get("id").asLong()));
+            }
+            budget(1, json(post("/api/purchases/post-batch"), Map.of("purchases", entries)));
+        }
+
+        @Test
+        void getById() throws Exception {
+            Long id = postPurchase(createPurchase(products.subList(0, 3), 5));
+            budget(3, get("/api/purchases/{id}", id));
+        }
+
+        @Test
+        void voidPosted() throws Exception {
+            Long id = postPurchase(createPurchase(products.subList(0, 3), 5));
+            budget(21, json(post("/api/purchases/{id}/void", id), Map.of("reason", "Devolución")));
+        }
+
+        @Test
+        void importAndProgress() throws Exception {
+            String importId = "imp-" + SEQ.incrementAndGet();
+            budget(21, post("/api/purchases/import")
+                    .param("importId", importId)
+                    .param("supplierId", supplierId.toString())
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .content(ndjson(products.subList(0, 3))));
+            budget(0, get("/api/purchases/import/{importId}", importId));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/reorder")
+    class Reorder {
+
+        @Test
+        void suggestions() throws Exception {
+            budget(2, get("/api/reorder/suggestions"));
+        }
+
+        @Test
+        void drafts() throws Exception {
+            budget(2, post("/api/reorder/drafts"));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/stock-alerts")
+    class StockAlerts {
+
+        @Test
+        void search() throws Exception {
+            budget(1, get("/api/stock-alerts"));
+        }
+
+        @Test
+        void scanAndRecentScans() throws Exception {
+            budget(5, post("/api/stock-alerts/scan"));
+            budget(1, get("/api/stock-alerts/scans"));
+        }
+
+        @Test
+        void updateReorderPoint() throws Exception {
+            budget(2, json(put("/api/stock-alerts/products/{productId}/reorder-point", products.getLast()),
+                    Map.of("reorderPoint", 10)));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/dashboard")
+    class Dashboard {
+
+        @Test
+        void topProducts() throws Exception {
+            budget(0, get("/api/dashboard/top-products"));
+        }
+
+        @Test
+        void hourlyRevenue() throws Exception {
+            budget(0, get("/api/dashboard/hourly-revenue"));
+        }
+
+        @Test
+        void cache() throws Exception {
+            budget(0, get("/api/dashboard/cache"));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/reports/sales")
+    class Reports {
+
+        @Test
+        void daily() throws Exception {
+            budget(1, get("/api/reports/sales/daily"));
+        }
+
+        @Test
+        void byProduct() throws Exception {
+            budget(1, get("/api/reports/sales/by-product"));
+        }
+
+        @Test
+        void byCategory() throws Exception {
+            budget(1, get("/api/reports/sales/by-category"));
+        }
+
+        @Test
+        void bySeller() throws Exception {
+            budget(1, get("/api/reports/sales/by-seller"));
+        }
+
+        @Test
+        void rebuildRollups() throws Exception {
+            LocalDate today = LocalDate.now();
+            budget(4, post("/api/reports/sales/rollups/rebuild")
+                    .param("from", today.minusDays(1).toString())
+                    .param("to", today.toString()));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/outbox")
+    class Outbox {
+
+        @Test
+        void status() throws Exception {
+            budget(1, get("/api/outbox/status"));
+        }
+
+        @Test
+        void relay() throws Exception {
+            budget(5, post("/api/outbox/relay"));
+        }
+
+        @Test
+        void requeueParked() throws Exception {
+            budget(2, post("/api/outbox/parked/requeue"));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/auth")
+    class Auth {
+
+        @Test
+        void loginRefreshAndLogout() throws Exception {
+            budget(2, json(post("/api/auth/login"), Map.of("email", admin.getEmail(), "password", PASSWORD)));
+            JsonNode refreshed = budget(4, json(post("/api/auth/refresh"), Map.of("refreshToken", login().get("refreshToken").asString())));
+            budget(1, json(post("/api/auth/logout"), Map.of("refreshToken", refreshed.get("refreshToken").asString())));
+        }
+
+        @Test
+        void logoutAll() throws Exception {
+            login();
+            budget(1, post("/api/auth/logout-all"));
+        }
+
+        @Test
+        void me() throws Exception {
+            budget(0, get("/api/auth/me"));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/auth/users")
+    class AdminUsers {
+
+        @Test
+        void createFindUpdateSearch() throws Exception {
+            int n = SEQ.incrementAndGet();
+            JsonNode user = budget(3, json(post("/api/auth/users"), Map.of(
+                    "email", "user" + n + "@example.com", "password", PASSWORD, "roles", List.of("SELLER"))));
+            Long id = user.get("id").asLong();
+            budget(1, get("/api/auth/users/{id}", id));
+            budget(3, json(put("/api/auth/users/{id}", id), Map.of("roles", List.of("SELLER", "WAREHOUSE"))));
+            budget(1, get("/api/auth/users/search"));
+        }
+    }
+
+    @Nested
+    @DisplayName("/api/exports")
+    class Exports {
+
+        @Test
+        void exportJobAndDownload() throws Exception {
+            budget(0, json(post("/api/exports/movements"), Map.of(
+                    "from", LocalDateTime.now().minusDays(1).toString(), "to", LocalDateTime.now().plusDays(1).toString())));
+            JsonNode job = budget(0, json(post("/api/exports/sales"), Map.of()));
+            String jobId = job.get("id").asString();
+            for (int i = 0; i < 100 && !"DONE".equals(call(get("/api/exports/{jobId}", jobId)).get("status").asString()); i++) {
+                Thread.sleep(50);
+            }
+            budget(0, get("/api/exports/{jobId}", jobId));
+            budget(0, get("/api/exports/{jobId}/download", jobId));
+        }
+    }
+
+    @Nested
+    @DisplayName("Admin status endpoints")
+    class AdminStatus {
+
+        @Test
+        void bulkheads() throws Exception {
+            budget(0, get("/api/bulkheads"));
+        }
+
+        @Test
+        void lockContention() throws Exception {
+            budget(1, get("/api/diagnostics/lock-contention"));
+        }
+
+        @Test
+        void stockStream() throws Exception {
+            budget(0, get("/api/stock/stream").param("categoryId", categoryId.toString()));
+        }
+    }
+}
@@ -30,7 +30,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -63,6 +65,9 @@ public class SaleControllerTest {
     @Autowired
     private JsonMapper jsonMapper;
 
+    @Autowired
+    private CBORMapper cborMapper;
+
     @MockitoBean
     private SaleService saleService;
 
@@ -172,6 +177,55 @@ public class SaleControllerTest {
 
             verify(saleService, never()).createDraft(any());
         }
+
+        @Test
+        @DisplayName("Should read and answer CBOR when the client asks for it")
+        void createDraft_shouldRoundTripCbor() throws Exception {
+            //Given
+            SaleResponse response = new SaleResponse(10L, LocalDateTime.now(), SaleStatus.DRAFT, 1L, "John Doe",
+                    new BigDecimal("100.00"), LocalDateTime.now(), null, null, null, null, null, null, null, null,
+                    List.of(new SaleDetailLineResponse(1L, 1L, "Producto 1", 2, new BigDecimal("50"),
+                            new BigDecimal("100.00"))));
+            when(saleService.createDraft(any())).thenReturn(response);
+
+            //When
+            byte[] body = mockMvc.perform(post("/api/sales")
+                            .contentType(MediaType.APPLICATION_CBOR)
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .content(cborMapper.writeValueAsBytes(req(1L, validDetails())))
+                    )
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            //Then
+            SaleResponse decoded = cborMapper.readValue(body, SaleResponse.class);
+            assertEquals(10L, decoded.id());
+            assertEquals(0, new BigDecimal("100.00").compareTo(decoded.totalAmount()));
+            assertEquals(1L, decoded.details().getFirst().productId());
+            verify(saleService).createDraft(req(1L, validDetails()));
+        }
+
+        @Test
+        @DisplayName("Should apply the same validation to CBOR bodies and answer the ApiError in CBOR")
+        void createDraft_shouldReturn400InCbor_whenInvalidCborRequest() throws Exception {
+            //When
+            byte[] body = mockMvc.perform(post("/api/sales")
+                            .contentType(MediaType.APPLICATION_CBOR)
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .content(cborMapper.writeValueAsBytes(req(null, validDetails())))
+                    )
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            //Then
+            JsonNode error = cborMapper.readTree(body);
+            assertEquals(400, error.get("status").asInt());
+            assertEquals("/api/sales", error.get("instance").asString());
+            assertNotNull(error.get("detail"));
+            verify(saleService, never()).createDraft(any());
+        }
     }
 
     @Nested
@@ -290,7 +344,7 @@ public class SaleControllerTest {
         @DisplayName("GET /api/sales/search should bind params and apply default pageable sort saleDate DESC")
         void search_bindsParams_andAppliesDefaultPageableSort() throws Exception {
             // Given
-            when(saleService.search(any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+            when(saleService.search(any(), any(), any(), any(), any(), any(), any(Pageable.class), anyBoolean()))
                     .thenReturn(PageResponse.from(Page.empty()));
 
             // When
@@ -320,7 +374,8 @@ public class SaleControllerTest {
                     minCaptor.capture(),
                     maxCaptor.capture(),
                     statusCaptor.capture(),
-                    pageableCaptor.capture()
+                    pageableCaptor.capture(),
+                    eq(false)
             );
 
             assertEquals(1L, customerIdCaptor.getValue());
@@ -339,6 +394,21 @@ public class SaleControllerTest {
             assertEquals(Sort.Direction.DESC, order.getDirection());
         }
 
+        @Test
+        @DisplayName("GET /api/sales/search should pass approxCount=true to the service")
+        void search_approxCount_isBound() throws Exception {
+            when(saleService.search(any(), any(), any(), any(), any(), any(), any(Pageable.class), anyBoolean()))
+                    .thenReturn(PageResponse.from(Page.empty()));
+
+            mockMvc.perform(get("/api/sales/search")
+                            .param("approxCount", "true")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            verify(saleService).search(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), any(Pageable.class),
+                    eq(true));
+        }
+
         @Test
         @DisplayName("GET /api/sales/search should return 400 when from has invalid datetime format")
         void search_invalidFromDate_returns400() throws Exception {
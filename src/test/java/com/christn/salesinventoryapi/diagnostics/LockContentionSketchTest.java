@@ -0,0 +1,53 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LockContentionSketch Tests")
+public class LockContentionSketchTest {
+
+    private static final ContendedLock.Resource PRODUCT = ContendedLock.Resource.PRODUCT;
+
+    @Test
+    @DisplayName("Hot products should survive a long tail of one-off contentions")
+    void top_keepsHeavyHitters_withBoundedMemory() {
+        LockContentionSketch sketch = new LockContentionSketch(8);
+
+        for (long i = 0; i < 1_000; i++) {
+            // 3 SKUs calientes intercalados con una cola larga de SKUs que aparecen una sola vez
+            sketch.record(List.of(1L), PRODUCT, 250, false);
+            if (i % 2 == 0) sketch.record(List.of(2L), ContendedLock.Resource.BATCH, 300, false);
+            if (i % 4 == 0) sketch.record(List.of(3L), PRODUCT, 400, true);
+            sketch.record(List.of(10_000 + i), PRODUCT, 200, false);
+        }
+
+        List<LockContentionSketch.Entry> top = sketch.top(10);
+        assertThat(top).hasSize(8);
+        assertThat(top.subList(0, 3)).extracting(LockContentionSketch.Entry::productId).containsExactly(1L, 2L, 3L);
+        // la cuenta nunca subestima: real + error acotado
+        assertThat(top.getFirst().count()).isGreaterThanOrEqualTo(1_000);
+        assertThat(top.getFirst().count() - top.getFirst().overestimate()).isLessThanOrEqualTo(1_000);
+        assertThat(top.get(1).lastResource()).isEqualTo(ContendedLock.Resource.BATCH);
+        assertThat(top.get(2).failures()).isEqualTo(250);
+        assertThat(top.get(2).maxWaitMs()).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("Should count every product of a multi-product lock")
+    void record_multipleProducts() {
+        LockContentionSketch sketch = new LockContentionSketch(4);
+
+        sketch.record(List.of(5L, 6L), PRODUCT, 220, false);
+        sketch.record(List.of(6L), PRODUCT, 900, true);
+
+        List<LockContentionSketch.Entry> top = sketch.top(2);
+        assertThat(top).extracting(LockContentionSketch.Entry::productId).containsExactly(6L, 5L);
+        assertThat(top.getFirst().count()).isEqualTo(2);
+        assertThat(top.getFirst().overestimate()).isZero();
+        assertThat(top.getFirst().maxWaitMs()).isEqualTo(900);
+    }
+}
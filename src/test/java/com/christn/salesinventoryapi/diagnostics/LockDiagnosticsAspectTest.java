@@ -0,0 +1,130 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import com.christn.salesinventoryapi.model.Category;
+import com.christn.salesinventoryapi.model.Product;
+import com.christn.salesinventoryapi.repository.CategoryRepository;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+// Dos transacciones reales sobre H2: una retiene el FOR UPDATE del producto y la otra agota el lock timeout
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(LockDiagnosticsAspectTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("LockDiagnosticsAspect Tests")
+public class LockDiagnosticsAspectTest {
+
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    @Import({LockDiagnosticsAspect.class, LockContentionSketch.class})
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private LockContentionSketch sketch;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 300");
+        Category category = new Category();
+        category.setName("Bebidas");
+        category = categoryRepository.save(category);
+
+        product = new Product();
+        product.setName("Agua 500ml");
+        product.setPrice(new BigDecimal("1.50"));
+        product.setStock(10);
+        product.setCategory(category);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 1000");
+    }
+
+    @Test
+    @DisplayName("A lock timeout on FOR UPDATE should be classified and recorded for the product")
+    void lockTimeout_isClassifiedAndRecorded() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Long> ids = List.of(product.getId());
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<?> holder = executor.submit(() -> tx.executeWithoutResult(status -> {
+                productRepository.findByIdInForUpdate(ids);
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            locked.await();
+
+            Throwable thrown = catchThrowable(() ->
+                    tx.executeWithoutResult(status -> productRepository.findByIdInForUpdate(ids)));
+
+            release.countDown();
+            holder.get();
+
+            assertThat(LockFailure.classify(thrown)).isEqualTo(LockFailure.LOCK_TIMEOUT);
+        }
+
+        List<LockContentionSketch.Entry> top = sketch.top(10);
+        assertThat(top).hasSize(1);
+        assertThat(top.getFirst().productId()).isEqualTo(product.getId());
+        assertThat(top.getFirst().failures()).isEqualTo(1);
+        assertThat(top.getFirst().lastResource()).isEqualTo(ContendedLock.Resource.PRODUCT);
+        assertThat(meterRegistry.get("db.lock.contended").tag("outcome", "lock_timeout").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("db.lock.wait").tag("resource", "product").timer().count())
+                .isEqualTo(1);
+    }
+}
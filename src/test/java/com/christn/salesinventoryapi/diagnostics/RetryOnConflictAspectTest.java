@@ -0,0 +1,137 @@
+package com.christn.salesinventoryapi.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RetryOnConflictAspect Tests")
+public class RetryOnConflictAspectTest {
+
+    static class Posting {
+        final AtomicInteger calls = new AtomicInteger();
+        int conflictsBeforeSuccess;
+        RuntimeException failure = deadlock();
+
+        @RetryOnConflict("sale.post")
+        public String post() {
+            if (calls.incrementAndGet() <= conflictsBeforeSuccess) throw failure;
+            return "ok";
+        }
+    }
+
+    private MeterRegistry meterRegistry;
+    private Posting target;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new Posting();
+    }
+
+    private Posting proxy(int maxAttempts, int budgetMaxTokens) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new RetryOnConflictAspect(meterRegistry, maxAttempts, 1, 2, 0.1, budgetMaxTokens));
+        return factory.getProxy();
+    }
+
+    private static RuntimeException deadlock() {
+        return new PessimisticLockingFailureException("deadlock",
+                new SQLException("deadlock detected", "40P01"));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("db.lock.retry.outcome").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should retry deadlocks and report success after retry")
+    void deadlock_isRetried_untilSuccess() {
+        target.conflictsBeforeSuccess = 2;
+
+        assertThat(proxy(3, 20).post()).isEqualTo("ok");
+
+        assertThat(target.calls).hasValue(3);
+        assertThat(meterRegistry.get("db.lock.retry").tags("operation", "sale.post", "failure", "deadlock")
+                .counter().count()).isEqualTo(2);
+        assertThat(outcome("recovered")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give up after max attempts and rethrow the conflict")
+    void deadlock_exhaustsAttempts() {
+        target.conflictsBeforeSuccess = Integer.MAX_VALUE;
+
+        assertThatThrownBy(() -> proxy(3, 20).post()).isInstanceOf(PessimisticLockingFailureException.class);
+
+        assertThat(target.calls).hasValue(3);
+        assertThat(outcome("exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not retry lock timeouts")
+    void lockTimeout_isNotRetried() {
+        target.conflictsBeforeSuccess = 1;
+        target.failure = new CannotAcquireLockException("lock timeout",
+                new SQLException("canceling statement due to lock timeout", "55P03"));
+
+        assertThatThrownBy(() -> proxy(3, 20).post()).isInstanceOf(CannotAcquireLockException.class);
+
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should stop retrying when the retry budget is spent")
+    void budget_limitsRetries() {
+        target.conflictsBeforeSuccess = Integer.MAX_VALUE;
+        Posting posting = proxy(3, 1);
+
+        // el bucket arranca con 1 token (+0.1 por llamada): la primera llamada reintenta una vez
+        assertThatThrownBy(posting::post).isInstanceOf(PessimisticLockingFailureException.class);
+        assertThat(target.calls).hasValue(2);
+
+        target.calls.set(0);
+        assertThatThrownBy(posting::post).isInstanceOf(PessimisticLockingFailureException.class);
+        assertThat(target.calls).hasValue(1);
+        assertThat(outcome("budget_exhausted")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not retry inside an outer transaction")
+    void nestedInTransaction_isNotRetried() {
+        target.conflictsBeforeSuccess = 1;
+        Posting posting = proxy(3, 20);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(posting::post).isInstanceOf(PessimisticLockingFailureException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertThat(target.calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Backoff should stay within the exponential ceiling")
+    void backoff_isBounded() {
+        RetryOnConflictAspect aspect = new RetryOnConflictAspect(meterRegistry, 5, 10, 50, 0.1, 20);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(aspect.backoffMs(1)).isBetween(0L, 10L);
+            assertThat(aspect.backoffMs(2)).isBetween(0L, 20L);
+            assertThat(aspect.backoffMs(5)).isBetween(0L, 50L);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.christn.salesinventoryapi.event.sink;
+
+import com.christn.salesinventoryapi.event.OutboxMessage;
+import com.christn.salesinventoryapi.model.OutboxAggregateType;
+import com.christn.salesinventoryapi.model.OutboxEventType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Outbox sink Tests")
+class OutboxSinkTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) server.stop(0);
+    }
+
+    // Helpers
+    private static OutboxMessage message(long id, long saleId, OutboxEventType type) {
+        return new OutboxMessage(id, OutboxAggregateType.SALE, saleId, type, LocalDateTime.of(2025, 3, 1, 10, 0),
+                "{\"id\":" + saleId + ",\"status\":\"ACTIVE\"}");
+    }
+
+    // Webhook local: guarda cada body recibido y responde con el status indicado
+    private URI stubWebhook(List<String> bodies, List<String> lastIds, AtomicInteger status) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/events", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            lastIds.add(exchange.getRequestHeaders().getFirst(WebhookOutboxSink.LAST_ID_HEADER));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/events");
+    }
+
+    @Test
+    @DisplayName("File sink should append one NDJSON line per event with the raw payload embedded")
+    void fileSink_appendsNdjson(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("out/events.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(file, jsonMapper);
+
+        sink.publish(List.of(message(1, 10, OutboxEventType.SALE_POSTED)));
+        sink.publish(List.of(message(2, 10, OutboxEventType.SALE_PAYMENT_ADDED),
+                message(3, 10, OutboxEventType.SALE_COMPLETED)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        JsonNode first = jsonMapper.readTree(lines.getFirst());
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("eventType").asString()).isEqualTo("SALE_POSTED");
+        assertThat(first.get("payload").get("status").asString()).isEqualTo("ACTIVE");
+        assertThat(jsonMapper.readTree(lines.getLast()).get("eventType").asString()).isEqualTo("SALE_COMPLETED");
+    }
+
+    @Test
+    @DisplayName("Webhook sink should POST the batch in order and fail the whole batch on non-2xx")
+    void webhookSink_postsBatchAndFailsOnError() throws IOException {
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        List<String> lastIds = new CopyOnWriteArrayList<>();
+        AtomicInteger status = new AtomicInteger(204);
+        WebhookOutboxSink sink = new WebhookOutboxSink(stubWebhook(bodies, lastIds, status), 2000, jsonMapper);
+
+        sink.publish(List.of(message(7, 10, OutboxEventType.SALE_POSTED), message(8, 10, OutboxEventType.SALE_VOIDED)));
+
+        assertThat(bodies).hasSize(1);
+        String[] lines = bodies.getFirst().strip().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(jsonMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(7L);
+        assertThat(jsonMapper.readTree(lines[1]).get("eventType").asString()).isEqualTo("SALE_VOIDED");
+        assertThat(lastIds).containsExactly("8");
+
+        status.set(503);
+        assertThatThrownBy(() -> sink.publish(List.of(message(9, 11, OutboxEventType.SALE_POSTED))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("503");
+    }
+}
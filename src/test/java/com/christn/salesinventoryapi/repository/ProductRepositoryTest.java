@@ -2,6 +2,8 @@ package com.christn.salesinventoryapi.repository;
 
 import com.christn.salesinventoryapi.model.Category;
 import com.christn.salesinventoryapi.model.Product;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -25,6 +27,9 @@ public class ProductRepositoryTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Category createCategory(String name) {
         Category category = new Category();
         category.setName(name);
@@ -63,6 +68,26 @@ public class ProductRepositoryTest {
                 .allMatch(product -> product.getCategory().getId().equals(cat1.getId()));
     }
 
+    @Test
+    @DisplayName("findAllByDeletedFalse should load each product's category in the same query")
+    void findAllByDeletedFalse_ShouldFetchCategory() {
+        // Given
+        Category cat1 = createCategory("Electrónica");
+        Category cat2 = createCategory("Libros");
+        createProduct("Laptop", cat1, false);
+        createProduct("Novela", cat2, false);
+        createProduct("Mouse", cat1, true);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Product> result = productRepository.findAllByDeletedFalse();
+
+        // Then
+        assertThat(result).extracting(Product::getName).containsExactlyInAnyOrder("Laptop", "Novela");
+        assertThat(result).allMatch(product -> Hibernate.isInitialized(product.getCategory()));
+    }
+
     @Test
     @DisplayName("existsByNameAndDeletedFalse should return true only for active products")
     void existsByNameAndDeletedFalse_shouldWorkCorrectly() {
@@ -0,0 +1,155 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.dto.mapper.PurchaseMapper;
+import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.projection.PurchaseBatchView;
+import com.christn.salesinventoryapi.repository.projection.PurchaseHeaderView;
+import com.christn.salesinventoryapi.repository.projection.PurchaseItemView;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class PurchaseRepositoryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseRepositoryTest.class);
+
+    private static final int ITEMS = 1_000;
+    private static final int BATCHES_PER_ITEM = 5;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Compra POSTED de ITEMS ítems x BATCHES_PER_ITEM lotes
+    private Long seedLargePurchase() {
+        Category category = new Category();
+        category.setName("Abarrotes");
+        entityManager.persist(category);
+
+        Supplier supplier = new Supplier();
+        supplier.setName("Proveedor Mayorista");
+        entityManager.persist(supplier);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(0);
+            product.setCategory(category);
+            entityManager.persist(product);
+            products.add(product);
+        }
+
+        Purchase purchase = new Purchase();
+        purchase.setPurchaseDate(LocalDateTime.now());
+        purchase.setStatus(PurchaseStatus.POSTED);
+        purchase.setSupplier(supplier);
+        purchase.setTotalAmount(new BigDecimal("50000.00"));
+        entityManager.persist(purchase);
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusMonths(6);
+        for (int i = 0; i < ITEMS; i++) {
+            Product product = products.get(i % products.size());
+
+            PurchaseItem item = new PurchaseItem();
+            item.setPurchase(purchase);
+            item.setProduct(product);
+            item.setQuantity(BATCHES_PER_ITEM * 10);
+            item.setUnitCost(new BigDecimal("1.00"));
+            item.setSubTotal(new BigDecimal("50.00"));
+            entityManager.persist(item);
+
+            for (int b = 0; b < BATCHES_PER_ITEM; b++) {
+                ProductBatch batch = new ProductBatch();
+                batch.setProduct(product);
+                batch.setPurchaseItem(item);
+                batch.setBatchCode("L-" + i + "-" + b);
+                batch.setExpiresAt(expiresAt.plusDays(b));
+                batch.setQtyInitial(10);
+                batch.setQtyAvailable(10);
+                batch.setUnitCost(new BigDecimal("1.00"));
+                entityManager.persist(batch);
+            }
+
+            if (i % 100 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                purchase = entityManager.getReference(Purchase.class, purchase.getId());
+                products.replaceAll(p -> entityManager.getReference(Product.class, p.getId()));
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return purchase.getId();
+    }
+
+    private PurchaseResponse readDetail(Long purchaseId) {
+        PurchaseHeaderView header = purchaseRepository.findHeaderViewById(purchaseId).orElseThrow();
+        List<PurchaseItemView> items = purchaseRepository.findItemViewsByPurchaseId(purchaseId);
+        List<PurchaseBatchView> batches = productBatchRepository.findBatchViewsByPurchaseId(purchaseId);
+        return PurchaseMapper.toResponseDetail(header, items, batches);
+    }
+
+    @Test
+    @DisplayName("Detail projections should read 1k items x 5 batches without hydrating entities")
+    void detailProjections_largePurchase_benchmark() {
+        Long purchaseId = seedLargePurchase();
+
+        // warm-up
+        readDetail(purchaseId);
+        entityManager.clear();
+
+        long started = System.nanoTime();
+        PurchaseResponse response = null;
+        for (int r = 0; r < RUNS; r++) {
+            response = readDetail(purchaseId);
+        }
+        long avgMs = (System.nanoTime() - started) / 1_000_000 / RUNS;
+        log.info("Purchase detail (projections) {} items x {} batches: avg {} ms over {} runs",
+                ITEMS, BATCHES_PER_ITEM, avgMs, RUNS);
+
+        assertThat(response.supplier().name()).isEqualTo("Proveedor Mayorista");
+        assertThat(response.items()).hasSize(ITEMS);
+        assertThat(response.items()).allSatisfy(i -> assertThat(i.batches()).hasSize(BATCHES_PER_ITEM));
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findHeaderViewById should return supplier columns as null when the purchase has no supplier")
+    void findHeaderViewById_withoutSupplier_shouldReturnNullSupplier() {
+        Purchase purchase = new Purchase();
+        purchase.setPurchaseDate(LocalDateTime.now());
+        purchaseRepository.saveAndFlush(purchase);
+        entityManager.clear();
+
+        PurchaseHeaderView header = purchaseRepository.findHeaderViewById(purchase.getId()).orElseThrow();
+
+        assertThat(header.status()).isEqualTo(PurchaseStatus.DRAFT);
+        assertThat(header.supplierId()).isNull();
+        assertThat(PurchaseMapper.toResponseDetail(header, List.of(), List.of()).supplier()).isNull();
+    }
+}
@@ -0,0 +1,105 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.dto.mapper.SaleMapper;
+import com.christn.salesinventoryapi.dto.response.SaleResponse;
+import com.christn.salesinventoryapi.model.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class SaleRepositoryTest {
+
+    private static final int LINES = 100;
+
+    // Lectura anterior (fetch-join sobre entidades administradas), como referencia
+    private static final String ENTITY_DETAIL_QUERY = """
+                SELECT DISTINCT s FROM Sale s
+                LEFT JOIN FETCH s.details d
+                LEFT JOIN FETCH d.product p
+                LEFT JOIN FETCH s.customer c
+                WHERE s.id = :id
+            """;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long seedSale() {
+        Category category = new Category();
+        category.setName("Bebidas");
+        entityManager.persist(category);
+
+        Customer customer = new Customer();
+        customer.setFullName("Cliente Frecuente");
+        customer.setEmail("frecuente@test.com");
+        entityManager.persist(customer);
+
+        Sale sale = new Sale();
+        sale.setSaleDate(LocalDateTime.now());
+        sale.setCustomer(customer);
+        sale.setTotalAmount(new BigDecimal("1000.00"));
+        entityManager.persist(sale);
+
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(100);
+            product.setCategory(category);
+            entityManager.persist(product);
+
+            SaleDetail detail = new SaleDetail();
+            detail.setSale(sale);
+            detail.setProduct(product);
+            detail.setQuantity(1);
+            detail.setUnitPrice(new BigDecimal("10.00"));
+            detail.setSubTotal(new BigDecimal("10.00"));
+            entityManager.persist(detail);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return sale.getId();
+    }
+
+    private SaleResponse readWithProjections(Long saleId) {
+        var header = saleRepository.findHeaderViewById(saleId).orElseThrow();
+        return SaleMapper.toResponse(header, saleRepository.findDetailViewsBySaleId(saleId));
+    }
+
+    private SaleResponse readWithEntities(Long saleId) {
+        Sale sale = entityManager.createQuery(ENTITY_DETAIL_QUERY, Sale.class)
+                .setParameter("id", saleId)
+                .getSingleResult();
+        return SaleMapper.toResponse(sale);
+    }
+
+    @Test
+    @DisplayName("Detail projections should return the same sale without managed entities")
+    void detailProjections_shouldMatchEntityRead() {
+        Long saleId = seedSale();
+
+        SaleResponse projected = readWithProjections(saleId);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+
+        SaleResponse fromEntities = readWithEntities(saleId);
+        entityManager.clear();
+
+        assertThat(projected.details()).hasSize(LINES);
+        assertThat(projected.customerName()).isEqualTo("Cliente Frecuente");
+        assertThat(projected).usingRecursiveComparison().ignoringCollectionOrder().isEqualTo(fromEntities);
+    }
+}
@@ -0,0 +1,156 @@
+package com.christn.salesinventoryapi.repository;
+
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.projection.SalesRollupRow;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class SalesRollupRepositoryTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 3, 2);
+
+    @Autowired
+    private SalesDailyRollupRepository salesDailyRollupRepository;
+
+    @Autowired
+    private SalesDailyProductRollupRepository salesDailyProductRollupRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long sellerId;
+    private Long drinksId;
+
+    private Product product(String name, Category category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(0);
+        product.setCategory(category);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private void productRollup(LocalDate day, Product product, long units, String revenue, String cost) {
+        SalesDailyProductRollup r = new SalesDailyProductRollup();
+        r.setSaleDay(day);
+        r.setProductId(product.getId());
+        r.setUnits(units);
+        r.setRevenue(new BigDecimal(revenue));
+        r.setCost(new BigDecimal(cost));
+        entityManager.persist(r);
+    }
+
+    private void sellerRollup(LocalDate day, Long seller, int sales, long units, String revenue, String cost) {
+        SalesDailyRollup r = new SalesDailyRollup();
+        r.setSaleDay(day);
+        r.setSellerUserId(seller);
+        r.setSaleCount(sales);
+        r.setUnits(units);
+        r.setRevenue(new BigDecimal(revenue));
+        r.setCost(new BigDecimal(cost));
+        entityManager.persist(r);
+    }
+
+    @BeforeEach
+    void seed() {
+        User seller = new User();
+        seller.setEmail("seller@test.com");
+        seller.setPasswordHash("x");
+        seller.setEnabled(true);
+        seller.setCreatedAt(LocalDateTime.now());
+        seller.setRoles(new HashSet<>(Set.of(Role.SELLER)));
+        entityManager.persist(seller);
+        sellerId = seller.getId();
+
+        Category drinks = new Category();
+        drinks.setName("Bebidas");
+        entityManager.persist(drinks);
+        drinksId = drinks.getId();
+
+        Category snacks = new Category();
+        snacks.setName("Snacks");
+        entityManager.persist(snacks);
+
+        Product water = product("Agua", drinks);
+        Product juice = product("Jugo", drinks);
+        Product chips = product("Papas", snacks);
+
+        productRollup(DAY_1, water, 10, "20.00", "12.00");
+        productRollup(DAY_1, chips, 2, "8.00", "5.00");
+        productRollup(DAY_2, water, 5, "10.00", "6.00");
+        productRollup(DAY_2, juice, 4, "16.00", "10.00");
+
+        sellerRollup(DAY_1, sellerId, 3, 12, "28.00", "17.00");
+        sellerRollup(DAY_2, sellerId, 1, 4, "16.00", "10.00");
+        sellerRollup(DAY_2, 0L, 1, 5, "10.00", "6.00");
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("sumByDay should add every seller of the day")
+    void sumByDay_shouldGroupByDay() {
+        List<SalesRollupRow> rows = salesDailyRollupRepository.sumByDay(DAY_1, DAY_2);
+
+        assertThat(rows).extracting(SalesRollupRow::day).containsExactly(DAY_1, DAY_2);
+        assertThat(rows.get(1).saleCount()).isEqualTo(2L);
+        assertThat(rows.get(1).units()).isEqualTo(9L);
+        assertThat(rows.get(1).revenue()).isEqualByComparingTo("26.00");
+        assertThat(rows.get(1).cost()).isEqualByComparingTo("16.00");
+    }
+
+    @Test
+    @DisplayName("sumBySeller should resolve the seller email and keep sales without user")
+    void sumBySeller_shouldIncludeSalesWithoutSeller() {
+        List<SalesRollupRow> rows = salesDailyRollupRepository.sumBySeller(DAY_1, DAY_2);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.getFirst().id()).isEqualTo(sellerId);
+        assertThat(rows.getFirst().label()).isEqualTo("seller@test.com");
+        assertThat(rows.getFirst().saleCount()).isEqualTo(4L);
+        assertThat(rows.get(1).id()).isZero();
+        assertThat(rows.get(1).label()).isNull();
+    }
+
+    @Test
+    @DisplayName("sumByCategory should resolve the category through the product")
+    void sumByCategory_shouldGroupProductsByCategory() {
+        List<SalesRollupRow> rows = salesDailyProductRollupRepository.sumByCategory(DAY_1, DAY_2);
+
+        assertThat(rows).hasSize(2);
+        SalesRollupRow drinks = rows.getFirst();
+        assertThat(drinks.id()).isEqualTo(drinksId);
+        assertThat(drinks.units()).isEqualTo(19L);
+        assertThat(drinks.revenue()).isEqualByComparingTo("46.00");
+        assertThat(drinks.cost()).isEqualByComparingTo("28.00");
+        assertThat(drinks.saleCount()).isNull();
+    }
+
+    @Test
+    @DisplayName("sumByProduct should only include days inside the range")
+    void sumByProduct_shouldRespectRange() {
+        List<SalesRollupRow> rows = salesDailyProductRollupRepository.sumByProduct(DAY_2, DAY_2);
+
+        assertThat(rows).extracting(SalesRollupRow::label).containsExactly("Jugo", "Agua");
+        assertThat(rows.get(1).units()).isEqualTo(5L);
+    }
+}
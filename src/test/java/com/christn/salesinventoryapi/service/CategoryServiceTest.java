@@ -2,6 +2,7 @@ package com.christn.salesinventoryapi.service;
 
 import com.christn.salesinventoryapi.dto.request.CategoryRequest;
 import com.christn.salesinventoryapi.dto.response.CategoryResponse;
+import com.christn.salesinventoryapi.event.CatalogChangedEvent;
 import com.christn.salesinventoryapi.model.Category;
 import com.christn.salesinventoryapi.repository.CategoryRepository;
 import com.christn.salesinventoryapi.service.impl.CategoryServiceImpl;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -30,6 +32,9 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -254,6 +259,7 @@ public class CategoryServiceTest {
             assertThat(category.getDeleted()).isTrue();
             verify(repository).findByIdAndDeletedFalse(1L);
             verify(repository, never()).save(any());
+            verify(eventPublisher).publishEvent(CatalogChangedEvent.categories());
         }
 
         @Test
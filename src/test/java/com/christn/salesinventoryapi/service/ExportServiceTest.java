@@ -0,0 +1,213 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.bulkhead.BulkheadContext;
+import com.christn.salesinventoryapi.dto.request.MovementExportRequest;
+import com.christn.salesinventoryapi.dto.response.ExportJobResponse;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.CategoryRepository;
+import com.christn.salesinventoryapi.repository.InventoryMovementRepository;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.service.impl.ExportCursorReader;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Exportaciones de punta a punta contra H2, con un solo worker para que el orden QUEUED → RUNNING → DONE
+ * sea observable.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.alerts.scan-enabled=false",
+        "app.export.workers=1",
+        "app.export.dir=target/export-test"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("ExportService Tests")
+public class ExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.now().minusDays(1);
+    private static final LocalDateTime TO = LocalDateTime.now().plusDays(1);
+
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+    @MockitoSpyBean
+    private ExportCursorReader exportCursorReader;
+
+    private Product formula;
+    private Product plain;
+
+    @BeforeAll
+    void seed() {
+        Category category = new Category();
+        category.setName("Exportables");
+        categoryRepository.save(category);
+        // nombre que Excel tomaría como fórmula, y otro con coma
+        formula = productRepository.save(product("=SUMA(A1)", category));
+        plain = productRepository.save(product("Arroz, 5 kg", category));
+
+        for (int i = 1; i <= 3; i++) {
+            InventoryMovement movement = new InventoryMovement();
+            movement.setMovementType(MovementType.IN);
+            movement.setSourceType(SourceType.MANUAL);
+            movement.setEventType(InventoryEventType.PURCHASE_IN);
+            movement.addItem(item(formula, i, 0));
+            movement.addItem(item(plain, i * 10, 5));
+            inventoryMovementRepository.save(movement);
+        }
+    }
+
+    // Helpers
+    private static Product product(String name, Category category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(0);
+        product.setCategory(category);
+        return product;
+    }
+
+    private static InventoryMovementItem item(Product product, int quantity, int previousStock) {
+        InventoryMovementItem item = new InventoryMovementItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPreviousStock(previousStock);
+        item.setNewStock(previousStock + quantity);
+        return item;
+    }
+
+    private ExportJobResponse awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ExportJobResponse job = exportService.getJob(jobId);
+        while (job.finishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = exportService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private static List<String> gunzipLines(Path file) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream every movement line to a gzipped CSV with escaped cells")
+    void submitMovements_ShouldWriteGzippedCsv() throws Exception {
+        ExportJobResponse submitted = exportService.submitMovements(new MovementExportRequest(FROM, TO, null));
+
+        ExportJobResponse done = awaitFinished(submitted.id());
+
+        assertThat(done.status()).isEqualTo(ExportStatus.DONE);
+        assertThat(done.rows()).isEqualTo(6);
+        assertThat(done.sizeBytes()).isPositive();
+        Path file = exportService.getFile(submitted.id());
+        assertThat(file.getFileName().toString()).endsWith(".csv.gz");
+        assertThat(Files.exists(file.resolveSibling(file.getFileName() + ".part"))).isFalse();
+
+        List<String> lines = gunzipLines(file);
+        assertThat(lines).hasSize(7);
+        assertThat(lines.getFirst()).startsWith("movement_id,created_at,movement_type");
+        assertThat(lines).filteredOn(l -> l.contains(",'=SUMA(A1),")).hasSize(3);
+        assertThat(lines).filteredOn(l -> l.contains(",\"Arroz, 5 kg\",")).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should filter by product")
+    void submitMovements_WithProduct_ShouldExportOnlyThatProduct() throws Exception {
+        ExportJobResponse submitted = exportService.submitMovements(new MovementExportRequest(FROM, TO, plain.getId()));
+
+        ExportJobResponse done = awaitFinished(submitted.id());
+
+        assertThat(done.status()).isEqualTo(ExportStatus.DONE);
+        assertThat(gunzipLines(exportService.getFile(submitted.id())))
+                .hasSize(4)
+                .allMatch(l -> l.startsWith("movement_id") || l.contains("Arroz"));
+    }
+
+    @Test
+    @DisplayName("Should queue behind a running job and read inside the export bulkhead and a read-only transaction")
+    void submitMovements_WhileWorkerBusy_ShouldQueueThenRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> bulkhead = new AtomicReference<>();
+        AtomicReference<Boolean> readOnly = new AtomicReference<>();
+        doAnswer(invocation -> {
+            bulkhead.set(BulkheadContext.current());
+            readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(exportCursorReader).query(anyString(), anyList(), any());
+
+        ExportJobResponse first = exportService.submitMovements(new MovementExportRequest(FROM, TO, null));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        ExportJobResponse second = exportService.submitMovements(new MovementExportRequest(FROM, TO, null));
+
+        assertThat(exportService.getJob(first.id()).status()).isEqualTo(ExportStatus.RUNNING);
+        assertThat(second.status()).isEqualTo(ExportStatus.QUEUED);
+        assertThatThrownBy(() -> exportService.getFile(first.id()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("RUNNING");
+
+        release.countDown();
+
+        assertThat(awaitFinished(first.id()).status()).isEqualTo(ExportStatus.DONE);
+        assertThat(awaitFinished(second.id()).status()).isEqualTo(ExportStatus.DONE);
+        assertThat(bulkhead.get()).isEqualTo("export");
+        assertThat(readOnly.get()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should mark the job FAILED and leave no partial file when the query fails")
+    void submitMovements_WhenQueryFails_ShouldFail() throws Exception {
+        doThrow(new IllegalStateException("conexión perdida"))
+                .when(exportCursorReader).query(anyString(), anyList(), any());
+
+        ExportJobResponse submitted = exportService.submitMovements(new MovementExportRequest(FROM, TO, null));
+        ExportJobResponse failed = awaitFinished(submitted.id());
+
+        assertThat(failed.status()).isEqualTo(ExportStatus.FAILED);
+        assertThat(failed.error()).isEqualTo("Error generando la exportación");
+        assertThat(failed.sizeBytes()).isZero();
+        assertThatThrownBy(() -> exportService.getFile(submitted.id()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("FAILED");
+        try (var files = Files.list(Path.of("target/export-test"))) {
+            assertThat(files.map(Path::toString)).noneMatch(name -> name.contains(submitted.id()));
+        }
+    }
+}
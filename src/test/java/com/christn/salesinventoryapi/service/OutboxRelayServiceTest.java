@@ -0,0 +1,162 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.OutboxStatusResponse;
+import com.christn.salesinventoryapi.event.OutboxMessage;
+import com.christn.salesinventoryapi.event.sink.OutboxSink;
+import com.christn.salesinventoryapi.model.OutboxAggregateType;
+import com.christn.salesinventoryapi.model.OutboxEvent;
+import com.christn.salesinventoryapi.model.OutboxEventType;
+import com.christn.salesinventoryapi.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Relay del outbox contra H2 con un sink simulado: orden por agregado, reintentos y aparcado.
+ * Backoff en cero para que cada drain sea un intento.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox_relay_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.alerts.scan-enabled=false",
+        "app.outbox.max-attempts=3",
+        "app.outbox.retry.initial-backoff-ms=0"
+})
+@ActiveProfiles("test")
+@DisplayName("OutboxRelayService Tests")
+public class OutboxRelayServiceTest {
+
+    @Autowired
+    private OutboxRelayService outboxRelayService;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private OutboxSink outboxSink;
+
+    // ids de cada lote entregado al sink, en orden de llamada
+    private final List<List<Long>> deliveries = new CopyOnWriteArrayList<>();
+    // el sink rechaza cualquier lote que contenga este id (0 = acepta todo)
+    private final AtomicLong poisonId = new AtomicLong();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outboxEventRepository.deleteAll();
+        deliveries.clear();
+        poisonId.set(0);
+        doAnswer(inv -> {
+            List<OutboxMessage> batch = inv.getArgument(0);
+            List<Long> ids = batch.stream().map(OutboxMessage::id).toList();
+            deliveries.add(ids);
+            if (ids.contains(poisonId.get())) throw new IOException("payload rechazado");
+            return null;
+        }).when(outboxSink).publish(anyList());
+    }
+
+    // Helpers
+    private Long event(long saleId, OutboxEventType type) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(OutboxAggregateType.SALE);
+        event.setAggregateId(saleId);
+        event.setEventType(type);
+        event.setPayload("{\"id\":" + saleId + "}");
+        event.setCreatedAt(LocalDateTime.now());
+        return outboxEventRepository.save(event).getId();
+    }
+
+    private OutboxEvent reload(Long id) {
+        return outboxEventRepository.findById(id).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should hold back an aggregate whose pending head is locked by another relay")
+    void drain_headLockedElsewhere_keepsAggregateOrder() throws Exception {
+        Long posted = event(1L, OutboxEventType.SALE_POSTED);
+        Long other = event(2L, OutboxEventType.SALE_POSTED);
+        Long voided = event(1L, OutboxEventType.SALE_VOIDED);
+
+        // otra instancia tiene tomada la cabeza del agregado 1
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> relay = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(s -> {
+            jdbcTemplate.queryForList("SELECT id FROM outbox_events WHERE id = ? FOR UPDATE", posted);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        int published = outboxRelayService.drain();
+        release.countDown();
+        relay.get(10, TimeUnit.SECONDS);
+
+        assertThat(published).isEqualTo(1);
+        assertThat(deliveries).containsExactly(List.of(other));
+        assertThat(reload(voided).getPublishedAt()).isNull();
+
+        assertThat(outboxRelayService.drain()).isEqualTo(2);
+        assertThat(deliveries.getLast()).containsExactly(posted, voided);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed event alone and park it after max attempts, holding back its aggregate")
+    void drain_poisonEvent_isolatedAndParked() {
+        Long poison = event(10L, OutboxEventType.SALE_POSTED);
+        Long healthy = event(11L, OutboxEventType.SALE_POSTED);
+        Long follower = event(10L, OutboxEventType.SALE_COMPLETED);
+        poisonId.set(poison);
+
+        // 1er intento en lote: falla completo; los siguientes van solos
+        for (int i = 0; i < 3; i++) assertThat(outboxRelayService.drain()).isZero();
+
+        assertThat(deliveries).containsExactly(List.of(poison, healthy, follower), List.of(poison), List.of(poison));
+        OutboxEvent parked = reload(poison);
+        assertThat(parked.getAttempts()).isEqualTo(3);
+        assertThat(parked.getParkedAt()).isNotNull();
+        assertThat(parked.getLastError()).contains("payload rechazado");
+        assertThat(reload(healthy).getAttempts()).isEqualTo(1);
+
+        // el aparcado ya no se toma; su agregado queda detrás, el resto sigue
+        assertThat(outboxRelayService.drain()).isEqualTo(1);
+        assertThat(deliveries.getLast()).containsExactly(healthy);
+        assertThat(reload(follower).getPublishedAt()).isNull();
+
+        OutboxStatusResponse status = outboxRelayService.status();
+        assertThat(status.pending()).isEqualTo(1);
+        assertThat(status.parked()).isEqualTo(1);
+        assertThat(status.lastError()).contains("payload rechazado");
+
+        // corregido el destino, reencolar entrega el agregado en orden
+        poisonId.set(0);
+        assertThat(outboxRelayService.requeueParked()).isEqualTo(1);
+        assertThat(outboxRelayService.drain()).isEqualTo(2);
+        assertThat(deliveries.getLast()).containsExactly(poison, follower);
+        assertThat(outboxRelayService.status().parked()).isZero();
+        assertThat(outboxRelayService.status().pending()).isZero();
+    }
+}
@@ -2,10 +2,13 @@ package com.christn.salesinventoryapi.service;
 
 import com.christn.salesinventoryapi.dto.request.ProductRequest;
 import com.christn.salesinventoryapi.dto.response.ProductResponse;
+import com.christn.salesinventoryapi.dto.response.ProductStockResponse;
 import com.christn.salesinventoryapi.model.Category;
 import com.christn.salesinventoryapi.model.Product;
+import com.christn.salesinventoryapi.model.ProductStockSummary;
 import com.christn.salesinventoryapi.repository.CategoryRepository;
 import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.repository.ProductStockSummaryRepository;
 import com.christn.salesinventoryapi.service.impl.ProductServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
@@ -15,9 +18,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +41,12 @@ public class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductStockSummaryRepository productStockSummaryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -441,4 +452,65 @@ public class ProductServiceTest {
                     .hasMessage("Producto no encontrado");
         }
     }
+
+    @Nested
+    @DisplayName("Get Stock Tests")
+    class GetStockTests {
+
+        @Test
+        @DisplayName("Should return FEFO availability from the stock summary")
+        void getStock_WithSummary_ShouldReturnSummaryValues() {
+            //Given
+            Category category = createCategory(1L, "Lácteos");
+            Product product = createProduct(1L, "Leche", "Desc", new BigDecimal("4.50"), 30, category);
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(5);
+            ProductStockSummary summary = new ProductStockSummary(1L);
+            summary.setQtyAvailable(30);
+            summary.setBatchCount(3);
+            summary.setEarliestExpiresAt(expiresAt);
+            when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
+            when(productStockSummaryRepository.findById(1L)).thenReturn(Optional.of(summary));
+
+            //When
+            ProductStockResponse response = productService.getStock(1L);
+
+            //Then
+            assertThat(response.productId()).isEqualTo(1L);
+            assertThat(response.stock()).isEqualTo(30);
+            assertThat(response.qtyAvailable()).isEqualTo(30);
+            assertThat(response.batchCount()).isEqualTo(3);
+            assertThat(response.earliestExpiresAt()).isEqualTo(expiresAt);
+        }
+
+        @Test
+        @DisplayName("Should return zero availability when product has no summary")
+        void getStock_WithoutSummary_ShouldReturnZero() {
+            //Given
+            Category category = createCategory(1L, "Lácteos");
+            Product product = createProduct(2L, "Yogurt", "Desc", new BigDecimal("3.00"), 0, category);
+            when(productRepository.findByIdAndDeletedFalse(2L)).thenReturn(Optional.of(product));
+            when(productStockSummaryRepository.findById(2L)).thenReturn(Optional.empty());
+
+            //When
+            ProductStockResponse response = productService.getStock(2L);
+
+            //Then
+            assertThat(response.qtyAvailable()).isZero();
+            assertThat(response.batchCount()).isZero();
+            assertThat(response.earliestExpiresAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should throw EntityNotFoundException when product does not exist")
+        void getStock_WithNonExistingId_ShouldThrowEntityNotFoundException() {
+            //Given
+            when(productRepository.findByIdAndDeletedFalse(99L)).thenReturn(Optional.empty());
+
+            //When/Then
+            assertThatThrownBy(() -> productService.getStock(99L))
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessage("Producto no encontrado");
+            verifyNoInteractions(productStockSummaryRepository);
+        }
+    }
 }
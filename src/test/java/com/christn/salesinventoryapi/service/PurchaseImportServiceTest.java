@@ -0,0 +1,194 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.config.SecurityTestConfig;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportFormat;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportRequest;
+import com.christn.salesinventoryapi.dto.response.PurchaseImportResponse;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Importación de recepciones contra H2: lotes, ítems, stock y resumen FEFO en los bordes de chunk (500 líneas).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:purchase_import_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.alerts.scan-enabled=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("PurchaseImportService Tests")
+public class PurchaseImportServiceTest {
+
+    private static final LocalDateTime EXPIRES = LocalDateTime.of(2099, 1, 1, 0, 0);
+
+    @Autowired
+    private PurchaseImportService purchaseImportService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductStockSummaryRepository productStockSummaryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User admin;
+    private Category category;
+    private Product dry;
+    private Product dairy;
+
+    @BeforeAll
+    void seed() {
+        admin = userRepository.save(User.builder()
+                .email("import-admin@example.com")
+                .passwordHash("x")
+                .enabled(true)
+                .roles(Set.of(Role.ADMIN))
+                .build());
+        category = new Category();
+        category.setName("Importados");
+        categoryRepository.save(category);
+    }
+
+    @BeforeEach
+    void setUp() {
+        SecurityTestConfig.authenticateAs(admin.getId(), admin.getEmail(), "ADMIN");
+        dry = product(false);
+        dairy = product(true);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Helpers
+    private Product product(boolean perishable) {
+        Product product = new Product();
+        product.setName("Producto " + UUID.randomUUID());
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(5);
+        product.setPerishable(perishable);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+
+    // Líneas pares al producto seco, impares al perecible; cantidad 1..3 y vencimientos decrecientes
+    private String csv(int lines) {
+        StringBuilder csv = new StringBuilder("productId,unitCost,quantity,batchCode,expiresAt\n");
+        for (int i = 0; i < lines; i++) {
+            boolean perishable = i % 2 == 1;
+            csv.append(perishable ? dairy.getId() : dry.getId())
+                    .append(perishable ? ",2.50," : ",4.00,")
+                    .append(1 + i % 3)
+                    .append(",L-").append(i)
+                    .append(',').append(perishable ? EXPIRES.minusDays(i).toLocalDate() : "")
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+
+    private PurchaseImportResponse importCsv(String importId, String csv) {
+        return purchaseImportService.importReceipt(
+                new PurchaseImportRequest(importId, null, null, null, "IMP-" + importId, null),
+                PurchaseImportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static int quantity(int lines, int parity) {
+        int total = 0;
+        for (int i = parity; i < lines; i += 2) total += 1 + i % 3;
+        return total;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {500, 1000, 1001})
+    @DisplayName("Should write every lot and post stock and summaries across chunk boundaries")
+    void importReceipt_AcrossChunks_ShouldPostEverything(int lines) {
+        String importId = "chunks-" + lines;
+        int dryQty = quantity(lines, 0);
+        int dairyQty = quantity(lines, 1);
+        int dairyLots = lines / 2;
+
+        PurchaseImportResponse response = importCsv(importId, csv(lines));
+
+        assertThat(response.status()).isEqualTo(PurchaseStatus.POSTED);
+        assertThat(response.linesRead()).isEqualTo(lines);
+        assertThat(response.batchesCreated()).isEqualTo(lines);
+        assertThat(response.itemsCreated()).isEqualTo(2);
+        assertThat(response.totalAmount()).isEqualByComparingTo(new BigDecimal("4.00").multiply(BigDecimal.valueOf(dryQty))
+                .add(new BigDecimal("2.50").multiply(BigDecimal.valueOf(dairyQty))));
+
+        Long lots = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM product_batches b JOIN purchase_items pi ON pi.id = b.purchase_item_id
+                WHERE pi.purchase_id = ?
+                """, Long.class, response.purchaseId());
+        assertThat(lots).isEqualTo(lines);
+        List<Integer> itemQuantities = jdbcTemplate.queryForList(
+                "SELECT quantity FROM purchase_items WHERE purchase_id = ? ORDER BY product_id",
+                Integer.class, response.purchaseId());
+        assertThat(itemQuantities).containsExactly(dryQty, dairyQty);
+
+        assertThat(productRepository.findById(dry.getId()).orElseThrow().getStock()).isEqualTo(5 + dryQty);
+        assertThat(productRepository.findById(dairy.getId()).orElseThrow().getStock()).isEqualTo(5 + dairyQty);
+
+        ProductStockSummary drySummary = productStockSummaryRepository.findById(dry.getId()).orElseThrow();
+        assertThat(drySummary.getQtyAvailable()).isEqualTo(dryQty);
+        assertThat(drySummary.getBatchCount()).isEqualTo(lines - dairyLots);
+        assertThat(drySummary.getEarliestExpiresAt()).isNull();
+
+        ProductStockSummary dairySummary = productStockSummaryRepository.findById(dairy.getId()).orElseThrow();
+        assertThat(dairySummary.getQtyAvailable()).isEqualTo(dairyQty);
+        assertThat(dairySummary.getBatchCount()).isEqualTo(dairyLots);
+        assertThat(dairySummary.getEarliestExpiresAt()).isEqualTo(EXPIRES.minusDays(2L * dairyLots - 1));
+
+        assertThat(purchaseImportService.getProgress(importId).phase()).isEqualTo("DONE");
+
+        List<String> events = jdbcTemplate.queryForList(
+                "SELECT event_type FROM outbox_events WHERE aggregate_type = 'PURCHASE' AND aggregate_id = ?",
+                String.class, response.purchaseId());
+        assertThat(events).containsExactly(OutboxEventType.PURCHASE_POSTED.name());
+    }
+
+    @Test
+    @DisplayName("Should reject a bad line in the second chunk without writing anything")
+    void importReceipt_WithBadLineInSecondChunk_ShouldWriteNothing() {
+        String csv = csv(600).replaceFirst("\n" + dairy.getId() + ",2.50,1,L-501,",
+                "\n" + dairy.getId() + ",2.75,1,L-501,");
+        Long purchasesBefore = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM purchases", Long.class);
+        Long eventsBefore = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE aggregate_type = 'PURCHASE'", Long.class);
+
+        assertThatThrownBy(() -> importCsv("bad-line", csv))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Línea 503: unitCost distinto");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM purchases", Long.class)).isEqualTo(purchasesBefore);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE aggregate_type = 'PURCHASE'",
+                Long.class)).isEqualTo(eventsBefore);
+        assertThat(productRepository.findById(dairy.getId()).orElseThrow().getStock()).isEqualTo(5);
+        assertThat(productStockSummaryRepository.findById(dairy.getId())).isEmpty();
+        assertThat(purchaseImportService.getProgress("bad-line").phase()).isEqualTo("FAILED");
+    }
+}
@@ -0,0 +1,141 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.PostPurchaseBatchEntryRequest;
+import com.christn.salesinventoryapi.dto.request.PostPurchaseBatchRequest;
+import com.christn.salesinventoryapi.dto.request.PostPurchaseRequest;
+import com.christn.salesinventoryapi.dto.response.PurchaseBatchPostResponse;
+import com.christn.salesinventoryapi.dto.response.PurchasePostResult;
+import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.model.PurchaseStatus;
+import com.christn.salesinventoryapi.repository.PurchaseRepository;
+import com.christn.salesinventoryapi.repository.projection.PurchaseItemProductRef;
+import com.christn.salesinventoryapi.service.impl.PurchasePostingServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurchasePostingService Tests")
+@ActiveProfiles("test")
+public class PurchasePostingServiceTest {
+
+    @Mock
+    private PurchaseService purchaseService;
+
+    @Mock
+    private PurchaseRepository purchaseRepository;
+
+    private ThreadPoolTaskExecutor executor;
+    private PurchasePostingServiceImpl postingService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+        postingService = new PurchasePostingServiceImpl(purchaseService, purchaseRepository, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    // Helpers
+    private static PostPurchaseBatchRequest request(Long... ids) {
+        return new PostPurchaseBatchRequest(
+                Arrays.stream(ids).map(id -> new PostPurchaseBatchEntryRequest(id, null)).toList());
+    }
+
+    private static PurchaseResponse posted() {
+        PurchaseResponse response = mock(PurchaseResponse.class);
+        when(response.status()).thenReturn(PurchaseStatus.POSTED);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Should post disjoint purchases in separate groups and overlapping ones in the same group")
+    void postBatch_groupsByProduct() {
+        // 1 y 3 comparten producto 10; 2 es independiente
+        when(purchaseRepository.findItemProductRefs(anyCollection())).thenReturn(List.of(
+                new PurchaseItemProductRef(1L, 100L, 10L),
+                new PurchaseItemProductRef(2L, 200L, 20L),
+                new PurchaseItemProductRef(3L, 300L, 10L),
+                new PurchaseItemProductRef(3L, 301L, 30L)
+        ));
+        PurchaseResponse ok1 = posted();
+        PurchaseResponse ok2 = posted();
+        PurchaseResponse ok3 = posted();
+        when(purchaseService.postPurchase(eq(1L), any(PostPurchaseRequest.class))).thenReturn(ok1);
+        when(purchaseService.postPurchase(eq(2L), any(PostPurchaseRequest.class))).thenReturn(ok2);
+        when(purchaseService.postPurchase(eq(3L), any(PostPurchaseRequest.class))).thenReturn(ok3);
+
+        PurchaseBatchPostResponse response = postingService.postBatch(request(3L, 2L, 1L));
+
+        assertThat(response.requested()).isEqualTo(3);
+        assertThat(response.posted()).isEqualTo(3);
+        assertThat(response.failed()).isZero();
+        assertThat(response.groups()).isEqualTo(2);
+        assertThat(response.results()).extracting(PurchasePostResult::purchaseId).containsExactly(1L, 2L, 3L);
+
+        PurchasePostResult r1 = response.results().get(0);
+        PurchasePostResult r2 = response.results().get(1);
+        PurchasePostResult r3 = response.results().get(2);
+        assertThat(r1.group()).isEqualTo(r3.group());
+        assertThat(r2.group()).isNotEqualTo(r1.group());
+
+        // mismo grupo: orden determinista por id
+        InOrder inOrder = inOrder(purchaseService);
+        inOrder.verify(purchaseService).postPurchase(eq(1L), any(PostPurchaseRequest.class));
+        inOrder.verify(purchaseService).postPurchase(eq(3L), any(PostPurchaseRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should report per-purchase failures without stopping the rest")
+    void postBatch_failureIsReported() {
+        when(purchaseRepository.findItemProductRefs(anyCollection())).thenReturn(List.of(
+                new PurchaseItemProductRef(1L, 100L, 10L),
+                new PurchaseItemProductRef(2L, 200L, 10L)
+        ));
+        when(purchaseService.postPurchase(eq(1L), any(PostPurchaseRequest.class)))
+                .thenThrow(new IllegalArgumentException("Productos perecibles requieren lotes"));
+        PurchaseResponse ok2 = posted();
+        when(purchaseService.postPurchase(eq(2L), any(PostPurchaseRequest.class))).thenReturn(ok2);
+
+        PurchaseBatchPostResponse response = postingService.postBatch(request(1L, 2L, 99L));
+
+        assertThat(response.posted()).isEqualTo(1);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.results().get(0).error()).isEqualTo("Productos perecibles requieren lotes");
+        assertThat(response.results().get(1).status()).isEqualTo(PurchaseStatus.POSTED);
+        assertThat(response.results().get(2).error()).contains("Compra no encontrada");
+        verify(purchaseService, never()).postPurchase(eq(99L), any());
+    }
+
+    @Test
+    @DisplayName("Should reject duplicated purchase ids")
+    void postBatch_duplicated_throws() {
+        assertThatThrownBy(() -> postingService.postBatch(request(1L, 1L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("duplicado");
+
+        verifyNoInteractions(purchaseRepository, purchaseService);
+    }
+}
@@ -0,0 +1,202 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.config.SecurityTestConfig;
+import com.christn.salesinventoryapi.dto.request.VoidPurchaseRequest;
+import com.christn.salesinventoryapi.dto.response.PurchaseResponse;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.*;
+import com.christn.salesinventoryapi.repository.projection.BatchStockAggregate;
+import com.christn.salesinventoryapi.repository.projection.PurchaseBatchAggregate;
+import com.christn.salesinventoryapi.repository.projection.PurchaseHeaderView;
+import com.christn.salesinventoryapi.service.impl.PurchaseServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurchaseService Tests")
+public class PurchaseServiceTest {
+
+    private static final Long PURCHASE_ID = 10L;
+    private static final LocalDateTime OTHER_LOT_EXPIRES = LocalDateTime.of(2030, 6, 1, 0, 0);
+
+    @Mock
+    PurchaseRepository purchaseRepository;
+    @Mock
+    SupplierRepository supplierRepository;
+    @Mock
+    ProductRepository productRepository;
+    @Mock
+    ProductBatchRepository productBatchRepository;
+    @Mock
+    InventoryMovementRepository inventoryMovementRepository;
+    @Mock
+    ProductStockSummaryRepository productStockSummaryRepository;
+    @Mock
+    SaleBatchAllocationRepository saleBatchAllocationRepository;
+    @Mock
+    OutboxService outboxService;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    ArgumentCaptor<List<ProductStockSummary>> summariesCaptor;
+    @Captor
+    ArgumentCaptor<InventoryMovement> movementCaptor;
+
+    private PurchaseServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PurchaseServiceImpl(
+                purchaseRepository,
+                supplierRepository,
+                productRepository,
+                productBatchRepository,
+                inventoryMovementRepository,
+                productStockSummaryRepository,
+                saleBatchAllocationRepository,
+                outboxService,
+                eventPublisher,
+                new HotPathMetrics(new SimpleMeterRegistry())
+        );
+        SecurityTestConfig.authenticateAs(1L, "admin_test", "ADMIN");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Helpers
+    private Purchase postedPurchase() {
+        Purchase purchase = new Purchase();
+        purchase.setId(PURCHASE_ID);
+        purchase.setStatus(PurchaseStatus.POSTED);
+        return purchase;
+    }
+
+    private Product product(Long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStock(stock);
+        return product;
+    }
+
+    private ProductStockSummary summary(Long productId, int qty, int batches) {
+        ProductStockSummary summary = new ProductStockSummary(productId);
+        summary.reset(qty, batches, OTHER_LOT_EXPIRES.minusMonths(1));
+        return summary;
+    }
+
+    private PurchaseHeaderView header(PurchaseStatus status) {
+        return new PurchaseHeaderView(PURCHASE_ID, LocalDateTime.now(), status, PurchaseDocumentType.INVOICE,
+                "F-1", null, 1L, null, null, null, null, null, new BigDecimal("60.00"), null, 1L, null, 1L, null);
+    }
+
+    @Nested
+    @DisplayName("Void Purchase Tests")
+    class VoidTests {
+
+        @Test
+        @DisplayName("Should reject voiding when part of a lot was already consumed")
+        void voidPurchase_WithPartiallyConsumedLot_ShouldThrowIllegalStateException() {
+            when(purchaseRepository.findByIdWithAllForUpdate(PURCHASE_ID)).thenReturn(Optional.of(postedPurchase()));
+            when(productBatchRepository.aggregateByPurchaseId(PURCHASE_ID)).thenReturn(List.of(
+                    new PurchaseBatchAggregate(1L, 10L, 10L, 2L),
+                    new PurchaseBatchAggregate(2L, 5L, 4L, 1L)));
+
+            assertThatThrownBy(() -> service.voidPurchase(PURCHASE_ID, new VoidPurchaseRequest("devolución")))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("producto 2");
+
+            verify(productRepository, never()).findByIdInForUpdate(any());
+            verify(productBatchRepository, never()).zeroUnconsumedByPurchaseId(any(), any());
+            verifyNoInteractions(eventPublisher, outboxService);
+        }
+
+        @Test
+        @DisplayName("Should reject voiding when a lot is consumed between the check and the update")
+        void voidPurchase_WhenZeroedDiffersFromBatchCount_ShouldThrowIllegalStateException() {
+            when(purchaseRepository.findByIdWithAllForUpdate(PURCHASE_ID)).thenReturn(Optional.of(postedPurchase()));
+            when(productBatchRepository.aggregateByPurchaseId(PURCHASE_ID)).thenReturn(List.of(
+                    new PurchaseBatchAggregate(1L, 10L, 10L, 2L),
+                    new PurchaseBatchAggregate(2L, 5L, 5L, 1L)));
+            when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(product(1L, 15), product(2L, 8)));
+            when(saleBatchAllocationRepository.sumActiveQuantityByPurchaseId(PURCHASE_ID)).thenReturn(0L);
+            when(productBatchRepository.zeroUnconsumedByPurchaseId(eq(PURCHASE_ID), any())).thenReturn(2);
+
+            assertThatThrownBy(() -> service.voidPurchase(PURCHASE_ID, null))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("consumidos durante la anulación");
+
+            verify(inventoryMovementRepository, never()).save(any());
+            verify(productStockSummaryRepository, never()).saveAll(any());
+            verifyNoInteractions(eventPublisher, outboxService);
+        }
+
+        @Test
+        @DisplayName("Should return stock, refresh FEFO summaries and publish StockChangedEvent")
+        void voidPurchase_WithIntactLots_ShouldRefreshSummariesAndPublishEvent() {
+            Purchase purchase = postedPurchase();
+            Product rice = product(1L, 15);
+            Product milk = product(2L, 8);
+            when(purchaseRepository.findByIdWithAllForUpdate(PURCHASE_ID)).thenReturn(Optional.of(purchase));
+            when(productBatchRepository.aggregateByPurchaseId(PURCHASE_ID)).thenReturn(List.of(
+                    new PurchaseBatchAggregate(1L, 10L, 10L, 2L),
+                    new PurchaseBatchAggregate(2L, 5L, 5L, 1L)));
+            when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(rice, milk));
+            when(saleBatchAllocationRepository.sumActiveQuantityByPurchaseId(PURCHASE_ID)).thenReturn(0L);
+            when(productBatchRepository.zeroUnconsumedByPurchaseId(eq(PURCHASE_ID), any())).thenReturn(3);
+            // al arroz le queda un lote de otra compra; la leche queda sin lotes
+            when(productBatchRepository.aggregateAvailableByProductIds(anyList())).thenReturn(List.of(
+                    new BatchStockAggregate(1L, 5L, 1L, OTHER_LOT_EXPIRES)));
+            when(productStockSummaryRepository.findAllById(anyList())).thenReturn(List.of(
+                    summary(1L, 15, 3), summary(2L, 5, 1)));
+            when(purchaseRepository.findHeaderViewById(PURCHASE_ID)).thenReturn(Optional.of(header(PurchaseStatus.VOIDED)));
+
+            PurchaseResponse response = service.voidPurchase(PURCHASE_ID, new VoidPurchaseRequest("  devolución  "));
+
+            assertThat(response.status()).isEqualTo(PurchaseStatus.VOIDED);
+            assertThat(purchase.getStatus()).isEqualTo(PurchaseStatus.VOIDED);
+            assertThat(purchase.getVoidReason()).isEqualTo("devolución");
+            assertThat(rice.getStock()).isEqualTo(5);
+            assertThat(milk.getStock()).isEqualTo(3);
+
+            verify(productStockSummaryRepository).saveAll(summariesCaptor.capture());
+            assertThat(summariesCaptor.getValue())
+                    .extracting(ProductStockSummary::getProductId, ProductStockSummary::getQtyAvailable,
+                            ProductStockSummary::getBatchCount, ProductStockSummary::getEarliestExpiresAt)
+                    .containsExactlyInAnyOrder(
+                            tuple(1L, 5, 1, OTHER_LOT_EXPIRES),
+                            tuple(2L, 0, 0, null));
+
+            verify(inventoryMovementRepository).save(movementCaptor.capture());
+            assertThat(movementCaptor.getValue().getEventType()).isEqualTo(InventoryEventType.PURCHASE_RETURN_OUT);
+            assertThat(movementCaptor.getValue().getItems()).hasSize(2);
+
+            verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof StockChangedEvent e
+                    && e.productIds().containsAll(List.of(1L, 2L)) && e.productIds().size() == 2));
+            verify(outboxService).append(OutboxEventType.PURCHASE_VOIDED, PURCHASE_ID, response);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.CreatePurchaseRequest;
+import com.christn.salesinventoryapi.dto.response.ReorderLineResponse;
+import com.christn.salesinventoryapi.dto.response.ReorderSuggestionResponse;
+import com.christn.salesinventoryapi.dto.response.ReorderSupplierResponse;
+import com.christn.salesinventoryapi.model.Supplier;
+import com.christn.salesinventoryapi.repository.SupplierRepository;
+import com.christn.salesinventoryapi.service.impl.ReorderServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReorderService Tests")
+@ActiveProfiles("test")
+public class ReorderServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PurchaseService purchaseService;
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Captor
+    private ArgumentCaptor<CreatePurchaseRequest> requestCaptor;
+
+    private ForkJoinPool pool;
+    private ReorderServiceImpl reorderService;
+
+    // fragmento de SQL -> filas (columna 1 = product_id en las consultas por rango)
+    private final Map<String, List<Object[]>> tables = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        // range-size 2: los ids 1..4 se reparten en dos hojas
+        reorderService = new ReorderServiceImpl(jdbcTemplate, purchaseService, supplierRepository, pool,
+                90, 14, 14, 3, 7, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    // Helpers
+    private static ResultSet row(Object[] values) {
+        return mock(ResultSet.class, inv -> {
+            if (inv.getArguments().length != 1 || !(inv.getArgument(0) instanceof Integer col)) {
+                return RETURNS_DEFAULTS.answer(inv);
+            }
+            Object v = values[col - 1];
+            return switch (inv.getMethod().getName()) {
+                case "getLong" -> ((Number) v).longValue();
+                case "getInt" -> ((Number) v).intValue();
+                default -> v;
+            };
+        });
+    }
+
+    private List<Object[]> rowsFor(String sql, Object[] args) {
+        List<Object[]> rows = tables.entrySet().stream()
+                .filter(e -> sql.contains(e.getKey()))
+                .findFirst()
+                .map(Map.Entry::getValue)
+                .orElse(List.of());
+        if (args.length < 4 || !(args[2] instanceof Long from)) return rows;
+        long to = (Long) args[3];
+        return rows.stream()
+                .filter(r -> ((Number) r[0]).longValue() >= from && ((Number) r[0]).longValue() < to)
+                .toList();
+    }
+
+    private void stubJdbc() throws SQLException {
+        ResultSet bounds = mock(ResultSet.class);
+        when(bounds.getObject("min_id", Long.class)).thenReturn(1L);
+        when(bounds.getObject("max_id", Long.class)).thenReturn(4L);
+        when(jdbcTemplate.queryForObject(contains("MIN(id)"), ArgumentMatchers.<RowMapper<Object>>any()))
+                .thenAnswer(inv -> inv.<RowMapper<?>>getArgument(1).mapRow(bounds, 0));
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class)))
+                .thenAnswer(inv -> {
+                    RowMapper<?> mapper = inv.getArgument(1);
+                    List<Object> out = new ArrayList<>();
+                    int i = 0;
+                    for (Object[] r : rowsFor(inv.getArgument(0), inv.getArguments())) {
+                        out.add(mapper.mapRow(row(r), i++));
+                    }
+                    return out;
+                });
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (Object[] r : rowsFor(inv.getArgument(0), inv.getArguments())) {
+                handler.processRow(row(r));
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private void seed() throws SQLException {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> demand = new ArrayList<>();
+        for (int age = 0; age < 90; age++) {
+            Date day = Date.valueOf(today.minusDays(age));
+            demand.add(new Object[]{1L, day, 10L});
+            demand.add(new Object[]{2L, day, 1L});
+            demand.add(new Object[]{4L, day, 10L});
+        }
+
+        tables.put("ROW_NUMBER()", List.of(
+                new Object[]{1L, 5L, new BigDecimal("2.50")},
+                new Object[]{2L, 5L, new BigDecimal("1.00")},
+                new Object[]{4L, null, new BigDecimal("3.00")}
+        ));
+        tables.put("'DRAFT'", List.<Object[]>of(new Object[]{4L, 300}));
+        tables.put("FROM products p", List.of(
+                new Object[]{1L, "Agua", 20},
+                new Object[]{2L, "Pan", 100},
+                new Object[]{3L, "Sal", 0},
+                new Object[]{4L, "Leche", 10}
+        ));
+        tables.put("inventory_movement_items", demand);
+        // pedida hace 30 días, recibida 4 días después
+        tables.put("posted_at >= ?", List.<Object[]>of(new Object[]{5L,
+                Timestamp.valueOf(now.minusDays(30)), Timestamp.valueOf(now.minusDays(26))}));
+
+        Supplier supplier = new Supplier();
+        supplier.setId(5L);
+        supplier.setName("Distribuidora Norte");
+        when(supplierRepository.findAllById(Set.of(5L))).thenReturn(List.of(supplier));
+
+        stubJdbc();
+    }
+
+    @Test
+    @DisplayName("Should suggest only products whose position does not cover lead time plus safety days")
+    void suggest_computesVelocityLeadTimeAndQuantity() throws SQLException {
+        seed();
+
+        ReorderSuggestionResponse response = reorderService.suggest();
+
+        assertThat(response.productsExamined()).isEqualTo(4);
+        assertThat(response.productsSuggested()).isEqualTo(1);
+        assertThat(response.suppliers()).hasSize(1);
+
+        ReorderSupplierResponse supplier = response.suppliers().getFirst();
+        assertThat(supplier.supplierId()).isEqualTo(5L);
+        assertThat(supplier.supplierName()).isEqualTo("Distribuidora Norte");
+        assertThat(supplier.leadTimeDays()).isEqualTo(4.0);
+
+        ReorderLineResponse line = supplier.lines().getFirst();
+        assertThat(line.productId()).isEqualTo(1L);
+        assertThat(line.velocityPerDay()).isEqualTo(10.0);
+        // 10/día x (4 lead + 3 colchón + 14 cobertura) - 20 disponibles
+        assertThat(line.suggestedQuantity()).isEqualTo(190);
+        assertThat(line.subTotal()).isEqualByComparingTo("475.00");
+        assertThat(supplier.totalCost()).isEqualByComparingTo("475.00");
+    }
+
+    @Test
+    @DisplayName("Should create one draft purchase per suggested supplier")
+    void createDrafts_createsDraftPerSupplier() throws SQLException {
+        seed();
+
+        reorderService.createDrafts(null);
+
+        verify(purchaseService).createDraft(requestCaptor.capture());
+        CreatePurchaseRequest request = requestCaptor.getValue();
+        assertThat(request.supplierId()).isEqualTo(5L);
+        assertThat(request.items()).hasSize(1);
+        assertThat(request.items().getFirst().productId()).isEqualTo(1L);
+        assertThat(request.items().getFirst().quantity()).isEqualTo(190);
+        assertThat(request.items().getFirst().unitCost()).isEqualByComparingTo("2.50");
+    }
+}
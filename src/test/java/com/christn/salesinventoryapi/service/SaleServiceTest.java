@@ -5,16 +5,27 @@ import com.christn.salesinventoryapi.dto.request.CreateSaleDetailRequest;
 import com.christn.salesinventoryapi.dto.request.CreateSaleRequest;
 import com.christn.salesinventoryapi.dto.request.PostSaleRequest;
 import com.christn.salesinventoryapi.dto.request.VoidSaleRequest;
+import com.christn.salesinventoryapi.dto.response.SaleResponse;
+import com.christn.salesinventoryapi.dto.response.SaleSummaryResponse;
+import com.christn.salesinventoryapi.event.SalePostedEvent;
+import com.christn.salesinventoryapi.event.SaleVoidedEvent;
 import com.christn.salesinventoryapi.exception.ForbiddenException;
+import com.christn.salesinventoryapi.metrics.HotPathMetrics;
 import com.christn.salesinventoryapi.model.*;
 import com.christn.salesinventoryapi.repository.*;
+import com.christn.salesinventoryapi.repository.projection.SaleDetailLineView;
+import com.christn.salesinventoryapi.repository.projection.SaleHeaderView;
 import com.christn.salesinventoryapi.service.impl.SaleServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
@@ -46,12 +57,23 @@ public class SaleServiceTest {
     SaleBatchAllocationRepository saleBatchAllocationRepository;
     @Mock
     PaymentRepository paymentRepository;
+    @Mock
+    ProductStockSummaryRepository productStockSummaryRepository;
+    @Mock
+    SalesRollupService salesRollupService;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    OutboxService outboxService;
 
     @InjectMocks
     private SaleServiceImpl service;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         service = new SaleServiceImpl(
                 saleRepository,
                 customerRepository,
@@ -59,7 +81,12 @@ public class SaleServiceTest {
                 productBatchRepository,
                 inventoryMovementRepository,
                 saleBatchAllocationRepository,
-                paymentRepository
+                paymentRepository,
+                productStockSummaryRepository,
+                salesRollupService,
+                eventPublisher,
+                outboxService,
+                new HotPathMetrics(meterRegistry)
         );
         SecurityContextHolder.clearContext();
     }
@@ -95,6 +122,13 @@ public class SaleServiceTest {
         return b;
     }
 
+    private ProductStockSummary summary(Product product, int qtyAvailable, int batchCount) {
+        ProductStockSummary s = new ProductStockSummary(product.getId());
+        s.setQtyAvailable(qtyAvailable);
+        s.setBatchCount(batchCount);
+        return s;
+    }
+
     private SaleBatchAllocation allocation(Long id, ProductBatch batch, Integer quantity) {
         SaleBatchAllocation a = new SaleBatchAllocation();
         a.setId(id);
@@ -414,12 +448,13 @@ public class SaleServiceTest {
 
             when(saleRepository.findByIdWithDetailsForUpdate(5L)).thenReturn(Optional.of(s));
             when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(p10));
-            when(productBatchRepository.findAvailableBatchesForUpdate(anyList())).thenReturn(List.of());
+            when(productStockSummaryRepository.findAllById(anyList())).thenReturn(List.of());
 
             //When/Then
             assertThatThrownBy(() -> service.postSale(5L, new PostSaleRequest()))
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessage("El producto " + p10.getId() + " no tiene lotes disponibles");
+            verifyNoInteractions(productBatchRepository);
         }
 
         @Test
@@ -432,6 +467,28 @@ public class SaleServiceTest {
 
             when(saleRepository.findByIdWithDetailsForUpdate(5L)).thenReturn(Optional.of(s));
             when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(p10));
+            when(productStockSummaryRepository.findAllById(anyList())).thenReturn(List.of(summary(p10, 9, 2)));
+
+            //When/Then
+            assertThatThrownBy(() -> service.postSale(5L, new PostSaleRequest()))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Stock insuficiente FEFO para producto " + p10.getId() +
+                            ". disponible=" + 9 + ", requerido=" + 10);
+            verifyNoInteractions(productBatchRepository);
+        }
+
+        @Test
+        @DisplayName("Should re-validate against locked batches when the summary is stale")
+        void postSale_summaryStale_batchesInsufficient_throws() {
+            //Given
+            SecurityTestConfig.authenticateAs(1L, "seller_test", "SELLER");
+            var p10 = product(10L, new BigDecimal("10.50"), 8);
+            var d1 = detail(1L, p10, 10, p10.getPrice());
+            Sale s = saleDraftWithDetails(5L, d1);
+
+            when(saleRepository.findByIdWithDetailsForUpdate(5L)).thenReturn(Optional.of(s));
+            when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(p10));
+            when(productStockSummaryRepository.findAllById(anyList())).thenReturn(List.of(summary(p10, 20, 2)));
 
             LocalDateTime now = LocalDateTime.now();
             var b1 = batch(5L, p10, 10, 5, now.plusDays(10));
@@ -443,6 +500,8 @@ public class SaleServiceTest {
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessage("Stock insuficiente FEFO para producto " + p10.getId() +
                             ". disponible=" + 9 + ", requerido=" + 10);
+            assertEquals(1, meterRegistry.get("sale.post.rejected").tag("reason", "insufficient_stock")
+                    .counter().count());
         }
 
         @Test
@@ -455,6 +514,7 @@ public class SaleServiceTest {
             Sale s = saleDraftWithDetails(1L, d1);
             when(saleRepository.findByIdWithDetailsForUpdate(1L)).thenReturn(Optional.of(s));
             when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(p10));
+            when(productStockSummaryRepository.findAllById(anyList())).thenReturn(List.of(summary(p10, 5, 1)));
 
             var b1 = batch(100L, p10, 10, 5, LocalDateTime.now().plusDays(10));
             when(productBatchRepository.findAvailableBatchesForUpdate(anyList())).thenReturn(List.of(b1));
@@ -476,6 +536,8 @@ public class SaleServiceTest {
             Sale s = saleDraftWithDetails(1L, d1);
             when(saleRepository.findByIdWithDetailsForUpdate(1L)).thenReturn(Optional.of(s));
             when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(p10));
+            var sum10 = summary(p10, 5, 1);
+            when(productStockSummaryRepository.findAllById(anyList())).thenReturn(List.of(sum10));
 
             var b1 = batch(100L, p10, 10, 5, LocalDateTime.now().plusDays(10));
             when(productBatchRepository.findAvailableBatchesForUpdate(anyList())).thenReturn(List.of(b1));
@@ -490,6 +552,9 @@ public class SaleServiceTest {
             //Then
             assertNotNull(resp);
             assertEquals(7, p10.getStock());
+            assertEquals(2, sum10.getQtyAvailable());
+            assertEquals(1, sum10.getBatchCount());
+            assertEquals(b1.getExpiresAt(), sum10.getEarliestExpiresAt());
 
             verify(productBatchRepository).saveAll(argThat(batches ->
                     StreamSupport.stream(batches.spliterator(), false)
@@ -510,6 +575,18 @@ public class SaleServiceTest {
                             sale.getPostedAt() != null &&
                             Objects.equals(sale.getPostedByUserId(), 2L)
             ));
+            verify(salesRollupService).recordPosted(argThat(sale ->
+                    sale.getDetails().getFirst().getAllocations().size() == 1), argThat(allocations ->
+                    allocations.size() == 1 && allocations.getFirst().getQuantity() == 3));
+            verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof SalePostedEvent posted &&
+                    posted.saleId().equals(1L) &&
+                    posted.lines().size() == 1 &&
+                    posted.lines().getFirst().quantity() == 3));
+            verify(outboxService).append(eq(OutboxEventType.SALE_POSTED), eq(1L), any(SaleResponse.class));
+
+            assertEquals(1, meterRegistry.get("sale.post.lines").summary().count());
+            assertEquals(1, meterRegistry.get("sale.post.batches.touched").summary().totalAmount());
+            assertEquals(1, meterRegistry.get("sale.post.phase").tag("phase", "lock_batches").timer().count());
         }
     }
 
@@ -723,6 +800,45 @@ public class SaleServiceTest {
                             s.getVoidedAt() != null &&
                             s.getVoidedByUserId().equals(99L)
             ));
+            verify(salesRollupService).recordVoided(sale, List.of(a1));
+            verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof SaleVoidedEvent voided &&
+                    voided.saleId().equals(10L)));
+            verify(outboxService).append(eq(OutboxEventType.SALE_VOIDED), eq(10L), any(SaleResponse.class));
+        }
+
+        @Test
+        @DisplayName("Should restore the FEFO summary and count batches that become available again")
+        void voidSale_restoresStockSummary() {
+            //Given
+            SecurityTestConfig.authenticateAs(99L, "admin_test", "ADMIN");
+            Sale sale = new Sale();
+            sale.setId(11L);
+            sale.setStatus(SaleStatus.ACTIVE);
+            sale.setPostedAt(LocalDateTime.now());
+
+            LocalDateTime now = LocalDateTime.now();
+            var p1 = product(1L, new BigDecimal("10.00"), 2);
+            var drained = batch(1L, p1, 6, 0, now.plusDays(3));
+            var partial = batch(2L, p1, 10, 2, now.plusDays(8));
+            when(saleRepository.findByIdWithDetailsForUpdate(11L)).thenReturn(Optional.of(sale));
+            when(saleBatchAllocationRepository.findAllBySaleIdForUpdate(11L))
+                    .thenReturn(List.of(allocation(1L, drained, 6), allocation(2L, partial, 3)));
+            when(productRepository.findByIdInForUpdate(anyList())).thenReturn(List.of(p1));
+
+            var sum1 = summary(p1, 2, 1);
+            sum1.setEarliestExpiresAt(partial.getExpiresAt());
+            when(productStockSummaryRepository.findAllById(anyList())).thenReturn(List.of(sum1));
+
+            //When
+            service.voidSale(11L, new VoidSaleRequest("Void sale test"));
+
+            //Then
+            assertEquals(11, sum1.getQtyAvailable());
+            assertEquals(2, sum1.getBatchCount());
+            assertEquals(drained.getExpiresAt(), sum1.getEarliestExpiresAt());
+            verify(productStockSummaryRepository).saveAll(argThat(iter ->
+                    StreamSupport.stream(iter.spliterator(), false).anyMatch(x -> x == sum1)
+            ));
         }
 
         @Test
@@ -869,6 +985,7 @@ public class SaleServiceTest {
             verifyNoInteractions(productRepository);
             verifyNoInteractions(productBatchRepository);
             verifyNoInteractions(inventoryMovementRepository);
+            verifyNoInteractions(salesRollupService, eventPublisher);
         }
 
         @Test
@@ -999,16 +1116,13 @@ public class SaleServiceTest {
         @DisplayName("Should get sale with details by id")
         void getById_saleFound_withDetails() {
             //Given
-            Customer c = customer(2L);
-            Sale s = new Sale();
-            s.setId(1L);
-            s.setCustomer(c);
-            var sd1 = new SaleDetail();
-            var p1 = product(1L, new BigDecimal("10.00"), 10);
-            sd1.setProduct(p1);
-            s.setDetails(List.of(sd1));
+            SaleHeaderView header = new SaleHeaderView(1L, LocalDateTime.now(), SaleStatus.ACTIVE, 2L, "Cliente",
+                    new BigDecimal("10.00"), LocalDateTime.now(), 99L, null, null, null, null, null, null, null);
+            var line = new SaleDetailLineView(5L, 1L, "Producto", 1, new BigDecimal("10.00"),
+                    new BigDecimal("10.00"));
 
-            when(saleRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(s));
+            when(saleRepository.findHeaderViewById(1L)).thenReturn(Optional.of(header));
+            when(saleRepository.findDetailViewsBySaleId(1L)).thenReturn(List.of(line));
             //When
             var resp = service.getById(1L);
 
@@ -1017,17 +1131,79 @@ public class SaleServiceTest {
             assertEquals(1L, resp.id());
             assertEquals(2L, resp.customerId());
             assertEquals(1L, resp.details().getFirst().productId());
+            verify(saleRepository, never()).findByIdWithDetailsForUpdate(any());
         }
 
         @Test
         @DisplayName("Should throw EntityNotFoundException when sale is not found")
         void getById_saleNotFound_throws() {
             //Given
-            when(saleRepository.findByIdWithDetails(any())).thenReturn(Optional.empty());
+            when(saleRepository.findHeaderViewById(any())).thenReturn(Optional.empty());
             //When/Then
             assertThatThrownBy(() -> service.getById(1L))
                     .isInstanceOf(EntityNotFoundException.class)
                     .hasMessage("Venta no encontrada: " + 1L);
         }
     }
+
+    @Nested
+    @DisplayName("search Tests")
+    class SearchTests {
+        private SaleSummaryResponse row(long id) {
+            return new SaleSummaryResponse(id, LocalDateTime.now(), SaleStatus.ACTIVE, new BigDecimal("10.00"), 2L,
+                    "Cliente");
+        }
+
+        @Test
+        @DisplayName("Should sort by saleDate + id and skip COUNT when the first page is not full")
+        void search_partialFirstPage_skipsCount() {
+            //Given
+            when(saleRepository.searchSummaries(any(), any(), eq(0L), eq(10))).thenReturn(List.of(row(1L), row(2L)));
+
+            //When
+            var resp = service.search(2L, null, null, null, null, null,
+                    PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "saleDate")), false);
+
+            //Then
+            assertEquals(2L, resp.totalElements());
+            assertEquals(1, resp.totalPages());
+            verify(saleRepository).searchSummaries(any(),
+                    eq(Sort.by(Sort.Order.desc("saleDate"), Sort.Order.desc("id"))), eq(0L), eq(10));
+            verify(saleRepository, never()).countSales(any());
+        }
+
+        @Test
+        @DisplayName("Should use the planner estimate instead of COUNT when approximateCount is true")
+        void search_approximateCount_usesEstimate() {
+            //Given
+            when(saleRepository.searchSummaries(any(), any(), eq(0L), eq(3)))
+                    .thenReturn(List.of(row(1L), row(2L), row(3L)));
+            when(saleRepository.estimateCount(any())).thenReturn(OptionalLong.of(500L));
+
+            //When
+            var resp = service.search(null, null, null, null, null, SaleStatus.ACTIVE, PageRequest.of(0, 2), true);
+
+            //Then
+            assertEquals(2, resp.content().size());
+            assertEquals(500L, resp.totalElements());
+            assertEquals(250, resp.totalPages());
+            assertEquals(false, resp.last());
+            verify(saleRepository, never()).countSales(any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to saleDate DESC when sorting by a non-indexed property")
+        void search_unsupportedSort_fallsBackToSaleDate() {
+            //Given
+            when(saleRepository.searchSummaries(any(), any(), anyLong(), anyInt())).thenReturn(List.of());
+
+            //When
+            service.search(null, null, null, null, null, null,
+                    PageRequest.of(0, 10, Sort.by("customer.email")), false);
+
+            //Then
+            verify(saleRepository).searchSummaries(any(),
+                    eq(Sort.by(Sort.Order.desc("saleDate"), Sort.Order.desc("id"))), eq(0L), eq(10));
+        }
+    }
 }
@@ -0,0 +1,238 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.request.DashboardMetric;
+import com.christn.salesinventoryapi.dto.response.DashboardHourlyRevenueResponse;
+import com.christn.salesinventoryapi.dto.response.DashboardTopProductResponse;
+import com.christn.salesinventoryapi.event.SalePostedEvent;
+import com.christn.salesinventoryapi.event.SaleVoidedEvent;
+import com.christn.salesinventoryapi.service.impl.SalesAnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SalesAnalyticsService Tests")
+@ActiveProfiles("test")
+public class SalesAnalyticsServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Captor
+    private ArgumentCaptor<Runnable> retryCaptor;
+
+    @Captor
+    private ArgumentCaptor<Instant> retryAtCaptor;
+
+    private SalesAnalyticsServiceImpl analyticsService;
+
+    private final LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(3);
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new SalesAnalyticsServiceImpl(jdbcTemplate, transactionTemplate, taskScheduler, 90, 1000, 60000);
+    }
+
+    // Helpers
+    private static SalePostedEvent.Line line(Long productId, int qty, String price) {
+        return new SalePostedEvent.Line(productId, "Producto " + productId, qty, new BigDecimal(price));
+    }
+
+    private void post(Long saleId, LocalDateTime saleDate, SalePostedEvent.Line... lines) {
+        analyticsService.onSalePosted(new SalePostedEvent(saleId, saleDate, 1L, List.of(lines)));
+    }
+
+    private void voidSale(Long saleId) {
+        analyticsService.onSaleVoided(new SaleVoidedEvent(saleId, LocalDateTime.now()));
+    }
+
+    // Fila del cursor de carga: s.id, s.sale_date, d.product_id, p.name, d.quantity, d.unit_price
+    private ResultSet row(long saleId, long productId, int qty, String price) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(saleId);
+        when(rs.getLong(3)).thenReturn(productId);
+        when(rs.getString(4)).thenReturn("Producto " + productId);
+        when(rs.getInt(5)).thenReturn(qty);
+        when(rs.getBigDecimal(6)).thenReturn(new BigDecimal(price));
+        return rs;
+    }
+
+    // La transacción corre el callback; la consulta entrega las filas y ejecuta beforeRow antes de cada una
+    private void cursorReturns(List<ResultSet> rows, Consumer<Integer> beforeRow) throws SQLException {
+        for (ResultSet rs : rows) {
+            // solo la primera fila de cada venta lee la fecha
+            when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(hour));
+        }
+        doAnswer(inv -> {
+            Consumer<TransactionStatus> work = inv.getArgument(0);
+            work.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (int i = 0; i < rows.size(); i++) {
+                beforeRow.accept(i);
+                handler.processRow(rows.get(i));
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Should reject queries until the initial load finishes")
+    void queries_beforeLoad_throw() {
+        assertThatThrownBy(() -> analyticsService.hourlyRevenue(null, null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should rank products by revenue or units and skip voided sales")
+    void topProducts_ranksAndSkipsVoided() {
+        analyticsService.load();
+        post(1L, hour.plusMinutes(5), line(10L, 2, "50.00"), line(20L, 10, "1.50"));
+        post(2L, hour.plusMinutes(30), line(10L, 1, "50.00"));
+        post(3L, hour.plusMinutes(40), line(30L, 100, "9.99"));
+        analyticsService.onSaleVoided(new SaleVoidedEvent(3L, LocalDateTime.now()));
+
+        List<DashboardTopProductResponse> byRevenue =
+                analyticsService.topProducts(null, null, DashboardMetric.REVENUE, 10);
+        List<DashboardTopProductResponse> byUnits =
+                analyticsService.topProducts(null, null, DashboardMetric.UNITS, 1);
+
+        assertThat(byRevenue).extracting(DashboardTopProductResponse::productId).containsExactly(10L, 20L);
+        assertThat(byRevenue.getFirst().revenue()).isEqualByComparingTo("150.00");
+        assertThat(byRevenue.getFirst().units()).isEqualTo(3);
+        assertThat(byRevenue.getFirst().lines()).isEqualTo(2);
+        assertThat(byRevenue.getFirst().productName()).isEqualTo("Producto 10");
+        assertThat(byUnits).extracting(DashboardTopProductResponse::productId).containsExactly(20L);
+    }
+
+    @Test
+    @DisplayName("Should bucket revenue by hour, including empty hours")
+    void hourlyRevenue_bucketsByHour() {
+        analyticsService.load();
+        post(1L, hour.plusMinutes(10), line(10L, 1, "10.00"));
+        post(2L, hour.plusHours(2).plusMinutes(59), line(10L, 3, "10.00"));
+        // evento repetido: no se cuenta dos veces
+        post(2L, hour.plusHours(2).plusMinutes(59), line(10L, 3, "10.00"));
+
+        List<DashboardHourlyRevenueResponse> result =
+                analyticsService.hourlyRevenue(hour, hour.plusHours(3));
+
+        assertThat(result).hasSize(3);
+        assertThat(result).extracting(DashboardHourlyRevenueResponse::hour)
+                .containsExactly(hour, hour.plusHours(1), hour.plusHours(2));
+        assertThat(result.get(0).revenue()).isEqualByComparingTo("10.00");
+        assertThat(result.get(1).lines()).isZero();
+        assertThat(result.get(2).units()).isEqualTo(3);
+        assertThat(result.get(2).revenue()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    @DisplayName("Should ignore sales older than the cache window")
+    void onSalePosted_outsideWindow_ignored() {
+        analyticsService.load();
+        post(1L, LocalDateTime.now().minusDays(91), line(10L, 1, "10.00"));
+
+        assertThat(analyticsService.status().sales()).isZero();
+        assertThat(analyticsService.status().ready()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should drop sales voided while the initial load is still reading them")
+    void load_voidedWhileLoading_replayed() throws SQLException {
+        // la anulación de 1 llega antes de que el cursor la lea; la de 2, con sus líneas en el buffer
+        voidSale(1L);
+        cursorReturns(List.of(row(1L, 10L, 1, "10.00"), row(2L, 20L, 2, "5.00"), row(3L, 30L, 3, "1.00")),
+                i -> {
+                    if (i == 2) voidSale(2L);
+                });
+
+        analyticsService.load();
+
+        assertThat(analyticsService.status().ready()).isTrue();
+        assertThat(analyticsService.status().sales()).isEqualTo(1);
+        assertThat(analyticsService.topProducts(null, null, DashboardMetric.UNITS, 10))
+                .extracting(DashboardTopProductResponse::productId).containsExactly(30L);
+        // ya cargada: la anulación se aplica directo sobre las columnas
+        voidSale(3L);
+        assertThat(analyticsService.topProducts(null, null, DashboardMetric.UNITS, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed load with backoff and expose the failure in the status")
+    void load_failure_retriesWithBackoff() throws SQLException {
+        doThrow(new DataAccessResourceFailureException("conexión rechazada"))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        Instant before = Instant.now();
+        analyticsService.load();
+
+        verify(taskScheduler).schedule(retryCaptor.capture(), retryAtCaptor.capture());
+        assertThat(retryAtCaptor.getValue()).isAfterOrEqualTo(before.plusMillis(1000));
+        assertThat(analyticsService.status().ready()).isFalse();
+        assertThat(analyticsService.status().failedLoads()).isEqualTo(1);
+        assertThat(analyticsService.status().lastError()).isEqualTo("conexión rechazada");
+        assertThat(analyticsService.status().lastFailureAt()).isNotNull();
+        assertThatThrownBy(() -> analyticsService.hourlyRevenue(null, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("conexión rechazada");
+
+        // segundo fallo: el backoff se duplica
+        before = Instant.now();
+        retryCaptor.getValue().run();
+        verify(taskScheduler, times(2)).schedule(retryCaptor.capture(), retryAtCaptor.capture());
+        assertThat(retryAtCaptor.getValue()).isAfterOrEqualTo(before.plusMillis(2000));
+        assertThat(analyticsService.status().failedLoads()).isEqualTo(2);
+
+        // entre intentos se anula una venta que el reintento todavía devuelve
+        voidSale(1L);
+        cursorReturns(List.of(row(1L, 10L, 1, "10.00"), row(2L, 20L, 2, "5.00")), i -> {
+        });
+        retryCaptor.getValue().run();
+
+        assertThat(analyticsService.status().ready()).isTrue();
+        assertThat(analyticsService.status().lastError()).isNull();
+        assertThat(analyticsService.topProducts(null, null, DashboardMetric.UNITS, 10))
+                .extracting(DashboardTopProductResponse::productId).containsExactly(20L);
+    }
+}
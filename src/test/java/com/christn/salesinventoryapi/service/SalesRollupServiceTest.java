@@ -0,0 +1,224 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.SalesRollupRebuildResponse;
+import com.christn.salesinventoryapi.model.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rollups incrementales (post/void) contra H2 y su equivalencia con rebuild(). Cada prueba usa su propio par de
+ * meses: la base se comparte entre pruebas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sales_rollup_db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "app.alerts.scan-enabled=false"
+})
+@ActiveProfiles("test")
+@DisplayName("SalesRollupService Tests")
+public class SalesRollupServiceTest {
+
+    private static final Long SELLER = 7L;
+    private static final Long OTHER_SELLER = 8L;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Ventas de un fin de mes y el día siguiente; el producto A sale de dos lotes con costos distintos
+    private record Scenario(Long productA, Long productB, Long lateSale, Long nextDaySale, Long voidedSale) {
+    }
+
+    // Helpers
+    private Scenario scenario(LocalDate lastDayOfMonth) {
+        return transactionTemplate.execute(status -> {
+            Category category = new Category();
+            category.setName("Rollups " + UUID.randomUUID());
+            entityManager.persist(category);
+            Customer customer = new Customer();
+            customer.setFullName("Cliente rollups");
+            customer.setEmail(UUID.randomUUID() + "@example.com");
+            entityManager.persist(customer);
+
+            Product a = product("A", category);
+            Product b = product("B", category);
+            ProductBatch a1 = batch(a, "2.00");
+            ProductBatch a2 = batch(a, "3.00");
+            ProductBatch b1 = batch(b, "5.00");
+
+            LocalDate nextDay = lastDayOfMonth.plusDays(1);
+            Sale late = sale(customer, lastDayOfMonth.atTime(23, 30), SELLER);
+            SaleDetail lateA = detail(late, a, 3, "10.00");
+            allocate(lateA, a1, 2);
+            allocate(lateA, a2, 1);
+            allocate(detail(late, b, 1, "20.00"), b1, 1);
+
+            Sale early = sale(customer, nextDay.atTime(0, 15), SELLER);
+            allocate(detail(early, a, 1, "10.00"), a2, 1);
+
+            Sale voided = sale(customer, nextDay.atTime(10, 0), OTHER_SELLER);
+            allocate(detail(voided, b, 2, "20.00"), b1, 2);
+
+            for (Sale sale : List.of(late, early, voided)) {
+                entityManager.persist(sale);
+                salesRollupService.recordPosted(sale, allocations(sale));
+            }
+            entityManager.flush();
+            return new Scenario(a.getId(), b.getId(), late.getId(), early.getId(), voided.getId());
+        });
+    }
+
+    private Product product(String name, Category category) {
+        Product product = new Product();
+        product.setName(name + " " + UUID.randomUUID());
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStock(0);
+        product.setCategory(category);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private ProductBatch batch(Product product, String unitCost) {
+        ProductBatch batch = new ProductBatch();
+        batch.setProduct(product);
+        batch.setQtyInitial(100);
+        batch.setQtyAvailable(100);
+        batch.setUnitCost(new BigDecimal(unitCost));
+        entityManager.persist(batch);
+        return batch;
+    }
+
+    private static Sale sale(Customer customer, LocalDateTime saleDate, Long seller) {
+        Sale sale = new Sale();
+        sale.setCustomer(customer);
+        sale.setSaleDate(saleDate);
+        sale.setCreatedByUserId(seller);
+        sale.setTotalAmount(BigDecimal.ZERO);
+        return sale;
+    }
+
+    private static SaleDetail detail(Sale sale, Product product, int quantity, String unitPrice) {
+        SaleDetail detail = new SaleDetail();
+        detail.setSale(sale);
+        detail.setProduct(product);
+        detail.setQuantity(quantity);
+        detail.setUnitPrice(new BigDecimal(unitPrice));
+        detail.setSubTotal(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        sale.getDetails().add(detail);
+        sale.setTotalAmount(sale.getTotalAmount().add(detail.getSubTotal()));
+        return detail;
+    }
+
+    private static void allocate(SaleDetail detail, ProductBatch batch, int quantity) {
+        SaleBatchAllocation allocation = new SaleBatchAllocation();
+        allocation.setProductBatch(batch);
+        allocation.setQuantity(quantity);
+        detail.addAllocation(allocation);
+    }
+
+    private static List<SaleBatchAllocation> allocations(Sale sale) {
+        return sale.getDetails().stream().flatMap(d -> d.getAllocations().stream()).toList();
+    }
+
+    private void voidSale(Long saleId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Sale sale = entityManager.find(Sale.class, saleId);
+            sale.setStatus(SaleStatus.VOIDED);
+            salesRollupService.recordVoided(sale, allocations(sale));
+        });
+    }
+
+    private static String amount(Object value) {
+        return ((BigDecimal) value).stripTrailingZeros().toPlainString();
+    }
+
+    // "día|producto|unidades|ingreso|costo", sin las filas que una anulación dejó en cero
+    private List<String> productRows(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT sale_day, product_id, units, revenue, cost FROM sales_daily_product_rollups
+                WHERE sale_day >= ? AND sale_day <= ? AND units <> 0 ORDER BY sale_day, product_id
+                """, (rs, i) -> rs.getDate(1) + "|" + rs.getLong(2) + "|" + rs.getLong(3) + "|"
+                + amount(rs.getBigDecimal(4)) + "|" + amount(rs.getBigDecimal(5)), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private List<String> sellerRows(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT sale_day, seller_user_id, sale_count, units, revenue, cost FROM sales_daily_rollups
+                WHERE sale_day >= ? AND sale_day <= ? AND sale_count <> 0 ORDER BY sale_day, seller_user_id
+                """, (rs, i) -> rs.getDate(1) + "|" + rs.getLong(2) + "|" + rs.getLong(3) + "|" + rs.getLong(4) + "|"
+                + amount(rs.getBigDecimal(5)) + "|" + amount(rs.getBigDecimal(6)), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private List<String> allProductRows(LocalDate day, Long productId) {
+        return jdbcTemplate.query("""
+                SELECT units, revenue, cost FROM sales_daily_product_rollups WHERE sale_day = ? AND product_id = ?
+                """, (rs, i) -> rs.getLong(1) + "|" + amount(rs.getBigDecimal(2)) + "|" + amount(rs.getBigDecimal(3)),
+                Date.valueOf(day), productId);
+    }
+
+    @Test
+    @DisplayName("Should add posted sales and subtract voided ones, with cost taken from batch allocations")
+    void recordPostedAndVoided_ShouldApplySignedDeltas() {
+        LocalDate monthEnd = LocalDate.of(2025, 1, 31);
+        LocalDate nextDay = monthEnd.plusDays(1);
+        Scenario s = scenario(monthEnd);
+
+        // A: 2 u. del lote a 2.00 + 1 u. del lote a 3.00
+        assertThat(allProductRows(monthEnd, s.productA())).containsExactly("3|30|7");
+        assertThat(allProductRows(monthEnd, s.productB())).containsExactly("1|20|5");
+        assertThat(allProductRows(nextDay, s.productA())).containsExactly("1|10|3");
+        assertThat(allProductRows(nextDay, s.productB())).containsExactly("2|40|10");
+        assertThat(sellerRows(nextDay, nextDay)).containsExactly(
+                nextDay + "|" + SELLER + "|1|1|10|3",
+                nextDay + "|" + OTHER_SELLER + "|1|2|40|10");
+
+        voidSale(s.voidedSale());
+
+        assertThat(allProductRows(nextDay, s.productB())).containsExactly("0|0|0");
+        assertThat(allProductRows(nextDay, s.productA())).containsExactly("1|10|3");
+        assertThat(sellerRows(nextDay, nextDay)).containsExactly(nextDay + "|" + SELLER + "|1|1|10|3");
+        assertThat(sellerRows(monthEnd, monthEnd)).containsExactly(monthEnd + "|" + SELLER + "|1|4|50|12");
+    }
+
+    @Test
+    @DisplayName("Rebuild across a month boundary should reproduce the incremental totals")
+    void rebuild_AcrossMonthBoundary_ShouldMatchIncrementalTotals() {
+        LocalDate monthEnd = LocalDate.of(2025, 4, 30);
+        LocalDate from = monthEnd.withDayOfMonth(1);
+        LocalDate to = monthEnd.plusMonths(1);
+        Scenario s = scenario(monthEnd);
+        voidSale(s.voidedSale());
+
+        List<String> incrementalProducts = productRows(from, to);
+        List<String> incrementalSellers = sellerRows(from, to);
+        assertThat(incrementalProducts).hasSize(3);
+        assertThat(incrementalSellers).hasSize(2);
+
+        SalesRollupRebuildResponse response = salesRollupService.rebuild(from, to);
+
+        assertThat(response.chunks()).isEqualTo(2);
+        assertThat(response.productRows()).isEqualTo(3);
+        assertThat(response.sellerRows()).isEqualTo(2);
+        assertThat(productRows(from, to)).isEqualTo(incrementalProducts);
+        assertThat(sellerRows(from, to)).isEqualTo(incrementalSellers);
+    }
+}
@@ -0,0 +1,121 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.dto.response.StockAlertScanResponse;
+import com.christn.salesinventoryapi.model.*;
+import com.christn.salesinventoryapi.repository.ProductBatchRepository;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.repository.StockAlertRepository;
+import com.christn.salesinventoryapi.repository.StockAlertScanRepository;
+import com.christn.salesinventoryapi.repository.projection.BatchExpiryView;
+import com.christn.salesinventoryapi.repository.projection.ProductStockLevel;
+import com.christn.salesinventoryapi.service.impl.StockAlertServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockAlertService Tests")
+@ActiveProfiles("test")
+public class StockAlertServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductBatchRepository productBatchRepository;
+
+    @Mock
+    private StockAlertRepository stockAlertRepository;
+
+    @Mock
+    private StockAlertScanRepository stockAlertScanRepository;
+
+    private StockAlertServiceImpl stockAlertService;
+
+    @BeforeEach
+    void setUp() {
+        stockAlertService = new StockAlertServiceImpl(productRepository, productBatchRepository,
+                stockAlertRepository, stockAlertScanRepository, 30, 5, 60);
+    }
+
+    // Helpers
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+
+    private static StockAlert openLowStock(Long productId, int qty) {
+        StockAlert alert = new StockAlert();
+        alert.setAlertType(StockAlertType.LOW_STOCK);
+        alert.setProduct(product(productId));
+        alert.setQuantity(qty);
+        alert.setThreshold(5);
+        return alert;
+    }
+
+    @Test
+    @DisplayName("First scan should examine every product and open low-stock and expiring alerts")
+    void scan_firstRun_opensAlerts() {
+        when(stockAlertScanRepository.findFirstByOrderByStartedAtDesc()).thenReturn(Optional.empty());
+        when(productRepository.findAllStockLevels()).thenReturn(List.of(
+                new ProductStockLevel(1L, 2, null, false),
+                new ProductStockLevel(2L, 50, null, false),
+                new ProductStockLevel(3L, 8, 10, false)
+        ));
+        when(productRepository.findPerishableIds()).thenReturn(List.of(1L));
+        when(productBatchRepository.findExpiringBetween(anyCollection(), any(), any())).thenReturn(List.of(
+                new BatchExpiryView(100L, 1L, 4, LocalDateTime.now().plusDays(3))
+        ));
+        when(productRepository.getReferenceById(anyLong())).thenAnswer(inv -> product(inv.getArgument(0)));
+        when(productBatchRepository.getReferenceById(100L)).thenReturn(new ProductBatch());
+
+        StockAlertScanResponse response = stockAlertService.scan();
+
+        assertThat(response.watermark()).isNull();
+        assertThat(response.productsExamined()).isEqualTo(3);
+        assertThat(response.batchesExamined()).isEqualTo(1);
+        assertThat(response.alertsOpened()).isEqualTo(3);
+        verify(stockAlertRepository).saveAll(argThat(alerts -> {
+            List<StockAlert> list = (List<StockAlert>) alerts;
+            return list.size() == 2 && list.stream().allMatch(a -> a.getAlertType() == StockAlertType.LOW_STOCK);
+        }));
+        verify(productBatchRepository, never()).findExpiryViewsChangedSince(any());
+        verify(stockAlertScanRepository).save(any(StockAlertScan.class));
+    }
+
+    @Test
+    @DisplayName("Incremental scan should only read changes since the watermark and resolve recovered alerts")
+    void scan_incremental_resolvesRecovered() {
+        StockAlertScan previous = new StockAlertScan();
+        previous.setStartedAt(LocalDateTime.now().minusMinutes(5));
+        previous.setExpiryHorizon(LocalDateTime.now().plusDays(30).minusMinutes(5));
+        when(stockAlertScanRepository.findFirstByOrderByStartedAtDesc()).thenReturn(Optional.of(previous));
+        when(productRepository.findStockLevelsChangedSince(any()))
+                .thenReturn(List.of(new ProductStockLevel(1L, 40, null, false)));
+        StockAlert open = openLowStock(1L, 2);
+        when(stockAlertRepository.findOpenLowStockByProductIds(anyCollection())).thenReturn(List.of(open));
+        when(productRepository.findPerishableIds()).thenReturn(List.of());
+        when(productBatchRepository.findExpiryViewsChangedSince(any())).thenReturn(List.of());
+
+        StockAlertScanResponse response = stockAlertService.scan();
+
+        assertThat(response.watermark()).isEqualTo(previous.getStartedAt().minusSeconds(60));
+        assertThat(response.alertsResolved()).isEqualTo(1);
+        assertThat(open.getStatus()).isEqualTo(StockAlertStatus.RESOLVED);
+        assertThat(open.getResolvedAt()).isNotNull();
+        verify(productRepository, never()).findAllStockLevels();
+    }
+}
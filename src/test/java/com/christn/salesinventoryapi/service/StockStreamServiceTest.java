@@ -0,0 +1,130 @@
+package com.christn.salesinventoryapi.service;
+
+import com.christn.salesinventoryapi.controller.StockStreamController;
+import com.christn.salesinventoryapi.dto.response.StockLevelResponse;
+import com.christn.salesinventoryapi.event.StockChangedEvent;
+import com.christn.salesinventoryapi.repository.ProductRepository;
+import com.christn.salesinventoryapi.service.impl.StockStreamServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockStreamService Tests")
+@ActiveProfiles("test")
+public class StockStreamServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    // Helpers
+    private StockStreamServiceImpl service(int maxSubscribers, int maxPending) {
+        return new StockStreamServiceImpl(productRepository, executor, maxSubscribers, maxPending, 60_000);
+    }
+
+    private static MockHttpServletResponse subscribe(StockStreamServiceImpl service, String... categoryIds)
+            throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StockStreamController(service)).build();
+        MockHttpServletRequestBuilder builder = get("/api/stock/stream");
+        if (categoryIds.length > 0) builder.param("categoryId", categoryIds);
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 2_000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated changes into one read and push only the subscribed category")
+    void flush_coalescesAndFiltersByCategory() throws Exception {
+        StockStreamServiceImpl service = service(10, 100);
+        MockHttpServletResponse response = subscribe(service, "10");
+        assertThat(service.subscribers()).isEqualTo(1);
+
+        when(productRepository.findStockLevelsByIds(anyCollection())).thenReturn(List.of(
+                new StockLevelResponse(1L, 10L, 7),
+                new StockLevelResponse(2L, 20L, 3)
+        ));
+
+        service.onStockChanged(new StockChangedEvent(List.of(1L)));
+        service.onStockChanged(new StockChangedEvent(List.of(1L, 2L)));
+        service.flush();
+
+        String content = awaitContent(response, "\"productId\":1");
+        assertThat(content).contains("event:ready");
+        assertThat(content).contains("event:stock");
+        assertThat(content).contains("\"productId\":1").contains("\"stock\":7");
+        assertThat(content).doesNotContain("\"productId\":2");
+        verify(productRepository, times(1)).findStockLevelsByIds(argThat(ids -> ids.size() == 2));
+
+        // sin cambios nuevos no se vuelve a leer
+        service.flush();
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should replace pending updates with a resync when a subscriber falls too far behind")
+    void flush_overflowSendsResync() throws Exception {
+        StockStreamServiceImpl service = service(10, 1);
+        MockHttpServletResponse response = subscribe(service);
+
+        when(productRepository.findStockLevelsByIds(anyCollection())).thenReturn(List.of(
+                new StockLevelResponse(1L, 10L, 7),
+                new StockLevelResponse(2L, 20L, 3)
+        ));
+
+        service.onStockChanged(new StockChangedEvent(List.of(1L, 2L)));
+        service.flush();
+
+        String content = awaitContent(response, "event:resync");
+        assertThat(content).contains("event:resync");
+        assertThat(content).doesNotContain("event:stock");
+    }
+
+    @Test
+    @DisplayName("Should reject subscriptions beyond the configured limit")
+    void subscribe_limitReached_throwsIllegalState() {
+        StockStreamServiceImpl service = service(0, 100);
+
+        assertThatThrownBy(() -> service.subscribe(Set.of()))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,128 @@
+package com.christn.salesinventoryapi.support;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sentencias JDBC ejecutadas por el hilo actual entre {@link #start()} y {@code close()}.
+ * Las registra {@link QueryCountDriver}; un executeBatch cuenta como una sola sentencia (un round trip).
+ * <pre>
+ * try (QueryCount.Recording sql = QueryCount.start()) {
+ *     mockMvc.perform(...);
+ *     sql.assertAtMost(8).assertNoNPlusOne();
+ * }
+ * </pre>
+ */
+public final class QueryCount {
+
+    // a partir de cuántas repeticiones de la misma forma de SELECT se considera N+1
+    public static final int N_PLUS_ONE_THRESHOLD = 3;
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("in\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private QueryCount() {
+    }
+
+    public static Recording start() {
+        if (CURRENT.get() != null) throw new IllegalStateException("Ya hay una grabación activa en este hilo");
+        Recording recording = new Recording();
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    static void record(String sql) {
+        Recording recording = CURRENT.get();
+        if (recording != null) recording.statements.add(sql);
+    }
+
+    // misma consulta con otros parámetros o listas IN de otro tamaño = misma forma
+    static String shape(String sql) {
+        String s = sql.toLowerCase(Locale.ROOT);
+        s = STRING_LITERAL.matcher(s).replaceAll("?");
+        s = NUMBER.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("in (?)");
+        return SPACES.matcher(s).replaceAll(" ").trim();
+    }
+
+    private static boolean isSelect(String shape) {
+        return shape.startsWith("select") || shape.startsWith("with");
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final List<String> statements = new ArrayList<>();
+
+        private Recording() {
+        }
+
+        public List<String> statements() {
+            return List.copyOf(statements);
+        }
+
+        public int count() {
+            return statements.size();
+        }
+
+        public long selects() {
+            return statements.stream().map(QueryCount::shape).filter(QueryCount::isSelect).count();
+        }
+
+        public void reset() {
+            statements.clear();
+        }
+
+        public Recording assertAtMost(int budget) {
+            if (statements.size() > budget) {
+                throw new AssertionError("Se esperaban como máximo " + budget + " sentencias SQL y se ejecutaron "
+                        + statements.size() + ":\n" + listing());
+            }
+            return this;
+        }
+
+        // lecturas: no dependen de cómo se agrupen las escrituras (IDENTITY no permite batch de inserts)
+        public Recording assertSelectsAtMost(int budget) {
+            if (selects() > budget) {
+                throw new AssertionError("Se esperaban como máximo " + budget + " SELECT y se ejecutaron "
+                        + selects() + ":\n" + listing());
+            }
+            return this;
+        }
+
+        /**
+         * Falla si la misma forma de SELECT se ejecuta {@link #N_PLUS_ONE_THRESHOLD} veces o más: una consulta por
+         * elemento de una colección en lugar de una sola con IN / JOIN FETCH.
+         */
+        public Recording assertNoNPlusOne() {
+            Map<String, Long> repeated = statements.stream()
+                    .map(QueryCount::shape)
+                    .filter(QueryCount::isSelect)
+                    .collect(Collectors.groupingBy(s -> s, LinkedHashMap::new, Collectors.counting()));
+            repeated.values().removeIf(n -> n < N_PLUS_ONE_THRESHOLD);
+            if (!repeated.isEmpty()) {
+                throw new AssertionError("Posible N+1: consultas repetidas\n" + repeated.entrySet().stream()
+                        .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                        .collect(Collectors.joining("\n")) + "\nSentencias:\n" + listing());
+            }
+            return this;
+        }
+
+        private String listing() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < statements.size(); i++) {
+                sb.append(String.format("  %2d. %s%n", i + 1, statements.get(i)));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+        }
+    }
+}
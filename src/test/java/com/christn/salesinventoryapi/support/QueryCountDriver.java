@@ -0,0 +1,120 @@
+package com.christn.salesinventoryapi.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Driver JDBC que envuelve al real para contar sentencias en {@link QueryCount}:
+ * {@code jdbc:query-count:h2:mem:...} abre {@code jdbc:h2:mem:...}. Al ir por la URL, lo ven todos los pools
+ * (también los de los bulkheads, que copian la configuración del principal).
+ */
+public class QueryCountDriver implements Driver {
+
+    public static final String PREFIX = "jdbc:query-count:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new QueryCountDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) return null;
+        String target = "jdbc:" + url.substring(PREFIX.length());
+        Connection connection = DriverManager.getDriver(target).connect(target, info);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryCountDriver.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryCountDriver.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler(result, (String) args[0]));
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler(result, (String) args[0]));
+                case "createStatement" -> proxy(Statement.class, new StatementHandler(result, null));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String sql;
+        private int batched;
+        private String batchedSql;
+
+        private StatementHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batched++;
+                if (args != null && args.length == 1 && args[0] instanceof String s) batchedSql = s;
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                if (batched > 0) QueryCount.record(sql != null ? sql : batchedSql);
+                batched = 0;
+            } else if (name.startsWith("execute")) {
+                QueryCount.record(args != null && args.length > 0 && args[0] instanceof String s ? s : sql);
+            }
+            return QueryCountDriver.invoke(target, method, args);
+        }
+    }
+}
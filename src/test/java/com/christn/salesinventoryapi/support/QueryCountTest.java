@@ -0,0 +1,51 @@
+package com.christn.salesinventoryapi.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("QueryCount Tests")
+public class QueryCountTest {
+
+    @Test
+    @DisplayName("Same query with other parameters or IN-list sizes should have the same shape")
+    void shape_ignoresLiteralsAndInListSize() {
+        assertThat(QueryCount.shape("select * from products where id in (?, ?, ?) and name = 'x'"))
+                .isEqualTo(QueryCount.shape("SELECT *  FROM products WHERE id IN (?) AND name = 'it''s'"));
+        assertThat(QueryCount.shape("select * from categories c1_0 where c1_0.id=12"))
+                .isEqualTo("select * from categories c1_0 where c1_0.id=?");
+    }
+
+    @Test
+    @DisplayName("Should flag a SELECT repeated per element and ignore repeated writes")
+    void assertNoNPlusOne() {
+        try (QueryCount.Recording sql = QueryCount.start()) {
+            QueryCount.record("select * from products");
+            for (int i = 0; i < 3; i++) QueryCount.record("insert into movement_items values (?, ?)");
+            sql.assertNoNPlusOne();
+
+            for (int i = 1; i <= 3; i++) QueryCount.record("select * from categories where id=" + i);
+            assertThatThrownBy(sql::assertNoNPlusOne)
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("3x select * from categories where id=?");
+            assertThat(sql.count()).isEqualTo(7);
+            assertThat(sql.selects()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    @DisplayName("Should only record statements of the thread that started the recording")
+    void record_isThreadBound() throws Exception {
+        try (QueryCount.Recording sql = QueryCount.start()) {
+            Thread other = new Thread(() -> QueryCount.record("select 1"));
+            other.start();
+            other.join();
+            QueryCount.record("select 2");
+
+            assertThat(sql.statements()).containsExactly("select 2");
+            assertThatThrownBy(() -> sql.assertAtMost(0)).hasMessageContaining("select 2");
+        }
+    }
+}
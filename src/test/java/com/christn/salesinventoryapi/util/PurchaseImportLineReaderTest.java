@@ -0,0 +1,152 @@
+package com.christn.salesinventoryapi.util;
+
+import com.christn.salesinventoryapi.dto.request.PurchaseImportFormat;
+import com.christn.salesinventoryapi.dto.request.PurchaseImportLine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PurchaseImportLineReader Tests")
+public class PurchaseImportLineReaderTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    // Helpers
+    private PurchaseImportLineReader reader(PurchaseImportFormat format, String content) {
+        return new PurchaseImportLineReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                format, jsonMapper);
+    }
+
+    private List<PurchaseImportLine> readAll(PurchaseImportFormat format, String content) throws IOException {
+        List<PurchaseImportLine> lines = new ArrayList<>();
+        try (PurchaseImportLineReader reader = reader(format, content)) {
+            PurchaseImportLine line;
+            while ((line = reader.next()) != null) lines.add(line);
+        }
+        return lines;
+    }
+
+    @Nested
+    @DisplayName("CSV Tests")
+    class CsvTests {
+
+        @Test
+        @DisplayName("Should map columns by header name, in any order and case")
+        void csv_WithReorderedHeader_ShouldMapByName() throws IOException {
+            String csv = """
+                    Quantity,expiresAt,UNITCOST,batchCode,productId
+                    12,2030-05-01,3.50,L-1,7
+                    4,2030-05-01T08:30,1.25,,9
+                    """;
+
+            List<PurchaseImportLine> lines = readAll(PurchaseImportFormat.CSV, csv);
+
+            assertThat(lines).containsExactly(
+                    new PurchaseImportLine(7L, new BigDecimal("3.50"), 12, "L-1", LocalDateTime.of(2030, 5, 1, 0, 0)),
+                    new PurchaseImportLine(9L, new BigDecimal("1.25"), 4, null, LocalDateTime.of(2030, 5, 1, 8, 30))
+            );
+        }
+
+        @Test
+        @DisplayName("Should strip a UTF-8 BOM before the header")
+        void csv_WithBom_ShouldReadHeader() throws IOException {
+            List<PurchaseImportLine> lines = readAll(PurchaseImportFormat.CSV,
+                    "\uFEFFproductId,unitCost,quantity\n7,3.50,12\n");
+
+            assertThat(lines).containsExactly(new PurchaseImportLine(7L, new BigDecimal("3.50"), 12, null, null));
+        }
+
+        @Test
+        @DisplayName("Should keep commas and escaped quotes inside quoted values")
+        void csv_WithQuotedValues_ShouldUnquote() throws IOException {
+            List<PurchaseImportLine> lines = readAll(PurchaseImportFormat.CSV,
+                    "productId,unitCost,quantity,batchCode\n7,3.50,12,\"L-1, caja \"\"A\"\"\"\n");
+
+            assertThat(lines.getFirst().batchCode()).isEqualTo("L-1, caja \"A\"");
+            assertThat(PurchaseImportLineReader.splitCsv("a,\"b,c\",,\"\"")).containsExactly("a", "b,c", "", "");
+        }
+
+        @Test
+        @DisplayName("Should skip blank lines and still count them in line numbers")
+        void csv_WithBlankLines_ShouldSkipAndCount() throws IOException {
+            try (PurchaseImportLineReader reader = reader(PurchaseImportFormat.CSV,
+                    "\nproductId,unitCost,quantity\n\n7,3.50,12\n   \n9,1.00,1\n")) {
+                assertThat(reader.next().productId()).isEqualTo(7L);
+                assertThat(reader.lineNumber()).isEqualTo(4);
+                assertThat(reader.next().productId()).isEqualTo(9L);
+                assertThat(reader.lineNumber()).isEqualTo(6);
+                assertThat(reader.next()).isNull();
+            }
+        }
+
+        @Test
+        @DisplayName("Should report the file line number of a malformed value")
+        void csv_WithBadValue_ShouldReportLineNumber() throws IOException {
+            try (PurchaseImportLineReader reader = reader(PurchaseImportFormat.CSV,
+                    "productId,unitCost,quantity,expiresAt\n7,3.50,12,\n\n9,1.00,doce,\n")) {
+                reader.next();
+                assertThatThrownBy(reader::next)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("Línea 4: valor con formato incorrecto");
+            }
+        }
+
+        @Test
+        @DisplayName("Should report a malformed date as a bad value")
+        void csv_WithBadDate_ShouldReportLineNumber() {
+            assertThatThrownBy(() -> readAll(PurchaseImportFormat.CSV,
+                    "productId,unitCost,quantity,expiresAt\n7,3.50,12,01/05/2030\n"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Línea 2: valor con formato incorrecto");
+        }
+
+        @Test
+        @DisplayName("Should reject a header without a required column")
+        void csv_WithMissingColumn_ShouldThrow() {
+            assertThatThrownBy(() -> readAll(PurchaseImportFormat.CSV, "productId,quantity\n7,12\n"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Cabecera CSV inválida: falta la columna unitcost");
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON Tests")
+    class NdjsonTests {
+
+        @Test
+        @DisplayName("Should read one line per JSON object, skipping blank lines and a BOM")
+        void ndjson_WithBomAndBlankLines_ShouldReadAll() throws IOException {
+            String ndjson = "\uFEFF{\"productId\":7,\"unitCost\":3.50,\"quantity\":12}\n\n"
+                    + "{\"productId\":9,\"unitCost\":1.25,\"quantity\":4,\"batchCode\":\"L-9\","
+                    + "\"expiresAt\":\"2030-05-01T00:00:00\"}\n";
+
+            List<PurchaseImportLine> lines = readAll(PurchaseImportFormat.NDJSON, ndjson);
+
+            assertThat(lines).containsExactly(
+                    new PurchaseImportLine(7L, new BigDecimal("3.50"), 12, null, null),
+                    new PurchaseImportLine(9L, new BigDecimal("1.25"), 4, "L-9", LocalDateTime.of(2030, 5, 1, 0, 0))
+            );
+        }
+
+        @Test
+        @DisplayName("Should report the line number of invalid JSON")
+        void ndjson_WithInvalidJson_ShouldReportLineNumber() {
+            assertThatThrownBy(() -> readAll(PurchaseImportFormat.NDJSON,
+                    "{\"productId\":7,\"unitCost\":3.50,\"quantity\":12}\n\n{\"productId\":\n"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Línea 3: JSON inválido");
+        }
+    }
+}